@@ -2,17 +2,21 @@ package com.pocketcombats.openskill;
 
 import com.pocketcombats.openskill.data.PlayerResult;
 import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.RatingDerivation;
+import com.pocketcombats.openskill.data.SimpleTeamResult;
 import com.pocketcombats.openskill.data.TeamResult;
 import com.pocketcombats.openskill.model.AdjustmentFactors;
 import com.pocketcombats.openskill.model.RatingModel;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class Adjudicator<T> {
 
     private final RatingModel ratingModel;
 
-    private final double tauSquared;
+    private final RatingDerivation derivation;
     private final double kappa;
     private final boolean limitSigma;
 
@@ -22,7 +26,7 @@ public class Adjudicator<T> {
     ) {
         this.ratingModel = ratingModel;
 
-        this.tauSquared = config.tau() * config.tau();
+        this.derivation = RatingDerivation.of(config);
         this.kappa = config.kappa();
         this.limitSigma = config.limitSigma();
     }
@@ -38,19 +42,84 @@ public class Adjudicator<T> {
     }
 
     public List<RatingAdjustment<T>> rate(List<? extends TeamResult<T>> teamResults) {
-        return teamResults.stream()
-                .flatMap(teamResult -> {
-                    List<? extends TeamResult<T>> opponents = teamResults.stream()
-                            .filter(r -> !r.equals(teamResult))
-                            .toList();
-                    AdjustmentFactors adjustmentFactors =
-                            ratingModel.calculateAdjustmentFactors(teamResult, opponents);
-                    return teamResult.players().stream()
-                            .map(playerResult ->
-                                    calculatePlayerRatingAdjustment(teamResult, adjustmentFactors, playerResult)
-                            );
-                })
-                .toList();
+        return adjust(teamResults, ratingModel.calculateAdjustmentFactors(teamResults));
+    }
+
+    /**
+     * Rates a single match with many teams, computing the adjustment factors in the pool,
+     * see {@link RatingModel#calculateAdjustmentFactors(List, ForkJoinPool)}.
+     */
+    public List<RatingAdjustment<T>> rate(List<? extends TeamResult<T>> teamResults, ForkJoinPool pool) {
+        return adjust(teamResults, ratingModel.calculateAdjustmentFactors(teamResults, pool));
+    }
+
+    /**
+     * Previews the adjustments of every player for every finishing position of its team, and for a draw of all
+     * teams, before the match. Ranks of the given teams are ignored.
+     */
+    public OutcomePreview<T> preview(List<? extends TeamResult<T>> teamResults) {
+        List<List<AdjustmentFactors>> previewFactors = ratingModel.calculatePreviewAdjustmentFactors(teamResults);
+        List<TeamResult<T>> tied = new ArrayList<>(teamResults.size());
+        for (TeamResult<T> teamResult : teamResults) {
+            tied.add(new SimpleTeamResult<>(
+                    teamResult.mu(),
+                    teamResult.sigma(),
+                    1,
+                    teamResult.weight(),
+                    teamResult.players()
+            ));
+        }
+        List<AdjustmentFactors> drawFactors = ratingModel.calculateAdjustmentFactors(tied);
+
+        List<List<List<RatingAdjustment<T>>>> positions = new ArrayList<>(teamResults.size());
+        List<List<RatingAdjustment<T>>> draws = new ArrayList<>(teamResults.size());
+        for (int i = 0; i < teamResults.size(); i++) {
+            TeamResult<T> teamResult = teamResults.get(i);
+            List<List<RatingAdjustment<T>>> teamPositions = new ArrayList<>(teamResults.size());
+            for (AdjustmentFactors factors : previewFactors.get(i)) {
+                teamPositions.add(adjust(teamResult, factors));
+            }
+            positions.add(teamPositions);
+            draws.add(adjust(teamResult, drawFactors.get(i)));
+        }
+        return new OutcomePreview<>(positions, draws);
+    }
+
+    /**
+     * Rates a partially ordered result, see {@link RatingModel#calculateTopKAdjustmentFactors}.
+     *
+     * @param placed     top teams with known placement
+     * @param eliminated remaining teams, each ranked below every placed team
+     * @return adjustments of the placed teams' players followed by the eliminated teams' players
+     */
+    public List<RatingAdjustment<T>> rateTopK(
+            List<? extends TeamResult<T>> placed,
+            List<? extends TeamResult<T>> eliminated
+    ) {
+        List<AdjustmentFactors> adjustmentFactors = ratingModel.calculateTopKAdjustmentFactors(placed, eliminated);
+        List<TeamResult<T>> teamResults = new ArrayList<>(placed.size() + eliminated.size());
+        teamResults.addAll(placed);
+        teamResults.addAll(eliminated);
+        return adjust(teamResults, adjustmentFactors);
+    }
+
+    List<RatingAdjustment<T>> adjust(
+            List<? extends TeamResult<T>> teamResults,
+            List<AdjustmentFactors> adjustmentFactors
+    ) {
+        List<RatingAdjustment<T>> adjustments = new ArrayList<>();
+        for (int i = 0; i < teamResults.size(); i++) {
+            adjustments.addAll(adjust(teamResults.get(i), adjustmentFactors.get(i)));
+        }
+        return adjustments;
+    }
+
+    private List<RatingAdjustment<T>> adjust(TeamResult<T> teamResult, AdjustmentFactors adjustmentFactors) {
+        List<RatingAdjustment<T>> adjustments = new ArrayList<>(teamResult.players().size());
+        for (PlayerResult<T> playerResult : teamResult.players()) {
+            adjustments.add(calculatePlayerRatingAdjustment(teamResult, adjustmentFactors, playerResult));
+        }
+        return adjustments;
     }
 
     private RatingAdjustment<T> calculatePlayerRatingAdjustment(
@@ -60,10 +129,10 @@ public class Adjudicator<T> {
     ) {
         double mu = playerResult.mu();
         double sigma;
-        double teamSigmaSquared = teamResult.sigma() * teamResult.sigma();
+        double teamSigmaSquared = teamResult.sigmaSquared();
         // Calculate adjusted sigma including tau
-        double adjustedSigmaSquared = (playerResult.sigma() * playerResult.sigma()) + tauSquared;
-        double adjustedSigma = Math.sqrt(adjustedSigmaSquared);
+        double adjustedSigmaSquared = derivation.adjustedSigmaSquared(playerResult);
+        double adjustedSigma = derivation.adjustedSigma(playerResult);
 
         double omega = adjustmentFactors.omega();
         double delta = adjustmentFactors.delta();
@@ -0,0 +1,51 @@
+package com.pocketcombats.openskill;
+
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.TeamResult;
+import com.pocketcombats.openskill.model.AdjustmentFactors;
+import com.pocketcombats.openskill.model.EnsembleModel;
+import com.pocketcombats.openskill.model.RatingModelEnsemble;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rates a match with several models at once, for example to compare them on live traffic.
+ * Adjustment factors are computed by a {@link RatingModelEnsemble} in a single pass over the match.
+ */
+public class EnsembleAdjudicator<T> {
+
+    private final RatingModelEnsemble ensemble;
+    private final Map<EnsembleModel, Adjudicator<T>> adjudicators = new EnumMap<>(EnsembleModel.class);
+
+    public EnsembleAdjudicator(RatingModelConfig config) {
+        this(config, EnumSet.allOf(EnsembleModel.class));
+    }
+
+    public EnsembleAdjudicator(RatingModelConfig config, Set<EnsembleModel> models) {
+        this.ensemble = new RatingModelEnsemble(config, models);
+        for (EnsembleModel model : ensemble.models()) {
+            adjudicators.put(model, new Adjudicator<>(config, model.create(config)));
+        }
+    }
+
+    /**
+     * @return rating adjustments of every configured model, each as {@link Adjudicator#rate(List)} would return
+     */
+    public Map<EnsembleModel, List<RatingAdjustment<T>>> rate(List<? extends TeamResult<T>> teamResults) {
+        Map<EnsembleModel, List<AdjustmentFactors>> adjustmentFactors =
+                ensemble.calculateAdjustmentFactors(teamResults);
+        Map<EnsembleModel, List<RatingAdjustment<T>>> adjustments = new EnumMap<>(EnsembleModel.class);
+        adjustmentFactors.forEach((model, factors) ->
+                adjustments.put(model, adjudicators.get(model).adjust(teamResults, factors))
+        );
+        return adjustments;
+    }
+
+    public Set<EnsembleModel> models() {
+        return ensemble.models();
+    }
+}
@@ -0,0 +1,87 @@
+package com.pocketcombats.openskill;
+
+import com.pocketcombats.openskill.aggregate.TeamRatingAggregator;
+import com.pocketcombats.openskill.data.DerivedPlayerResult;
+import com.pocketcombats.openskill.data.DerivedRating;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.PlayerRecord;
+import com.pocketcombats.openskill.data.PlayerResult;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.SimplePlayerResult;
+import com.pocketcombats.openskill.data.SimpleTeamResult;
+import com.pocketcombats.openskill.data.TeamRecord;
+import com.pocketcombats.openskill.data.TeamResult;
+import com.pocketcombats.openskill.model.RatingModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Rates {@link MatchRecord}s against player ratings resolved at rating time.
+ * Team ratings are computed with the configured {@link TeamRatingAggregator}.
+ */
+public class MatchRater<T> {
+
+    private final Adjudicator<T> adjudicator;
+    private final TeamRatingAggregator teamRatingAggregator;
+
+    public MatchRater(
+            RatingModelConfig config,
+            RatingModel ratingModel,
+            TeamRatingAggregator teamRatingAggregator
+    ) {
+        this(new Adjudicator<>(config, ratingModel), teamRatingAggregator);
+    }
+
+    public MatchRater(Adjudicator<T> adjudicator, TeamRatingAggregator teamRatingAggregator) {
+        this.adjudicator = adjudicator;
+        this.teamRatingAggregator = teamRatingAggregator;
+    }
+
+    /**
+     * @param match   match to rate
+     * @param ratings current rating of every match participant
+     * @return rating adjustments for all participants, in the order they appear in the match
+     */
+    public List<RatingAdjustment<T>> rate(
+            MatchRecord<T> match,
+            Function<? super T, ? extends MatchMakingRating> ratings
+    ) {
+        return adjudicator.rate(toTeamResults(match, ratings));
+    }
+
+    public List<TeamResult<T>> toTeamResults(
+            MatchRecord<T> match,
+            Function<? super T, ? extends MatchMakingRating> ratings
+    ) {
+        List<TeamResult<T>> teamResults = new ArrayList<>(match.teams().size());
+        for (TeamRecord<T> team : match.teams()) {
+            List<PlayerResult<T>> players = new ArrayList<>(team.players().size());
+            for (PlayerRecord<T> player : team.players()) {
+                MatchMakingRating rating = ratings.apply(player.id());
+                players.add(rating instanceof DerivedRating derived
+                        ? new DerivedPlayerResult<>(player.id(), derived, player.weight())
+                        : new SimplePlayerResult<>(player.id(), rating.mu(), rating.sigma(), player.weight()));
+            }
+            MatchMakingRating teamRating = teamRatingAggregator.computeTeamRating(players);
+            teamResults.add(new SimpleTeamResult<>(
+                    teamRating.mu(),
+                    teamRating.sigma(),
+                    team.rank(),
+                    team.weight(),
+                    players
+            ));
+        }
+        return teamResults;
+    }
+
+    public Adjudicator<T> adjudicator() {
+        return adjudicator;
+    }
+
+    public TeamRatingAggregator teamRatingAggregator() {
+        return teamRatingAggregator;
+    }
+}
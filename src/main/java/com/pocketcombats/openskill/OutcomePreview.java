@@ -0,0 +1,59 @@
+package com.pocketcombats.openskill;
+
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.model.RatingModel;
+
+import java.util.List;
+
+/**
+ * Rating adjustments of every player for every finishing position of its team, as computed by
+ * {@link Adjudicator#preview}. A team finishing at a position is preceded by the strongest of the other teams,
+ * see {@link RatingModel#calculatePreviewAdjustmentFactors}.
+ */
+public final class OutcomePreview<T> {
+
+    private final List<List<List<RatingAdjustment<T>>>> positions;
+    private final List<List<RatingAdjustment<T>>> draws;
+
+    OutcomePreview(List<List<List<RatingAdjustment<T>>>> positions, List<List<RatingAdjustment<T>>> draws) {
+        this.positions = positions;
+        this.draws = draws;
+    }
+
+    public int teamCount() {
+        return positions.size();
+    }
+
+    /**
+     * @param team     index of the team in the previewed lineup
+     * @param position finishing position, 1 for the first place
+     * @return adjustments of the team's players in the order of the team's players
+     */
+    public List<RatingAdjustment<T>> adjustments(int team, int position) {
+        if (position < 1 || position > positions.size()) {
+            throw new IndexOutOfBoundsException("Position " + position + " of " + positions.size());
+        }
+        return positions.get(team).get(position - 1);
+    }
+
+    /**
+     * For two teams, finishing first is a win.
+     */
+    public List<RatingAdjustment<T>> winAdjustments(int team) {
+        return adjustments(team, 1);
+    }
+
+    /**
+     * For two teams, finishing last is a loss.
+     */
+    public List<RatingAdjustment<T>> lossAdjustments(int team) {
+        return adjustments(team, positions.size());
+    }
+
+    /**
+     * @return adjustments of the team's players when all teams share the first place
+     */
+    public List<RatingAdjustment<T>> drawAdjustments(int team) {
+        return draws.get(team);
+    }
+}
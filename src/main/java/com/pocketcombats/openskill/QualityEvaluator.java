@@ -34,7 +34,7 @@ public class QualityEvaluator {
         if (deltaMu < 1E-3) {
             return 1;
         }
-        double sigmaCombined = Math.sqrt(teamA.sigma() * teamA.sigma() + teamB.sigma() * teamB.sigma() + betaSquared);
+        double sigmaCombined = Math.sqrt(teamA.sigmaSquared() + teamB.sigmaSquared() + betaSquared);
         double z = deltaMu / sigmaCombined;
         double teamAWinChance = Gaussian.cdf(z);
         return 1 - Math.abs(teamAWinChance - 0.5) * 2;
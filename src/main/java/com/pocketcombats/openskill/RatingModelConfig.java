@@ -44,6 +44,21 @@ public record RatingModelConfig(
         return new Builder();
     }
 
+    /**
+     * @return builder initialized with the given configuration values
+     */
+    public static Builder builder(RatingModelConfig config) {
+        return new Builder()
+                .setBeta(config.beta())
+                .setLimitSigma(config.limitSigma())
+                .setKappa(config.kappa())
+                .setTau(config.tau())
+                .setBalance(config.balance().enable())
+                .setZ(config.balance().z())
+                .setAlpha(config.balance().alpha())
+                .setTarget(config.balance().target());
+    }
+
     public static final class Builder {
 
         private double beta = 25.0 / 6;
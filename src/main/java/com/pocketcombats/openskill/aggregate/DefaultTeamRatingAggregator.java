@@ -2,30 +2,23 @@ package com.pocketcombats.openskill.aggregate;
 
 import com.pocketcombats.openskill.RatingModelConfig;
 import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.RatingDerivation;
 import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
 
 import java.util.Collection;
-import java.util.IdentityHashMap;
-import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
 
 public class DefaultTeamRatingAggregator implements TeamRatingAggregator {
 
     private final double kappa;
-    private final double tauSquared;
     private final boolean balance;
-    private final double alpha;
-    private final double z;
-    private final double target;
+    private final RatingDerivation derivation;
 
     public DefaultTeamRatingAggregator(RatingModelConfig config) {
         this.kappa = config.kappa();
-        this.tauSquared = config.tau() * config.tau();
         this.balance = config.balance().enable();
-        this.alpha = config.balance().alpha();
-        this.z = config.balance().z();
-        this.target = config.balance().target();
+        this.derivation = RatingDerivation.of(config);
     }
 
     @Override
@@ -41,40 +34,33 @@ public class DefaultTeamRatingAggregator implements TeamRatingAggregator {
     }
 
     private MatchMakingRating computeBalanced(Collection<? extends MatchMakingRating> playerRatings) {
-        Map<MatchMakingRating, Double> playerOrdinals = playerRatings.stream()
-                .collect(Collectors.toMap(
-                        Function.identity(),
-                        this::ordinal,
-                        (o1, o2) -> o1,
-                        IdentityHashMap::new
-                ));
-        double maxOrdinal = playerOrdinals.values().stream()
-                .max(Double::compareTo)
-                .orElseThrow();
-        double teamMu = playerRatings.stream()
-                .mapToDouble(playerRating -> {
-                    // Calculate balance weight based on ordinal difference
-                    double ordinalDiff = maxOrdinal - playerOrdinals.get(playerRating);
-                    double balanceWeight = 1.0 + (ordinalDiff / (maxOrdinal + kappa));
-                    return playerRating.mu() * balanceWeight;
-                }).sum();
+        MatchMakingRating[] ratings = playerRatings.toArray(new MatchMakingRating[0]);
+        if (ratings.length == 0) {
+            throw new NoSuchElementException("Team has no players");
+        }
+        double[] balanceWeights = new double[ratings.length];
+        double maxOrdinal = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < ratings.length; i++) {
+            balanceWeights[i] = derivation.ordinal(ratings[i]);
+            maxOrdinal = Math.max(maxOrdinal, balanceWeights[i]);
+        }
+        for (int i = 0; i < ratings.length; i++) {
+            // Calculate balance weight based on ordinal difference
+            double ordinalDiff = maxOrdinal - balanceWeights[i];
+            balanceWeights[i] = 1.0 + (ordinalDiff / (maxOrdinal + kappa));
+        }
+        double teamMu = IntStream.range(0, ratings.length)
+                .mapToDouble(i -> ratings[i].mu() * balanceWeights[i])
+                .sum();
         double teamSigma = Math.sqrt(
-                playerRatings.stream()
-                        .mapToDouble(playerRating -> {
-                            // Calculate balance weight based on ordinal difference
-                            double ordinalDiff = maxOrdinal - playerOrdinals.get(playerRating);
-                            double balanceWeight = 1.0 + (ordinalDiff / (maxOrdinal + kappa));
-                            return adjustedSigmaSquared(playerRating) * balanceWeight;
-                        }).sum()
+                IntStream.range(0, ratings.length)
+                        .mapToDouble(i -> adjustedSigmaSquared(ratings[i]) * balanceWeights[i])
+                        .sum()
         );
         return new SimpleMatchMakingRating(teamMu, teamSigma);
     }
 
     protected double adjustedSigmaSquared(MatchMakingRating playerRating) {
-        return (playerRating.sigma() * playerRating.sigma()) + tauSquared;
-    }
-
-    private double ordinal(MatchMakingRating playerRating) {
-        return alpha * (playerRating.mu() - z * playerRating.sigma()) + (target / alpha);
+        return derivation.adjustedSigmaSquared(playerRating);
     }
 }
@@ -26,7 +26,7 @@ public class WeightedTeamRatingAggregator implements TeamRatingAggregator {
 
         for (var rating : ratings) {
             // Weight inversely proportional to sigma squared
-            double weight = 1 / (rating.sigma() * rating.sigma());
+            double weight = 1 / rating.sigmaSquared();
             weightedMuSum += rating.mu() * weight;
             weightSum += weight;
         }
@@ -44,7 +44,7 @@ public class WeightedTeamRatingAggregator implements TeamRatingAggregator {
 
         // Calculate the sum of inverse variances for each player's sigma
         for (var rating : ratings) {
-            weightSum += 1 / (rating.sigma() * rating.sigma());
+            weightSum += 1 / rating.sigmaSquared();
         }
 
         return Math.sqrt(1 / weightSum);
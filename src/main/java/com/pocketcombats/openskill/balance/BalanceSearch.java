@@ -0,0 +1,419 @@
+package com.pocketcombats.openskill.balance;
+
+import com.pocketcombats.openskill.QualityEvaluator;
+import com.pocketcombats.openskill.aggregate.TeamRatingAggregator;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * Search state of a single {@link TeamBalancer} roster. Players are grouped into units, a party or a single player,
+ * and a split assigns every unit to a team.
+ */
+final class BalanceSearch {
+
+    private static final int PERTURBATION_SWAPS = 2;
+
+    private final TeamRatingAggregator teamRatingAggregator;
+    private final QualityEvaluator qualityEvaluator;
+    private final MatchMakingRating[] playerRatings;
+    private final int[][] units;
+    private final double[] unitMu;
+    private final int teamCount;
+    private final int teamSize;
+    private final long deadline;
+    private final SplittableRandom random;
+
+    BalanceSearch(
+            TeamRatingAggregator teamRatingAggregator,
+            QualityEvaluator qualityEvaluator,
+            MatchMakingRating[] playerRatings,
+            int[][] units,
+            int teamCount,
+            long deadline,
+            SplittableRandom random
+    ) {
+        this.teamRatingAggregator = teamRatingAggregator;
+        this.qualityEvaluator = qualityEvaluator;
+        this.playerRatings = playerRatings;
+        this.units = units;
+        this.teamCount = teamCount;
+        this.teamSize = playerRatings.length / teamCount;
+        this.deadline = deadline;
+        this.random = random;
+        this.unitMu = new double[units.length];
+        for (int unit = 0; unit < units.length; unit++) {
+            for (int player : units[unit]) {
+                unitMu[unit] += playerRatings[player].mu();
+            }
+        }
+    }
+
+    /**
+     * @param unitTeams   team of every unit
+     * @param teamRatings aggregated rating of every team
+     * @param quality     quality of the least balanced pair of teams
+     * @param spread      sum of mu differences over all pairs of teams, breaks ties in quality
+     */
+    record Split(int[] unitTeams, MatchMakingRating[] teamRatings, double quality, double spread) {
+
+        boolean isBetterThan(Split other) {
+            return quality > other.quality || quality == other.quality && spread < other.spread;
+        }
+    }
+
+    Split run() {
+        int[] seed = differencingSplit();
+        if (seed == null) {
+            seed = packingSplit();
+        }
+        if (seed == null) {
+            throw new IllegalArgumentException("Parties do not fit into " + teamCount + " teams of " + teamSize);
+        }
+        Split best = localSearch(evaluate(seed));
+        while (best.quality() < 1 && System.nanoTime() < deadline) {
+            int[] perturbed = perturb(best.unitTeams());
+            if (perturbed == null) {
+                break;
+            }
+            Split candidate = localSearch(evaluate(perturbed));
+            if (candidate.isBetterThan(best)) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Balanced largest differencing: single players sorted by mu are dealt in rounds of one player per team, and
+     * partial splits are merged pairwise starting from the most unbalanced ones, joining the heaviest team of one
+     * with the lightest team of the other, as in Karmarkar-Karp. Parties start as partial splits of their own.
+     *
+     * @return split, or {@code null} if merging could not keep team sizes within bounds
+     */
+    private int[] differencingSplit() {
+        PriorityQueue<PartialSplit> queue = new PriorityQueue<>(
+                Comparator.comparingDouble(PartialSplit::difference).reversed()
+                        .thenComparingInt(PartialSplit::order)
+        );
+        List<Integer> singles = new ArrayList<>();
+        for (int unit = 0; unit < units.length; unit++) {
+            if (units[unit].length == 1) {
+                singles.add(unit);
+            } else {
+                PartialSplit split = new PartialSplit(teamCount, queue.size());
+                split.add(0, unit);
+                queue.add(split);
+            }
+        }
+        singles.sort(Comparator.comparingDouble((Integer unit) -> unitMu[unit]).reversed());
+        for (int from = 0; from < singles.size(); from += teamCount) {
+            PartialSplit split = new PartialSplit(teamCount, queue.size());
+            for (int team = 0; team < teamCount && from + team < singles.size(); team++) {
+                split.add(team, singles.get(from + team));
+            }
+            queue.add(split);
+        }
+        int order = queue.size();
+        while (queue.size() > 1) {
+            PartialSplit merged = merge(queue.poll(), queue.poll(), order++);
+            if (merged == null) {
+                return null;
+            }
+            queue.add(merged);
+        }
+        int[] unitTeams = new int[units.length];
+        PartialSplit split = queue.poll();
+        for (int team = 0; team < teamCount; team++) {
+            for (int unit : split.teams.get(team)) {
+                unitTeams[unit] = team;
+            }
+        }
+        return unitTeams;
+    }
+
+    private PartialSplit merge(PartialSplit first, PartialSplit second, int order) {
+        Integer[] heaviest = first.teamsBySum();
+        Integer[] lightest = second.teamsBySum();
+        Collections.reverse(Arrays.asList(lightest));
+        boolean[] used = new boolean[teamCount];
+        PartialSplit merged = new PartialSplit(teamCount, order);
+        for (int i = 0; i < teamCount; i++) {
+            int team = heaviest[i];
+            int match = -1;
+            for (int candidate : lightest) {
+                if (!used[candidate] && first.sizes[team] + second.sizes[candidate] <= teamSize) {
+                    match = candidate;
+                    break;
+                }
+            }
+            if (match < 0) {
+                return null;
+            }
+            used[match] = true;
+            for (int unit : first.teams.get(team)) {
+                merged.add(i, unit);
+            }
+            for (int unit : second.teams.get(match)) {
+                merged.add(i, unit);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Fallback when differencing fails on awkward party sizes: an exhaustive packing of parties into teams,
+     * then single players by decreasing mu into the lightest team with room.
+     */
+    private int[] packingSplit() {
+        List<Integer> parties = new ArrayList<>();
+        List<Integer> singles = new ArrayList<>();
+        for (int unit = 0; unit < units.length; unit++) {
+            (units[unit].length > 1 ? parties : singles).add(unit);
+        }
+        parties.sort(Comparator.comparingInt((Integer unit) -> units[unit].length).reversed());
+        int[] unitTeams = new int[units.length];
+        int[] room = new int[teamCount];
+        Arrays.fill(room, teamSize);
+        if (!pack(parties, 0, unitTeams, room)) {
+            return null;
+        }
+        double[] sums = new double[teamCount];
+        for (int party : parties) {
+            sums[unitTeams[party]] += unitMu[party];
+        }
+        singles.sort(Comparator.comparingDouble((Integer unit) -> unitMu[unit]).reversed());
+        for (int single : singles) {
+            int lightest = -1;
+            for (int team = 0; team < teamCount; team++) {
+                if (room[team] > 0 && (lightest < 0 || sums[team] < sums[lightest])) {
+                    lightest = team;
+                }
+            }
+            unitTeams[single] = lightest;
+            room[lightest]--;
+            sums[lightest] += unitMu[single];
+        }
+        return unitTeams;
+    }
+
+    private boolean pack(List<Integer> parties, int next, int[] unitTeams, int[] room) {
+        if (next == parties.size()) {
+            return true;
+        }
+        int party = parties.get(next);
+        int size = units[party].length;
+        for (int team = 0; team < teamCount; team++) {
+            if (room[team] < size || alreadyTried(room, team)) {
+                continue;
+            }
+            room[team] -= size;
+            unitTeams[party] = team;
+            if (pack(parties, next + 1, unitTeams, room)) {
+                return true;
+            }
+            room[team] += size;
+        }
+        return false;
+    }
+
+    private static boolean alreadyTried(int[] room, int team) {
+        // Teams with the same room left are interchangeable
+        for (int previous = 0; previous < team; previous++) {
+            if (room[previous] == room[team]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Applies improving swaps of equal-sized units, and of parties against single players, until none is left.
+     */
+    private Split localSearch(Split split) {
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int first = 0; first < teamCount; first++) {
+                for (int second = first + 1; second < teamCount; second++) {
+                    if (System.nanoTime() >= deadline) {
+                        return split;
+                    }
+                    Split swapped = bestSwap(split, first, second);
+                    if (swapped != null) {
+                        split = swapped;
+                        improved = true;
+                    }
+                }
+            }
+        }
+        return split;
+    }
+
+    private Split bestSwap(Split split, int first, int second) {
+        int[] unitTeams = split.unitTeams();
+        Split best = null;
+        for (int unit = 0; unit < units.length; unit++) {
+            if (unitTeams[unit] != first && unitTeams[unit] != second) {
+                continue;
+            }
+            int other = unitTeams[unit] == first ? second : first;
+            if (units[unit].length > 1) {
+                int[] singles = closestSingles(unitTeams, other, unit);
+                if (singles != null) {
+                    best = better(best, trySwap(split, unit, singles));
+                }
+            }
+            if (unitTeams[unit] != first) {
+                continue;
+            }
+            for (int candidate = 0; candidate < units.length; candidate++) {
+                if (unitTeams[candidate] == second && units[candidate].length == units[unit].length) {
+                    best = better(best, trySwap(split, unit, candidate));
+                }
+            }
+        }
+        return best != null && best.isBetterThan(split) ? best : null;
+    }
+
+    private static Split better(Split current, Split candidate) {
+        return current == null || candidate.isBetterThan(current) ? candidate : current;
+    }
+
+    /**
+     * @return single players of the team, as many as the party has members, with mu closest to the party average
+     */
+    private int[] closestSingles(int[] unitTeams, int team, int party) {
+        int size = units[party].length;
+        double average = unitMu[party] / size;
+        List<Integer> singles = new ArrayList<>();
+        for (int unit = 0; unit < units.length; unit++) {
+            if (unitTeams[unit] == team && units[unit].length == 1) {
+                singles.add(unit);
+            }
+        }
+        if (singles.size() < size) {
+            return null;
+        }
+        singles.sort(Comparator.comparingDouble((Integer unit) -> Math.abs(unitMu[unit] - average)));
+        return singles.subList(0, size).stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private Split trySwap(Split split, int unit, int... others) {
+        int[] unitTeams = split.unitTeams().clone();
+        int team = unitTeams[unit];
+        int otherTeam = unitTeams[others[0]];
+        unitTeams[unit] = otherTeam;
+        for (int other : others) {
+            unitTeams[other] = team;
+        }
+        MatchMakingRating[] teamRatings = split.teamRatings().clone();
+        teamRatings[team] = teamRating(unitTeams, team);
+        teamRatings[otherTeam] = teamRating(unitTeams, otherTeam);
+        return score(unitTeams, teamRatings);
+    }
+
+    private int[] perturb(int[] unitTeams) {
+        int[] perturbed = unitTeams.clone();
+        int swaps = 0;
+        for (int attempt = 0; attempt < 8 * PERTURBATION_SWAPS && swaps < PERTURBATION_SWAPS; attempt++) {
+            int unit = random.nextInt(units.length);
+            int other = random.nextInt(units.length);
+            if (perturbed[unit] != perturbed[other] && units[unit].length == units[other].length) {
+                int team = perturbed[unit];
+                perturbed[unit] = perturbed[other];
+                perturbed[other] = team;
+                swaps++;
+            }
+        }
+        return swaps > 0 ? perturbed : null;
+    }
+
+    private Split evaluate(int[] unitTeams) {
+        MatchMakingRating[] teamRatings = new MatchMakingRating[teamCount];
+        for (int team = 0; team < teamCount; team++) {
+            teamRatings[team] = teamRating(unitTeams, team);
+        }
+        return score(unitTeams, teamRatings);
+    }
+
+    private MatchMakingRating teamRating(int[] unitTeams, int team) {
+        List<MatchMakingRating> players = new ArrayList<>(teamSize);
+        for (int unit = 0; unit < units.length; unit++) {
+            if (unitTeams[unit] == team) {
+                for (int player : units[unit]) {
+                    players.add(playerRatings[player]);
+                }
+            }
+        }
+        return teamRatingAggregator.computeTeamRating(players);
+    }
+
+    private Split score(int[] unitTeams, MatchMakingRating[] teamRatings) {
+        double quality = Double.POSITIVE_INFINITY;
+        double spread = 0.0;
+        for (int first = 0; first < teamCount; first++) {
+            for (int second = first + 1; second < teamCount; second++) {
+                MatchMakingRating a = teamRatings[first];
+                MatchMakingRating b = teamRatings[second];
+                // Stronger team first, the evaluator expects a non-negative mu difference
+                double pairQuality = a.mu() >= b.mu()
+                        ? qualityEvaluator.evaluateQuality(a, b)
+                        : qualityEvaluator.evaluateQuality(b, a);
+                quality = Math.min(quality, pairQuality);
+                spread += Math.abs(a.mu() - b.mu());
+            }
+        }
+        return new Split(unitTeams, teamRatings, quality, spread);
+    }
+
+    private final class PartialSplit {
+
+        private final List<List<Integer>> teams;
+        private final double[] sums;
+        private final int[] sizes;
+        private final int order;
+
+        PartialSplit(int teamCount, int order) {
+            this.teams = new ArrayList<>(teamCount);
+            for (int team = 0; team < teamCount; team++) {
+                teams.add(new ArrayList<>());
+            }
+            this.sums = new double[teamCount];
+            this.sizes = new int[teamCount];
+            this.order = order;
+        }
+
+        void add(int team, int unit) {
+            teams.get(team).add(unit);
+            sums[team] += unitMu[unit];
+            sizes[team] += units[unit].length;
+        }
+
+        double difference() {
+            return Arrays.stream(sums).max().orElse(0) - Arrays.stream(sums).min().orElse(0);
+        }
+
+        int order() {
+            return order;
+        }
+
+        /**
+         * @return team indexes from the heaviest to the lightest
+         */
+        Integer[] teamsBySum() {
+            Integer[] teams = new Integer[sums.length];
+            for (int team = 0; team < teams.length; team++) {
+                teams[team] = team;
+            }
+            Arrays.sort(teams, Comparator.comparingDouble((Integer team) -> sums[team]).reversed());
+            return teams;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.pocketcombats.openskill.balance;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+
+import java.util.List;
+
+/**
+ * @param teams       player ids of every team
+ * @param teamRatings aggregated rating of every team
+ * @param quality     quality of the least balanced pair of teams
+ */
+public record BalancedTeams<T>(
+        List<List<T>> teams,
+        List<MatchMakingRating> teamRatings,
+        double quality
+) {
+}
@@ -0,0 +1,188 @@
+package com.pocketcombats.openskill.balance;
+
+import com.pocketcombats.openskill.QualityEvaluator;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator;
+import com.pocketcombats.openskill.aggregate.TeamRatingAggregator;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Splits a roster into teams of equal size, maximizing the {@link QualityEvaluator} quality of the least balanced
+ * pair of teams as rated by the configured {@link TeamRatingAggregator}. Members of a party always play together.
+ * <p>
+ * The search starts from a balanced largest differencing split, the Karmarkar-Karp heuristic restricted to equal
+ * team sizes, and improves it by swapping players and parties between teams. When swaps stop improving, it
+ * perturbs the best split found and searches again until the time budget runs out or the teams are perfectly
+ * balanced.
+ */
+public class TeamBalancer {
+
+    private final TeamRatingAggregator teamRatingAggregator;
+    private final QualityEvaluator qualityEvaluator;
+    private final int teamCount;
+    private final long timeBudgetNanos;
+    private final long seed;
+
+    private TeamBalancer(Builder builder) {
+        this.teamRatingAggregator = builder.teamRatingAggregator;
+        this.qualityEvaluator = builder.qualityEvaluator;
+        this.teamCount = builder.teamCount;
+        this.timeBudgetNanos = builder.timeBudget.toNanos();
+        this.seed = builder.seed;
+    }
+
+    public static Builder builder(RatingModelConfig config) {
+        return new Builder(config);
+    }
+
+    public <T> BalancedTeams<T> balance(Map<T, ? extends MatchMakingRating> ratings) {
+        return balance(ratings, List.of());
+    }
+
+    /**
+     * @param ratings rating of every player of the roster, players are taken in the map's iteration order
+     * @param parties groups of players that must end up in the same team, other players are balanced on their own
+     * @throws IllegalArgumentException if the roster can not be split into teams of equal size
+     */
+    public <T> BalancedTeams<T> balance(
+            Map<T, ? extends MatchMakingRating> ratings,
+            Collection<? extends Collection<T>> parties
+    ) {
+        long deadline = System.nanoTime() + timeBudgetNanos;
+        if (ratings.isEmpty() || ratings.size() % teamCount != 0) {
+            throw new IllegalArgumentException(
+                    "Can not split " + ratings.size() + " players into " + teamCount + " equal teams"
+            );
+        }
+        int teamSize = ratings.size() / teamCount;
+        List<T> playerIds = new ArrayList<>(ratings.keySet());
+        Map<T, Integer> playerIndexes = new HashMap<>();
+        MatchMakingRating[] playerRatings = new MatchMakingRating[playerIds.size()];
+        for (int i = 0; i < playerRatings.length; i++) {
+            playerIndexes.put(playerIds.get(i), i);
+            playerRatings[i] = ratings.get(playerIds.get(i));
+        }
+
+        List<int[]> units = new ArrayList<>();
+        boolean[] grouped = new boolean[playerRatings.length];
+        for (Collection<T> party : parties) {
+            if (party.isEmpty()) {
+                continue;
+            }
+            if (party.size() > teamSize) {
+                throw new IllegalArgumentException(
+                        "Party of " + party.size() + " players does not fit into a team of " + teamSize
+                );
+            }
+            int[] unit = new int[party.size()];
+            int size = 0;
+            for (T playerId : party) {
+                Integer index = playerIndexes.get(playerId);
+                if (index == null) {
+                    throw new IllegalArgumentException("Party member " + playerId + " has no rating");
+                }
+                if (grouped[index]) {
+                    throw new IllegalArgumentException("Player " + playerId + " is in more than one party");
+                }
+                grouped[index] = true;
+                unit[size++] = index;
+            }
+            units.add(unit);
+        }
+        for (int i = 0; i < playerRatings.length; i++) {
+            if (!grouped[i]) {
+                units.add(new int[]{i});
+            }
+        }
+
+        BalanceSearch search = new BalanceSearch(
+                teamRatingAggregator,
+                qualityEvaluator,
+                playerRatings,
+                units.toArray(new int[0][]),
+                teamCount,
+                deadline,
+                new SplittableRandom(seed)
+        );
+        BalanceSearch.Split split = search.run();
+
+        List<List<T>> teams = new ArrayList<>(teamCount);
+        for (int team = 0; team < teamCount; team++) {
+            teams.add(new ArrayList<>(teamSize));
+        }
+        for (int unit = 0; unit < units.size(); unit++) {
+            for (int player : units.get(unit)) {
+                teams.get(split.unitTeams()[unit]).add(playerIds.get(player));
+            }
+        }
+        return new BalancedTeams<>(
+                teams.stream().map(List::copyOf).toList(),
+                List.of(split.teamRatings()),
+                split.quality()
+        );
+    }
+
+    public static final class Builder {
+
+        private TeamRatingAggregator teamRatingAggregator;
+        private QualityEvaluator qualityEvaluator;
+        private int teamCount = 2;
+        private Duration timeBudget = Duration.ofMillis(10);
+        private long seed;
+
+        private Builder(RatingModelConfig config) {
+            this.teamRatingAggregator = new DefaultTeamRatingAggregator(config);
+            this.qualityEvaluator = new QualityEvaluator(config);
+        }
+
+        public TeamBalancer build() {
+            return new TeamBalancer(this);
+        }
+
+        public Builder setTeamRatingAggregator(TeamRatingAggregator teamRatingAggregator) {
+            this.teamRatingAggregator = Objects.requireNonNull(teamRatingAggregator);
+            return this;
+        }
+
+        public Builder setQualityEvaluator(QualityEvaluator qualityEvaluator) {
+            this.qualityEvaluator = Objects.requireNonNull(qualityEvaluator);
+            return this;
+        }
+
+        public Builder setTeamCount(int teamCount) {
+            if (teamCount < 2) {
+                throw new IllegalArgumentException("At least two teams required: " + teamCount);
+            }
+            this.teamCount = teamCount;
+            return this;
+        }
+
+        /**
+         * Time the local search may spend on a roster, the initial split is always completed.
+         */
+        public Builder setTimeBudget(Duration timeBudget) {
+            if (timeBudget.isNegative()) {
+                throw new IllegalArgumentException("Negative time budget: " + timeBudget);
+            }
+            this.timeBudget = timeBudget;
+            return this;
+        }
+
+        /**
+         * Seed of the perturbations between local searches.
+         */
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.pocketcombats.openskill.data;
+
+import java.io.Serializable;
+
+/**
+ * Player result backed by a {@link DerivedRating}, so that team aggregation and rating reuse its derived values.
+ */
+public record DerivedPlayerResult<T>(
+        T id,
+        DerivedRating rating,
+        double weight
+) implements PlayerResult<T>, Serializable {
+
+    public DerivedPlayerResult(T id, DerivedRating rating) {
+        this(id, rating, 1.0);
+    }
+
+    @Override
+    public double mu() {
+        return rating.mu();
+    }
+
+    @Override
+    public double sigma() {
+        return rating.sigma();
+    }
+
+    @Override
+    public double sigmaSquared() {
+        return rating.sigmaSquared();
+    }
+}
@@ -0,0 +1,87 @@
+package com.pocketcombats.openskill.data;
+
+import java.io.Serializable;
+
+/**
+ * Rating with its derived values computed once, when this version of the rating is created.
+ * Rating updates produce a new version with {@link #next(double, double)}.
+ */
+public final class DerivedRating implements MatchMakingRating, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final RatingDerivation derivation;
+    private final double mu;
+    private final double sigma;
+    private final double sigmaSquared;
+    private final double adjustedSigmaSquared;
+    private final double adjustedSigma;
+    private final double ordinal;
+
+    DerivedRating(RatingDerivation derivation, double mu, double sigma) {
+        this.derivation = derivation;
+        this.mu = mu;
+        this.sigma = sigma;
+        this.sigmaSquared = sigma * sigma;
+        this.adjustedSigmaSquared = derivation.adjustedSigmaSquared(sigmaSquared);
+        this.adjustedSigma = Math.sqrt(adjustedSigmaSquared);
+        this.ordinal = derivation.ordinal(mu, sigma);
+    }
+
+    public DerivedRating next(double mu, double sigma) {
+        return new DerivedRating(derivation, mu, sigma);
+    }
+
+    public DerivedRating next(RatingAdjustment<?> adjustment) {
+        return next(adjustment.mu(), adjustment.sigma());
+    }
+
+    public RatingDerivation derivation() {
+        return derivation;
+    }
+
+    @Override
+    public double mu() {
+        return mu;
+    }
+
+    @Override
+    public double sigma() {
+        return sigma;
+    }
+
+    @Override
+    public double sigmaSquared() {
+        return sigmaSquared;
+    }
+
+    public double adjustedSigmaSquared() {
+        return adjustedSigmaSquared;
+    }
+
+    public double adjustedSigma() {
+        return adjustedSigma;
+    }
+
+    public double ordinal() {
+        return ordinal;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DerivedRating that
+                && Double.compare(mu, that.mu) == 0
+                && Double.compare(sigma, that.sigma) == 0
+                && derivation.equals(that.derivation);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Double.hashCode(mu) + Double.hashCode(sigma)) + derivation.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "DerivedRating[mu=" + mu + ", sigma=" + sigma + ", ordinal=" + ordinal + "]";
+    }
+}
@@ -5,4 +5,8 @@ public interface MatchMakingRating {
     double mu();
 
     double sigma();
+
+    default double sigmaSquared() {
+        return sigma() * sigma();
+    }
 }
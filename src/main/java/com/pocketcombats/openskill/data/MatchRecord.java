@@ -0,0 +1,31 @@
+package com.pocketcombats.openskill.data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finished match as reported by a game server: which players played in which team and how the teams placed.
+ * Player ratings are not part of the record, they are looked up when the match is rated.
+ *
+ * @param timestamp match completion time, in any monotonic unit chosen by the application
+ * @param teams     participating teams
+ */
+public record MatchRecord<T>(
+        long timestamp,
+        List<TeamRecord<T>> teams
+) implements Serializable {
+
+    public MatchRecord(List<TeamRecord<T>> teams) {
+        this(0L, teams);
+    }
+
+    @SafeVarargs
+    public static <T> MatchRecord<T> of(TeamRecord<T>... teams) {
+        List<TeamRecord<T>> records = new ArrayList<>(teams.length);
+        for (TeamRecord<T> team : teams) {
+            records.add(team);
+        }
+        return new MatchRecord<>(List.copyOf(records));
+    }
+}
@@ -0,0 +1,20 @@
+package com.pocketcombats.openskill.data;
+
+import java.io.Serializable;
+
+/**
+ * Player participation in a recorded match. Unlike {@link PlayerResult} it carries no rating,
+ * the rating is resolved at the moment the match is rated.
+ *
+ * @param id     player identifier
+ * @param weight player contribution to the match result, see {@link PlayerResult#weight()}
+ */
+public record PlayerRecord<T>(
+        T id,
+        double weight
+) implements Serializable {
+
+    public PlayerRecord(T id) {
+        this(id, 1.0);
+    }
+}
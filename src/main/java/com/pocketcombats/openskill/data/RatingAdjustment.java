@@ -4,5 +4,5 @@ public record RatingAdjustment<T>(
         T playerId,
         double mu,
         double sigma
-) {
+) implements MatchMakingRating {
 }
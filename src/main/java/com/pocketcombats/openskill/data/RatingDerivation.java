@@ -0,0 +1,86 @@
+package com.pocketcombats.openskill.data;
+
+import com.pocketcombats.openskill.RatingModelConfig;
+
+import java.io.Serializable;
+
+/**
+ * Configuration-dependent values derived from a rating: the tau-adjusted variance used by rating updates and
+ * team aggregation, and the ordinal used for balancing and leaderboards.
+ * <p>
+ * {@link DerivedRating}s created by a derivation carry these values precomputed, other ratings get them computed
+ * on every call.
+ */
+public record RatingDerivation(
+        double tauSquared,
+        double z,
+        double alpha,
+        double target
+) implements Serializable {
+
+    public static RatingDerivation of(RatingModelConfig config) {
+        return new RatingDerivation(
+                config.tau() * config.tau(),
+                config.balance().z(),
+                config.balance().alpha(),
+                config.balance().target()
+        );
+    }
+
+    public DerivedRating derive(double mu, double sigma) {
+        return new DerivedRating(this, mu, sigma);
+    }
+
+    /**
+     * @return the given rating if it already carries values of this derivation, otherwise a new derived rating
+     */
+    public DerivedRating derive(MatchMakingRating rating) {
+        DerivedRating derived = cached(rating);
+        return derived != null ? derived : derive(rating.mu(), rating.sigma());
+    }
+
+    /**
+     * @return {@code sigma² + tau²}
+     */
+    public double adjustedSigmaSquared(MatchMakingRating rating) {
+        DerivedRating derived = cached(rating);
+        return derived != null ? derived.adjustedSigmaSquared() : adjustedSigmaSquared(rating.sigmaSquared());
+    }
+
+    /**
+     * @return {@code sqrt(sigma² + tau²)}
+     */
+    public double adjustedSigma(MatchMakingRating rating) {
+        DerivedRating derived = cached(rating);
+        return derived != null ? derived.adjustedSigma() : Math.sqrt(adjustedSigmaSquared(rating.sigmaSquared()));
+    }
+
+    /**
+     * @return {@code alpha * (mu - z * sigma) + target / alpha}
+     */
+    public double ordinal(MatchMakingRating rating) {
+        DerivedRating derived = cached(rating);
+        return derived != null ? derived.ordinal() : ordinal(rating.mu(), rating.sigma());
+    }
+
+    public double ordinal(double mu, double sigma) {
+        return alpha * (mu - z * sigma) + (target / alpha);
+    }
+
+    double adjustedSigmaSquared(double sigmaSquared) {
+        return sigmaSquared + tauSquared;
+    }
+
+    private DerivedRating cached(MatchMakingRating rating) {
+        DerivedRating derived;
+        if (rating instanceof DerivedRating derivedRating) {
+            derived = derivedRating;
+        } else if (rating instanceof DerivedPlayerResult<?> playerResult) {
+            derived = playerResult.rating();
+        } else {
+            return null;
+        }
+        RatingDerivation derivation = derived.derivation();
+        return derivation == this || derivation.equals(this) ? derived : null;
+    }
+}
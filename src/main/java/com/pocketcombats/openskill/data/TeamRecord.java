@@ -0,0 +1,32 @@
+package com.pocketcombats.openskill.data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Team placement in a recorded match.
+ *
+ * @param rank    team rank, 1 for the first place, 2 for the second place etc.
+ * @param weight  weight of the overall team result, see {@link TeamResult#weight()}
+ * @param players team members
+ */
+public record TeamRecord<T>(
+        int rank,
+        double weight,
+        List<PlayerRecord<T>> players
+) implements Serializable {
+
+    public TeamRecord(int rank, List<PlayerRecord<T>> players) {
+        this(rank, 1.0, players);
+    }
+
+    @SafeVarargs
+    public static <T> TeamRecord<T> of(int rank, T... playerIds) {
+        List<PlayerRecord<T>> players = new ArrayList<>(playerIds.length);
+        for (T playerId : playerIds) {
+            players.add(new PlayerRecord<>(playerId));
+        }
+        return new TeamRecord<>(rank, players);
+    }
+}
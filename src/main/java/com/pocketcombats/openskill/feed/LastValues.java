@@ -0,0 +1,110 @@
+package com.pocketcombats.openskill.feed;
+
+import java.util.Arrays;
+
+/**
+ * Last mu and sigma bits of every player of a delta stream, an open addressing hash table with linear probing
+ * over primitive arrays. Players seen for the first time start from the initial rating.
+ */
+final class LastValues {
+
+    private static final int MIN_CAPACITY = 64;
+
+    private final long initialMuBits;
+    private final long initialSigmaBits;
+
+    private long[] playerIds;
+    private long[] muBits;
+    private long[] sigmaBits;
+    private boolean[] used;
+    private int size;
+
+    LastValues(long initialMuBits, long initialSigmaBits) {
+        this.initialMuBits = initialMuBits;
+        this.initialSigmaBits = initialSigmaBits;
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * @return slot of the player, inserted with the initial rating if absent; valid until the next insertion
+     */
+    int slot(long playerId) {
+        int slot = find(playerId);
+        if (used[slot]) {
+            return slot;
+        }
+        if ((size + 1) * 3L > playerIds.length * 2L) {
+            grow();
+            slot = find(playerId);
+        }
+        used[slot] = true;
+        playerIds[slot] = playerId;
+        muBits[slot] = initialMuBits;
+        sigmaBits[slot] = initialSigmaBits;
+        size++;
+        return slot;
+    }
+
+    long muBits(int slot) {
+        return muBits[slot];
+    }
+
+    long sigmaBits(int slot) {
+        return sigmaBits[slot];
+    }
+
+    void set(int slot, long mu, long sigma) {
+        muBits[slot] = mu;
+        sigmaBits[slot] = sigma;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Forgets every player, releasing the memory of a table that grew large.
+     */
+    void clear() {
+        if (playerIds.length > MIN_CAPACITY) {
+            allocate(MIN_CAPACITY);
+        } else {
+            Arrays.fill(used, false);
+        }
+        size = 0;
+    }
+
+    private int find(long playerId) {
+        int mask = playerIds.length - 1;
+        long hash = playerId * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ hash >>> 32) & mask;
+        while (used[slot] && playerIds[slot] != playerId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldPlayerIds = playerIds;
+        long[] oldMuBits = muBits;
+        long[] oldSigmaBits = sigmaBits;
+        boolean[] oldUsed = used;
+        allocate(oldPlayerIds.length * 2);
+        for (int i = 0; i < oldPlayerIds.length; i++) {
+            if (oldUsed[i]) {
+                int slot = find(oldPlayerIds[i]);
+                used[slot] = true;
+                playerIds[slot] = oldPlayerIds[i];
+                muBits[slot] = oldMuBits[i];
+                sigmaBits[slot] = oldSigmaBits[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        playerIds = new long[capacity];
+        muBits = new long[capacity];
+        sigmaBits = new long[capacity];
+        used = new boolean[capacity];
+    }
+}
@@ -0,0 +1,316 @@
+package com.pocketcombats.openskill.feed;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.store.RatingStore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Publishes every {@link RatingAdjustment} to any number of {@link Flow.Subscriber}s.
+ * <p>
+ * Each subscription queues at most one change per player: when a subscriber falls behind, a newer change of a
+ * player replaces the queued one in place, so a slow subscriber receives the latest ratings, in the order the
+ * players first changed, and the queue never grows beyond the number of players. Subscribers are called on the
+ * feed's executor, one call at a time per subscriber.
+ * <p>
+ * Subscribers sending the changes over the network can subscribe to {@link #encoded} frames instead: every
+ * subscription encodes the changes queued for it with its own {@link RatingDeltaEncoder}, so each frame is the
+ * delta against what that subscriber received before.
+ */
+public class RatingChangeFeed<T> implements Flow.Publisher<RatingAdjustment<T>>, AutoCloseable {
+
+    private final Executor executor;
+    private final List<ChangeSubscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder failedSubscribers = new LongAdder();
+    private volatile boolean closed;
+
+    public RatingChangeFeed() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public RatingChangeFeed(Executor executor) {
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super RatingAdjustment<T>> subscriber) {
+        subscribe(new ChangeSubscription<>(Objects.requireNonNull(subscriber), 1, changes -> changes.get(0)));
+    }
+
+    /**
+     * @param feed     feed of the changes to encode
+     * @param encoders creates the encoder of every subscription
+     * @param maxFrame maximum number of changes per frame
+     * @return publisher of frames holding the changes queued for the subscriber, delta encoded per subscription
+     */
+    public static Flow.Publisher<byte[]> encoded(
+            RatingChangeFeed<Long> feed,
+            Supplier<? extends RatingDeltaEncoder> encoders,
+            int maxFrame
+    ) {
+        if (maxFrame <= 0) {
+            throw new IllegalArgumentException("Frame size must be positive: " + maxFrame);
+        }
+        return subscriber -> {
+            RatingDeltaEncoder encoder = encoders.get();
+            feed.subscribe(feed.new ChangeSubscription<>(
+                    Objects.requireNonNull(subscriber),
+                    maxFrame,
+                    encoder::encode
+            ));
+        };
+    }
+
+    private void subscribe(ChangeSubscription<?> subscription) {
+        subscriptions.add(subscription);
+        if (closed) {
+            subscription.complete();
+        }
+        subscription.schedule();
+    }
+
+    /**
+     * Queues the adjustments for every current subscriber.
+     *
+     * @throws IllegalStateException if the feed is closed
+     */
+    public void publish(Collection<? extends RatingAdjustment<T>> adjustments) {
+        if (closed) {
+            throw new IllegalStateException("Rating change feed is closed");
+        }
+        published.add(adjustments.size());
+        for (ChangeSubscription<?> subscription : subscriptions) {
+            subscription.offer(adjustments);
+        }
+    }
+
+    /**
+     * @return store applying adjustments to the given store and then publishing them
+     */
+    public RatingStore<T> tap(RatingStore<T> store) {
+        return new RatingStore<>() {
+            @Override
+            public MatchMakingRating get(T playerId) {
+                return store.get(playerId);
+            }
+
+            @Override
+            public void apply(Collection<? extends RatingAdjustment<T>> adjustments) {
+                store.apply(adjustments);
+                publish(adjustments);
+            }
+        };
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * @return number of published adjustments
+     */
+    public long publishedCount() {
+        return published.sum();
+    }
+
+    /**
+     * @return number of queued adjustments replaced by a newer change of the same player, over all subscribers
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return number of subscribers dropped because one of their methods threw an exception
+     */
+    public long failedSubscriberCount() {
+        return failedSubscribers.sum();
+    }
+
+    /**
+     * Completes every subscription once its queued changes are delivered.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (ChangeSubscription<?> subscription : subscriptions) {
+            subscription.complete();
+            subscription.schedule();
+        }
+    }
+
+    /**
+     * @param <R> item delivered for a batch of at most {@code maxBatch} queued changes
+     */
+    private final class ChangeSubscription<R> implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super R> subscriber;
+        private final int maxBatch;
+        // Called by the drain only, which runs one at a time
+        private final Function<List<RatingAdjustment<T>>, R> batchItem;
+        // Guarded by this; insertion ordered, so a replaced change keeps its place
+        private final LinkedHashMap<T, RatingAdjustment<T>> queue = new LinkedHashMap<>();
+        private long demand;
+        private boolean completing;
+        private boolean terminated;
+        private Throwable error;
+
+        // Accessed by the drain only, which runs one at a time
+        private boolean started;
+
+        private final AtomicInteger pendingDrains = new AtomicInteger();
+
+        private ChangeSubscription(
+                Flow.Subscriber<? super R> subscriber,
+                int maxBatch,
+                Function<List<RatingAdjustment<T>>, R> batchItem
+        ) {
+            this.subscriber = subscriber;
+            this.maxBatch = maxBatch;
+            this.batchItem = batchItem;
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (n <= 0) {
+                    error = new IllegalArgumentException("Non-positive request: " + n);
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                terminated = true;
+                queue.clear();
+            }
+            subscriptions.remove(this);
+        }
+
+        private void offer(Collection<? extends RatingAdjustment<T>> adjustments) {
+            synchronized (this) {
+                if (terminated) {
+                    return;
+                }
+                for (RatingAdjustment<T> adjustment : adjustments) {
+                    if (queue.put(adjustment.playerId(), adjustment) != null) {
+                        coalesced.increment();
+                    }
+                }
+            }
+            schedule();
+        }
+
+        private synchronized void complete() {
+            completing = true;
+        }
+
+        private void schedule() {
+            if (pendingDrains.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                try {
+                    if (!started) {
+                        started = true;
+                        if (!signal(() -> subscriber.onSubscribe(this))) {
+                            continue;
+                        }
+                    }
+                    deliver();
+                } finally {
+                    missed = pendingDrains.addAndGet(-missed);
+                }
+            } while (missed != 0);
+        }
+
+        /**
+         * Calls the subscriber, a throwing subscriber breaks the protocol and is dropped.
+         *
+         * @return {@code false} if the subscriber threw
+         */
+        private boolean signal(Runnable signal) {
+            try {
+                signal.run();
+                return true;
+            } catch (RuntimeException e) {
+                failedSubscribers.increment();
+                cancel();
+                return false;
+            }
+        }
+
+        private void deliver() {
+            while (true) {
+                List<RatingAdjustment<T>> next;
+                Throwable failure;
+                boolean done;
+                synchronized (this) {
+                    if (terminated) {
+                        return;
+                    }
+                    failure = error;
+                    done = completing && queue.isEmpty();
+                    next = null;
+                    if (failure == null && !done && demand > 0 && !queue.isEmpty()) {
+                        next = new ArrayList<>(Math.min(maxBatch, queue.size()));
+                        Iterator<RatingAdjustment<T>> queued = queue.values().iterator();
+                        while (next.size() < maxBatch && queued.hasNext()) {
+                            next.add(queued.next());
+                            queued.remove();
+                        }
+                        if (demand != Long.MAX_VALUE) {
+                            demand--;
+                        }
+                    }
+                    if (failure != null || done) {
+                        terminated = true;
+                        queue.clear();
+                    }
+                }
+                if (failure != null) {
+                    subscriptions.remove(this);
+                    Throwable cause = failure;
+                    signal(() -> subscriber.onError(cause));
+                    return;
+                }
+                if (done) {
+                    subscriptions.remove(this);
+                    signal(subscriber::onComplete);
+                    return;
+                }
+                if (next == null) {
+                    return;
+                }
+                List<RatingAdjustment<T>> batch = next;
+                if (!signal(() -> subscriber.onNext(batchItem.apply(batch)))) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.pocketcombats.openskill.feed;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes frames of a {@link RatingDeltaEncoder} stream. Frames must be decoded in the order they were encoded,
+ * and the stream can not be decoded further after a malformed frame. A receiver that joins or restarts can start
+ * decoding at any keyframe.
+ */
+public class RatingDeltaDecoder {
+
+    private final LastValues last;
+
+    private byte[] frame;
+    private int position;
+
+    public RatingDeltaDecoder(MatchMakingRating initialRating) {
+        this.last = new LastValues(
+                Double.doubleToRawLongBits(initialRating.mu()),
+                Double.doubleToRawLongBits(initialRating.sigma())
+        );
+    }
+
+    /**
+     * @throws IllegalArgumentException if the frame is truncated or malformed
+     */
+    public List<RatingAdjustment<Long>> decode(byte[] frame) {
+        this.frame = frame;
+        this.position = 0;
+        try {
+            long header = readVarint();
+            long count = header >>> 1;
+            if ((header & 1) != 0) {
+                last.clear();
+            }
+            if (count > frame.length) {
+                throw new IllegalArgumentException(
+                        "Malformed frame: " + count + " changes in " + frame.length + " bytes"
+                );
+            }
+            List<RatingAdjustment<Long>> adjustments = new ArrayList<>((int) count);
+            long playerId = 0;
+            for (long i = 0; i < count; i++) {
+                long zigzag = readVarint();
+                playerId += zigzag >>> 1 ^ -(zigzag & 1);
+                int sizes = frame[position++] & 0xFF;
+                int muBytes = sizes >>> 4;
+                int sigmaBytes = sizes & 0xF;
+                if (muBytes > 8 || sigmaBytes > 8) {
+                    throw new IllegalArgumentException("Malformed frame: value of more than 8 bytes");
+                }
+                int slot = last.slot(playerId);
+                long muBits = last.muBits(slot) ^ readBytes(muBytes);
+                long sigmaBits = last.sigmaBits(slot) ^ readBytes(sigmaBytes);
+                last.set(slot, muBits, sigmaBits);
+                adjustments.add(new RatingAdjustment<>(
+                        playerId,
+                        Double.longBitsToDouble(muBits),
+                        Double.longBitsToDouble(sigmaBits)
+                ));
+            }
+            if (position != frame.length) {
+                throw new IllegalArgumentException("Malformed frame: " + (frame.length - position) + " trailing bytes");
+            }
+            return adjustments;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated frame", e);
+        } finally {
+            this.frame = null;
+        }
+    }
+
+    private long readBytes(int bytes) {
+        long value = 0;
+        for (int i = 0; i < bytes; i++) {
+            value = value << 8 | frame[position++] & 0xFF;
+        }
+        return value;
+    }
+
+    private long readVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = frame[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed frame: varint longer than 10 bytes");
+    }
+}
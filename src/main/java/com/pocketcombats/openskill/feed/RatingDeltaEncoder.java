@@ -0,0 +1,125 @@
+package com.pocketcombats.openskill.feed;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Encodes batches of rating changes of {@code long} player ids into compact frames for a single stream, decoded
+ * by a {@link RatingDeltaDecoder} that saw every previous frame of the stream.
+ * <p>
+ * Player ids are zigzag varints of the difference from the previous id in the frame. Mu and sigma are stored as
+ * the XOR of their bits with the player's previous value in the stream, or with the initial rating for a player
+ * seen for the first time, without the leading zero bytes. A rating change keeps the sign, the exponent and the
+ * top of the mantissa, so a change of a rated match takes about 16 bytes instead of 24.
+ * <p>
+ * Both sides remember the last value of every player seen since the last keyframe. A keyframe makes both sides
+ * forget all players and encode against the initial rating again, which bounds the remembered players by the
+ * players changed in {@code keyframeInterval} frames. Every {@code keyframeInterval}-th frame is a keyframe,
+ * {@link #reset} makes the next one a keyframe, for example when a receiver restarts. Frame layout: varint change
+ * count shifted left by one with the keyframe flag in the lowest bit, then per change the id delta, one byte with
+ * the number of significant mu and sigma bytes, and the significant bytes.
+ */
+public class RatingDeltaEncoder {
+
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 1024;
+
+    private final LastValues last;
+    private final int keyframeInterval;
+    private int framesSinceKeyframe;
+    private boolean resetRequested;
+
+    private byte[] frame = new byte[256];
+    private int length;
+
+    public RatingDeltaEncoder(MatchMakingRating initialRating) {
+        this(initialRating, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * @param keyframeInterval number of frames from one keyframe to the next, 0 to send keyframes on {@link #reset}
+     *                         only
+     */
+    public RatingDeltaEncoder(MatchMakingRating initialRating, int keyframeInterval) {
+        if (keyframeInterval < 0) {
+            throw new IllegalArgumentException("Negative keyframe interval: " + keyframeInterval);
+        }
+        this.last = new LastValues(
+                Double.doubleToRawLongBits(initialRating.mu()),
+                Double.doubleToRawLongBits(initialRating.sigma())
+        );
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    public byte[] encode(Collection<? extends RatingAdjustment<Long>> adjustments) {
+        boolean keyframe = resetRequested || keyframeInterval > 0 && framesSinceKeyframe >= keyframeInterval;
+        if (keyframe) {
+            last.clear();
+            framesSinceKeyframe = 0;
+            resetRequested = false;
+        }
+        framesSinceKeyframe++;
+        length = 0;
+        writeVarint((long) adjustments.size() << 1 | (keyframe ? 1 : 0));
+        long previousId = 0;
+        for (RatingAdjustment<Long> adjustment : adjustments) {
+            long playerId = adjustment.playerId();
+            writeVarint(playerId - previousId << 1 ^ (playerId - previousId) >> 63);
+            previousId = playerId;
+
+            int slot = last.slot(playerId);
+            long muBits = Double.doubleToRawLongBits(adjustment.mu());
+            long sigmaBits = Double.doubleToRawLongBits(adjustment.sigma());
+            long muXor = muBits ^ last.muBits(slot);
+            long sigmaXor = sigmaBits ^ last.sigmaBits(slot);
+            int muBytes = significantBytes(muXor);
+            int sigmaBytes = significantBytes(sigmaXor);
+            ensure(1 + muBytes + sigmaBytes);
+            frame[length++] = (byte) (muBytes << 4 | sigmaBytes);
+            writeBytes(muXor, muBytes);
+            writeBytes(sigmaXor, sigmaBytes);
+            last.set(slot, muBits, sigmaBits);
+        }
+        return Arrays.copyOf(frame, length);
+    }
+
+    /**
+     * Makes the next frame a keyframe.
+     */
+    public void reset() {
+        resetRequested = true;
+    }
+
+    /**
+     * @return number of players whose last value the stream remembers
+     */
+    public int playerCount() {
+        return last.size();
+    }
+    static int significantBytes(long xor) {
+        return (64 - Long.numberOfLeadingZeros(xor) + 7) >>> 3;
+    }
+
+    private void writeBytes(long value, int bytes) {
+        for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+            frame[length++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void writeVarint(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            frame[length++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        frame[length++] = (byte) value;
+    }
+
+    private void ensure(int bytes) {
+        if (length + bytes > frame.length) {
+            frame = Arrays.copyOf(frame, Math.max(frame.length * 2, length + bytes));
+        }
+    }
+}
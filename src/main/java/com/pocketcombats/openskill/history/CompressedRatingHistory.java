@@ -0,0 +1,77 @@
+package com.pocketcombats.openskill.history;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rating history of every player, kept as a {@link RatingTimeSeries} per player. Feed it the adjustments produced
+ * by {@link com.pocketcombats.openskill.Adjudicator} with the match timestamp to answer what a player's rating was
+ * at a given time.
+ * <p>
+ * Players can be recorded and queried concurrently, but adjustments of a single player must be recorded in
+ * timestamp order.
+ */
+public class CompressedRatingHistory<T> {
+
+    private final Map<T, RatingTimeSeries> series = new ConcurrentHashMap<>();
+
+    /**
+     * @throws IllegalArgumentException if the timestamp precedes a point already recorded for an adjusted player
+     */
+    public void record(long timestamp, Collection<? extends RatingAdjustment<T>> adjustments) {
+        for (RatingAdjustment<T> adjustment : adjustments) {
+            record(timestamp, adjustment.playerId(), adjustment);
+        }
+    }
+
+    public void record(long timestamp, T playerId, MatchMakingRating rating) {
+        series.computeIfAbsent(playerId, id -> new RatingTimeSeries()).append(timestamp, rating.mu(), rating.sigma());
+    }
+
+    /**
+     * @return the player's history, or {@code null} if the player has none
+     */
+    public RatingTimeSeries series(T playerId) {
+        return series.get(playerId);
+    }
+
+    /**
+     * @return the player's rating in effect at the given time, or {@code null} if the player was not rated yet
+     */
+    public RatingPoint asOf(T playerId, long timestamp) {
+        RatingTimeSeries playerSeries = series.get(playerId);
+        return playerSeries == null ? null : playerSeries.asOf(timestamp);
+    }
+
+    /**
+     * @return the player's ratings assigned from {@code from} inclusive to {@code to} exclusive, in order
+     */
+    public List<RatingPoint> range(T playerId, long from, long to) {
+        RatingTimeSeries playerSeries = series.get(playerId);
+        return playerSeries == null ? List.of() : playerSeries.range(from, to);
+    }
+
+    public int playerCount() {
+        return series.size();
+    }
+
+    public long pointCount() {
+        return series.values().stream().mapToLong(RatingTimeSeries::size).sum();
+    }
+
+    /**
+     * @see RatingTimeSeries#trimToSize()
+     */
+    public void trimToSize() {
+        series.values().forEach(RatingTimeSeries::trimToSize);
+    }
+
+    public long sizeInBytes() {
+        return series.values().stream().mapToLong(RatingTimeSeries::sizeInBytes).sum();
+    }
+}
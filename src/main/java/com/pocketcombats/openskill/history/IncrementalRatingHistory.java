@@ -0,0 +1,318 @@
+package com.pocketcombats.openskill.history;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.PlayerRecord;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import com.pocketcombats.openskill.data.TeamRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Rated match history that supports voiding and correcting past matches without replaying everything.
+ * <p>
+ * Every match remembers, for each of its players, the player's previous and next match, which makes
+ * the history a dependency DAG, together with the ratings it consumed and produced. When a match is edited
+ * it is rated again and the change is propagated only along the affected players' chains, in chronological
+ * order. Propagation through a player stops as soon as the player's rating after a match differs from
+ * the rating the player's next match was rated with by no more than the tolerance, and a downstream match is
+ * skipped when none of its input ratings moved by more than the tolerance. Both are compared with the ratings
+ * a match was last rated with, so repeated small edits can not accumulate beyond the tolerance unnoticed.
+ * With zero tolerance the result is identical to a full replay.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class IncrementalRatingHistory<T> {
+
+    private final MatchRater<T> matchRater;
+    private final MatchMakingRating initialRating;
+    private final double tolerance;
+
+    private final List<Node<T>> matches = new ArrayList<>();
+    private final Map<T, Tail> tails = new HashMap<>();
+
+    /**
+     * @param tolerance maximum absolute mu or sigma difference that is considered converged
+     */
+    public IncrementalRatingHistory(MatchRater<T> matchRater, MatchMakingRating initialRating, double tolerance) {
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("Negative tolerance: " + tolerance);
+        }
+        this.matchRater = matchRater;
+        this.initialRating = initialRating;
+        this.tolerance = tolerance;
+    }
+
+    public int size() {
+        return matches.size();
+    }
+
+    /**
+     * @return current player rating, or the initial rating if the player has no matches
+     */
+    public MatchMakingRating rating(T playerId) {
+        Tail tail = tails.get(playerId);
+        if (tail == null) {
+            return initialRating;
+        }
+        Node<T> node = matches.get(tail.match);
+        return node.output(tail.position);
+    }
+
+    /**
+     * Rates the match as the latest one in the history.
+     *
+     * @return index of the match in the history
+     */
+    public int append(MatchRecord<T> match) {
+        int index = matches.size();
+        Node<T> node = new Node<>(match, playerIds(match));
+        for (int position = 0; position < node.players.size(); position++) {
+            T playerId = node.players.get(position);
+            Tail tail = tails.get(playerId);
+            if (tail == null) {
+                node.previousMatch[position] = -1;
+                tails.put(playerId, new Tail(index, position));
+            } else {
+                Node<T> previous = matches.get(tail.match);
+                previous.nextMatch[tail.position] = index;
+                previous.nextPosition[tail.position] = position;
+                node.previousMatch[position] = tail.match;
+                node.previousPosition[position] = tail.position;
+                tail.match = index;
+                tail.position = position;
+            }
+        }
+        matches.add(node);
+        loadInputs(node);
+        rate(node);
+        return index;
+    }
+
+    public MatchRecord<T> match(int index) {
+        return matches.get(index).match;
+    }
+
+    public boolean isVoided(int index) {
+        return matches.get(index).voided;
+    }
+
+    /**
+     * @return current rating adjustments produced by the match, none if it is voided
+     */
+    public List<RatingAdjustment<T>> adjustments(int index) {
+        Node<T> node = matches.get(index);
+        if (node.voided) {
+            return List.of();
+        }
+        List<RatingAdjustment<T>> adjustments = new ArrayList<>(node.players.size());
+        for (int position = 0; position < node.players.size(); position++) {
+            adjustments.add(new RatingAdjustment<>(
+                    node.players.get(position),
+                    node.outputMu[position],
+                    node.outputSigma[position]
+            ));
+        }
+        return adjustments;
+    }
+
+    /**
+     * Excludes the match from rating: its players pass their ratings through it unchanged.
+     */
+    public ReRatingReport<T> voidMatch(int index) {
+        Node<T> node = matches.get(index);
+        node.voided = true;
+        return propagate(index);
+    }
+
+    /**
+     * Replaces the recorded match result. Voided matches are restored.
+     *
+     * @param corrected corrected result, must have exactly the same players as the recorded one
+     * @throws IllegalArgumentException if the corrected result has different players
+     */
+    public ReRatingReport<T> correctMatch(int index, MatchRecord<T> corrected) {
+        Node<T> node = matches.get(index);
+        if (!new LinkedHashSet<>(node.players).equals(new LinkedHashSet<>(playerIds(corrected)))) {
+            throw new IllegalArgumentException("Corrected match " + index + " must have the same players");
+        }
+        node.match = corrected;
+        node.voided = false;
+        return propagate(index);
+    }
+
+    private ReRatingReport<T> propagate(int editedIndex) {
+        TreeSet<Integer> pending = new TreeSet<>();
+        pending.add(editedIndex);
+        Set<T> changedPlayers = new LinkedHashSet<>();
+        int recomputed = 0;
+        int visited = 0;
+        while (!pending.isEmpty()) {
+            int index = pending.pollFirst();
+            Node<T> node = matches.get(index);
+            visited++;
+            if (index != editedIndex && !inputsChanged(node)) {
+                // Stored inputs are kept, so later drift is measured against the inputs the outputs came from
+                continue;
+            }
+            loadInputs(node);
+            double[] previousMu = node.outputMu.clone();
+            double[] previousSigma = node.outputSigma.clone();
+            rate(node);
+            recomputed++;
+            for (int position = 0; position < node.players.size(); position++) {
+                int next = node.nextMatch[position];
+                if (next >= 0) {
+                    // Compared with what the next match consumed, so that small changes can not add up unnoticed
+                    Node<T> nextNode = matches.get(next);
+                    int nextPosition = node.nextPosition[position];
+                    if (!converged(nextNode.inputMu[nextPosition], node.outputMu[position])
+                            || !converged(nextNode.inputSigma[nextPosition], node.outputSigma[position])) {
+                        pending.add(next);
+                    }
+                } else if (!converged(previousMu[position], node.outputMu[position])
+                        || !converged(previousSigma[position], node.outputSigma[position])) {
+                    changedPlayers.add(node.players.get(position));
+                }
+            }
+        }
+        return new ReRatingReport<>(recomputed, visited, changedPlayers);
+    }
+
+    /**
+     * @return {@code true} if any player's previous match output moved away from the stored match input
+     * by more than the tolerance
+     */
+    private boolean inputsChanged(Node<T> node) {
+        for (int position = 0; position < node.players.size(); position++) {
+            MatchMakingRating input = input(node, position);
+            if (!converged(node.inputMu[position], input.mu())
+                    || !converged(node.inputSigma[position], input.sigma())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Refreshes the match inputs from the players' previous matches.
+     */
+    private void loadInputs(Node<T> node) {
+        for (int position = 0; position < node.players.size(); position++) {
+            MatchMakingRating input = input(node, position);
+            node.inputMu[position] = input.mu();
+            node.inputSigma[position] = input.sigma();
+        }
+    }
+
+    private MatchMakingRating input(Node<T> node, int position) {
+        int previous = node.previousMatch[position];
+        return previous < 0
+                ? initialRating
+                : matches.get(previous).output(node.previousPosition[position]);
+    }
+
+    private void rate(Node<T> node) {
+        if (node.voided) {
+            System.arraycopy(node.inputMu, 0, node.outputMu, 0, node.inputMu.length);
+            System.arraycopy(node.inputSigma, 0, node.outputSigma, 0, node.inputSigma.length);
+            return;
+        }
+        Map<T, MatchMakingRating> inputs = new HashMap<>();
+        for (int position = 0; position < node.players.size(); position++) {
+            inputs.put(
+                    node.players.get(position),
+                    new SimpleMatchMakingRating(node.inputMu[position], node.inputSigma[position])
+            );
+        }
+        Map<T, Integer> positions = node.positions();
+        for (RatingAdjustment<T> adjustment : matchRater.rate(node.match, inputs::get)) {
+            int position = positions.get(adjustment.playerId());
+            node.outputMu[position] = adjustment.mu();
+            node.outputSigma[position] = adjustment.sigma();
+        }
+    }
+
+    private boolean converged(double previous, double current) {
+        return Math.abs(previous - current) <= tolerance;
+    }
+
+    private static <T> List<T> playerIds(MatchRecord<T> match) {
+        Set<T> playerIds = new LinkedHashSet<>();
+        for (TeamRecord<T> team : match.teams()) {
+            for (PlayerRecord<T> player : team.players()) {
+                if (!playerIds.add(player.id())) {
+                    throw new IllegalArgumentException("Player " + player.id() + " appears in the match twice");
+                }
+            }
+        }
+        return new ArrayList<>(playerIds);
+    }
+
+    /**
+     * Latest match of a player.
+     */
+    private static final class Tail {
+
+        private int match;
+        private int position;
+
+        private Tail(int match, int position) {
+            this.match = match;
+            this.position = position;
+        }
+    }
+
+    private static final class Node<T> {
+
+        private MatchRecord<T> match;
+        private boolean voided;
+        private final List<T> players;
+        // Per player links to the neighbouring matches in the player's chain, -1 if there are none
+        private final int[] previousMatch;
+        private final int[] previousPosition;
+        private final int[] nextMatch;
+        private final int[] nextPosition;
+        private final double[] inputMu;
+        private final double[] inputSigma;
+        private final double[] outputMu;
+        private final double[] outputSigma;
+
+        private Node(MatchRecord<T> match, List<T> players) {
+            this.match = match;
+            this.players = players;
+            int size = players.size();
+            this.previousMatch = new int[size];
+            this.previousPosition = new int[size];
+            this.nextMatch = new int[size];
+            Arrays.fill(nextMatch, -1);
+            this.nextPosition = new int[size];
+            this.inputMu = new double[size];
+            this.inputSigma = new double[size];
+            this.outputMu = new double[size];
+            this.outputSigma = new double[size];
+        }
+
+        private MatchMakingRating output(int position) {
+            return new SimpleMatchMakingRating(outputMu[position], outputSigma[position]);
+        }
+
+        private Map<T, Integer> positions() {
+            Map<T, Integer> positions = new LinkedHashMap<>();
+            for (int position = 0; position < players.size(); position++) {
+                positions.put(players.get(position), position);
+            }
+            return positions;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.pocketcombats.openskill.history;
+
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.PlayerRecord;
+import com.pocketcombats.openskill.data.TeamRecord;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.pocketcombats.openskill.history.MatchHistoryFormat.*;
+
+/**
+ * Forward-only cursor over the matches of a {@link MatchHistoryReader}.
+ * <p>
+ * Team and player indexes are relative to the current match. Decoded columns are reused from block to block,
+ * values are only valid until the next call of {@link #next()}.
+ */
+public final class MatchCursor {
+
+    private final MatchHistoryReader reader;
+    private final int toBlock;
+    private int nextBlock;
+
+    private long[] timestamps = new long[0];
+    private int[] matchTeamStart = new int[1];
+    private int[] teamRanks = new int[0];
+    private double[] teamWeights = new double[0];
+    private int[] teamPlayerStart = new int[1];
+    private long[] playerIds = new long[0];
+    private double[] playerWeights = new double[0];
+    private int blockMatches;
+    private int match = -1;
+    private int firstTeam;
+    private int firstParticipant;
+
+    MatchCursor(MatchHistoryReader reader, int fromBlock, int toBlock) {
+        this.reader = reader;
+        this.nextBlock = fromBlock;
+        this.toBlock = toBlock;
+    }
+
+    /**
+     * Moves to the next match.
+     *
+     * @return false if there are no more matches
+     */
+    public boolean next() {
+        match++;
+        while (match >= blockMatches) {
+            if (nextBlock == toBlock) {
+                match = blockMatches;
+                return false;
+            }
+            decode(nextBlock++);
+            match = 0;
+        }
+        firstTeam = matchTeamStart[match];
+        firstParticipant = teamPlayerStart[firstTeam];
+        return true;
+    }
+
+    public long timestamp() {
+        return timestamps[match];
+    }
+
+    public int teamCount() {
+        return matchTeamStart[match + 1] - firstTeam;
+    }
+
+    public int rank(int team) {
+        return teamRanks[firstTeam + team];
+    }
+
+    public double teamWeight(int team) {
+        return teamWeights[firstTeam + team];
+    }
+
+    public int playerCount(int team) {
+        return teamPlayerStart[firstTeam + team + 1] - teamPlayerStart[firstTeam + team];
+    }
+
+    public long playerId(int team, int player) {
+        return playerIds[teamPlayerStart[firstTeam + team] + player];
+    }
+
+    public double playerWeight(int team, int player) {
+        return playerWeights[teamPlayerStart[firstTeam + team] + player];
+    }
+
+    /**
+     * Materializes the current match.
+     */
+    public MatchRecord<Long> toMatchRecord() {
+        int teamCount = teamCount();
+        List<TeamRecord<Long>> teams = new ArrayList<>(teamCount);
+        for (int team = 0; team < teamCount; team++) {
+            int playerCount = playerCount(team);
+            List<PlayerRecord<Long>> players = new ArrayList<>(playerCount);
+            for (int player = 0; player < playerCount; player++) {
+                players.add(new PlayerRecord<>(playerId(team, player), playerWeight(team, player)));
+            }
+            teams.add(new TeamRecord<>(rank(team), teamWeight(team), players));
+        }
+        return new MatchRecord<>(timestamp(), teams);
+    }
+
+    private void decode(int block) {
+        ByteBuffer buffer = reader.block(block);
+        int matchCount = buffer.getInt();
+        int teamCount = buffer.getInt();
+        int participantCount = buffer.getInt();
+        int flags = buffer.getInt();
+        // Column lengths: the columns are decoded in order, so only the total is needed
+        for (int column = 0; column < 5; column++) {
+            buffer.getInt();
+        }
+        ensureCapacity(matchCount, teamCount, participantCount);
+
+        long timestamp = 0;
+        for (int i = 0; i < matchCount; i++) {
+            timestamp += unzigzag(readVarLong(buffer));
+            timestamps[i] = timestamp;
+        }
+        int teams = 0;
+        for (int i = 0; i < matchCount; i++) {
+            matchTeamStart[i] = teams;
+            teams += (int) readVarLong(buffer);
+        }
+        matchTeamStart[matchCount] = teams;
+        int participants = 0;
+        for (int i = 0; i < teamCount; i++) {
+            teamPlayerStart[i] = participants;
+            participants += (int) readVarLong(buffer);
+        }
+        teamPlayerStart[teamCount] = participants;
+        if (teams != teamCount || participants != participantCount) {
+            throw new IllegalStateException("Corrupted block " + block);
+        }
+        for (int i = 0; i < matchCount; i++) {
+            for (int team = matchTeamStart[i]; team < matchTeamStart[i + 1]; team++) {
+                teamRanks[team] = (int) (unzigzag(readVarLong(buffer)) + (team - matchTeamStart[i] + 1));
+            }
+        }
+        long playerId = 0;
+        for (int i = 0; i < participantCount; i++) {
+            playerId += unzigzag(readVarLong(buffer));
+            playerIds[i] = playerId;
+        }
+        if ((flags & FLAG_TEAM_WEIGHTS) != 0) {
+            buffer.asDoubleBuffer().get(teamWeights, 0, teamCount);
+            buffer.position(buffer.position() + teamCount * Double.BYTES);
+        } else {
+            Arrays.fill(teamWeights, 0, teamCount, 1.0);
+        }
+        if ((flags & FLAG_PARTICIPANT_WEIGHTS) != 0) {
+            buffer.asDoubleBuffer().get(playerWeights, 0, participantCount);
+        } else {
+            Arrays.fill(playerWeights, 0, participantCount, 1.0);
+        }
+        blockMatches = matchCount;
+    }
+
+    private void ensureCapacity(int matchCount, int teamCount, int participantCount) {
+        if (timestamps.length < matchCount) {
+            timestamps = new long[matchCount];
+            matchTeamStart = new int[matchCount + 1];
+        }
+        if (teamRanks.length < teamCount) {
+            teamRanks = new int[teamCount];
+            teamWeights = new double[teamCount];
+            teamPlayerStart = new int[teamCount + 1];
+        }
+        if (playerIds.length < participantCount) {
+            playerIds = new long[participantCount];
+            playerWeights = new double[participantCount];
+        }
+    }
+}
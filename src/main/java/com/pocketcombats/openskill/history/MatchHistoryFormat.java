@@ -0,0 +1,100 @@
+package com.pocketcombats.openskill.history;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Layout of match history files written by {@link MatchHistoryWriter}.
+ * <pre>
+ * file    := header block* index trailer
+ * header  := magic:int version:short reserved:short
+ * block   := matchCount:int teamCount:int participantCount:int flags:int
+ *            timestampsLength:int teamsLength:int playersLength:int ranksLength:int idsLength:int
+ *            timestamps teams players ranks ids teamWeights? participantWeights?
+ * index   := (blockOffset:long blockMatchCount:int)*
+ * trailer := indexOffset:long blockCount:int matchCount:long magic:int
+ * </pre>
+ * Columns are varint encoded:
+ * <ul>
+ *     <li>timestamps - zigzag delta from the previous match of the block</li>
+ *     <li>teams - number of teams of every match</li>
+ *     <li>players - number of participants of every team</li>
+ *     <li>ranks - zigzag difference between the rank and the one-based position of the team in its match</li>
+ *     <li>ids - zigzag delta from the previous participant of the block</li>
+ * </ul>
+ * Weight columns are raw doubles, present only if some weight of the block differs from 1.
+ * Every block starts its deltas from zero, so blocks decode independently. All numbers are little-endian.
+ */
+final class MatchHistoryFormat {
+
+    static final int MAGIC = 0x484D534F; // "OSMH"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int BLOCK_HEADER_SIZE = 9 * Integer.BYTES;
+    static final int INDEX_ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+    static final int TRAILER_SIZE = Long.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    static final int FLAG_TEAM_WEIGHTS = 1;
+    static final int FLAG_PARTICIPANT_WEIGHTS = 2;
+
+    static final int DEFAULT_BLOCK_MATCHES = 4096;
+
+    private MatchHistoryFormat() {
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+            shift += 7;
+            if (shift > 63) {
+                throw new IllegalStateException("Malformed varint at " + buffer.position());
+            }
+        }
+    }
+
+    /**
+     * Growable byte column.
+     */
+    static final class ByteColumn {
+
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        void writeVarLong(long value) {
+            if (size + 10 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + 10));
+            }
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void writeTo(ByteBuffer buffer) {
+            buffer.put(bytes, 0, size);
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
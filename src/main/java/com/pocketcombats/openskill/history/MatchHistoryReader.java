@@ -0,0 +1,188 @@
+package com.pocketcombats.openskill.history;
+
+import com.pocketcombats.openskill.data.MatchRecord;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.pocketcombats.openskill.history.MatchHistoryFormat.*;
+
+/**
+ * Memory-mapped reader of match history files written by {@link MatchHistoryWriter}.
+ * <p>
+ * The file is mapped in segments of whole blocks. {@link MatchCursor}s decode one block at a time into reusable
+ * primitive columns, so a full replay allocates nothing per match unless records are requested. The reader is
+ * thread-safe, every cursor is confined to a single thread.
+ */
+public class MatchHistoryReader implements AutoCloseable {
+
+    static final long MAX_SEGMENT_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final int[] blockSegments;
+    private final int[] blockPositions;
+    private final int[] blockMatchCounts;
+    private final long matchCount;
+
+    private MatchHistoryReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if (size < HEADER_SIZE + TRAILER_SIZE) {
+            throw new IOException("Not a match history file: too short");
+        }
+        ByteBuffer header = read(0, HEADER_SIZE);
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a match history file: bad magic");
+        }
+        short version = header.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported match history version " + version);
+        }
+        ByteBuffer trailer = read(size - TRAILER_SIZE, TRAILER_SIZE);
+        long indexOffset = trailer.getLong();
+        int blockCount = trailer.getInt();
+        this.matchCount = trailer.getLong();
+        if (trailer.getInt() != MAGIC) {
+            throw new IOException("Truncated match history file");
+        }
+        ByteBuffer index = read(indexOffset, blockCount * INDEX_ENTRY_SIZE);
+        long[] blockOffsets = new long[blockCount + 1];
+        this.blockMatchCounts = new int[blockCount];
+        for (int block = 0; block < blockCount; block++) {
+            blockOffsets[block] = index.getLong();
+            blockMatchCounts[block] = index.getInt();
+        }
+        blockOffsets[blockCount] = indexOffset;
+
+        // Group consecutive blocks into mappings of at most MAX_SEGMENT_SIZE bytes
+        this.blockSegments = new int[blockCount];
+        this.blockPositions = new int[blockCount];
+        List<MappedByteBuffer> segments = new ArrayList<>();
+        int first = 0;
+        while (first < blockCount) {
+            int last = first;
+            while (last + 1 < blockCount && blockOffsets[last + 2] - blockOffsets[first] <= MAX_SEGMENT_SIZE) {
+                last++;
+            }
+            long start = blockOffsets[first];
+            MappedByteBuffer segment = channel.map(
+                    FileChannel.MapMode.READ_ONLY,
+                    start,
+                    blockOffsets[last + 1] - start
+            );
+            for (int block = first; block <= last; block++) {
+                blockSegments[block] = segments.size();
+                blockPositions[block] = (int) (blockOffsets[block] - start);
+            }
+            segments.add(segment);
+            first = last + 1;
+        }
+        this.segments = segments.toArray(new MappedByteBuffer[0]);
+    }
+
+    public static MatchHistoryReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new MatchHistoryReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Loads the whole file into a match log.
+     */
+    public static MatchLog<Long> readLog(Path path) throws IOException {
+        try (MatchHistoryReader reader = open(path)) {
+            return reader.toMatchLog();
+        }
+    }
+
+    public long matchCount() {
+        return matchCount;
+    }
+
+    public int blockCount() {
+        return blockMatchCounts.length;
+    }
+
+    /**
+     * @return cursor positioned before the first match
+     */
+    public MatchCursor cursor() {
+        return new MatchCursor(this, 0, blockCount());
+    }
+
+    /**
+     * @return cursor over the given range of blocks, positioned before its first match
+     */
+    public MatchCursor cursor(int fromBlock, int toBlock) {
+        if (fromBlock < 0 || toBlock > blockCount() || fromBlock > toBlock) {
+            throw new IndexOutOfBoundsException("Blocks [" + fromBlock + ", " + toBlock + ")");
+        }
+        return new MatchCursor(this, fromBlock, toBlock);
+    }
+
+    /**
+     * Streams every match, in file order, to the consumer, for example {@code pipeline::submit}.
+     */
+    public void forEach(Consumer<? super MatchRecord<Long>> consumer) {
+        MatchCursor cursor = cursor();
+        while (cursor.next()) {
+            consumer.accept(cursor.toMatchRecord());
+        }
+    }
+
+    public MatchLog<Long> toMatchLog() {
+        MatchLog.Builder<Long> builder = MatchLog.builder();
+        MatchCursor cursor = cursor();
+        while (cursor.next()) {
+            builder.addMatch(cursor.timestamp());
+            for (int team = 0; team < cursor.teamCount(); team++) {
+                builder.addTeam(cursor.rank(team), cursor.teamWeight(team));
+                for (int player = 0; player < cursor.playerCount(team); player++) {
+                    builder.addParticipant(cursor.playerId(team, player), cursor.playerWeight(team, player));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    int blockMatchCount(int block) {
+        return blockMatchCounts[block];
+    }
+
+    /**
+     * @return independent view of the block, positioned at its start
+     */
+    ByteBuffer block(int block) {
+        ByteBuffer buffer = segments[blockSegments[block]].duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(blockPositions[block]);
+        return buffer;
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of match history file");
+            }
+        }
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,292 @@
+package com.pocketcombats.openskill.history;
+
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.PlayerRecord;
+import com.pocketcombats.openskill.data.TeamRecord;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static com.pocketcombats.openskill.history.MatchHistoryFormat.*;
+
+/**
+ * Writes matches with numeric player ids to a columnar, delta-encoded match history file,
+ * see {@link MatchHistoryReader} for reading it back.
+ * <p>
+ * Matches are buffered in primitive columns and written in blocks. Like {@link MatchLog.Builder}, a match can be
+ * added whole or team by team and participant by participant without creating records.
+ */
+public class MatchHistoryWriter implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final int blockMatches;
+
+    private long[] timestamps;
+    private int[] matchTeams;
+    private int[] teamRanks = new int[64];
+    private double[] teamWeights = new double[64];
+    private int[] teamPlayers = new int[64];
+    private long[] playerIds = new long[256];
+    private double[] playerWeights = new double[256];
+    private int matchCount;
+    private int teamCount;
+    private int participantCount;
+
+    private final ByteColumn timestampColumn = new ByteColumn();
+    private final ByteColumn teamColumn = new ByteColumn();
+    private final ByteColumn playerColumn = new ByteColumn();
+    private final ByteColumn rankColumn = new ByteColumn();
+    private final ByteColumn idColumn = new ByteColumn();
+
+    private long[] blockOffsets = new long[16];
+    private int[] blockMatchCounts = new int[16];
+    private int blockCount;
+    private long totalMatches;
+    private long position;
+    private boolean closed;
+
+    private MatchHistoryWriter(FileChannel channel, int blockMatches) throws IOException {
+        this.channel = channel;
+        this.blockMatches = blockMatches;
+        this.timestamps = new long[blockMatches];
+        this.matchTeams = new int[blockMatches];
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) 0).flip();
+        write(header);
+    }
+
+    public static MatchHistoryWriter create(Path path) throws IOException {
+        return create(path, DEFAULT_BLOCK_MATCHES);
+    }
+
+    /**
+     * @param blockMatches number of matches per block
+     */
+    public static MatchHistoryWriter create(Path path, int blockMatches) throws IOException {
+        if (blockMatches < 1) {
+            throw new IllegalArgumentException("Block must hold at least one match: " + blockMatches);
+        }
+        FileChannel channel = FileChannel.open(
+                path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE
+        );
+        return new MatchHistoryWriter(channel, blockMatches);
+    }
+
+    /**
+     * Converts a match log to a match history file.
+     */
+    public static void write(Path path, MatchLog<Long> log) throws IOException {
+        try (MatchHistoryWriter writer = create(path)) {
+            for (int match = 0; match < log.matchCount(); match++) {
+                writer.addMatch(log.timestamp(match));
+                for (int team = log.matchTeamStart(match); team < log.matchTeamStart(match + 1); team++) {
+                    writer.addTeam(log.teamRank(team), log.teamWeight(team));
+                    for (int participant = log.teamPlayerStart(team);
+                         participant < log.teamPlayerStart(team + 1);
+                         participant++) {
+                        writer.addParticipant(
+                                log.playerId(log.participant(participant)),
+                                log.participantWeight(participant)
+                        );
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes matches to a match history file.
+     */
+    public static void write(Path path, Iterable<MatchRecord<Long>> matches) throws IOException {
+        try (MatchHistoryWriter writer = create(path)) {
+            for (MatchRecord<Long> match : matches) {
+                writer.add(match);
+            }
+        }
+    }
+
+    public MatchHistoryWriter add(MatchRecord<Long> match) throws IOException {
+        addMatch(match.timestamp());
+        for (TeamRecord<Long> team : match.teams()) {
+            addTeam(team.rank(), team.weight());
+            for (PlayerRecord<Long> player : team.players()) {
+                addParticipant(player.id(), player.weight());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Starts a new match, subsequent teams are added to it.
+     */
+    public MatchHistoryWriter addMatch(long timestamp) throws IOException {
+        checkOpen();
+        if (matchCount == blockMatches) {
+            flushBlock();
+        }
+        timestamps[matchCount] = timestamp;
+        matchTeams[matchCount] = 0;
+        matchCount++;
+        return this;
+    }
+
+    /**
+     * Starts a new team of the current match, subsequent participants are added to it.
+     */
+    public MatchHistoryWriter addTeam(int rank, double weight) {
+        checkOpen();
+        if (matchCount == 0) {
+            throw new IllegalStateException("No match to add the team to");
+        }
+        if (teamCount == teamRanks.length) {
+            teamRanks = Arrays.copyOf(teamRanks, teamCount * 2);
+            teamWeights = Arrays.copyOf(teamWeights, teamCount * 2);
+            teamPlayers = Arrays.copyOf(teamPlayers, teamCount * 2);
+        }
+        teamRanks[teamCount] = rank;
+        teamWeights[teamCount] = weight;
+        teamPlayers[teamCount] = 0;
+        teamCount++;
+        matchTeams[matchCount - 1]++;
+        return this;
+    }
+
+    /**
+     * Adds a participant to the current team.
+     */
+    public MatchHistoryWriter addParticipant(long playerId, double weight) {
+        checkOpen();
+        if (teamCount == 0) {
+            throw new IllegalStateException("No team to add the participant to");
+        }
+        if (participantCount == playerIds.length) {
+            playerIds = Arrays.copyOf(playerIds, participantCount * 2);
+            playerWeights = Arrays.copyOf(playerWeights, participantCount * 2);
+        }
+        playerIds[participantCount] = playerId;
+        playerWeights[participantCount] = weight;
+        participantCount++;
+        teamPlayers[teamCount - 1]++;
+        return this;
+    }
+
+    /**
+     * Writes the buffered block, the block index and the trailer.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (matchCount > 0) {
+                flushBlock();
+            }
+            long indexOffset = position;
+            ByteBuffer index = ByteBuffer.allocate(blockCount * INDEX_ENTRY_SIZE + TRAILER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            for (int block = 0; block < blockCount; block++) {
+                index.putLong(blockOffsets[block]).putInt(blockMatchCounts[block]);
+            }
+            index.putLong(indexOffset).putInt(blockCount).putLong(totalMatches).putInt(MAGIC).flip();
+            write(index);
+            closed = true;
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        long previousTimestamp = 0;
+        int team = 0;
+        for (int match = 0; match < matchCount; match++) {
+            timestampColumn.writeVarLong(zigzag(timestamps[match] - previousTimestamp));
+            previousTimestamp = timestamps[match];
+            teamColumn.writeVarLong(matchTeams[match]);
+            for (int position = 1; position <= matchTeams[match]; position++, team++) {
+                rankColumn.writeVarLong(zigzag((long) teamRanks[team] - position));
+            }
+        }
+        boolean hasTeamWeights = false;
+        for (int i = 0; i < teamCount; i++) {
+            playerColumn.writeVarLong(teamPlayers[i]);
+            hasTeamWeights |= teamWeights[i] != 1.0;
+        }
+        long previousId = 0;
+        boolean hasParticipantWeights = false;
+        for (int i = 0; i < participantCount; i++) {
+            idColumn.writeVarLong(zigzag(playerIds[i] - previousId));
+            previousId = playerIds[i];
+            hasParticipantWeights |= playerWeights[i] != 1.0;
+        }
+
+        int flags = (hasTeamWeights ? FLAG_TEAM_WEIGHTS : 0) | (hasParticipantWeights ? FLAG_PARTICIPANT_WEIGHTS : 0);
+        long size = (long) BLOCK_HEADER_SIZE
+                + timestampColumn.size() + teamColumn.size() + playerColumn.size()
+                + rankColumn.size() + idColumn.size()
+                + (hasTeamWeights ? (long) teamCount * Double.BYTES : 0)
+                + (hasParticipantWeights ? (long) participantCount * Double.BYTES : 0);
+        if (size > MatchHistoryReader.MAX_SEGMENT_SIZE) {
+            throw new IllegalStateException("Block of " + size + " bytes is too large, use smaller blocks");
+        }
+        ByteBuffer block = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        block.putInt(matchCount).putInt(teamCount).putInt(participantCount).putInt(flags)
+                .putInt(timestampColumn.size()).putInt(teamColumn.size()).putInt(playerColumn.size())
+                .putInt(rankColumn.size()).putInt(idColumn.size());
+        timestampColumn.writeTo(block);
+        teamColumn.writeTo(block);
+        playerColumn.writeTo(block);
+        rankColumn.writeTo(block);
+        idColumn.writeTo(block);
+        if (hasTeamWeights) {
+            for (int i = 0; i < teamCount; i++) {
+                block.putDouble(teamWeights[i]);
+            }
+        }
+        if (hasParticipantWeights) {
+            for (int i = 0; i < participantCount; i++) {
+                block.putDouble(playerWeights[i]);
+            }
+        }
+        block.flip();
+
+        if (blockCount == blockOffsets.length) {
+            blockOffsets = Arrays.copyOf(blockOffsets, blockCount * 2);
+            blockMatchCounts = Arrays.copyOf(blockMatchCounts, blockCount * 2);
+        }
+        blockOffsets[blockCount] = position;
+        blockMatchCounts[blockCount] = matchCount;
+        blockCount++;
+        totalMatches += matchCount;
+        write(block);
+
+        timestampColumn.clear();
+        teamColumn.clear();
+        playerColumn.clear();
+        rankColumn.clear();
+        idColumn.clear();
+        matchCount = 0;
+        teamCount = 0;
+        participantCount = 0;
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Writer is closed");
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.pocketcombats.openskill.history;
+
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.PlayerRecord;
+import com.pocketcombats.openskill.data.TeamRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, column oriented match history.
+ * <p>
+ * Matches, teams and participants are stored in flat primitive arrays linked by offsets, and player ids are
+ * replaced with dense player indexes. A log of millions of matches therefore takes a handful of arrays instead
+ * of millions of objects, and can be shared by any number of threads replaying it.
+ * <p>
+ * Teams of match {@code m} are {@code [matchTeamStart(m), matchTeamStart(m + 1))}, participants of team
+ * {@code t} are {@code [teamPlayerStart(t), teamPlayerStart(t + 1))}.
+ */
+public final class MatchLog<T> {
+
+    private final List<T> playerIds;
+    private final Map<T, Integer> playerIndexes;
+    private final long[] timestamps;
+    private final int[] matchTeamStart;
+    private final int[] teamRanks;
+    private final double[] teamWeights;
+    private final int[] teamPlayerStart;
+    private final int[] participants;
+    private final double[] participantWeights;
+
+    private MatchLog(
+            List<T> playerIds,
+            Map<T, Integer> playerIndexes,
+            long[] timestamps,
+            int[] matchTeamStart,
+            int[] teamRanks,
+            double[] teamWeights,
+            int[] teamPlayerStart,
+            int[] participants,
+            double[] participantWeights
+    ) {
+        this.playerIds = playerIds;
+        this.playerIndexes = playerIndexes;
+        this.timestamps = timestamps;
+        this.matchTeamStart = matchTeamStart;
+        this.teamRanks = teamRanks;
+        this.teamWeights = teamWeights;
+        this.teamPlayerStart = teamPlayerStart;
+        this.participants = participants;
+        this.participantWeights = participantWeights;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public static <T> MatchLog<T> of(Iterable<MatchRecord<T>> matches) {
+        Builder<T> builder = builder();
+        matches.forEach(builder::add);
+        return builder.build();
+    }
+
+    public int matchCount() {
+        return timestamps.length;
+    }
+
+    public int teamCount() {
+        return teamRanks.length;
+    }
+
+    public int participantCount() {
+        return participants.length;
+    }
+
+    public int playerCount() {
+        return playerIds.size();
+    }
+
+    public T playerId(int playerIndex) {
+        return playerIds.get(playerIndex);
+    }
+
+    /**
+     * @return player index, or -1 if the player is not in the log
+     */
+    public int playerIndex(T playerId) {
+        return playerIndexes.getOrDefault(playerId, -1);
+    }
+
+    public long timestamp(int match) {
+        return timestamps[match];
+    }
+
+    public int matchTeamStart(int match) {
+        return matchTeamStart[match];
+    }
+
+    public int teamRank(int team) {
+        return teamRanks[team];
+    }
+
+    public double teamWeight(int team) {
+        return teamWeights[team];
+    }
+
+    public int teamPlayerStart(int team) {
+        return teamPlayerStart[team];
+    }
+
+    /**
+     * @return player index of the participant
+     */
+    public int participant(int participant) {
+        return participants[participant];
+    }
+
+    public double participantWeight(int participant) {
+        return participantWeights[participant];
+    }
+
+    /**
+     * Materializes a single match.
+     */
+    public MatchRecord<T> match(int match) {
+        List<TeamRecord<T>> teams = new ArrayList<>(matchTeamStart[match + 1] - matchTeamStart[match]);
+        for (int team = matchTeamStart[match]; team < matchTeamStart[match + 1]; team++) {
+            List<PlayerRecord<T>> players = new ArrayList<>(teamPlayerStart[team + 1] - teamPlayerStart[team]);
+            for (int participant = teamPlayerStart[team]; participant < teamPlayerStart[team + 1]; participant++) {
+                players.add(new PlayerRecord<>(
+                        playerIds.get(participants[participant]),
+                        participantWeights[participant]
+                ));
+            }
+            teams.add(new TeamRecord<>(teamRanks[team], teamWeights[team], players));
+        }
+        return new MatchRecord<>(timestamps[match], teams);
+    }
+
+    public static final class Builder<T> {
+
+        private final List<T> playerIds = new ArrayList<>();
+        private final Map<T, Integer> playerIndexes = new HashMap<>();
+        private long[] timestamps = new long[16];
+        private int[] matchTeamStart = new int[17];
+        private int[] teamRanks = new int[32];
+        private double[] teamWeights = new double[32];
+        private int[] teamPlayerStart = new int[33];
+        private int[] participants = new int[64];
+        private double[] participantWeights = new double[64];
+        private int matchCount;
+        private int teamCount;
+        private int participantCount;
+
+        public Builder<T> add(MatchRecord<T> match) {
+            addMatch(match.timestamp());
+            for (TeamRecord<T> team : match.teams()) {
+                addTeam(team.rank(), team.weight());
+                for (PlayerRecord<T> player : team.players()) {
+                    addParticipant(player.id(), player.weight());
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Starts a new match, subsequent teams are added to it.
+         */
+        public Builder<T> addMatch(long timestamp) {
+            if (matchCount == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, matchCount * 2);
+                matchTeamStart = Arrays.copyOf(matchTeamStart, matchCount * 2 + 1);
+            }
+            timestamps[matchCount] = timestamp;
+            matchTeamStart[matchCount] = teamCount;
+            matchCount++;
+            return this;
+        }
+
+        /**
+         * Starts a new team of the current match, subsequent participants are added to it.
+         */
+        public Builder<T> addTeam(int rank, double weight) {
+            if (matchCount == 0) {
+                throw new IllegalStateException("No match to add the team to");
+            }
+            if (teamCount == teamRanks.length) {
+                teamRanks = Arrays.copyOf(teamRanks, teamCount * 2);
+                teamWeights = Arrays.copyOf(teamWeights, teamCount * 2);
+                teamPlayerStart = Arrays.copyOf(teamPlayerStart, teamCount * 2 + 1);
+            }
+            teamRanks[teamCount] = rank;
+            teamWeights[teamCount] = weight;
+            teamPlayerStart[teamCount] = participantCount;
+            teamCount++;
+            return this;
+        }
+
+        /**
+         * Adds a participant to the current team.
+         */
+        public Builder<T> addParticipant(T playerId, double weight) {
+            if (teamCount == 0) {
+                throw new IllegalStateException("No team to add the participant to");
+            }
+            Integer playerIndex = playerIndexes.get(playerId);
+            if (playerIndex == null) {
+                playerIndex = playerIds.size();
+                playerIds.add(playerId);
+                playerIndexes.put(playerId, playerIndex);
+            }
+            if (participantCount == participants.length) {
+                participants = Arrays.copyOf(participants, participantCount * 2);
+                participantWeights = Arrays.copyOf(participantWeights, participantCount * 2);
+            }
+            participants[participantCount] = playerIndex;
+            participantWeights[participantCount] = weight;
+            participantCount++;
+            return this;
+        }
+
+        public MatchLog<T> build() {
+            int[] matchTeamStart = Arrays.copyOf(this.matchTeamStart, matchCount + 1);
+            matchTeamStart[matchCount] = teamCount;
+            int[] teamPlayerStart = Arrays.copyOf(this.teamPlayerStart, teamCount + 1);
+            teamPlayerStart[teamCount] = participantCount;
+            return new MatchLog<>(
+                    Collections.unmodifiableList(new ArrayList<>(playerIds)),
+                    Map.copyOf(playerIndexes),
+                    Arrays.copyOf(timestamps, matchCount),
+                    matchTeamStart,
+                    Arrays.copyOf(teamRanks, teamCount),
+                    Arrays.copyOf(teamWeights, teamCount),
+                    teamPlayerStart,
+                    Arrays.copyOf(participants, participantCount),
+                    Arrays.copyOf(participantWeights, participantCount)
+            );
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.pocketcombats.openskill.history;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+
+/**
+ * Player rating from the given moment until the next point of the player's {@link RatingTimeSeries}.
+ *
+ * @param timestamp time the rating was assigned, in the unit of the match timestamps
+ */
+public record RatingPoint(
+        long timestamp,
+        double mu,
+        double sigma
+) implements MatchMakingRating {
+}
@@ -0,0 +1,362 @@
+package com.pocketcombats.openskill.history;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rating history of a single player compressed the way Gorilla compresses time series: timestamps are stored as
+ * delta-of-deltas, mu and sigma as the XOR with their previous value, keeping only the meaningful bits.
+ * <p>
+ * Every {@value #CHECKPOINT_INTERVAL} points the decoder state is saved as a checkpoint, so a point lookup by time
+ * binary searches the checkpoints and decodes at most {@value #CHECKPOINT_INTERVAL} points. Appending is amortized
+ * O(1). All methods are synchronized, so the history can be queried while it is appended to.
+ */
+public final class RatingTimeSeries {
+
+    static final int CHECKPOINT_INTERVAL = 128;
+
+    private long[] words = new long[4];
+    private long bitLength;
+    private int size;
+
+    // Encoder state after the last point
+    private final State last = new State();
+
+    // Decoder state after every checkpoint point, the first point of the series is checkpoint 0
+    private long[] checkpointTimestamps = new long[1];
+    private long[] checkpointDeltas = new long[1];
+    private long[] checkpointMus = new long[1];
+    private long[] checkpointSigmas = new long[1];
+    private long[] checkpointPositions = new long[1];
+    private int[] checkpointWindows = new int[1];
+
+    /**
+     * @throws IllegalArgumentException if the timestamp precedes the last appended one
+     */
+    public synchronized void append(long timestamp, double mu, double sigma) {
+        long muBits = Double.doubleToRawLongBits(mu);
+        long sigmaBits = Double.doubleToRawLongBits(sigma);
+        if (size == 0) {
+            last.timestamp = timestamp;
+            last.muBits = muBits;
+            last.sigmaBits = sigmaBits;
+        } else {
+            if (timestamp < last.timestamp) {
+                throw new IllegalArgumentException(
+                        "Timestamp " + timestamp + " precedes the last point at " + last.timestamp
+                );
+            }
+            long delta = timestamp - last.timestamp;
+            writeDeltaOfDelta(delta - last.delta);
+            last.timestamp = timestamp;
+            last.delta = delta;
+            last.muBits = writeXor(muBits, last.muBits, last, true);
+            last.sigmaBits = writeXor(sigmaBits, last.sigmaBits, last, false);
+        }
+        if (size % CHECKPOINT_INTERVAL == 0) {
+            checkpoint(size / CHECKPOINT_INTERVAL);
+        }
+        size++;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return the latest point, or {@code null} if the series is empty
+     */
+    public synchronized RatingPoint last() {
+        return size == 0 ? null : last.point();
+    }
+
+    /**
+     * @return the rating in effect at the given time: the last point at or before it,
+     * or {@code null} if the series starts later
+     */
+    public synchronized RatingPoint asOf(long timestamp) {
+        if (size == 0 || timestamp < checkpointTimestamps[0]) {
+            return null;
+        }
+        if (timestamp >= last.timestamp) {
+            return last.point();
+        }
+        State state = restore(findCheckpoint(timestamp));
+        while (state.index + 1 < size) {
+            long position = state.position;
+            long previousDelta = state.delta;
+            long previousTimestamp = state.timestamp;
+            long delta = previousDelta + readDeltaOfDelta(state);
+            if (previousTimestamp + delta > timestamp) {
+                // Decoding the values is not needed, the previous point is the answer
+                state.position = position;
+                state.delta = previousDelta;
+                break;
+            }
+            state.timestamp = previousTimestamp + delta;
+            state.delta = delta;
+            readValues(state);
+            state.index++;
+        }
+        return state.point();
+    }
+
+    /**
+     * @return points with timestamps from {@code from} inclusive to {@code to} exclusive, in order
+     */
+    public synchronized List<RatingPoint> range(long from, long to) {
+        List<RatingPoint> points = new ArrayList<>();
+        if (size == 0 || from >= to || to <= checkpointTimestamps[0] || from > last.timestamp) {
+            return points;
+        }
+        State state = restore(findCheckpoint(from));
+        while (true) {
+            if (state.timestamp >= to) {
+                break;
+            }
+            if (state.timestamp >= from) {
+                points.add(state.point());
+            }
+            if (state.index + 1 >= size) {
+                break;
+            }
+            state.delta += readDeltaOfDelta(state);
+            state.timestamp += state.delta;
+            readValues(state);
+            state.index++;
+        }
+        return points;
+    }
+
+    /**
+     * Releases the spare capacity kept for appends, for example once a player becomes inactive.
+     */
+    public synchronized void trimToSize() {
+        words = Arrays.copyOf(words, (int) (bitLength >>> 6) + 2);
+        int checkpoints = (size + CHECKPOINT_INTERVAL - 1) / CHECKPOINT_INTERVAL;
+        if (checkpoints > 0) {
+            checkpointTimestamps = Arrays.copyOf(checkpointTimestamps, checkpoints);
+            checkpointDeltas = Arrays.copyOf(checkpointDeltas, checkpoints);
+            checkpointMus = Arrays.copyOf(checkpointMus, checkpoints);
+            checkpointSigmas = Arrays.copyOf(checkpointSigmas, checkpoints);
+            checkpointPositions = Arrays.copyOf(checkpointPositions, checkpoints);
+            checkpointWindows = Arrays.copyOf(checkpointWindows, checkpoints);
+        }
+    }
+
+    /**
+     * @return memory used by the compressed points and checkpoints, including spare capacity
+     */
+    public synchronized long sizeInBytes() {
+        long checkpointBytes = 5 * Long.BYTES + Integer.BYTES;
+        return (long) words.length * Long.BYTES + checkpointTimestamps.length * checkpointBytes;
+    }
+
+    /**
+     * @return the last checkpoint preceding points later than the given time
+     */
+    private int findCheckpoint(long timestamp) {
+        int checkpoints = (size + CHECKPOINT_INTERVAL - 1) / CHECKPOINT_INTERVAL;
+        // Equal timestamps may span checkpoints, take the first checkpoint of such a run
+        int index = Arrays.binarySearch(checkpointTimestamps, 0, checkpoints, timestamp);
+        if (index < 0) {
+            return Math.max(0, -index - 2);
+        }
+        while (index > 0 && checkpointTimestamps[index - 1] == timestamp) {
+            index--;
+        }
+        return Math.max(0, index - 1);
+    }
+
+    private void checkpoint(int checkpoint) {
+        if (checkpoint == checkpointTimestamps.length) {
+            int capacity = checkpoint * 2;
+            checkpointTimestamps = Arrays.copyOf(checkpointTimestamps, capacity);
+            checkpointDeltas = Arrays.copyOf(checkpointDeltas, capacity);
+            checkpointMus = Arrays.copyOf(checkpointMus, capacity);
+            checkpointSigmas = Arrays.copyOf(checkpointSigmas, capacity);
+            checkpointPositions = Arrays.copyOf(checkpointPositions, capacity);
+            checkpointWindows = Arrays.copyOf(checkpointWindows, capacity);
+        }
+        checkpointTimestamps[checkpoint] = last.timestamp;
+        checkpointDeltas[checkpoint] = last.delta;
+        checkpointMus[checkpoint] = last.muBits;
+        checkpointSigmas[checkpoint] = last.sigmaBits;
+        checkpointPositions[checkpoint] = bitLength;
+        checkpointWindows[checkpoint] = last.windows();
+    }
+
+    private State restore(int checkpoint) {
+        State state = new State();
+        state.index = checkpoint * CHECKPOINT_INTERVAL;
+        state.timestamp = checkpointTimestamps[checkpoint];
+        state.delta = checkpointDeltas[checkpoint];
+        state.muBits = checkpointMus[checkpoint];
+        state.sigmaBits = checkpointSigmas[checkpoint];
+        state.position = checkpointPositions[checkpoint];
+        state.setWindows(checkpointWindows[checkpoint]);
+        return state;
+    }
+
+    private void writeDeltaOfDelta(long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            write(0b0, 1);
+        } else if (deltaOfDelta >= -63 && deltaOfDelta <= 64) {
+            write(0b10, 2);
+            write(deltaOfDelta + 63, 7);
+        } else if (deltaOfDelta >= -255 && deltaOfDelta <= 256) {
+            write(0b110, 3);
+            write(deltaOfDelta + 255, 9);
+        } else if (deltaOfDelta >= -2047 && deltaOfDelta <= 2048) {
+            write(0b1110, 4);
+            write(deltaOfDelta + 2047, 12);
+        } else {
+            write(0b1111, 4);
+            write(deltaOfDelta, 64);
+        }
+    }
+
+    private long readDeltaOfDelta(State state) {
+        if (read(state, 1) == 0) {
+            return 0;
+        }
+        if (read(state, 1) == 0) {
+            return read(state, 7) - 63;
+        }
+        if (read(state, 1) == 0) {
+            return read(state, 9) - 255;
+        }
+        if (read(state, 1) == 0) {
+            return read(state, 12) - 2047;
+        }
+        return read(state, 64);
+    }
+
+    /**
+     * @return the new value bits
+     */
+    private long writeXor(long bits, long previousBits, State state, boolean mu) {
+        long xor = bits ^ previousBits;
+        if (xor == 0) {
+            write(0b0, 1);
+            return bits;
+        }
+        int leading = Long.numberOfLeadingZeros(xor);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        int windowLeading = mu ? state.muLeading : state.sigmaLeading;
+        int windowTrailing = mu ? state.muTrailing : state.sigmaTrailing;
+        if (windowLeading >= 0 && leading >= windowLeading && trailing >= windowTrailing) {
+            write(0b10, 2);
+            write(xor >>> windowTrailing, 64 - windowLeading - windowTrailing);
+        } else {
+            int length = 64 - leading - trailing;
+            write(0b11, 2);
+            write(leading, 6);
+            write(length - 1, 6);
+            write(xor >>> trailing, length);
+            if (mu) {
+                state.muLeading = leading;
+                state.muTrailing = trailing;
+            } else {
+                state.sigmaLeading = leading;
+                state.sigmaTrailing = trailing;
+            }
+        }
+        return bits;
+    }
+
+    private void readValues(State state) {
+        state.muBits = readXor(state, state.muBits, true);
+        state.sigmaBits = readXor(state, state.sigmaBits, false);
+    }
+
+    private long readXor(State state, long previousBits, boolean mu) {
+        if (read(state, 1) == 0) {
+            return previousBits;
+        }
+        if (read(state, 1) == 0) {
+            int windowLeading = mu ? state.muLeading : state.sigmaLeading;
+            int windowTrailing = mu ? state.muTrailing : state.sigmaTrailing;
+            return previousBits ^ read(state, 64 - windowLeading - windowTrailing) << windowTrailing;
+        }
+        int leading = (int) read(state, 6);
+        int length = (int) read(state, 6) + 1;
+        int trailing = 64 - leading - length;
+        if (mu) {
+            state.muLeading = leading;
+            state.muTrailing = trailing;
+        } else {
+            state.sigmaLeading = leading;
+            state.sigmaTrailing = trailing;
+        }
+        return previousBits ^ read(state, length) << trailing;
+    }
+
+    /**
+     * Appends the low {@code bits} bits of the value, most significant first.
+     */
+    private void write(long value, int bits) {
+        int word = (int) (bitLength >>> 6);
+        int offset = (int) (bitLength & 63);
+        if (word + 1 >= words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        long masked = bits == 64 ? value : value & ((1L << bits) - 1);
+        int free = 64 - offset;
+        if (bits <= free) {
+            words[word] |= masked << (free - bits);
+        } else {
+            words[word] |= masked >>> (bits - free);
+            words[word + 1] |= masked << (64 - (bits - free));
+        }
+        bitLength += bits;
+    }
+
+    private long read(State state, int bits) {
+        int word = (int) (state.position >>> 6);
+        int offset = (int) (state.position & 63);
+        state.position += bits;
+        int free = 64 - offset;
+        long value;
+        if (bits <= free) {
+            value = words[word] >>> (free - bits);
+        } else {
+            value = words[word] << (bits - free) | words[word + 1] >>> (64 - (bits - free));
+        }
+        return bits == 64 ? value : value & ((1L << bits) - 1);
+    }
+
+    /**
+     * Decoded point together with what is needed to decode the next one.
+     */
+    private static final class State {
+
+        private int index;
+        private long timestamp;
+        private long delta;
+        private long muBits;
+        private long sigmaBits;
+        private long position;
+        private int muLeading = -1;
+        private int muTrailing;
+        private int sigmaLeading = -1;
+        private int sigmaTrailing;
+
+        private RatingPoint point() {
+            return new RatingPoint(timestamp, Double.longBitsToDouble(muBits), Double.longBitsToDouble(sigmaBits));
+        }
+
+        // Each window field fits into 7 bits, -1 for a window not yet established
+        private int windows() {
+            return (muLeading + 1) << 21 | muTrailing << 14 | (sigmaLeading + 1) << 7 | sigmaTrailing;
+        }
+
+        private void setWindows(int windows) {
+            muLeading = (windows >>> 21 & 0x7F) - 1;
+            muTrailing = windows >>> 14 & 0x7F;
+            sigmaLeading = (windows >>> 7 & 0x7F) - 1;
+            sigmaTrailing = windows & 0x7F;
+        }
+    }
+}
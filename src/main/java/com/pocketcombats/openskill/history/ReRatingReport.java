@@ -0,0 +1,17 @@
+package com.pocketcombats.openskill.history;
+
+import java.util.Set;
+
+/**
+ * Outcome of an incremental re-rating.
+ *
+ * @param recomputedMatches matches that were rated again, including the edited one
+ * @param visitedMatches    downstream matches that were examined, whether they had to be rated again or not
+ * @param changedPlayers    players whose current rating changed
+ */
+public record ReRatingReport<T>(
+        int recomputedMatches,
+        int visitedMatches,
+        Set<T> changedPlayers
+) {
+}
@@ -0,0 +1,491 @@
+package com.pocketcombats.openskill.history;
+
+import com.pocketcombats.openskill.Adjudicator;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator;
+import com.pocketcombats.openskill.aggregate.TeamRatingAggregator;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.PlayerResult;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import com.pocketcombats.openskill.data.SimplePlayerResult;
+import com.pocketcombats.openskill.data.SimpleTeamResult;
+import com.pocketcombats.openskill.data.TeamResult;
+import com.pocketcombats.openskill.model.RatingModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Offline rating of a complete match history, in the spirit of TrueSkill Through Time.
+ * <p>
+ * Every player appearance in a match is a separate skill variable, consecutive appearances of a player are
+ * linked by the {@code tau} dynamics. Ratings are fitted by expectation propagation: forward and backward
+ * sweeps over the history re-rate every match with the player's belief informed by all their other matches,
+ * earlier and later, until no player's final rating moves by more than the tolerance. The match itself is
+ * rated with the configured {@link RatingModel} the same way {@link Adjudicator} rates it online, so the very
+ * first forward sweep is equivalent to rating the history online. Later sweeps let every match inform
+ * the ratings used in all other matches, which removes most of the order dependency of online updates.
+ * <p>
+ * Players that never met, directly or through common opponents, form independent components which are fitted
+ * in parallel. Matches are read from a {@link MatchLog} and all per-appearance state is kept in primitive arrays.
+ */
+public class WholeHistoryRating {
+
+    private static final int MIN_MATCHES_PER_TASK = 4096;
+
+    private final Adjudicator<Integer> adjudicator;
+    private final TeamRatingAggregator teamRatingAggregator;
+    private final double tauSquared;
+    private final double initialMu;
+    private final double initialSigmaSquared;
+    private final int maxIterations;
+    private final double tolerance;
+    private final ForkJoinPool pool;
+
+    private WholeHistoryRating(Builder builder) {
+        RatingModelConfig config = builder.config;
+        // Dynamics are applied between appearances, the match itself is rated without tau
+        RatingModelConfig matchConfig = RatingModelConfig.builder(config)
+                .setLimitSigma(false)
+                .setTau(0.0)
+                .build();
+        this.adjudicator = new Adjudicator<>(matchConfig, builder.ratingModel);
+        this.teamRatingAggregator = builder.teamRatingAggregatorFactory.apply(matchConfig);
+        this.tauSquared = config.tau() * config.tau();
+        this.initialMu = builder.initialRating.mu();
+        this.initialSigmaSquared = builder.initialRating.sigma() * builder.initialRating.sigma();
+        this.maxIterations = builder.maxIterations;
+        this.tolerance = builder.tolerance;
+        this.pool = builder.pool;
+    }
+
+    public static Builder builder(RatingModelConfig config, RatingModel ratingModel) {
+        return new Builder(config, ratingModel);
+    }
+
+    public <T> WholeHistoryResult<T> fit(MatchLog<T> log) {
+        Fit<T> fit = new Fit<>(log);
+        List<Callable<int[]>> tasks = new ArrayList<>();
+        List<int[]> pending = new ArrayList<>();
+        int pendingMatches = 0;
+        for (int component = 0; component < fit.componentCount; component++) {
+            pending.add(new int[]{component});
+            pendingMatches += fit.componentMatchStart[component + 1] - fit.componentMatchStart[component];
+            if (pendingMatches >= MIN_MATCHES_PER_TASK) {
+                tasks.add(fit.task(pending));
+                pending = new ArrayList<>();
+                pendingMatches = 0;
+            }
+        }
+        if (!pending.isEmpty()) {
+            tasks.add(fit.task(pending));
+        }
+
+        int iterations = 0;
+        boolean converged = true;
+        for (Future<int[]> result : pool.invokeAll(tasks)) {
+            int[] outcome = join(result);
+            iterations = Math.max(iterations, outcome[0]);
+            converged &= outcome[1] != 0;
+        }
+        return fit.result(iterations, converged);
+    }
+
+    private static int[] join(Future<int[]> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fitting ratings", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * State of a single fit. Messages are stored in natural parameters, precision {@code pi} and
+     * precision adjusted mean {@code tau}, indexed by participant.
+     */
+    private final class Fit<T> {
+
+        private final MatchLog<T> log;
+        // Forward messages: belief from the earlier appearances
+        private final double[] forwardPi;
+        private final double[] forwardTau;
+        // Backward messages: belief from the later appearances
+        private final double[] backwardPi;
+        private final double[] backwardTau;
+        // Match messages: what the match itself says about the participant
+        private final double[] matchPi;
+        private final double[] matchTau;
+        // Per player sweep state
+        private final double[] runningPi;
+        private final double[] runningTau;
+        private final boolean[] seen;
+        private final int[] lastParticipant;
+        private final double[] finalMu;
+        private final double[] finalSigma;
+
+        private int componentCount;
+        private int[] componentMatchStart;
+        private int[] componentMatches;
+        private int[] componentPlayerStart;
+        private int[] componentPlayers;
+
+        private Fit(MatchLog<T> log) {
+            this.log = log;
+            int participants = log.participantCount();
+            int players = log.playerCount();
+            this.forwardPi = new double[participants];
+            this.forwardTau = new double[participants];
+            this.backwardPi = new double[participants];
+            this.backwardTau = new double[participants];
+            this.matchPi = new double[participants];
+            this.matchTau = new double[participants];
+            this.runningPi = new double[players];
+            this.runningTau = new double[players];
+            this.seen = new boolean[players];
+            this.lastParticipant = new int[players];
+            this.finalMu = new double[players];
+            this.finalSigma = new double[players];
+            for (int participant = 0; participant < participants; participant++) {
+                lastParticipant[log.participant(participant)] = participant;
+            }
+            for (int player = 0; player < players; player++) {
+                finalMu[player] = initialMu;
+                finalSigma[player] = Math.sqrt(initialSigmaSquared);
+            }
+            findComponents();
+        }
+
+        private void findComponents() {
+            int players = log.playerCount();
+            int[] parent = new int[players];
+            for (int player = 0; player < players; player++) {
+                parent[player] = player;
+            }
+            int matches = log.matchCount();
+            for (int match = 0; match < matches; match++) {
+                int first = log.teamPlayerStart(log.matchTeamStart(match));
+                int end = log.teamPlayerStart(log.matchTeamStart(match + 1));
+                if (first == end) {
+                    // No participants, the match belongs to no component
+                    continue;
+                }
+                for (int participant = first + 1; participant < end; participant++) {
+                    int a = find(parent, log.participant(first));
+                    int b = find(parent, log.participant(participant));
+                    if (a != b) {
+                        parent[Math.max(a, b)] = Math.min(a, b);
+                    }
+                }
+            }
+            int[] componentOfRoot = new int[players];
+            int[] playerComponent = new int[players];
+            for (int player = 0; player < players; player++) {
+                int root = find(parent, player);
+                if (root == player) {
+                    componentOfRoot[root] = componentCount++;
+                }
+                playerComponent[player] = componentOfRoot[root];
+            }
+            componentPlayerStart = new int[componentCount + 1];
+            componentPlayers = groupBy(players, componentPlayerStart, player -> playerComponent[player]);
+            componentMatchStart = new int[componentCount + 1];
+            componentMatches = groupBy(matches, componentMatchStart, match -> {
+                int first = log.teamPlayerStart(log.matchTeamStart(match));
+                int end = log.teamPlayerStart(log.matchTeamStart(match + 1));
+                return first == end ? -1 : playerComponent[log.participant(first)];
+            });
+        }
+
+        /**
+         * Counting sort of {@code [0, count)} by group, preserving the order within a group.
+         * Elements of a negative group are left out.
+         */
+        private int[] groupBy(int count, int[] groupStart, IntUnaryOperator group) {
+            for (int i = 0; i < count; i++) {
+                int g = group.applyAsInt(i);
+                if (g >= 0) {
+                    groupStart[g + 1]++;
+                }
+            }
+            for (int g = 1; g < groupStart.length; g++) {
+                groupStart[g] += groupStart[g - 1];
+            }
+            int[] next = Arrays.copyOf(groupStart, groupStart.length - 1);
+            int[] grouped = new int[groupStart[groupStart.length - 1]];
+            for (int i = 0; i < count; i++) {
+                int g = group.applyAsInt(i);
+                if (g >= 0) {
+                    grouped[next[g]++] = i;
+                }
+            }
+            return grouped;
+        }
+
+        private Callable<int[]> task(List<int[]> components) {
+            return () -> {
+                int iterations = 0;
+                boolean converged = true;
+                for (int[] component : components) {
+                    int componentIterations = fitComponent(component[0]);
+                    iterations = Math.max(iterations, Math.abs(componentIterations));
+                    converged &= componentIterations > 0;
+                }
+                return new int[]{iterations, converged ? 1 : 0};
+            };
+        }
+
+        /**
+         * @return the number of sweeps, negative if the component did not converge
+         */
+        private int fitComponent(int component) {
+            int matchStart = componentMatchStart[component];
+            int matchEnd = componentMatchStart[component + 1];
+            for (int iteration = 1; iteration <= maxIterations; iteration++) {
+                forwardSweep(matchStart, matchEnd);
+                backwardSweep(matchStart, matchEnd);
+                if (updateFinalRatings(component) <= tolerance) {
+                    return iteration;
+                }
+            }
+            return -maxIterations;
+        }
+
+        private void forwardSweep(int matchStart, int matchEnd) {
+            resetSeen(matchStart, matchEnd);
+            for (int i = matchStart; i < matchEnd; i++) {
+                int match = componentMatches[i];
+                int first = log.teamPlayerStart(log.matchTeamStart(match));
+                int end = log.teamPlayerStart(log.matchTeamStart(match + 1));
+                for (int participant = first; participant < end; participant++) {
+                    int player = log.participant(participant);
+                    if (seen[player]) {
+                        diffuse(runningPi[player], runningTau[player], forwardPi, forwardTau, participant);
+                    } else {
+                        double variance = initialSigmaSquared + tauSquared;
+                        forwardPi[participant] = 1 / variance;
+                        forwardTau[participant] = initialMu / variance;
+                    }
+                }
+                rateMatch(match);
+                for (int participant = first; participant < end; participant++) {
+                    int player = log.participant(participant);
+                    runningPi[player] = forwardPi[participant] + matchPi[participant];
+                    runningTau[player] = forwardTau[participant] + matchTau[participant];
+                    seen[player] = true;
+                }
+            }
+        }
+
+        private void backwardSweep(int matchStart, int matchEnd) {
+            resetSeen(matchStart, matchEnd);
+            for (int i = matchEnd - 1; i >= matchStart; i--) {
+                int match = componentMatches[i];
+                int first = log.teamPlayerStart(log.matchTeamStart(match));
+                int end = log.teamPlayerStart(log.matchTeamStart(match + 1));
+                for (int participant = first; participant < end; participant++) {
+                    int player = log.participant(participant);
+                    if (seen[player]) {
+                        diffuse(runningPi[player], runningTau[player], backwardPi, backwardTau, participant);
+                    } else {
+                        backwardPi[participant] = 0;
+                        backwardTau[participant] = 0;
+                    }
+                }
+                rateMatch(match);
+                for (int participant = first; participant < end; participant++) {
+                    int player = log.participant(participant);
+                    runningPi[player] = backwardPi[participant] + matchPi[participant];
+                    runningTau[player] = backwardTau[participant] + matchTau[participant];
+                    seen[player] = true;
+                }
+            }
+        }
+
+        private void resetSeen(int matchStart, int matchEnd) {
+            for (int i = matchStart; i < matchEnd; i++) {
+                int match = componentMatches[i];
+                int first = log.teamPlayerStart(log.matchTeamStart(match));
+                int end = log.teamPlayerStart(log.matchTeamStart(match + 1));
+                for (int participant = first; participant < end; participant++) {
+                    seen[log.participant(participant)] = false;
+                }
+            }
+        }
+
+        /**
+         * Passes a message through the skill dynamics between two appearances of a player.
+         */
+        private void diffuse(double pi, double tau, double[] targetPi, double[] targetTau, int participant) {
+            if (pi <= 0) {
+                targetPi[participant] = 0;
+                targetTau[participant] = 0;
+                return;
+            }
+            double diffusedPi = 1 / (1 / pi + tauSquared);
+            targetPi[participant] = diffusedPi;
+            targetTau[participant] = tau / pi * diffusedPi;
+        }
+
+        /**
+         * Rates the match with every participant's belief excluding the match itself,
+         * and stores what the match added to it.
+         */
+        private void rateMatch(int match) {
+            int teamStart = log.matchTeamStart(match);
+            int teamEnd = log.matchTeamStart(match + 1);
+            List<TeamResult<Integer>> teams = new ArrayList<>(teamEnd - teamStart);
+            for (int team = teamStart; team < teamEnd; team++) {
+                int playerStart = log.teamPlayerStart(team);
+                int playerEnd = log.teamPlayerStart(team + 1);
+                List<PlayerResult<Integer>> players = new ArrayList<>(playerEnd - playerStart);
+                for (int participant = playerStart; participant < playerEnd; participant++) {
+                    double pi = forwardPi[participant] + backwardPi[participant];
+                    double tau = forwardTau[participant] + backwardTau[participant];
+                    players.add(new SimplePlayerResult<>(
+                            participant,
+                            tau / pi,
+                            Math.sqrt(1 / pi),
+                            log.participantWeight(participant)
+                    ));
+                }
+                MatchMakingRating teamRating = teamRatingAggregator.computeTeamRating(players);
+                teams.add(new SimpleTeamResult<>(
+                        teamRating.mu(),
+                        teamRating.sigma(),
+                        log.teamRank(team),
+                        log.teamWeight(team),
+                        players
+                ));
+            }
+            for (RatingAdjustment<Integer> adjustment : adjudicator.rate(teams)) {
+                int participant = adjustment.playerId();
+                double pi = forwardPi[participant] + backwardPi[participant];
+                double tau = forwardTau[participant] + backwardTau[participant];
+                double posteriorPi = 1 / (adjustment.sigma() * adjustment.sigma());
+                // A match never increases uncertainty without tau, guard against rounding
+                matchPi[participant] = Math.max(posteriorPi - pi, 0);
+                matchTau[participant] = adjustment.mu() * posteriorPi - tau;
+            }
+        }
+
+        /**
+         * @return the largest change of a component player's final rating
+         */
+        private double updateFinalRatings(int component) {
+            double change = 0;
+            for (int i = componentPlayerStart[component]; i < componentPlayerStart[component + 1]; i++) {
+                int player = componentPlayers[i];
+                int participant = lastParticipant[player];
+                double pi = forwardPi[participant] + matchPi[participant];
+                double mu = (forwardTau[participant] + matchTau[participant]) / pi;
+                double sigma = Math.sqrt(1 / pi);
+                change = Math.max(change, Math.max(Math.abs(mu - finalMu[player]), Math.abs(sigma - finalSigma[player])));
+                finalMu[player] = mu;
+                finalSigma[player] = sigma;
+            }
+            return change;
+        }
+
+        private WholeHistoryResult<T> result(int iterations, boolean converged) {
+            int participants = log.participantCount();
+            double[] participantMu = new double[participants];
+            double[] participantSigma = new double[participants];
+            for (int participant = 0; participant < participants; participant++) {
+                double pi = forwardPi[participant] + matchPi[participant] + backwardPi[participant];
+                double tau = forwardTau[participant] + matchTau[participant] + backwardTau[participant];
+                participantMu[participant] = tau / pi;
+                participantSigma[participant] = Math.sqrt(1 / pi);
+            }
+            return new WholeHistoryResult<>(
+                    log,
+                    finalMu,
+                    finalSigma,
+                    participantMu,
+                    participantSigma,
+                    iterations,
+                    converged
+            );
+        }
+    }
+
+    private static int find(int[] parent, int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    public static final class Builder {
+
+        private final RatingModelConfig config;
+        private final RatingModel ratingModel;
+        private Function<RatingModelConfig, ? extends TeamRatingAggregator> teamRatingAggregatorFactory =
+                DefaultTeamRatingAggregator::new;
+        private MatchMakingRating initialRating = new SimpleMatchMakingRating(25.0, 25.0 / 3);
+        private int maxIterations = 30;
+        private double tolerance = 1E-4;
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        private Builder(RatingModelConfig config, RatingModel ratingModel) {
+            this.config = Objects.requireNonNull(config);
+            this.ratingModel = Objects.requireNonNull(ratingModel);
+        }
+
+        public WholeHistoryRating build() {
+            return new WholeHistoryRating(this);
+        }
+
+        /**
+         * Team rating aggregator factory, called with the configuration used to rate a single match.
+         */
+        public Builder setTeamRatingAggregatorFactory(
+                Function<RatingModelConfig, ? extends TeamRatingAggregator> teamRatingAggregatorFactory
+        ) {
+            this.teamRatingAggregatorFactory = Objects.requireNonNull(teamRatingAggregatorFactory);
+            return this;
+        }
+
+        public Builder setInitialRating(MatchMakingRating initialRating) {
+            this.initialRating = Objects.requireNonNull(initialRating);
+            return this;
+        }
+
+        public Builder setMaxIterations(int maxIterations) {
+            if (maxIterations <= 0) {
+                throw new IllegalArgumentException("Iteration limit must be positive: " + maxIterations);
+            }
+            this.maxIterations = maxIterations;
+            return this;
+        }
+
+        /**
+         * Largest change of any player's final mu or sigma between two sweeps that is considered converged.
+         */
+        public Builder setTolerance(double tolerance) {
+            this.tolerance = tolerance;
+            return this;
+        }
+
+        public Builder setPool(ForkJoinPool pool) {
+            this.pool = Objects.requireNonNull(pool);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.pocketcombats.openskill.history;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+
+/**
+ * Ratings fitted by {@link WholeHistoryRating}.
+ */
+public final class WholeHistoryResult<T> {
+
+    private final MatchLog<T> log;
+    private final double[] mu;
+    private final double[] sigma;
+    private final double[] participantMu;
+    private final double[] participantSigma;
+    private final int iterations;
+    private final boolean converged;
+
+    WholeHistoryResult(
+            MatchLog<T> log,
+            double[] mu,
+            double[] sigma,
+            double[] participantMu,
+            double[] participantSigma,
+            int iterations,
+            boolean converged
+    ) {
+        this.log = log;
+        this.mu = mu;
+        this.sigma = sigma;
+        this.participantMu = participantMu;
+        this.participantSigma = participantSigma;
+        this.iterations = iterations;
+        this.converged = converged;
+    }
+
+    public MatchLog<T> log() {
+        return log;
+    }
+
+    /**
+     * @return player rating after the last match, or {@code null} if the player is not in the log
+     */
+    public MatchMakingRating rating(T playerId) {
+        int playerIndex = log.playerIndex(playerId);
+        return playerIndex < 0 ? null : ratingByIndex(playerIndex);
+    }
+
+    /**
+     * @param playerIndex player index in the {@link MatchLog}
+     */
+    public MatchMakingRating ratingByIndex(int playerIndex) {
+        return new SimpleMatchMakingRating(mu[playerIndex], sigma[playerIndex]);
+    }
+
+    /**
+     * @return smoothed participant rating at the time of the match, informed by both earlier and later matches
+     */
+    public MatchMakingRating participantRating(int participant) {
+        return new SimpleMatchMakingRating(participantMu[participant], participantSigma[participant]);
+    }
+
+    /**
+     * @return the largest number of sweeps any of the independent player components needed
+     */
+    public int iterations() {
+        return iterations;
+    }
+
+    /**
+     * @return {@code true} if all player components converged within the iteration limit
+     */
+    public boolean converged() {
+        return converged;
+    }
+}
@@ -0,0 +1,13 @@
+package com.pocketcombats.openskill.index;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+
+/**
+ * @param quality match quality against the queried rating, see {@link com.pocketcombats.openskill.QualityEvaluator}
+ */
+public record MatchCandidate<T>(
+        T id,
+        MatchMakingRating rating,
+        double quality
+) {
+}
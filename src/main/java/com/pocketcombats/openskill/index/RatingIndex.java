@@ -0,0 +1,403 @@
+package com.pocketcombats.openskill.index;
+
+import com.pocketcombats.openskill.QualityEvaluator;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.BiConsumer;
+
+/**
+ * Grid index of ratings over the (mu, sigma) plane for opponent search.
+ * <p>
+ * Two ratings are within acceptable range when their mu differ by at most three times the larger sigma, as in
+ * {@link QualityEvaluator}. For a queried rating that is a vertical strip around its mu, widened by a cone of
+ * candidates uncertain enough to reach it, so a range query only visits the grid cells intersecting that region.
+ * Best match queries visit mu columns outwards from the queried mu and stop once the remaining cells can not hold
+ * a better match than the k-th best found.
+ * <p>
+ * Updating a rating moves it between cells in constant time. The index is not thread-safe.
+ */
+public class RatingIndex<T> {
+
+    private final QualityEvaluator qualityEvaluator;
+    private final double betaSquared;
+    private final double muCellWidth;
+    private final double sigmaCellHeight;
+
+    private final Map<Integer, Column<T>> columns = new HashMap<>();
+    private final Map<T, Entry<T>> entries = new HashMap<>();
+    // Number of ratings in every sigma row, for the largest indexed sigma
+    private int[] rowCounts = new int[16];
+    private int minColumn = Integer.MAX_VALUE;
+    private int maxColumn = Integer.MIN_VALUE;
+
+    /**
+     * Creates an index with cells of a quarter of beta by a tenth of the default initial sigma.
+     */
+    public RatingIndex(RatingModelConfig config) {
+        this(config, config.beta() / 4, 25.0 / 30);
+    }
+
+    public RatingIndex(RatingModelConfig config, double muCellWidth, double sigmaCellHeight) {
+        if (!(muCellWidth > 0) || !(sigmaCellHeight > 0)) {
+            throw new IllegalArgumentException("Cell size must be positive: " + muCellWidth + "x" + sigmaCellHeight);
+        }
+        this.qualityEvaluator = new QualityEvaluator(config);
+        this.betaSquared = config.beta() * config.beta();
+        this.muCellWidth = muCellWidth;
+        this.sigmaCellHeight = sigmaCellHeight;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public MatchMakingRating get(T id) {
+        Entry<T> entry = entries.get(id);
+        return entry == null ? null : entry.rating;
+    }
+
+    /**
+     * Adds the player or updates its rating.
+     */
+    public void put(T id, MatchMakingRating rating) {
+        Objects.requireNonNull(rating);
+        if (!(rating.sigma() >= 0) || !Double.isFinite(rating.mu()) || !Double.isFinite(rating.sigma())) {
+            throw new IllegalArgumentException("Invalid rating: " + rating);
+        }
+        int column = column(rating.mu());
+        int row = row(rating.sigma());
+        Entry<T> entry = entries.get(id);
+        if (entry == null) {
+            entry = new Entry<>(id);
+            entries.put(id, entry);
+        } else if (entry.column == column && entry.row == row) {
+            entry.bucket.update(entry, rating);
+            return;
+        } else {
+            detach(entry);
+        }
+        entry.column = column;
+        entry.row = row;
+        Column<T> target = columns.computeIfAbsent(column, key -> new Column<>());
+        target.bucket(row).add(entry, rating);
+        target.size++;
+        if (row >= rowCounts.length) {
+            rowCounts = Arrays.copyOf(rowCounts, Math.max(row + 1, rowCounts.length * 2));
+        }
+        rowCounts[row]++;
+        minColumn = Math.min(minColumn, column);
+        maxColumn = Math.max(maxColumn, column);
+    }
+
+    public boolean remove(T id) {
+        Entry<T> entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        detach(entry);
+        return true;
+    }
+
+    /**
+     * @return ids of all indexed players within acceptable range of the rating, in no particular order
+     */
+    public List<T> withinAcceptableRange(MatchMakingRating rating) {
+        List<T> ids = new ArrayList<>();
+        forEachWithinAcceptableRange(rating, (id, candidate) -> ids.add(id));
+        return ids;
+    }
+
+    public void forEachWithinAcceptableRange(
+            MatchMakingRating rating,
+            BiConsumer<? super T, MatchMakingRating> action
+    ) {
+        double mu = rating.mu();
+        double sigma = rating.sigma();
+        double reach = 3 * Math.max(sigma, maxSigma());
+        int from = Math.max(minColumn, column(mu - reach));
+        int to = Math.min(maxColumn, column(mu + reach));
+        for (int columnIndex = from; columnIndex <= to; columnIndex++) {
+            Column<T> column = columns.get(columnIndex);
+            if (column == null || column.size == 0) {
+                continue;
+            }
+            double distance = columnDistance(columnIndex, mu);
+            for (int row = column.buckets.length - 1; row >= 0; row--) {
+                // Candidates below this row are not uncertain enough to reach the rating on their own
+                if (3 * Math.max(sigma, rowTop(row)) < distance) {
+                    break;
+                }
+                Bucket<T> bucket = column.buckets[row];
+                if (bucket == null) {
+                    continue;
+                }
+                for (int slot = 0; slot < bucket.size; slot++) {
+                    if (Math.abs(bucket.mu[slot] - mu) <= 3 * Math.max(sigma, bucket.sigma[slot])) {
+                        action.accept(bucket.entries[slot].id, bucket.ratings[slot]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return up to {@code k} players within acceptable range with the highest match quality against the rating,
+     * from the best to the worst
+     */
+    public List<MatchCandidate<T>> bestMatches(MatchMakingRating rating, int k) {
+        return bestMatches(rating, k, null);
+    }
+
+    /**
+     * Finds the best matches of an indexed player, excluding the player itself.
+     */
+    public List<MatchCandidate<T>> bestMatches(T id, int k) {
+        MatchMakingRating rating = get(id);
+        if (rating == null) {
+            throw new IllegalArgumentException("Unknown player: " + id);
+        }
+        return bestMatches(rating, k, id);
+    }
+
+    private List<MatchCandidate<T>> bestMatches(MatchMakingRating rating, int k, T excluded) {
+        if (k <= 0 || entries.isEmpty()) {
+            return List.of();
+        }
+        double mu = rating.mu();
+        double sigma = rating.sigma();
+        double sigmaSquared = rating.sigmaSquared();
+        // Quality only falls with the standardized mu difference, so candidates are ranked by it and the quality
+        // is evaluated for the best k only. The worst of them is on top.
+        PriorityQueue<Ranked<T>> best = new PriorityQueue<>(
+                k,
+                Comparator.comparingDouble((Ranked<T> ranked) -> ranked.gap()).reversed()
+        );
+        int center = column(mu);
+        // Columns in the order of their distance from the rating's mu
+        int below = center - 1;
+        int above = center;
+        while (below >= minColumn || above <= maxColumn) {
+            boolean takeAbove = below < minColumn
+                    || above <= maxColumn && columnDistance(above, mu) <= columnDistance(below, mu);
+            int columnIndex = takeAbove ? above++ : below--;
+            double distance = columnDistance(columnIndex, mu);
+            // Farther columns are more distant under the same sigma bound
+            if (isExhausted(best, k, gapBound(distance, sigma, sigmaSquared, maxSigma()))) {
+                break;
+            }
+            Column<T> column = columns.get(columnIndex);
+            if (column == null) {
+                continue;
+            }
+            for (int row = column.buckets.length - 1; row >= 0; row--) {
+                Bucket<T> bucket = column.buckets[row];
+                if (bucket == null || bucket.size == 0) {
+                    continue;
+                }
+                if (isExhausted(best, k, gapBound(distance, sigma, sigmaSquared, rowTop(row)))) {
+                    break;
+                }
+                for (int slot = 0; slot < bucket.size; slot++) {
+                    T id = bucket.entries[slot].id;
+                    double difference = Math.abs(bucket.mu[slot] - mu);
+                    double candidateSigma = bucket.sigma[slot];
+                    if (difference > 3 * Math.max(sigma, candidateSigma) || id.equals(excluded)) {
+                        continue;
+                    }
+                    double gap = difference < 1E-3
+                            ? 0
+                            : difference / Math.sqrt(sigmaSquared + candidateSigma * candidateSigma + betaSquared);
+                    if (best.size() < k) {
+                        best.add(new Ranked<>(id, bucket.ratings[slot], gap));
+                    } else if (gap < best.peek().gap()) {
+                        best.poll();
+                        best.add(new Ranked<>(id, bucket.ratings[slot], gap));
+                    }
+                }
+            }
+        }
+        List<MatchCandidate<T>> result = new ArrayList<>(best.size());
+        for (Ranked<T> ranked : best) {
+            result.add(new MatchCandidate<>(ranked.id(), ranked.rating(), quality(rating, ranked.rating())));
+        }
+        result.sort(Comparator.comparingDouble(MatchCandidate<T>::quality).reversed());
+        return result;
+    }
+
+    private static boolean isExhausted(PriorityQueue<? extends Ranked<?>> best, int k, double bound) {
+        return bound == Double.POSITIVE_INFINITY || best.size() == k && bound >= best.peek().gap();
+    }
+
+    private double quality(MatchMakingRating rating, MatchMakingRating candidate) {
+        // Stronger rating first, the evaluator expects a non-negative mu difference
+        return rating.mu() >= candidate.mu()
+                ? qualityEvaluator.evaluateQuality(rating, candidate)
+                : qualityEvaluator.evaluateQuality(candidate, rating);
+    }
+
+    /**
+     * Lower bound of the standardized mu difference to candidates at least {@code distance} away in mu with sigma
+     * at most {@code maxSigma}, infinite when no such candidate can be within acceptable range.
+     */
+    private double gapBound(double distance, double sigma, double sigmaSquared, double maxSigma) {
+        if (distance > 3 * Math.max(sigma, maxSigma)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (distance < 1E-3) {
+            return 0;
+        }
+        return distance / Math.sqrt(sigmaSquared + maxSigma * maxSigma + betaSquared);
+    }
+
+    private void detach(Entry<T> entry) {
+        Column<T> column = columns.get(entry.column);
+        entry.bucket.remove(entry);
+        column.size--;
+        rowCounts[entry.row]--;
+        if (column.size == 0) {
+            columns.remove(entry.column);
+            if (columns.isEmpty()) {
+                minColumn = Integer.MAX_VALUE;
+                maxColumn = Integer.MIN_VALUE;
+            } else {
+                while (!columns.containsKey(minColumn)) {
+                    minColumn++;
+                }
+                while (!columns.containsKey(maxColumn)) {
+                    maxColumn--;
+                }
+            }
+        }
+    }
+
+    private double maxSigma() {
+        for (int row = rowCounts.length - 1; row >= 0; row--) {
+            if (rowCounts[row] > 0) {
+                return rowTop(row);
+            }
+        }
+        return 0;
+    }
+
+    private int column(double mu) {
+        return (int) Math.floor(mu / muCellWidth);
+    }
+
+    private int row(double sigma) {
+        return (int) (sigma / sigmaCellHeight);
+    }
+
+    private double rowTop(int row) {
+        return (row + 1) * sigmaCellHeight;
+    }
+
+    /**
+     * @return smallest mu distance from the column's cells to the given mu
+     */
+    private double columnDistance(int column, double mu) {
+        double left = column * muCellWidth;
+        double right = left + muCellWidth;
+        return mu < left ? left - mu : mu > right ? mu - right : 0;
+    }
+
+    private static final class Entry<T> {
+
+        private final T id;
+        private MatchMakingRating rating;
+        private int column;
+        private int row;
+        private Bucket<T> bucket;
+        private int slot;
+
+        Entry(T id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * @return array of a generic component type, only ever holding elements of the parameterized type
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> E[] newArray(Class<?> componentType, int length) {
+        return (E[]) Array.newInstance(componentType, length);
+    }
+
+    private static final class Column<T> {
+
+        private Bucket<T>[] buckets = newArray(Bucket.class, 0);
+        private int size;
+
+        Bucket<T> bucket(int row) {
+            if (row >= buckets.length) {
+                buckets = Arrays.copyOf(buckets, row + 1);
+            }
+            if (buckets[row] == null) {
+                buckets[row] = new Bucket<>();
+            }
+            return buckets[row];
+        }
+    }
+
+    /**
+     * Ratings of a single cell in parallel arrays, removal moves the last rating into the freed slot.
+     */
+    private static final class Bucket<T> {
+
+        private Entry<T>[] entries = newArray(Entry.class, 4);
+        private MatchMakingRating[] ratings = new MatchMakingRating[4];
+        private double[] mu = new double[4];
+        private double[] sigma = new double[4];
+        private int size;
+
+        void add(Entry<T> entry, MatchMakingRating rating) {
+            if (size == entries.length) {
+                int capacity = size * 2;
+                entries = Arrays.copyOf(entries, capacity);
+                ratings = Arrays.copyOf(ratings, capacity);
+                mu = Arrays.copyOf(mu, capacity);
+                sigma = Arrays.copyOf(sigma, capacity);
+            }
+            entry.bucket = this;
+            entry.slot = size;
+            entries[size] = entry;
+            size++;
+            update(entry, rating);
+        }
+
+        void update(Entry<T> entry, MatchMakingRating rating) {
+            entry.rating = rating;
+            ratings[entry.slot] = rating;
+            mu[entry.slot] = rating.mu();
+            sigma[entry.slot] = rating.sigma();
+        }
+
+        void remove(Entry<T> entry) {
+            int last = --size;
+            int slot = entry.slot;
+            if (slot != last) {
+                Entry<T> moved = entries[last];
+                entries[slot] = moved;
+                ratings[slot] = ratings[last];
+                mu[slot] = mu[last];
+                sigma[slot] = sigma[last];
+                moved.slot = slot;
+            }
+            entries[last] = null;
+            ratings[last] = null;
+            entry.bucket = null;
+        }
+    }
+
+    private record Ranked<T>(T id, MatchMakingRating rating, double gap) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.pocketcombats.openskill.ingest;
+
+import java.math.BigInteger;
+
+/**
+ * Correctly rounded conversion of a decimal {@code mantissa * 10^exponent} to a double without creating strings:
+ * Clinger's fast path for small exact operands, then the Eisel-Lemire algorithm. Both give up on the rare inputs
+ * they cannot round with certainty, leaving those to {@link Double#parseDouble}.
+ */
+final class DecimalConversion {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private static final int MIN_EXPONENT = -348;
+    private static final int MAX_EXPONENT = 347;
+    // Powers of ten normalized to 128 bits, rounded down: high words then low words
+    private static final long[] POWERS_HIGH = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+    private static final long[] POWERS_LOW = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+
+    static {
+        BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        for (int exponent = MIN_EXPONENT; exponent <= MAX_EXPONENT; exponent++) {
+            BigInteger power;
+            if (exponent >= 0) {
+                power = BigInteger.TEN.pow(exponent);
+                int excess = power.bitLength() - 128;
+                power = excess > 0 ? power.shiftRight(excess) : power.shiftLeft(-excess);
+            } else {
+                BigInteger divisor = BigInteger.TEN.pow(-exponent);
+                power = BigInteger.ONE.shiftLeft(divisor.bitLength() + 127).divide(divisor);
+            }
+            POWERS_HIGH[exponent - MIN_EXPONENT] = power.shiftRight(64).longValue();
+            POWERS_LOW[exponent - MIN_EXPONENT] = power.and(mask).longValue();
+        }
+    }
+
+    private DecimalConversion() {
+    }
+
+    /**
+     * @param mantissa unsigned decimal mantissa
+     * @return the correctly rounded double, or {@code NaN} when this conversion cannot decide the rounding
+     */
+    static double toDouble(long mantissa, int exponent, boolean negative) {
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+        if (mantissa > 0 && mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+            // Clinger's fast path: both operands are exact doubles, so a single rounding gives the correct result
+            double value = exponent >= 0
+                    ? mantissa * POWERS_OF_TEN[exponent]
+                    : mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+        return eiselLemire(mantissa, exponent, negative);
+    }
+
+    private static double eiselLemire(long mantissa, int exponent, boolean negative) {
+        if (exponent < MIN_EXPONENT || exponent > MAX_EXPONENT) {
+            return Double.NaN;
+        }
+        int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+        mantissa <<= leadingZeros;
+        // floor(exponent * log2(10)) + 64 + bias, less the normalization shift
+        long binaryExponent = ((217706L * exponent) >> 16) + 64 + 1023 - leadingZeros;
+
+        long powerHigh = POWERS_HIGH[exponent - MIN_EXPONENT];
+        long high = unsignedMultiplyHigh(mantissa, powerHigh);
+        long low = mantissa * powerHigh;
+        if ((high & 0x1FF) == 0x1FF && Long.compareUnsigned(low + mantissa, mantissa) < 0) {
+            // The truncated product may be off by one in the bits that decide rounding: widen to 192 bits
+            long powerLow = POWERS_LOW[exponent - MIN_EXPONENT];
+            long lowHigh = unsignedMultiplyHigh(mantissa, powerLow);
+            long lowLow = mantissa * powerLow;
+            long mergedHigh = high;
+            long mergedLow = low + lowHigh;
+            if (Long.compareUnsigned(mergedLow, low) < 0) {
+                mergedHigh++;
+            }
+            if ((mergedHigh & 0x1FF) == 0x1FF && mergedLow + 1 == 0
+                    && Long.compareUnsigned(lowLow + mantissa, mantissa) < 0) {
+                return Double.NaN;
+            }
+            high = mergedHigh;
+            low = mergedLow;
+        }
+
+        long upperBit = high >>> 63;
+        long significand = high >>> (upperBit + 9);
+        binaryExponent -= 1 ^ upperBit;
+        if (low == 0 && (high & 0x1FF) == 0 && (significand & 3) == 1) {
+            // Exactly halfway between two doubles as far as the product tells
+            return Double.NaN;
+        }
+        significand += significand & 1;
+        significand >>>= 1;
+        if ((significand >>> 53) > 0) {
+            significand >>>= 1;
+            binaryExponent++;
+        }
+        if (binaryExponent <= 0 || binaryExponent >= 0x7FF) {
+            // Subnormal or infinite
+            return Double.NaN;
+        }
+        long bits = binaryExponent << 52 | significand & 0x000FFFFFFFFFFFFFL;
+        return Double.longBitsToDouble(negative ? bits | Long.MIN_VALUE : bits);
+    }
+
+    private static long unsignedMultiplyHigh(long x, long y) {
+        return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+    }
+}
@@ -0,0 +1,491 @@
+package com.pocketcombats.openskill.ingest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Dependency-free parser of match results in JSON lines, one match object per line:
+ * <pre>
+ * {"timestamp": 1700000000000, "teams": [
+ *     {"rank": 1, "weight": 1.0, "players": [{"id": 17, "weight": 1.0, "mu": 27.1, "sigma": 6.2}]},
+ *     {"rank": 2, "players": [{"id": 42}]}
+ * ]}
+ * </pre>
+ * <ul>
+ *     <li>{@code timestamp} - optional integer, 0 by default</li>
+ *     <li>{@code rank} - optional integer, the one-based position of the team in its match by default</li>
+ *     <li>{@code weight} - optional number, 1 by default, for teams and players</li>
+ *     <li>{@code id} - required integer player id</li>
+ *     <li>{@code mu}, {@code sigma} - optional numbers, {@code NaN} in the batch when absent</li>
+ * </ul>
+ * Fields may come in any order, unknown fields of any type are skipped, and {@code null} stands for an absent
+ * optional field. Blank lines are ignored.
+ * <p>
+ * Bytes are read in place from the buffer into a {@link MatchBatch}: field names are compared as bytes and numbers
+ * are decoded without creating strings. Decimals with up to 19 significant digits, which covers everything
+ * {@link Double#toString} prints, are converted with correct rounding by Clinger's fast path or the Eisel-Lemire
+ * algorithm, the rare others fall back to {@link Double#parseDouble}. A parser keeps the line count for error
+ * messages and is not thread-safe.
+ */
+public final class JsonLinesMatchParser {
+
+    private static final byte[] TIMESTAMP = ascii("timestamp");
+    private static final byte[] TEAMS = ascii("teams");
+    private static final byte[] RANK = ascii("rank");
+    private static final byte[] WEIGHT = ascii("weight");
+    private static final byte[] PLAYERS = ascii("players");
+    private static final byte[] ID = ascii("id");
+    private static final byte[] MU = ascii("mu");
+    private static final byte[] SIGMA = ascii("sigma");
+
+    private static final int MAX_DEPTH = 64;
+
+    private ByteBuffer buffer;
+    private int position;
+    private int end;
+    private long line;
+
+    // Result of the last parsed number
+    private long longValue;
+    private double doubleValue;
+    private boolean isNull;
+
+    /**
+     * @return number of lines consumed so far, including blank ones
+     */
+    public long lines() {
+        return line;
+    }
+
+    /**
+     * Parses complete lines from the buffer's position until the batch is full or no complete line is left.
+     * The buffer's position is advanced past the consumed lines, so a partial line stays in the buffer.
+     *
+     * @param endOfInput whether the remaining bytes are the last ones, so that a final line without a line
+     *                   terminator is parsed too
+     * @return number of parsed matches
+     * @throws MatchFormatException if a line is malformed; the buffer is positioned at the start of that line
+     *                              and the batch holds every match before it
+     */
+    public int parse(ByteBuffer buffer, MatchBatch batch, boolean endOfInput) {
+        this.buffer = buffer;
+        int parsed = 0;
+        try {
+            int lineStart = buffer.position();
+            int limit = buffer.limit();
+            while (!batch.isFull() && lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                if (lineEnd == limit && !endOfInput) {
+                    break;
+                }
+                position = lineStart;
+                end = lineEnd;
+                line++;
+                skipWhitespace();
+                if (position < end) {
+                    parseMatch(batch);
+                    parsed++;
+                }
+                lineStart = Math.min(lineEnd + 1, limit);
+                buffer.position(lineStart);
+            }
+            return parsed;
+        } finally {
+            this.buffer = null;
+        }
+    }
+
+    private void parseMatch(MatchBatch batch) {
+        int match = batch.startMatch();
+        try {
+            expect('{');
+            if (!tryConsume('}')) {
+                do {
+                    int keyStart = parseKey();
+                    int keyLength = position - keyStart - 2;
+                    expectColon();
+                    if (keyEquals(keyStart, keyLength, TIMESTAMP)) {
+                        if (parseLong()) {
+                            batch.setTimestamp(match, longValue);
+                        }
+                    } else if (keyEquals(keyStart, keyLength, TEAMS)) {
+                        parseTeams(batch);
+                    } else {
+                        skipValue(0);
+                    }
+                } while (nextMember());
+            }
+            skipWhitespace();
+            if (position != end) {
+                throw error("Unexpected content after the match object");
+            }
+        } catch (MatchFormatException e) {
+            batch.discardLastMatch();
+            line--;
+            throw e;
+        }
+    }
+
+    private void parseTeams(MatchBatch batch) {
+        if (tryNull()) {
+            return;
+        }
+        expect('[');
+        if (tryConsume(']')) {
+            return;
+        }
+        do {
+            int team = batch.startTeam();
+            expect('{');
+            if (!tryConsume('}')) {
+                do {
+                    int keyStart = parseKey();
+                    int keyLength = position - keyStart - 2;
+                    expectColon();
+                    if (keyEquals(keyStart, keyLength, RANK)) {
+                        if (parseLong()) {
+                            if (longValue < Integer.MIN_VALUE || longValue > Integer.MAX_VALUE) {
+                                throw error("Rank out of range");
+                            }
+                            batch.setTeamRank(team, (int) longValue);
+                        }
+                    } else if (keyEquals(keyStart, keyLength, WEIGHT)) {
+                        if (parseDouble()) {
+                            batch.setTeamWeight(team, doubleValue);
+                        }
+                    } else if (keyEquals(keyStart, keyLength, PLAYERS)) {
+                        parsePlayers(batch);
+                    } else {
+                        skipValue(0);
+                    }
+                } while (nextMember());
+            }
+        } while (nextElement());
+    }
+
+    private void parsePlayers(MatchBatch batch) {
+        if (tryNull()) {
+            return;
+        }
+        expect('[');
+        if (tryConsume(']')) {
+            return;
+        }
+        do {
+            int player = batch.startPlayer();
+            boolean hasId = false;
+            expect('{');
+            if (!tryConsume('}')) {
+                do {
+                    int keyStart = parseKey();
+                    int keyLength = position - keyStart - 2;
+                    expectColon();
+                    if (keyEquals(keyStart, keyLength, ID)) {
+                        if (!parseLong()) {
+                            throw error("Player id must not be null");
+                        }
+                        batch.setPlayerId(player, longValue);
+                        hasId = true;
+                    } else if (keyEquals(keyStart, keyLength, WEIGHT)) {
+                        if (parseDouble()) {
+                            batch.setPlayerWeight(player, doubleValue);
+                        }
+                    } else if (keyEquals(keyStart, keyLength, MU)) {
+                        if (parseDouble()) {
+                            batch.setPlayerMu(player, doubleValue);
+                        }
+                    } else if (keyEquals(keyStart, keyLength, SIGMA)) {
+                        if (parseDouble()) {
+                            batch.setPlayerSigma(player, doubleValue);
+                        }
+                    } else {
+                        skipValue(0);
+                    }
+                } while (nextMember());
+            }
+            if (!hasId) {
+                throw error("Player without id");
+            }
+        } while (nextElement());
+    }
+
+    /**
+     * Parses a key string and leaves the position after its closing quote.
+     *
+     * @return position of the opening quote plus one
+     */
+    private int parseKey() {
+        skipWhitespace();
+        if (position >= end || buffer.get(position) != '"') {
+            throw error("Expected field name");
+        }
+        int keyStart = position + 1;
+        skipString();
+        return keyStart - 1;
+    }
+
+    private boolean keyEquals(int keyStart, int keyLength, byte[] name) {
+        if (keyLength != name.length) {
+            return false;
+        }
+        for (int i = 0; i < keyLength; i++) {
+            if (buffer.get(keyStart + 1 + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return whether another member follows, after consuming {@code ,} or the closing {@code }}
+     */
+    private boolean nextMember() {
+        skipWhitespace();
+        if (tryConsume(',')) {
+            return true;
+        }
+        expect('}');
+        return false;
+    }
+
+    private boolean nextElement() {
+        skipWhitespace();
+        if (tryConsume(',')) {
+            return true;
+        }
+        expect(']');
+        return false;
+    }
+
+    private void expectColon() {
+        skipWhitespace();
+        expect(':');
+        skipWhitespace();
+    }
+
+    /**
+     * @return false for {@code null}, otherwise the value is in {@link #longValue}
+     */
+    private boolean parseLong() {
+        if (tryNull()) {
+            return false;
+        }
+        boolean negative = tryConsume('-');
+        int digitsStart = position;
+        long value = 0;
+        while (position < end) {
+            int digit = buffer.get(position) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            // Accumulate negatively to reach Long.MIN_VALUE
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                throw error("Integer out of range");
+            }
+            value = value * 10 - digit;
+            position++;
+        }
+        if (position == digitsStart) {
+            throw error("Expected integer");
+        }
+        if (position < end) {
+            byte next = buffer.get(position);
+            if (next == '.' || next == 'e' || next == 'E') {
+                throw error("Expected integer");
+            }
+        }
+        if (!negative && value == Long.MIN_VALUE) {
+            throw error("Integer out of range");
+        }
+        longValue = negative ? value : -value;
+        return true;
+    }
+
+    /**
+     * @return false for {@code null}, otherwise the value is in {@link #doubleValue}
+     */
+    private boolean parseDouble() {
+        if (tryNull()) {
+            return false;
+        }
+        int start = position;
+        boolean negative = tryConsume('-');
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        int digits = 0;
+        while (position < end) {
+            int digit = buffer.get(position) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            if (significantDigits > 0 || digit != 0) {
+                mantissa = mantissa * 10 + digit;
+                significantDigits++;
+            }
+            digits++;
+            position++;
+        }
+        if (digits == 0) {
+            throw error("Expected number");
+        }
+        if (tryConsume('.')) {
+            int fractionDigits = 0;
+            while (position < end) {
+                int digit = buffer.get(position) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                if (significantDigits > 0 || digit != 0) {
+                    mantissa = mantissa * 10 + digit;
+                    significantDigits++;
+                }
+                exponent--;
+                fractionDigits++;
+                position++;
+            }
+            if (fractionDigits == 0) {
+                throw error("Expected fraction digits");
+            }
+        }
+        if (position < end && (buffer.get(position) == 'e' || buffer.get(position) == 'E')) {
+            position++;
+            boolean negativeExponent = tryConsume('-');
+            if (!negativeExponent) {
+                tryConsume('+');
+            }
+            int exponentStart = position;
+            int explicitExponent = 0;
+            while (position < end) {
+                int digit = buffer.get(position) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                explicitExponent = Math.min(explicitExponent * 10 + digit, 100_000);
+                position++;
+            }
+            if (position == exponentStart) {
+                throw error("Expected exponent digits");
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        // Up to 19 digits fit an unsigned long, longer mantissas overflowed and take the slow path
+        double value = significantDigits <= 19 ? DecimalConversion.toDouble(mantissa, exponent, negative) : Double.NaN;
+        if (!Double.isNaN(value)) {
+            doubleValue = value;
+        } else {
+            byte[] text = new byte[position - start];
+            for (int i = 0; i < text.length; i++) {
+                text[i] = buffer.get(start + i);
+            }
+            doubleValue = Double.parseDouble(new String(text, StandardCharsets.ISO_8859_1));
+        }
+        return true;
+    }
+
+    private void skipValue(int depth) {
+        if (depth > MAX_DEPTH) {
+            throw error("Nesting too deep");
+        }
+        skipWhitespace();
+        if (position >= end) {
+            throw error("Expected value");
+        }
+        byte b = buffer.get(position);
+        switch (b) {
+            case '"' -> skipString();
+            case '{' -> {
+                position++;
+                skipWhitespace();
+                if (!tryConsume('}')) {
+                    do {
+                        parseKey();
+                        expectColon();
+                        skipValue(depth + 1);
+                    } while (nextMember());
+                }
+            }
+            case '[' -> {
+                position++;
+                skipWhitespace();
+                if (!tryConsume(']')) {
+                    do {
+                        skipValue(depth + 1);
+                    } while (nextElement());
+                }
+            }
+            case 't' -> expectLiteral("true");
+            case 'f' -> expectLiteral("false");
+            case 'n' -> expectLiteral("null");
+            default -> parseDouble();
+        }
+    }
+
+    private void skipString() {
+        position++;
+        while (position < end) {
+            byte b = buffer.get(position++);
+            if (b == '"') {
+                return;
+            }
+            if (b == '\\') {
+                position++;
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private boolean tryNull() {
+        if (position < end && buffer.get(position) == 'n') {
+            expectLiteral("null");
+            return true;
+        }
+        return false;
+    }
+
+    private void expectLiteral(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            if (position >= end || buffer.get(position) != literal.charAt(i)) {
+                throw error("Expected " + literal);
+            }
+            position++;
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < end) {
+            byte b = buffer.get(position);
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private boolean tryConsume(char c) {
+        if (position < end && buffer.get(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        skipWhitespace();
+        if (!tryConsume(c)) {
+            throw error("Expected '" + c + "'");
+        }
+        skipWhitespace();
+    }
+
+    private MatchFormatException error(String message) {
+        return new MatchFormatException(message, line, position);
+    }
+
+    private static byte[] ascii(String name) {
+        return name.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,76 @@
+package com.pocketcombats.openskill.ingest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads JSON lines match results from a stream into {@link MatchBatch}es, see {@link JsonLinesMatchParser} for
+ * the format. The read buffer is reused and only grows to fit a line longer than the buffer.
+ */
+public class JsonLinesMatchReader implements AutoCloseable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final JsonLinesMatchParser parser = new JsonLinesMatchParser();
+    private ByteBuffer buffer;
+    private boolean endOfInput;
+
+    public JsonLinesMatchReader(InputStream in) {
+        this(in, DEFAULT_BUFFER_SIZE);
+    }
+
+    public JsonLinesMatchReader(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buffer = ByteBuffer.allocate(bufferSize).limit(0);
+    }
+
+    /**
+     * Appends matches to the batch until it is full or the stream ends.
+     *
+     * @return number of appended matches, or -1 if the stream ended before any match
+     * @throws MatchFormatException if a line is malformed; matches before it stay in the batch, and reading
+     *                              again retries the same line
+     */
+    public int read(MatchBatch batch) throws IOException {
+        int parsed = 0;
+        while (true) {
+            parsed += parser.parse(buffer, batch, endOfInput);
+            if (batch.isFull() || (endOfInput && !buffer.hasRemaining())) {
+                return parsed == 0 && endOfInput && !buffer.hasRemaining() ? -1 : parsed;
+            }
+            fill();
+        }
+    }
+
+    /**
+     * @return number of lines consumed so far
+     */
+    public long lines() {
+        return parser.lines();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void fill() throws IOException {
+        buffer.compact();
+        if (!buffer.hasRemaining()) {
+            // A single line fills the whole buffer
+            ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+        int read = in.read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            buffer.position(buffer.position() + read);
+        }
+        buffer.flip();
+    }
+}
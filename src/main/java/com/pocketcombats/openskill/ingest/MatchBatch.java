@@ -0,0 +1,197 @@
+package com.pocketcombats.openskill.ingest;
+
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.PlayerRecord;
+import com.pocketcombats.openskill.data.TeamRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reusable, column oriented batch of decoded matches, filled by {@link JsonLinesMatchParser}.
+ * <p>
+ * Laid out like {@link com.pocketcombats.openskill.history.MatchLog}: teams of match {@code m} are
+ * {@code [matchTeamStart(m), matchTeamStart(m + 1))}, players of team {@code t} are
+ * {@code [teamPlayerStart(t), teamPlayerStart(t + 1))}. Arrays only grow, so a cleared batch is refilled
+ * without allocation. Player ratings are {@code NaN} when the match result does not carry them.
+ */
+public final class MatchBatch {
+
+    private final int capacity;
+
+    private final long[] timestamps;
+    private final int[] matchTeamStart;
+    private final int[] matchPlayerStart;
+    private int[] teamRanks = new int[64];
+    private double[] teamWeights = new double[64];
+    private int[] teamPlayerStart = new int[65];
+    private long[] playerIds = new long[128];
+    private double[] playerWeights = new double[128];
+    private double[] playerMus = new double[128];
+    private double[] playerSigmas = new double[128];
+    private int matchCount;
+    private int teamCount;
+    private int playerCount;
+
+    /**
+     * @param capacity maximum number of matches
+     */
+    public MatchBatch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.timestamps = new long[capacity];
+        this.matchTeamStart = new int[capacity + 1];
+        this.matchPlayerStart = new int[capacity];
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int matchCount() {
+        return matchCount;
+    }
+
+    public boolean isEmpty() {
+        return matchCount == 0;
+    }
+
+    public boolean isFull() {
+        return matchCount == capacity;
+    }
+
+    public void clear() {
+        matchCount = 0;
+        teamCount = 0;
+        playerCount = 0;
+    }
+
+    public long timestamp(int match) {
+        return timestamps[match];
+    }
+
+    public int matchTeamStart(int match) {
+        return match == matchCount ? teamCount : matchTeamStart[match];
+    }
+
+    public int teamRank(int team) {
+        return teamRanks[team];
+    }
+
+    public double teamWeight(int team) {
+        return teamWeights[team];
+    }
+
+    public int teamPlayerStart(int team) {
+        return team == teamCount ? playerCount : teamPlayerStart[team];
+    }
+
+    public long playerId(int player) {
+        return playerIds[player];
+    }
+
+    public double playerWeight(int player) {
+        return playerWeights[player];
+    }
+
+    public double playerMu(int player) {
+        return playerMus[player];
+    }
+
+    public double playerSigma(int player) {
+        return playerSigmas[player];
+    }
+
+    /**
+     * Materializes a single match.
+     */
+    public MatchRecord<Long> match(int match) {
+        int teamEnd = matchTeamStart(match + 1);
+        List<TeamRecord<Long>> teams = new ArrayList<>(teamEnd - matchTeamStart[match]);
+        for (int team = matchTeamStart[match]; team < teamEnd; team++) {
+            int playerEnd = teamPlayerStart(team + 1);
+            List<PlayerRecord<Long>> players = new ArrayList<>(playerEnd - teamPlayerStart[team]);
+            for (int player = teamPlayerStart[team]; player < playerEnd; player++) {
+                players.add(new PlayerRecord<>(playerIds[player], playerWeights[player]));
+            }
+            teams.add(new TeamRecord<>(teamRanks[team], teamWeights[team], players));
+        }
+        return new MatchRecord<>(timestamps[match], teams);
+    }
+
+    int startMatch() {
+        matchTeamStart[matchCount] = teamCount;
+        matchPlayerStart[matchCount] = playerCount;
+        timestamps[matchCount] = 0L;
+        return matchCount++;
+    }
+
+    void setTimestamp(int match, long timestamp) {
+        timestamps[match] = timestamp;
+    }
+
+    /**
+     * Starts a team ranked by its position in the match until the rank is set.
+     */
+    int startTeam() {
+        if (teamCount == teamRanks.length) {
+            teamRanks = Arrays.copyOf(teamRanks, teamCount * 2);
+            teamWeights = Arrays.copyOf(teamWeights, teamCount * 2);
+            teamPlayerStart = Arrays.copyOf(teamPlayerStart, teamCount * 2 + 1);
+        }
+        teamRanks[teamCount] = teamCount - matchTeamStart[matchCount - 1] + 1;
+        teamWeights[teamCount] = 1.0;
+        teamPlayerStart[teamCount] = playerCount;
+        return teamCount++;
+    }
+
+    void setTeamRank(int team, int rank) {
+        teamRanks[team] = rank;
+    }
+
+    void setTeamWeight(int team, double weight) {
+        teamWeights[team] = weight;
+    }
+
+    int startPlayer() {
+        if (playerCount == playerIds.length) {
+            playerIds = Arrays.copyOf(playerIds, playerCount * 2);
+            playerWeights = Arrays.copyOf(playerWeights, playerCount * 2);
+            playerMus = Arrays.copyOf(playerMus, playerCount * 2);
+            playerSigmas = Arrays.copyOf(playerSigmas, playerCount * 2);
+        }
+        playerIds[playerCount] = 0L;
+        playerWeights[playerCount] = 1.0;
+        playerMus[playerCount] = Double.NaN;
+        playerSigmas[playerCount] = Double.NaN;
+        return playerCount++;
+    }
+
+    void setPlayerId(int player, long id) {
+        playerIds[player] = id;
+    }
+
+    void setPlayerWeight(int player, double weight) {
+        playerWeights[player] = weight;
+    }
+
+    void setPlayerMu(int player, double mu) {
+        playerMus[player] = mu;
+    }
+
+    void setPlayerSigma(int player, double sigma) {
+        playerSigmas[player] = sigma;
+    }
+
+    /**
+     * Drops the last, partially decoded match.
+     */
+    void discardLastMatch() {
+        matchCount--;
+        teamCount = matchTeamStart[matchCount];
+        playerCount = matchPlayerStart[matchCount];
+    }
+}
@@ -0,0 +1,23 @@
+package com.pocketcombats.openskill.ingest;
+
+/**
+ * Thrown when an inbound match result does not follow the expected format.
+ */
+public class MatchFormatException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long line;
+
+    public MatchFormatException(String message, long line, long offset) {
+        super("Line " + line + ", offset " + offset + ": " + message);
+        this.line = line;
+    }
+
+    /**
+     * @return one-based number of the malformed line
+     */
+    public long line() {
+        return line;
+    }
+}
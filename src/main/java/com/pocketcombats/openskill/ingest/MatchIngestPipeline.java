@@ -0,0 +1,491 @@
+package com.pocketcombats.openskill.ingest;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.store.RatingStore;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Ingests finished matches from any number of producers, coalesces them into micro-batches
+ * and rates them on a single writer thread.
+ * <p>
+ * Matches are queued in a preallocated ring buffer. The writer drains up to {@code batchSize} matches,
+ * waiting at most {@code maxBatchDelay} for a batch to fill up, rates them in submission order and applies
+ * the resulting ratings to the {@link RatingStore} with a single {@link RatingStore#apply} call per batch.
+ * Matches within a batch see the ratings produced by the preceding matches of the same batch.
+ * <p>
+ * Producers either push matches directly with {@link #offer} and {@link #submit}, or connect a
+ * {@link Flow.Publisher} through {@link #newSubscriber()}. Subscription demand is granted only for free
+ * ring buffer slots, so publishers are slowed down to the rating throughput instead of overflowing the queue.
+ * Closing the pipeline cancels all upstream subscriptions, matches delivered after that are dropped.
+ */
+public class MatchIngestPipeline<T> implements AutoCloseable {
+
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final MatchRater<T> matchRater;
+    private final RatingStore<T> ratingStore;
+    private final Consumer<? super List<RatingAdjustment<T>>> batchListener;
+    private final BiConsumer<? super MatchRecord<T>, ? super RuntimeException> errorHandler;
+    private final Consumer<? super Throwable> failureHandler;
+    private final int batchSize;
+    private final long maxBatchDelayNanos;
+
+    private final MatchRingBuffer<MatchRecord<T>> ringBuffer;
+    private final List<UpstreamSubscriber> upstreams = new CopyOnWriteArrayList<>();
+    private final Thread writer;
+    private volatile boolean writerParked;
+    private volatile boolean closed;
+    // Producers between their closed check and publication, the writer does not stop while any are left
+    private final AtomicInteger activeProducers = new AtomicInteger();
+
+    private final AtomicLong ratedMatches = new AtomicLong();
+    private final AtomicLong appliedBatches = new AtomicLong();
+
+    private MatchIngestPipeline(Builder<T> builder) {
+        this.matchRater = Objects.requireNonNull(builder.matchRater, "matchRater");
+        this.ratingStore = Objects.requireNonNull(builder.ratingStore, "ratingStore");
+        this.batchListener = builder.batchListener;
+        this.errorHandler = builder.errorHandler;
+        this.failureHandler = builder.failureHandler;
+        this.batchSize = builder.batchSize;
+        this.maxBatchDelayNanos = builder.maxBatchDelay.toNanos();
+        this.ringBuffer = new MatchRingBuffer<>(builder.capacity);
+        this.writer = builder.threadFactory.newThread(this::runWriter);
+        this.writer.start();
+    }
+
+    public static <T> Builder<T> builder(MatchRater<T> matchRater, RatingStore<T> ratingStore) {
+        return new Builder<T>()
+                .setMatchRater(matchRater)
+                .setRatingStore(ratingStore);
+    }
+
+    /**
+     * Enqueues a match without blocking.
+     *
+     * @return {@code false} if the ring buffer is full
+     * @throws IllegalStateException if the pipeline is closed
+     */
+    public boolean offer(MatchRecord<T> match) {
+        Objects.requireNonNull(match);
+        activeProducers.incrementAndGet();
+        try {
+            ensureOpen();
+            if (!ringBuffer.tryAcquire()) {
+                return false;
+            }
+            publish(match);
+            return true;
+        } finally {
+            activeProducers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Enqueues a match, waiting for a free ring buffer slot if necessary.
+     *
+     * @throws IllegalStateException if the pipeline is closed
+     */
+    public void submit(MatchRecord<T> match) {
+        long parkNanos = 1_000;
+        while (!offer(match)) {
+            LockSupport.parkNanos(parkNanos);
+            parkNanos = Math.min(parkNanos * 2, MAX_IDLE_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Creates a subscriber for a single upstream publisher.
+     * Every upstream publisher requires its own subscriber instance.
+     */
+    public Flow.Subscriber<MatchRecord<T>> newSubscriber() {
+        return new UpstreamSubscriber();
+    }
+
+    public long ratedMatches() {
+        return ratedMatches.get();
+    }
+
+    public long appliedBatches() {
+        return appliedBatches.get();
+    }
+
+    /**
+     * Stops accepting new matches, rates everything that is already queued and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (UpstreamSubscriber upstream : upstreams) {
+            upstream.cancel();
+        }
+        LockSupport.unpark(writer);
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Pipeline is closed");
+        }
+    }
+
+    private void publish(MatchRecord<T> match) {
+        ringBuffer.publish(match);
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void runWriter() {
+        List<MatchRecord<T>> batch = new ArrayList<>(batchSize);
+        while (true) {
+            boolean closing = closed;
+            if (fillBatch(batch)) {
+                try {
+                    processBatch(batch);
+                } finally {
+                    ringBuffer.release(batch.size());
+                    batch.clear();
+                }
+                grantDemand();
+            } else if (closing && activeProducers.get() == 0 && ringBuffer.size() == 0) {
+                // A producer that registers after this point is guaranteed to see the pipeline closed
+                return;
+            }
+        }
+    }
+
+    /**
+     * Waits for the first match to arrive and then for the batch to fill up or for its latency budget to run out.
+     *
+     * @return {@code true} if at least one match was drained
+     */
+    private boolean fillBatch(List<MatchRecord<T>> batch) {
+        if (ringBuffer.drainTo(batch, batchSize) == 0) {
+            park(MAX_IDLE_PARK_NANOS);
+            if (ringBuffer.drainTo(batch, batchSize) == 0) {
+                return false;
+            }
+        }
+        long deadline = System.nanoTime() + maxBatchDelayNanos;
+        while (batch.size() < batchSize && !closed) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            if (ringBuffer.drainTo(batch, batchSize - batch.size()) == 0) {
+                park(Math.min(remaining, MAX_IDLE_PARK_NANOS));
+            }
+        }
+        ringBuffer.drainTo(batch, batchSize - batch.size());
+        return true;
+    }
+
+    private void park(long nanos) {
+        writerParked = true;
+        if (!ringBuffer.hasPublished() && !closed) {
+            LockSupport.parkNanos(this, nanos);
+        }
+        writerParked = false;
+    }
+
+    private void processBatch(List<MatchRecord<T>> batch) {
+        // Ratings updated by the preceding matches of the same batch, later written with a single store update
+        Map<T, RatingAdjustment<T>> updated = new LinkedHashMap<>();
+        List<RatingAdjustment<T>> adjustments = batchListener != null ? new ArrayList<>() : null;
+        List<MatchRecord<T>> rated = new ArrayList<>(batch.size());
+        for (MatchRecord<T> match : batch) {
+            List<RatingAdjustment<T>> matchAdjustments;
+            try {
+                matchAdjustments = matchRater.rate(match, playerId -> {
+                    MatchMakingRating rating = updated.get(playerId);
+                    return rating != null ? rating : ratingStore.get(playerId);
+                });
+            } catch (RuntimeException e) {
+                reportError(match, e);
+                continue;
+            }
+            for (RatingAdjustment<T> adjustment : matchAdjustments) {
+                updated.put(adjustment.playerId(), adjustment);
+            }
+            if (adjustments != null) {
+                adjustments.addAll(matchAdjustments);
+            }
+            rated.add(match);
+        }
+        if (!updated.isEmpty()) {
+            try {
+                ratingStore.apply(updated.values());
+            } catch (RuntimeException e) {
+                // None of the batch ratings were stored
+                for (MatchRecord<T> match : rated) {
+                    reportError(match, e);
+                }
+                return;
+            }
+        }
+        ratedMatches.addAndGet(rated.size());
+        appliedBatches.incrementAndGet();
+        if (batchListener != null) {
+            try {
+                batchListener.accept(adjustments);
+            } catch (RuntimeException e) {
+                reportFailure(e);
+            }
+        }
+    }
+
+    private void reportError(MatchRecord<T> match, RuntimeException e) {
+        try {
+            errorHandler.accept(match, e);
+        } catch (RuntimeException handlerFailure) {
+            handlerFailure.addSuppressed(e);
+            reportFailure(handlerFailure);
+        }
+    }
+
+    private void reportFailure(Throwable throwable) {
+        try {
+            failureHandler.accept(throwable);
+        } catch (RuntimeException ignored) {
+            // Nowhere left to report, the writer has to keep running
+        }
+    }
+
+    /**
+     * Distributes free ring buffer slots among upstream subscriptions.
+     */
+    private void grantDemand() {
+        if (upstreams.isEmpty()) {
+            return;
+        }
+        long share = Math.max(1, Math.min(batchSize, ringBuffer.capacity() / upstreams.size()));
+        for (UpstreamSubscriber upstream : upstreams) {
+            upstream.replenish(share);
+        }
+    }
+
+    private final class UpstreamSubscriber implements Flow.Subscriber<MatchRecord<T>> {
+
+        private final AtomicLong outstanding = new AtomicLong();
+        private volatile Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            Objects.requireNonNull(subscription);
+            if (this.subscription != null || closed) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+            upstreams.add(this);
+            grantDemand();
+        }
+
+        @Override
+        public void onNext(MatchRecord<T> match) {
+            Objects.requireNonNull(match);
+            activeProducers.incrementAndGet();
+            try {
+                if (closed) {
+                    // Late delivery after the subscription was cancelled on close
+                    return;
+                }
+                if (outstanding.getAndDecrement() <= 0) {
+                    // Publisher ignored the requested demand, fall back to blocking submission
+                    outstanding.incrementAndGet();
+                    try {
+                        submit(match);
+                    } catch (IllegalStateException e) {
+                        // Closed while waiting for a free slot, dropped like any other late delivery
+                    }
+                } else {
+                    publish(match);
+                }
+            } finally {
+                activeProducers.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            detach();
+            reportFailure(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            detach();
+        }
+
+        synchronized void replenish(long share) {
+            Flow.Subscription subscription = this.subscription;
+            if (subscription == null) {
+                return;
+            }
+            long wanted = share - outstanding.get();
+            if (wanted <= 0) {
+                return;
+            }
+            long granted = ringBuffer.tryAcquire(wanted);
+            if (granted > 0) {
+                outstanding.addAndGet(granted);
+                subscription.request(granted);
+            }
+        }
+
+        void cancel() {
+            Flow.Subscription subscription = this.subscription;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            detach();
+        }
+
+        private synchronized void detach() {
+            if (upstreams.remove(this)) {
+                // Return permits of the demand that will never be delivered
+                long unused = outstanding.getAndSet(0);
+                if (unused > 0) {
+                    ringBuffer.release(unused);
+                }
+            }
+        }
+    }
+
+    public static final class Builder<T> {
+
+        private MatchRater<T> matchRater;
+        private RatingStore<T> ratingStore;
+        private Consumer<? super List<RatingAdjustment<T>>> batchListener;
+        private BiConsumer<? super MatchRecord<T>, ? super RuntimeException> errorHandler = (match, e) -> {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        };
+        private Consumer<? super Throwable> failureHandler = e -> {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        };
+        private int capacity = 8192;
+        private int batchSize = 256;
+        private Duration maxBatchDelay = Duration.ofMillis(1);
+        private ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "openskill-ingest");
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        /**
+         * Creates the pipeline and starts its writer thread.
+         */
+        public MatchIngestPipeline<T> build() {
+            if (batchSize > capacity) {
+                throw new IllegalArgumentException("Batch size " + batchSize + " exceeds capacity " + capacity);
+            }
+            return new MatchIngestPipeline<>(this);
+        }
+
+        public Builder<T> setMatchRater(MatchRater<T> matchRater) {
+            this.matchRater = matchRater;
+            return this;
+        }
+
+        public Builder<T> setRatingStore(RatingStore<T> ratingStore) {
+            this.ratingStore = ratingStore;
+            return this;
+        }
+
+        /**
+         * Listener invoked on the writer thread after every applied batch, with all adjustments of the batch
+         * in rating order. Exceptions thrown by the listener are passed to the failure handler.
+         */
+        public Builder<T> setBatchListener(Consumer<? super List<RatingAdjustment<T>>> batchListener) {
+            this.batchListener = batchListener;
+            return this;
+        }
+
+        /**
+         * Handler for matches that failed to be rated, or whose batch failed to be applied to the rating store.
+         * Such matches are skipped. Defaults to the writer thread's uncaught exception handler.
+         */
+        public Builder<T> setErrorHandler(BiConsumer<? super MatchRecord<T>, ? super RuntimeException> errorHandler) {
+            this.errorHandler = Objects.requireNonNull(errorHandler);
+            return this;
+        }
+
+        /**
+         * Handler for failures not caused by a single match: batch listener exceptions and upstream publisher
+         * errors. Defaults to the calling thread's uncaught exception handler.
+         */
+        public Builder<T> setFailureHandler(Consumer<? super Throwable> failureHandler) {
+            this.failureHandler = Objects.requireNonNull(failureHandler);
+            return this;
+        }
+
+        /**
+         * Ring buffer capacity, must be a power of two.
+         */
+        public Builder<T> setCapacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Maximum number of matches rated and applied together.
+         */
+        public Builder<T> setBatchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Maximum time the writer waits for an incomplete batch to fill up after its first match has arrived.
+         */
+        public Builder<T> setMaxBatchDelay(Duration maxBatchDelay) {
+            if (maxBatchDelay.isNegative()) {
+                throw new IllegalArgumentException("Negative batch delay: " + maxBatchDelay);
+            }
+            this.maxBatchDelay = maxBatchDelay;
+            return this;
+        }
+
+        public Builder<T> setThreadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = Objects.requireNonNull(threadFactory);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.pocketcombats.openskill.ingest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Preallocated multi-producer, single-consumer ring buffer.
+ * <p>
+ * Capacity is guarded by a permit counter: a producer has to acquire a permit before claiming a sequence,
+ * so a claimed slot is always free and claiming itself never fails. Permits may also be acquired in bulk
+ * ahead of time, which is how upstream {@link java.util.concurrent.Flow.Subscription} demand is granted.
+ */
+final class MatchRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong permits;
+    private final AtomicLong claimSequence = new AtomicLong();
+    // Written by the consumer thread only
+    private long consumeSequence;
+
+    MatchRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.permits = new AtomicLong(capacity);
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return {@code true} if a permit was acquired
+     */
+    boolean tryAcquire() {
+        return tryAcquire(1) == 1;
+    }
+
+    /**
+     * Acquires up to {@code wanted} permits.
+     *
+     * @return the number of acquired permits
+     */
+    long tryAcquire(long wanted) {
+        while (true) {
+            long available = permits.get();
+            long granted = Math.min(available, wanted);
+            if (granted <= 0) {
+                return 0;
+            }
+            if (permits.compareAndSet(available, available - granted)) {
+                return granted;
+            }
+        }
+    }
+
+    void release(long count) {
+        permits.addAndGet(count);
+    }
+
+    long availablePermits() {
+        return permits.get();
+    }
+
+    /**
+     * Publishes an element. The caller must hold a permit.
+     */
+    void publish(E element) {
+        long sequence = claimSequence.getAndIncrement();
+        slots.setRelease((int) (sequence & mask), element);
+    }
+
+    /**
+     * Moves up to {@code limit} contiguous published elements to {@code target}.
+     * Must only be called by the consumer thread. Permits are not released, see {@link #release(long)}.
+     *
+     * @return the number of drained elements
+     */
+    int drainTo(List<? super E> target, int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) (consumeSequence & mask);
+            E element = slots.getAcquire(index);
+            if (element == null) {
+                break;
+            }
+            slots.setPlain(index, null);
+            target.add(element);
+            consumeSequence++;
+            drained++;
+        }
+        return drained;
+    }
+
+    boolean hasPublished() {
+        return slots.getAcquire((int) (consumeSequence & mask)) != null;
+    }
+
+    /**
+     * @return the number of claimed and not yet drained elements
+     */
+    long size() {
+        return claimSequence.get() - consumeSequence;
+    }
+}
@@ -1,5 +1,7 @@
 package com.pocketcombats.openskill.math;
 
+import java.util.SplittableRandom;
+
 public final class Gaussian {
 
     private static final double SQRT2 = Math.sqrt(2);
@@ -21,6 +23,19 @@ public final class Gaussian {
         return 0.5 * (1.0 + erf((x - mu) / (sigma * SQRT2)));
     }
 
+    // Standard normal sample, Marsaglia polar method
+    public static double sample(SplittableRandom random) {
+        double u;
+        double v;
+        double s;
+        do {
+            u = random.nextDouble() * 2.0 - 1.0;
+            v = random.nextDouble() * 2.0 - 1.0;
+            s = u * u + v * v;
+        } while (s >= 1.0 || s == 0.0);
+        return u * Math.sqrt(-2.0 * Math.log(s) / s);
+    }
+
     /**
      * Approximation of the error function (erf).
      *
@@ -0,0 +1,95 @@
+package com.pocketcombats.openskill.model;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.TeamResult;
+
+final class BradleyTerryComparison implements PairComparison {
+
+    private final double betaSquared;
+
+    BradleyTerryComparison(double beta) {
+        this.betaSquared = beta * beta;
+    }
+
+    @Override
+    public void compare(
+            TeamResult<?> teamResult,
+            double teamSigmaSquared,
+            TeamResult<?> opponentResult,
+            FactorAccumulator accumulator
+    ) {
+        double opponentTeamSigmaSquared = opponentResult.sigmaSquared();
+        // This variable represents a combined standard deviation (σ) measure, incorporating the variances of
+        // two competing teams, crucial for determining the likelihood of one team winning over another.
+        double cIq = Math.sqrt(teamSigmaSquared + opponentTeamSigmaSquared + 2 * betaSquared);
+        accumulate(teamResult, teamSigmaSquared, opponentResult, cIq, accumulator);
+    }
+
+    /**
+     * Compares both teams of a pair with each other, sharing the combined deviation.
+     */
+    void compareBoth(
+            TeamResult<?> teamResult,
+            double teamSigmaSquared,
+            FactorAccumulator teamAccumulator,
+            TeamResult<?> opponentResult,
+            double opponentSigmaSquared,
+            FactorAccumulator opponentAccumulator,
+            double cIq
+    ) {
+        accumulate(teamResult, teamSigmaSquared, opponentResult, cIq, teamAccumulator);
+        accumulate(opponentResult, opponentSigmaSquared, teamResult, cIq, opponentAccumulator);
+    }
+
+    private static void accumulate(
+            TeamResult<?> teamResult,
+            double teamSigmaSquared,
+            TeamResult<?> opponentResult,
+            double cIq,
+            FactorAccumulator accumulator
+    ) {
+        // The probability that team beats opponent, derived from the logistic function applied to the
+        // difference in team skills
+        double piq = 1 / (1 + Math.exp((opponentResult.mu() - teamResult.mu()) / cIq));
+        // A component used in adjusting omega and delta, representing the ratio of a team's variance to
+        // the combined variance (cIq)
+        double sigmaSquaredToCiq = teamSigmaSquared / cIq;
+
+        double s = 0.0;
+        if (opponentResult.rank() > teamResult.rank()) {
+            s = 1.0;
+        } else if (opponentResult.rank() == teamResult.rank()) {
+            s = 0.5;
+        }
+
+        double gammaValue = teamResult.sigma() / cIq;
+        accumulator.add(
+                sigmaSquaredToCiq * (s - piq),
+                ((gammaValue * sigmaSquaredToCiq) / cIq) * piq * (1 - piq)
+        );
+    }
+
+    @Override
+    public void compareOutcomes(
+            MatchMakingRating team,
+            double teamSigmaSquared,
+            MatchMakingRating opponent,
+            FactorAccumulator win,
+            FactorAccumulator loss
+    ) {
+        double cIq = Math.sqrt(teamSigmaSquared + opponent.sigmaSquared() + 2 * betaSquared);
+        double piq = 1 / (1 + Math.exp((opponent.mu() - team.mu()) / cIq));
+        double sigmaSquaredToCiq = teamSigmaSquared / cIq;
+        double gammaValue = team.sigma() / cIq;
+        // Only omega depends on the outcome
+        double delta = ((gammaValue * sigmaSquaredToCiq) / cIq) * piq * (1 - piq);
+        win.add(sigmaSquaredToCiq * (1.0 - piq), delta);
+        loss.add(sigmaSquaredToCiq * (0.0 - piq), delta);
+    }
+
+    @Override
+    public double winProbability(MatchMakingRating team, MatchMakingRating opponent) {
+        double cIq = Math.sqrt(team.sigmaSquared() + opponent.sigmaSquared() + 2 * betaSquared);
+        return 1 / (1 + Math.exp((opponent.mu() - team.mu()) / cIq));
+    }
+}
@@ -0,0 +1,33 @@
+package com.pocketcombats.openskill.model;
+
+import com.pocketcombats.openskill.RatingModelConfig;
+
+/**
+ * Rating models that {@link RatingModelEnsemble} can evaluate together.
+ */
+public enum EnsembleModel {
+
+    THURSTONE_MOSTELLER_FULL {
+        @Override
+        public RatingModel create(RatingModelConfig config) {
+            return new ThurstoneMostellerFull(config);
+        }
+    },
+    BRADLEY_TERRY_FULL {
+        @Override
+        public RatingModel create(RatingModelConfig config) {
+            return new BradleyTerryFull(config);
+        }
+    },
+    PLACKETT_LUCE {
+        @Override
+        public RatingModel create(RatingModelConfig config) {
+            return new PlackettLuce(config);
+        }
+    };
+
+    /**
+     * @return standalone model computing the same adjustment factors
+     */
+    public abstract RatingModel create(RatingModelConfig config);
+}
@@ -0,0 +1,60 @@
+package com.pocketcombats.openskill.model;
+
+/**
+ * Mutable sum of {@link AdjustmentFactors} over the comparisons of a single team.
+ */
+class FactorAccumulator {
+
+    double omega;
+    double delta;
+
+    void add(double omega, double delta) {
+        this.omega += omega;
+        this.delta += delta;
+    }
+
+    void reset() {
+        omega = 0.0;
+        delta = 0.0;
+    }
+
+    AdjustmentFactors toAdjustmentFactors() {
+        return new AdjustmentFactors(omega, delta);
+    }
+
+    /**
+     * Neumaier-compensated sum, accurate to the last bits over thousands of comparisons, so that the result depends
+     * only on the order of the terms.
+     */
+    static final class Compensated extends FactorAccumulator {
+
+        private double omegaCompensation;
+        private double deltaCompensation;
+
+        @Override
+        void add(double omega, double delta) {
+            double omegaSum = this.omega + omega;
+            omegaCompensation += Math.abs(this.omega) >= Math.abs(omega)
+                    ? (this.omega - omegaSum) + omega
+                    : (omega - omegaSum) + this.omega;
+            this.omega = omegaSum;
+            double deltaSum = this.delta + delta;
+            deltaCompensation += Math.abs(this.delta) >= Math.abs(delta)
+                    ? (this.delta - deltaSum) + delta
+                    : (delta - deltaSum) + this.delta;
+            this.delta = deltaSum;
+        }
+
+        @Override
+        void reset() {
+            super.reset();
+            omegaCompensation = 0.0;
+            deltaCompensation = 0.0;
+        }
+
+        @Override
+        AdjustmentFactors toAdjustmentFactors() {
+            return new AdjustmentFactors(omega + omegaCompensation, delta + deltaCompensation);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.pocketcombats.openskill.model;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.TeamResult;
+
+/**
+ * Contribution of a single team-to-team comparison to the team's adjustment factors,
+ * shared by the full and partial pairing variants of a model.
+ */
+interface PairComparison {
+
+    /**
+     * Adds the comparison of the team against the opponent to the accumulated factors.
+     */
+    void compare(
+            TeamResult<?> teamResult,
+            double teamSigmaSquared,
+            TeamResult<?> opponentResult,
+            FactorAccumulator accumulator
+    );
+
+    /**
+     * Adds the comparison of the team against the opponent for both decided outcomes at once, sharing the
+     * outcome-independent terms.
+     *
+     * @param win  accumulates the terms of the team finishing ahead of the opponent
+     * @param loss accumulates the terms of the team finishing behind the opponent
+     */
+    void compareOutcomes(
+            MatchMakingRating team,
+            double teamSigmaSquared,
+            MatchMakingRating opponent,
+            FactorAccumulator win,
+            FactorAccumulator loss
+    );
+
+    double winProbability(MatchMakingRating team, MatchMakingRating opponent);
+}
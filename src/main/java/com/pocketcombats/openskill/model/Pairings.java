@@ -0,0 +1,334 @@
+package com.pocketcombats.openskill.model;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.TeamResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Selection of the opponents a team is compared with.
+ */
+final class Pairings {
+
+    // Teams per parallel task, fixed so that the split does not depend on the pool
+    private static final int PARALLEL_CHUNK = 16;
+
+    private Pairings() {
+    }
+
+    /**
+     * Compares the team with every opponent.
+     */
+    static AdjustmentFactors full(
+            PairComparison comparison,
+            TeamResult<?> teamResult,
+            List<? extends TeamResult<?>> opponentTeamResults
+    ) {
+        FactorAccumulator accumulator = new FactorAccumulator();
+        double teamSigmaSquared = teamResult.sigmaSquared();
+        for (TeamResult<?> opponentResult : opponentTeamResults) {
+            comparison.compare(teamResult, teamSigmaSquared, opponentResult, accumulator);
+        }
+        return accumulator.toAdjustmentFactors();
+    }
+
+    /**
+     * Compares every team with every other team, computing chunks of teams in the pool. Each team sums its
+     * comparisons in the order of the team results with compensation, so the factors are the same for any pool
+     * parallelism.
+     *
+     * @return adjustment factors in the order of the team results
+     */
+    static List<AdjustmentFactors> fullParallel(
+            PairComparison comparison,
+            List<? extends TeamResult<?>> teamResults,
+            ForkJoinPool pool
+    ) {
+        TeamResult<?>[] teams = teamResults.toArray(new TeamResult<?>[0]);
+        AdjustmentFactors[] factors = new AdjustmentFactors[teams.length];
+        pool.invoke(new FullPairingTask(comparison, teams, factors, 0, teams.length));
+        return Arrays.asList(factors);
+    }
+
+    /**
+     * Compares the team only with its rank neighbours among the opponents, ordered as in
+     * {@link #partial(PairComparison, int, List)}, so the factors are the same as in the calculation of all teams.
+     */
+    static AdjustmentFactors partial(
+            PairComparison comparison,
+            int window,
+            TeamResult<?> teamResult,
+            List<? extends TeamResult<?>> opponentTeamResults
+    ) {
+        List<TeamResult<?>> teamResults = new ArrayList<>(opponentTeamResults.size() + 1);
+        teamResults.add(teamResult);
+        teamResults.addAll(opponentTeamResults);
+        Integer[] order = neighbourOrder(teamResults);
+        int position = 0;
+        while (order[position] != 0) {
+            position++;
+        }
+        FactorAccumulator accumulator = new FactorAccumulator();
+        compareNeighbours(comparison, window, teamResults, order, position, accumulator);
+        return accumulator.toAdjustmentFactors();
+    }
+
+    /**
+     * Compares every team with its rank neighbours: the teams at most {@code window} places away in the finish
+     * order, which takes {@code O(n)} comparisons instead of {@code O(n²)} for a window much smaller than the
+     * number of teams. Teams sharing a rank are ordered from the highest to the lowest mu, then from the lowest to
+     * the highest sigma, so that the order does not depend on the position of the team in the list: teams that are
+     * still tied are interchangeable.
+     *
+     * @return adjustment factors in the order of the team results
+     */
+    static List<AdjustmentFactors> partial(
+            PairComparison comparison,
+            int window,
+            List<? extends TeamResult<?>> teamResults
+    ) {
+        Integer[] order = neighbourOrder(teamResults);
+        AdjustmentFactors[] factors = new AdjustmentFactors[order.length];
+        FactorAccumulator accumulator = new FactorAccumulator();
+        for (int position = 0; position < order.length; position++) {
+            accumulator.reset();
+            compareNeighbours(comparison, window, teamResults, order, position, accumulator);
+            factors[order[position]] = accumulator.toAdjustmentFactors();
+        }
+        return Arrays.asList(factors);
+    }
+
+    /**
+     * Compares teams of a top-K result. Placed teams are compared as in {@link #partial(PairComparison, int, List)},
+     * the eliminated teams take a single place after the last placed team. Eliminated teams are not compared with
+     * each other, their relative order is unknown.
+     *
+     * @return adjustment factors of the placed teams followed by the eliminated teams
+     */
+    static List<AdjustmentFactors> topK(
+            PairComparison comparison,
+            int window,
+            List<? extends TeamResult<?>> placed,
+            List<? extends TeamResult<?>> eliminated
+    ) {
+        checkTopK(placed, eliminated);
+        Integer[] order = neighbourOrder(placed);
+        int placedCount = order.length;
+        // Placed teams close enough to the eliminated block to be compared with it
+        int blockNeighbours = (int) Math.min(placedCount, (long) window);
+        AdjustmentFactors[] factors = new AdjustmentFactors[placedCount + eliminated.size()];
+        FactorAccumulator accumulator = new FactorAccumulator();
+        for (int position = 0; position < placedCount; position++) {
+            accumulator.reset();
+            compareNeighbours(comparison, window, placed, order, position, accumulator);
+            if (position >= placedCount - blockNeighbours) {
+                TeamResult<?> teamResult = placed.get(order[position]);
+                double teamSigmaSquared = teamResult.sigmaSquared();
+                for (TeamResult<?> eliminatedResult : eliminated) {
+                    comparison.compare(teamResult, teamSigmaSquared, eliminatedResult, accumulator);
+                }
+            }
+            factors[order[position]] = accumulator.toAdjustmentFactors();
+        }
+        for (int i = 0; i < eliminated.size(); i++) {
+            TeamResult<?> teamResult = eliminated.get(i);
+            double teamSigmaSquared = teamResult.sigmaSquared();
+            accumulator.reset();
+            for (int position = placedCount - blockNeighbours; position < placedCount; position++) {
+                comparison.compare(teamResult, teamSigmaSquared, placed.get(order[position]), accumulator);
+            }
+            factors[placedCount + i] = accumulator.toAdjustmentFactors();
+        }
+        return Arrays.asList(factors);
+    }
+
+    /**
+     * Factors of every team for every finishing position, see {@link RatingModel#calculatePreviewAdjustmentFactors}.
+     * Each pair is compared once for both outcomes, and every position sums its losses against the teams ahead and
+     * wins against the teams behind, within the window, from prefix and suffix sums.
+     */
+    static List<List<AdjustmentFactors>> preview(
+            PairComparison comparison,
+            int window,
+            List<? extends MatchMakingRating> teams
+    ) {
+        int teamCount = teams.size();
+        if (teamCount == 0) {
+            return List.of();
+        }
+        Integer[] order = muOrder(teams);
+        FactorAccumulator win = new FactorAccumulator();
+        FactorAccumulator loss = new FactorAccumulator();
+        // Sums over the other teams in mu order: losses before an index, wins from an index on
+        double[] lossOmega = new double[teamCount];
+        double[] lossDelta = new double[teamCount];
+        double[] winOmega = new double[teamCount];
+        double[] winDelta = new double[teamCount];
+        double[] opponentWinOmega = new double[teamCount - 1];
+        double[] opponentWinDelta = new double[teamCount - 1];
+        List<List<AdjustmentFactors>> previews = new ArrayList<>(teamCount);
+        for (int team = 0; team < teamCount; team++) {
+            MatchMakingRating teamRating = teams.get(team);
+            double teamSigmaSquared = teamRating.sigmaSquared();
+            int other = 0;
+            for (int index : order) {
+                if (index == team) {
+                    continue;
+                }
+                win.reset();
+                loss.reset();
+                comparison.compareOutcomes(teamRating, teamSigmaSquared, teams.get(index), win, loss);
+                lossOmega[other + 1] = lossOmega[other] + loss.omega;
+                lossDelta[other + 1] = lossDelta[other] + loss.delta;
+                opponentWinOmega[other] = win.omega;
+                opponentWinDelta[other] = win.delta;
+                other++;
+            }
+            winOmega[teamCount - 1] = 0.0;
+            winDelta[teamCount - 1] = 0.0;
+            for (other = teamCount - 2; other >= 0; other--) {
+                winOmega[other] = winOmega[other + 1] + opponentWinOmega[other];
+                winDelta[other] = winDelta[other + 1] + opponentWinDelta[other];
+            }
+            AdjustmentFactors[] factors = new AdjustmentFactors[teamCount];
+            for (int position = 0; position < teamCount; position++) {
+                int from = (int) Math.max(0, (long) position - window);
+                int to = (int) Math.min(teamCount - 1, (long) position + window);
+                factors[position] = new AdjustmentFactors(
+                        lossOmega[position] - lossOmega[from] + winOmega[position] - winOmega[to],
+                        lossDelta[position] - lossDelta[from] + winDelta[position] - winDelta[to]
+                );
+            }
+            previews.add(Arrays.asList(factors));
+        }
+        return previews;
+    }
+
+    /**
+     * @return team indexes from the highest to the lowest mu, equal mu in the given order
+     */
+    static Integer[] muOrder(List<? extends MatchMakingRating> teams) {
+        Integer[] order = new Integer[teams.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> teams.get(i).mu()).reversed());
+        return order;
+    }
+
+    /**
+     * Ensures every eliminated team is ranked below every placed team.
+     */
+    static void checkTopK(List<? extends TeamResult<?>> placed, List<? extends TeamResult<?>> eliminated) {
+        int lastPlacedRank = Integer.MIN_VALUE;
+        for (TeamResult<?> teamResult : placed) {
+            lastPlacedRank = Math.max(lastPlacedRank, teamResult.rank());
+        }
+        for (TeamResult<?> teamResult : eliminated) {
+            if (teamResult.rank() <= lastPlacedRank) {
+                throw new IllegalArgumentException(
+                        "Eliminated team rank " + teamResult.rank()
+                                + " is not below the last placed rank " + lastPlacedRank
+                );
+            }
+        }
+    }
+
+    private static void compareNeighbours(
+            PairComparison comparison,
+            int window,
+            List<? extends TeamResult<?>> teamResults,
+            Integer[] order,
+            int position,
+            FactorAccumulator accumulator
+    ) {
+        TeamResult<?> teamResult = teamResults.get(order[position]);
+        double teamSigmaSquared = teamResult.sigmaSquared();
+        int from = Math.max(0, position - window);
+        int to = (int) Math.min(order.length - 1L, (long) position + window);
+        for (int neighbour = from; neighbour <= to; neighbour++) {
+            if (neighbour != position) {
+                comparison.compare(teamResult, teamSigmaSquared, teamResults.get(order[neighbour]), accumulator);
+            }
+        }
+    }
+
+    static Integer[] rankOrder(List<? extends TeamResult<?>> teamResults) {
+        Integer[] order = new Integer[teamResults.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        // Stable sort keeps the given order among equal ranks
+        Arrays.sort(order, Comparator.comparingInt(i -> teamResults.get(i).rank()));
+        return order;
+    }
+
+    /**
+     * @return team indexes in the finish order used to select rank neighbours, see
+     * {@link #partial(PairComparison, int, List)}
+     */
+    private static Integer[] neighbourOrder(List<? extends TeamResult<?>> teamResults) {
+        Integer[] order = new Integer[teamResults.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt((Integer i) -> teamResults.get(i).rank())
+                .thenComparing(i -> teamResults.get(i).mu(), Comparator.reverseOrder())
+                .thenComparingDouble(i -> teamResults.get(i).sigmaSquared()));
+        return order;
+    }
+
+    private static final class FullPairingTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final PairComparison comparison;
+        private final TeamResult<?>[] teams;
+        private final AdjustmentFactors[] factors;
+        private final int from;
+        private final int to;
+
+        FullPairingTask(
+                PairComparison comparison,
+                TeamResult<?>[] teams,
+                AdjustmentFactors[] factors,
+                int from,
+                int to
+        ) {
+            this.comparison = comparison;
+            this.teams = teams;
+            this.factors = factors;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PARALLEL_CHUNK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                        new FullPairingTask(comparison, teams, factors, from, middle),
+                        new FullPairingTask(comparison, teams, factors, middle, to)
+                );
+                return;
+            }
+            FactorAccumulator accumulator = new FactorAccumulator.Compensated();
+            for (int i = from; i < to; i++) {
+                TeamResult<?> teamResult = teams[i];
+                double teamSigmaSquared = teamResult.sigmaSquared();
+                accumulator.reset();
+                for (int j = 0; j < teams.length; j++) {
+                    if (j != i) {
+                        comparison.compare(teamResult, teamSigmaSquared, teams[j], accumulator);
+                    }
+                }
+                factors[i] = accumulator.toAdjustmentFactors();
+            }
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package com.pocketcombats.openskill.model;
 
 import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.data.MatchMakingRating;
 import com.pocketcombats.openskill.data.TeamResult;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 
 public class PlackettLuce implements RatingModel {
@@ -31,7 +34,7 @@ public class PlackettLuce implements RatingModel {
         allTeamResults.add(teamResult);
         double omega = 0.0;
         double delta = 0.0;
-        double teamSigmaSquared = teamResult.sigma() * teamResult.sigma();
+        double teamSigmaSquared = teamResult.sigmaSquared();
         // A combined variance measure that incorporates the variances of all teams,
         // used for normalizing skill differences
         double c = calculateC(allTeamResults);
@@ -63,12 +66,202 @@ public class PlackettLuce implements RatingModel {
         return new AdjustmentFactors(omega, delta);
     }
 
+    /**
+     * A full ranking is the top-K case without eliminated teams, whose prefix sums compute a large match in linear
+     * time, faster than splitting the per-team computation across the pool.
+     */
+    @Override
+    public List<AdjustmentFactors> calculateAdjustmentFactors(
+            List<? extends TeamResult<?>> teamResults,
+            ForkJoinPool pool
+    ) {
+        return calculateTopKAdjustmentFactors(teamResults, List.of());
+    }
+
+    /**
+     * Top-K Plackett-Luce: only the first K choices are observed, so the eliminated teams take part in the
+     * normalizing sums of every stage but have no stage of their own. Stage sums are computed once per distinct
+     * placed rank, and every team reads prefix sums of the stage terms, making the cost linear in the number of
+     * teams apart from sorting the placed ones.
+     */
+    @Override
+    public List<AdjustmentFactors> calculateTopKAdjustmentFactors(
+            List<? extends TeamResult<?>> placed,
+            List<? extends TeamResult<?>> eliminated
+    ) {
+        Pairings.checkTopK(placed, eliminated);
+        int placedCount = placed.size();
+        double sum = 0.0;
+        for (TeamResult<?> teamResult : placed) {
+            sum += teamResult.sigmaSquared() + betaSquared;
+        }
+        for (TeamResult<?> teamResult : eliminated) {
+            sum += teamResult.sigmaSquared() + betaSquared;
+        }
+        double c = Math.sqrt(sum);
+
+        double eliminatedSumQ = 0.0;
+        for (TeamResult<?> teamResult : eliminated) {
+            eliminatedSumQ += Math.exp(teamResult.mu() / c);
+        }
+        Integer[] order = Pairings.rankOrder(placed);
+        double[] expMu = new double[placedCount];
+        for (int position = 0; position < placedCount; position++) {
+            expMu[position] = Math.exp(placed.get(order[position]).mu() / c);
+        }
+        // Group start of every position, and for every group: sum over the teams placed at or below it
+        int[] groupStart = new int[placedCount];
+        for (int position = 1; position < placedCount; position++) {
+            boolean tied = placed.get(order[position]).rank() == placed.get(order[position - 1]).rank();
+            groupStart[position] = tied ? groupStart[position - 1] : position;
+        }
+        double[] sumQ = new double[placedCount];
+        double suffix = eliminatedSumQ;
+        for (int position = placedCount - 1; position >= 0; position--) {
+            suffix += expMu[position];
+            sumQ[position] = suffix;
+        }
+        // Prefix sums over stages of 1 / sumQ and 1 / sumQ², and 1 / A of every placed team
+        double[] ownStage = new double[placedCount];
+        double[] stageSum = new double[placedCount];
+        double[] stageSquaredSum = new double[placedCount];
+        double prefix = 0.0;
+        double squaredPrefix = 0.0;
+        for (int position = 0; position < placedCount; position++) {
+            if (position + 1 == placedCount || groupStart[position + 1] != groupStart[position]) {
+                double groupSumQ = sumQ[groupStart[position]];
+                prefix += 1 / groupSumQ;
+                squaredPrefix += 1 / (groupSumQ * groupSumQ);
+                double a = position - groupStart[position] + 1;
+                for (int member = groupStart[position]; member <= position; member++) {
+                    ownStage[member] = 1 / a;
+                    stageSum[member] = prefix;
+                    stageSquaredSum[member] = squaredPrefix;
+                }
+            }
+        }
+
+        AdjustmentFactors[] factors = new AdjustmentFactors[placedCount + eliminated.size()];
+        for (int position = 0; position < placedCount; position++) {
+            factors[order[position]] = topKAdjustmentFactors(
+                    placed.get(order[position]),
+                    c,
+                    expMu[position],
+                    ownStage[position],
+                    stageSum[position],
+                    stageSquaredSum[position]
+            );
+        }
+        double totalStageSum = placedCount == 0 ? 0.0 : stageSum[placedCount - 1];
+        double totalStageSquaredSum = placedCount == 0 ? 0.0 : stageSquaredSum[placedCount - 1];
+        for (int i = 0; i < eliminated.size(); i++) {
+            TeamResult<?> teamResult = eliminated.get(i);
+            factors[placedCount + i] = topKAdjustmentFactors(
+                    teamResult,
+                    c,
+                    Math.exp(teamResult.mu() / c),
+                    0.0,
+                    totalStageSum,
+                    totalStageSquaredSum
+            );
+        }
+        return Arrays.asList(factors);
+    }
+
+    /**
+     * @param ownStage        share of the team's own stage, {@code 1 / A} of its rank; zero for eliminated teams
+     * @param stageSum        sum of {@code 1 / sumQ} over the stages at or above the team
+     * @param stageSquaredSum sum of {@code 1 / sumQ²} over the same stages
+     */
+    private static AdjustmentFactors topKAdjustmentFactors(
+            TeamResult<?> teamResult,
+            double c,
+            double muOverC,
+            double ownStage,
+            double stageSum,
+            double stageSquaredSum
+    ) {
+        double teamSigmaSquared = teamResult.sigmaSquared();
+        double omega = ownStage - muOverC * stageSum;
+        double delta = muOverC * stageSum - muOverC * muOverC * stageSquaredSum;
+        omega *= teamSigmaSquared / c;
+        delta *= teamSigmaSquared / (c * c);
+
+        double gamma = teamResult.sigma() / c;
+        delta *= gamma;
+        return new AdjustmentFactors(omega, delta);
+    }
+
+    /**
+     * With the team at a position and the other teams in mu order, every stage above the team normalizes by the
+     * team's own exponent plus a suffix of the others' exponents. Both are computed once per match, so a team
+     * previews all its positions with running sums over the stages in linear time.
+     */
+    @Override
+    public List<List<AdjustmentFactors>> calculatePreviewAdjustmentFactors(List<? extends MatchMakingRating> teams) {
+        int teamCount = teams.size();
+        double sum = 0.0;
+        for (MatchMakingRating team : teams) {
+            sum += team.sigmaSquared() + betaSquared;
+        }
+        double c = Math.sqrt(sum);
+        Integer[] order = Pairings.muOrder(teams);
+        int[] orderPosition = new int[teamCount];
+        double[] expMu = new double[teamCount];
+        for (int position = 0; position < teamCount; position++) {
+            orderPosition[order[position]] = position;
+            expMu[order[position]] = Math.exp(teams.get(order[position]).mu() / c);
+        }
+        // Sum of the exponents of the teams from a position in mu order on
+        double[] suffix = new double[teamCount + 1];
+        for (int position = teamCount - 1; position >= 0; position--) {
+            suffix[position] = suffix[position + 1] + expMu[order[position]];
+        }
+
+        List<List<AdjustmentFactors>> previews = new ArrayList<>(teamCount);
+        for (int team = 0; team < teamCount; team++) {
+            MatchMakingRating rating = teams.get(team);
+            double teamSigmaSquared = rating.sigmaSquared();
+            double gamma = rating.sigma() / c;
+            double teamExpMu = expMu[team];
+            int teamOrderPosition = orderPosition[team];
+            AdjustmentFactors[] factors = new AdjustmentFactors[teamCount];
+            // Running sums over the stages of the other teams finishing ahead
+            double stageOmega = 0.0;
+            double stageDelta = 0.0;
+            for (int position = 0; position < teamCount; position++) {
+                // The team and the other teams from this position on in mu order
+                double others = position < teamOrderPosition ? suffix[position] - teamExpMu : suffix[position + 1];
+                double stageSumQ = teamExpMu + others;
+                double share = teamExpMu / stageSumQ;
+                double omega = (1 - share) - stageOmega;
+                double delta = stageDelta + share * (1 - share);
+                omega *= teamSigmaSquared / c;
+                delta *= teamSigmaSquared / (c * c);
+                factors[position] = new AdjustmentFactors(omega, delta * gamma);
+                stageOmega += share;
+                stageDelta += share * (1 - share);
+            }
+            previews.add(Arrays.asList(factors));
+        }
+        return previews;
+    }
+
+    /**
+     * Probability that the team is chosen first among the two, the first Plackett-Luce stage.
+     */
+    @Override
+    public double winProbability(MatchMakingRating team, MatchMakingRating opponent) {
+        double c = Math.sqrt(team.sigmaSquared() + opponent.sigmaSquared() + 2 * betaSquared);
+        return 1 / (1 + Math.exp((opponent.mu() - team.mu()) / c));
+    }
+
     /**
      * Calculate the square root of the collective team sigma.
      */
     private double calculateC(List<? extends TeamResult<?>> teamResults) {
         double sum = teamResults.stream()
-                .mapToDouble(result -> result.sigma() * result.sigma() + betaSquared)
+                .mapToDouble(result -> result.sigmaSquared() + betaSquared)
                 .sum();
         return Math.sqrt(sum);
     }
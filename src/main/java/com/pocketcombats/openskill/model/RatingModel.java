@@ -1,8 +1,13 @@
 package com.pocketcombats.openskill.model;
 
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.SimpleTeamResult;
 import com.pocketcombats.openskill.data.TeamResult;
+import com.pocketcombats.openskill.math.Gaussian;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public interface RatingModel {
 
@@ -10,4 +15,128 @@ public interface RatingModel {
             TeamResult<?> teamResult,
             List<? extends TeamResult<?>> opponentTeamResults
     );
+
+    /**
+     * Calculates adjustment factors of every team of a match at once, letting models that do not compare each team
+     * with all opponents avoid building per-team opponent lists.
+     *
+     * @return adjustment factors in the order of the team results
+     */
+    default List<AdjustmentFactors> calculateAdjustmentFactors(List<? extends TeamResult<?>> teamResults) {
+        List<AdjustmentFactors> adjustmentFactors = new ArrayList<>(teamResults.size());
+        for (TeamResult<?> teamResult : teamResults) {
+            List<? extends TeamResult<?>> opponents = teamResults.stream()
+                    .filter(r -> !r.equals(teamResult))
+                    .toList();
+            adjustmentFactors.add(calculateAdjustmentFactors(teamResult, opponents));
+        }
+        return adjustmentFactors;
+    }
+
+    /**
+     * Calculates adjustment factors of every team of a single large match, splitting the work across the pool.
+     * Results do not depend on the pool parallelism, but may differ in the last bits from
+     * {@link #calculateAdjustmentFactors(List)}, as sums over many teams are compensated.
+     * <p>
+     * The default implementation runs {@link #calculateAdjustmentFactors(List)} in the calling thread, which suits
+     * models whose cost is linear in the number of teams.
+     *
+     * @return adjustment factors in the order of the team results
+     */
+    default List<AdjustmentFactors> calculateAdjustmentFactors(
+            List<? extends TeamResult<?>> teamResults,
+            ForkJoinPool pool
+    ) {
+        return calculateAdjustmentFactors(teamResults);
+    }
+
+    /**
+     * Calculates adjustment factors of a partially ordered result: the placed teams finish in the order of their
+     * ranks, the eliminated teams finish below all of them in an unknown order. Unlike encoding the eliminated teams
+     * as a tie, the result makes no claim about the eliminated teams relative to each other.
+     * <p>
+     * The default implementation compares every pair except the pairs of eliminated teams, models override it to
+     * handle the eliminated block as a whole.
+     *
+     * @param placed     top teams with known placement
+     * @param eliminated remaining teams, each ranked below every placed team
+     * @return adjustment factors of the placed teams followed by the eliminated teams
+     * @throws IllegalArgumentException if an eliminated team is not ranked below the placed teams
+     */
+    default List<AdjustmentFactors> calculateTopKAdjustmentFactors(
+            List<? extends TeamResult<?>> placed,
+            List<? extends TeamResult<?>> eliminated
+    ) {
+        Pairings.checkTopK(placed, eliminated);
+        List<AdjustmentFactors> adjustmentFactors = new ArrayList<>(placed.size() + eliminated.size());
+        for (TeamResult<?> teamResult : placed) {
+            List<TeamResult<?>> opponents = new ArrayList<>(placed.size() - 1 + eliminated.size());
+            for (TeamResult<?> opponent : placed) {
+                if (!opponent.equals(teamResult)) {
+                    opponents.add(opponent);
+                }
+            }
+            opponents.addAll(eliminated);
+            adjustmentFactors.add(calculateAdjustmentFactors(teamResult, opponents));
+        }
+        for (TeamResult<?> teamResult : eliminated) {
+            adjustmentFactors.add(calculateAdjustmentFactors(teamResult, placed));
+        }
+        return adjustmentFactors;
+    }
+
+    /**
+     * Calculates adjustment factors of every team for every finishing position it could take, to preview rating
+     * changes before a match. The team finishing at a position is preceded by the strongest of the other teams,
+     * which finish in the order of their mu. Ranks of the given teams are ignored.
+     * <p>
+     * The default implementation calculates every outcome separately, models override it to share the terms that
+     * do not depend on the outcome.
+     *
+     * @return for every team in the given order, factors of finishing first, second and so on
+     */
+    default List<List<AdjustmentFactors>> calculatePreviewAdjustmentFactors(List<? extends MatchMakingRating> teams) {
+        int teamCount = teams.size();
+        Integer[] order = Pairings.muOrder(teams);
+        List<List<AdjustmentFactors>> previews = new ArrayList<>(teamCount);
+        for (int team = 0; team < teamCount; team++) {
+            List<AdjustmentFactors> factors = new ArrayList<>(teamCount);
+            for (int position = 0; position < teamCount; position++) {
+                List<TeamResult<?>> opponents = new ArrayList<>(teamCount - 1);
+                int other = 0;
+                for (int index : order) {
+                    if (index != team) {
+                        int rank = other < position ? other + 1 : other + 2;
+                        MatchMakingRating opponent = teams.get(index);
+                        opponents.add(new SimpleTeamResult<>(opponent.mu(), opponent.sigma(), rank, List.of()));
+                        other++;
+                    }
+                }
+                MatchMakingRating rating = teams.get(team);
+                TeamResult<?> teamResult = new SimpleTeamResult<>(rating.mu(), rating.sigma(), position + 1, List.of());
+                factors.add(calculateAdjustmentFactors(teamResult, opponents));
+            }
+            previews.add(factors);
+        }
+        return previews;
+    }
+
+    /**
+     * Predicts the outcome of a head-to-head comparison as implied by the model.
+     * <p>
+     * The default implementation is a Thurstone-style comparison accounting for the rating uncertainty only,
+     * models override it to include their own performance variance.
+     *
+     * @param team     team rating
+     * @param opponent opponent team rating
+     * @return probability that the team finishes ahead of the opponent
+     */
+    default double winProbability(MatchMakingRating team, MatchMakingRating opponent) {
+        double difference = team.mu() - opponent.mu();
+        double c = Math.sqrt(team.sigmaSquared() + opponent.sigmaSquared());
+        if (c == 0.0) {
+            return difference > 0 ? 1.0 : difference < 0 ? 0.0 : 0.5;
+        }
+        return Gaussian.cdf(difference / c);
+    }
 }
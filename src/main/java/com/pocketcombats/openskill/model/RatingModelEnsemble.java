@@ -0,0 +1,122 @@
+package com.pocketcombats.openskill.model;
+
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.data.TeamResult;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Calculates adjustment factors of several rating models in a single pass over a match.
+ * <p>
+ * The pairwise models visit every pair of teams once and share team variances and the combined deviation of the
+ * pair, Thurstone-Mosteller additionally shares {@code v} and {@code w} between the winner and the loser.
+ * Plackett-Luce computes its normalizing sums once per match instead of once per team.
+ * Pairwise factors are identical to the standalone models,
+ * Plackett-Luce factors may differ from {@link PlackettLuce} in the last bits due to summation order.
+ */
+public final class RatingModelEnsemble {
+
+    private final Set<EnsembleModel> models;
+    private final double betaSquared;
+    private final BradleyTerryComparison bradleyTerry;
+    private final ThurstoneMostellerComparison thurstoneMosteller;
+    private final PlackettLuce plackettLuce;
+
+    public RatingModelEnsemble(RatingModelConfig config, Set<EnsembleModel> models) {
+        if (models.isEmpty()) {
+            throw new IllegalArgumentException("Ensemble requires at least one model");
+        }
+        this.models = Collections.unmodifiableSet(EnumSet.copyOf(models));
+        this.betaSquared = config.beta() * config.beta();
+        this.bradleyTerry = models.contains(EnsembleModel.BRADLEY_TERRY_FULL)
+                ? new BradleyTerryComparison(config.beta())
+                : null;
+        this.thurstoneMosteller = models.contains(EnsembleModel.THURSTONE_MOSTELLER_FULL)
+                ? new ThurstoneMostellerComparison(config.beta(), config.kappa())
+                : null;
+        this.plackettLuce = models.contains(EnsembleModel.PLACKETT_LUCE)
+                ? new PlackettLuce(config)
+                : null;
+    }
+
+    public Set<EnsembleModel> models() {
+        return models;
+    }
+
+    /**
+     * @return adjustment factors of every configured model, in the order of the team results
+     */
+    public Map<EnsembleModel, List<AdjustmentFactors>> calculateAdjustmentFactors(
+            List<? extends TeamResult<?>> teamResults
+    ) {
+        int teams = teamResults.size();
+        double[] sigmaSquared = new double[teams];
+        for (int i = 0; i < teams; i++) {
+            sigmaSquared[i] = teamResults.get(i).sigmaSquared();
+        }
+        FactorAccumulator[] bradleyTerryFactors = bradleyTerry == null ? null : accumulators(teams);
+        FactorAccumulator[] thurstoneMostellerFactors = thurstoneMosteller == null ? null : accumulators(teams);
+        if (bradleyTerry != null || thurstoneMosteller != null) {
+            // Ascending pair order keeps every team's summation order of the standalone models
+            for (int i = 0; i < teams; i++) {
+                TeamResult<?> teamResult = teamResults.get(i);
+                for (int q = i + 1; q < teams; q++) {
+                    TeamResult<?> opponentResult = teamResults.get(q);
+                    double ciq = Math.sqrt(sigmaSquared[i] + sigmaSquared[q] + 2 * betaSquared);
+                    if (bradleyTerry != null) {
+                        bradleyTerry.compareBoth(
+                                teamResult, sigmaSquared[i], bradleyTerryFactors[i],
+                                opponentResult, sigmaSquared[q], bradleyTerryFactors[q],
+                                ciq
+                        );
+                    }
+                    if (thurstoneMosteller != null) {
+                        thurstoneMosteller.compareBoth(
+                                teamResult, sigmaSquared[i], thurstoneMostellerFactors[i],
+                                opponentResult, sigmaSquared[q], thurstoneMostellerFactors[q],
+                                ciq
+                        );
+                    }
+                }
+            }
+        }
+
+        Map<EnsembleModel, List<AdjustmentFactors>> result = new EnumMap<>(EnsembleModel.class);
+        if (thurstoneMosteller != null) {
+            result.put(EnsembleModel.THURSTONE_MOSTELLER_FULL, toAdjustmentFactors(thurstoneMostellerFactors));
+        }
+        if (bradleyTerry != null) {
+            result.put(EnsembleModel.BRADLEY_TERRY_FULL, toAdjustmentFactors(bradleyTerryFactors));
+        }
+        if (plackettLuce != null) {
+            // A complete ranking is a top-K result without eliminated teams
+            result.put(
+                    EnsembleModel.PLACKETT_LUCE,
+                    plackettLuce.calculateTopKAdjustmentFactors(teamResults, List.of())
+            );
+        }
+        return result;
+    }
+
+    private static FactorAccumulator[] accumulators(int teams) {
+        FactorAccumulator[] accumulators = new FactorAccumulator[teams];
+        for (int i = 0; i < teams; i++) {
+            accumulators[i] = new FactorAccumulator();
+        }
+        return accumulators;
+    }
+
+    private static List<AdjustmentFactors> toAdjustmentFactors(FactorAccumulator[] accumulators) {
+        AdjustmentFactors[] factors = new AdjustmentFactors[accumulators.length];
+        for (int i = 0; i < accumulators.length; i++) {
+            factors[i] = accumulators[i].toAdjustmentFactors();
+        }
+        return Arrays.asList(factors);
+    }
+}
@@ -0,0 +1,138 @@
+package com.pocketcombats.openskill.model;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.TeamResult;
+
+import static com.pocketcombats.openskill.model.ThurstoneMostellerUtil.*;
+
+final class ThurstoneMostellerComparison implements PairComparison {
+
+    private final double betaSquared;
+    private final double kappa;
+
+    ThurstoneMostellerComparison(double beta, double kappa) {
+        this.betaSquared = beta * beta;
+        this.kappa = kappa;
+    }
+
+    @Override
+    public void compare(
+            TeamResult<?> teamResult,
+            double teamSigmaSquared,
+            TeamResult<?> opponentResult,
+            FactorAccumulator accumulator
+    ) {
+        // combined standard deviation (σ) measure, incorporating the variances of
+        // two competing teams
+        double ciq = calculateCiq(teamSigmaSquared, opponentResult.sigmaSquared());
+        accumulate(teamResult, teamSigmaSquared, opponentResult, ciq, accumulator);
+    }
+
+    /**
+     * Compares both teams of a pair with each other. Unless tied, both sides use the same {@code v} and {@code w}
+     * values with opposite signs of omega, so they are evaluated once.
+     */
+    void compareBoth(
+            TeamResult<?> teamResult,
+            double teamSigmaSquared,
+            FactorAccumulator teamAccumulator,
+            TeamResult<?> opponentResult,
+            double opponentSigmaSquared,
+            FactorAccumulator opponentAccumulator,
+            double ciq
+    ) {
+        if (teamResult.rank() == opponentResult.rank()) {
+            accumulate(teamResult, teamSigmaSquared, opponentResult, ciq, teamAccumulator);
+            accumulate(opponentResult, opponentSigmaSquared, teamResult, ciq, opponentAccumulator);
+            return;
+        }
+        boolean teamWins = teamResult.rank() < opponentResult.rank();
+        TeamResult<?> winner = teamWins ? teamResult : opponentResult;
+        TeamResult<?> loser = teamWins ? opponentResult : teamResult;
+        double winnerSigmaSquared = teamWins ? teamSigmaSquared : opponentSigmaSquared;
+        double loserSigmaSquared = teamWins ? opponentSigmaSquared : teamSigmaSquared;
+        FactorAccumulator winnerAccumulator = teamWins ? teamAccumulator : opponentAccumulator;
+        FactorAccumulator loserAccumulator = teamWins ? opponentAccumulator : teamAccumulator;
+
+        double deltaMu = (winner.mu() - loser.mu()) / ciq;
+        double v = v(deltaMu, kappa / ciq);
+        double w = w(deltaMu, kappa / ciq);
+
+        double winnerSigmaSquaredToCiq = winnerSigmaSquared / ciq;
+        double winnerGamma = winner.sigma() / ciq;
+        winnerAccumulator.add(winnerSigmaSquaredToCiq * v, ((winnerGamma * winnerSigmaSquaredToCiq) / ciq) * w);
+
+        double loserSigmaSquaredToCiq = loserSigmaSquared / ciq;
+        double loserGamma = loser.sigma() / ciq;
+        loserAccumulator.add(-loserSigmaSquaredToCiq * v, ((loserGamma * loserSigmaSquaredToCiq) / ciq) * w);
+    }
+
+    private void accumulate(
+            TeamResult<?> teamResult,
+            double teamSigmaSquared,
+            TeamResult<?> opponentResult,
+            double ciq,
+            FactorAccumulator accumulator
+    ) {
+        // difference in the mean skills of two teams, scaled by the combined uncertainty (ciq)
+        double deltaMu = (teamResult.mu() - opponentResult.mu()) / ciq;
+        double sigmaSquaredToCiq = teamSigmaSquared / ciq;
+        // impact of performance uncertainty on the outcome, closely related
+        // to the probability density functions used in Bayesian inference
+        double gamma = teamResult.sigma() / ciq;
+
+        if (opponentResult.rank() > teamResult.rank()) {
+            accumulator.add(
+                    sigmaSquaredToCiq * v(deltaMu, kappa / ciq),
+                    ((gamma * sigmaSquaredToCiq) / ciq) * w(deltaMu, kappa / ciq)
+            );
+        } else if (opponentResult.rank() < teamResult.rank()) {
+            accumulator.add(
+                    -sigmaSquaredToCiq * v(-deltaMu, kappa / ciq),
+                    ((gamma * sigmaSquaredToCiq) / ciq) * w(-deltaMu, kappa / ciq)
+            );
+        } else {
+            accumulator.add(
+                    sigmaSquaredToCiq * vt(deltaMu, kappa / ciq),
+                    ((gamma * sigmaSquaredToCiq) / ciq) * wt(deltaMu, kappa / ciq)
+            );
+        }
+    }
+
+    @Override
+    public void compareOutcomes(
+            MatchMakingRating team,
+            double teamSigmaSquared,
+            MatchMakingRating opponent,
+            FactorAccumulator win,
+            FactorAccumulator loss
+    ) {
+        double ciq = calculateCiq(teamSigmaSquared, opponent.sigmaSquared());
+        double deltaMu = (team.mu() - opponent.mu()) / ciq;
+        double sigmaSquaredToCiq = teamSigmaSquared / ciq;
+        double gamma = team.sigma() / ciq;
+        win.add(
+                sigmaSquaredToCiq * v(deltaMu, kappa / ciq),
+                ((gamma * sigmaSquaredToCiq) / ciq) * w(deltaMu, kappa / ciq)
+        );
+        loss.add(
+                -sigmaSquaredToCiq * v(-deltaMu, kappa / ciq),
+                ((gamma * sigmaSquaredToCiq) / ciq) * w(-deltaMu, kappa / ciq)
+        );
+    }
+
+    @Override
+    public double winProbability(MatchMakingRating team, MatchMakingRating opponent) {
+        double ciq = calculateCiq(team.sigmaSquared(), opponent.sigmaSquared());
+        return phiMajor((team.mu() - opponent.mu()) / ciq);
+    }
+
+    /**
+     * Calculate combined sigma for two teams (ciq).
+     *
+     * @return The combined sigma for two teams
+     */
+    private double calculateCiq(double teamASigmaSquared, double teamBSigmaSquared) {
+        return Math.sqrt(teamASigmaSquared + teamBSigmaSquared + 2 * betaSquared);
+    }
+}
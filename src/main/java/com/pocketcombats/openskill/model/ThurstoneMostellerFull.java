@@ -1,11 +1,11 @@
 package com.pocketcombats.openskill.model;
 
 import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.data.MatchMakingRating;
 import com.pocketcombats.openskill.data.TeamResult;
 
 import java.util.List;
-
-import static com.pocketcombats.openskill.model.ThurstoneMostellerUtil.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * The Thurstone-Mosteller with Full Pairing model assumes a single
@@ -18,12 +18,10 @@ import static com.pocketcombats.openskill.model.ThurstoneMostellerUtil.*;
  */
 public class ThurstoneMostellerFull implements RatingModel {
 
-    private final double betaSquared;
-    private final double kappa;
+    private final PairComparison comparison;
 
     public ThurstoneMostellerFull(RatingModelConfig config) {
-        this.betaSquared = config.beta() * config.beta();
-        this.kappa = config.kappa();
+        this.comparison = new ThurstoneMostellerComparison(config.beta(), config.kappa());
     }
 
     @Override
@@ -31,41 +29,32 @@ public class ThurstoneMostellerFull implements RatingModel {
             TeamResult<?> teamResult,
             List<? extends TeamResult<?>> opponentTeamResults
     ) {
-        double teamOmega = 0.0;
-        double teamDelta = 0.0;
-        double teamSigmaSquared = teamResult.sigma() * teamResult.sigma();
+        return Pairings.full(comparison, teamResult, opponentTeamResults);
+    }
 
-        for (TeamResult<?> opponentResult : opponentTeamResults) {
-            // combined standard deviation (σ) measure, incorporating the variances of
-            // two competing teams
-            double ciq = calculateCiq(teamSigmaSquared, opponentResult.sigma() * opponentResult.sigma());
-            // difference in the mean skills of two teams, scaled by the combined uncertainty (ciq)
-            double deltaMu = (teamResult.mu() - opponentResult.mu()) / ciq;
-            double sigmaSquaredToCiq = teamSigmaSquared / ciq;
-            // impact of performance uncertainty on the outcome, closely related
-            // to the probability density functions used in Bayesian inference
-            double gamma = teamResult.sigma() / ciq;
+    @Override
+    public List<AdjustmentFactors> calculateAdjustmentFactors(
+            List<? extends TeamResult<?>> teamResults,
+            ForkJoinPool pool
+    ) {
+        return Pairings.fullParallel(comparison, teamResults, pool);
+    }
 
-            if (opponentResult.rank() > teamResult.rank()) {
-                teamOmega += sigmaSquaredToCiq * v(deltaMu, kappa / ciq);
-                teamDelta += ((gamma * sigmaSquaredToCiq) / ciq) * w(deltaMu, kappa / ciq);
-            } else if (opponentResult.rank() < teamResult.rank()) {
-                teamOmega += -sigmaSquaredToCiq * v(-deltaMu, kappa / ciq);
-                teamDelta += ((gamma * sigmaSquaredToCiq) / ciq) * w(-deltaMu, kappa / ciq);
-            } else {
-                teamOmega += sigmaSquaredToCiq * vt(deltaMu, kappa / ciq);
-                teamDelta += ((gamma * sigmaSquaredToCiq) / ciq) * wt(deltaMu, kappa / ciq);
-            }
-        }
-        return new AdjustmentFactors(teamOmega, teamDelta);
+    @Override
+    public List<AdjustmentFactors> calculateTopKAdjustmentFactors(
+            List<? extends TeamResult<?>> placed,
+            List<? extends TeamResult<?>> eliminated
+    ) {
+        return Pairings.topK(comparison, Integer.MAX_VALUE, placed, eliminated);
     }
 
-    /**
-     * Calculate combined sigma for two teams (ciq).
-     *
-     * @return The combined sigma for two teams
-     */
-    private double calculateCiq(double teamASigmaSquared, double teamBSigmaSquared) {
-        return Math.sqrt(teamASigmaSquared + teamBSigmaSquared + 2 * betaSquared);
+    @Override
+    public List<List<AdjustmentFactors>> calculatePreviewAdjustmentFactors(List<? extends MatchMakingRating> teams) {
+        return Pairings.preview(comparison, Integer.MAX_VALUE, teams);
+    }
+
+    @Override
+    public double winProbability(MatchMakingRating team, MatchMakingRating opponent) {
+        return comparison.winProbability(team, opponent);
     }
 }
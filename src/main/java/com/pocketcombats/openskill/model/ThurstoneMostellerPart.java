@@ -0,0 +1,63 @@
+package com.pocketcombats.openskill.model;
+
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.TeamResult;
+
+import java.util.List;
+
+/**
+ * Thurstone-Mosteller model comparing every team only with its rank neighbours.
+ * A window of {@code n - 1} or more is equivalent to {@link ThurstoneMostellerFull}.
+ */
+public class ThurstoneMostellerPart implements RatingModel {
+
+    private final PairComparison comparison;
+    private final int window;
+
+    public ThurstoneMostellerPart(RatingModelConfig config) {
+        this(config, 1);
+    }
+
+    /**
+     * @param window number of places above and below a team to compare it with
+     */
+    public ThurstoneMostellerPart(RatingModelConfig config, int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Neighbour window must be positive: " + window);
+        }
+        this.comparison = new ThurstoneMostellerComparison(config.beta(), config.kappa());
+        this.window = window;
+    }
+
+    @Override
+    public AdjustmentFactors calculateAdjustmentFactors(
+            TeamResult<?> teamResult,
+            List<? extends TeamResult<?>> opponentTeamResults
+    ) {
+        return Pairings.partial(comparison, window, teamResult, opponentTeamResults);
+    }
+
+    @Override
+    public List<AdjustmentFactors> calculateAdjustmentFactors(List<? extends TeamResult<?>> teamResults) {
+        return Pairings.partial(comparison, window, teamResults);
+    }
+
+    @Override
+    public List<AdjustmentFactors> calculateTopKAdjustmentFactors(
+            List<? extends TeamResult<?>> placed,
+            List<? extends TeamResult<?>> eliminated
+    ) {
+        return Pairings.topK(comparison, window, placed, eliminated);
+    }
+
+    @Override
+    public List<List<AdjustmentFactors>> calculatePreviewAdjustmentFactors(List<? extends MatchMakingRating> teams) {
+        return Pairings.preview(comparison, window, teams);
+    }
+
+    @Override
+    public double winProbability(MatchMakingRating team, MatchMakingRating opponent) {
+        return comparison.winProbability(team, opponent);
+    }
+}
@@ -0,0 +1,17 @@
+package com.pocketcombats.openskill.monitor;
+
+/**
+ * Predictions whose probability fell into {@code [lower, upper)}, the last bucket includes 1.
+ *
+ * @param predictions    number of predictions in the bucket
+ * @param meanPredicted  mean predicted probability, {@code NaN} for an empty bucket
+ * @param observedRate   mean observed outcome, draws counting as one half, {@code NaN} for an empty bucket
+ */
+public record CalibrationBucket(
+        double lower,
+        double upper,
+        long predictions,
+        double meanPredicted,
+        double observedRate
+) {
+}
@@ -0,0 +1,69 @@
+package com.pocketcombats.openskill.monitor;
+
+import com.pocketcombats.openskill.Adjudicator;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.TeamResult;
+import com.pocketcombats.openskill.model.RatingModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link Adjudicator} recording into a {@link PredictionMonitor} how well the ratings predicted each match before
+ * rating it. Can be used wherever an adjudicator is expected, for example by
+ * {@link com.pocketcombats.openskill.MatchRater}. Large matches rated in a pool and top-K results are rated without
+ * being recorded.
+ */
+public class MonitoringAdjudicator<T> extends Adjudicator<T> {
+
+    private final RatingModel ratingModel;
+    private final PredictionMonitor monitor;
+
+    public MonitoringAdjudicator(RatingModelConfig config, RatingModel ratingModel, PredictionMonitor monitor) {
+        super(config, ratingModel);
+        this.ratingModel = ratingModel;
+        this.monitor = monitor;
+    }
+
+    /**
+     * This overload is called once for every team of a match, so each pair is recorded by only one of its teams:
+     * the better placed one, or for a tie the one with the higher rating.
+     */
+    @Override
+    public List<RatingAdjustment<T>> rate(TeamResult<T> teamResult, List<? extends TeamResult<T>> opponents) {
+        List<TeamResult<T>> recorded = new ArrayList<>(opponents.size());
+        for (TeamResult<T> opponent : opponents) {
+            if (recordsPair(teamResult, opponent)) {
+                recorded.add(opponent);
+            }
+        }
+        monitor.record(ratingModel, teamResult, recorded);
+        return super.rate(teamResult, opponents);
+    }
+
+    @Override
+    public List<RatingAdjustment<T>> rate(List<? extends TeamResult<T>> teamResults) {
+        monitor.record(ratingModel, teamResults);
+        return super.rate(teamResults);
+    }
+
+    public PredictionMonitor monitor() {
+        return monitor;
+    }
+
+    private static boolean recordsPair(TeamResult<?> team, TeamResult<?> opponent) {
+        if (team.rank() != opponent.rank()) {
+            return team.rank() < opponent.rank();
+        }
+        int order = Double.compare(team.mu(), opponent.mu());
+        if (order == 0) {
+            order = Double.compare(team.sigma(), opponent.sigma());
+        }
+        if (order == 0) {
+            // Identically rated teams, either of them predicts the same
+            order = Integer.compare(System.identityHashCode(team), System.identityHashCode(opponent));
+        }
+        return order > 0;
+    }
+}
@@ -0,0 +1,257 @@
+package com.pocketcombats.openskill.monitor;
+
+import com.pocketcombats.openskill.data.TeamResult;
+import com.pocketcombats.openskill.model.RatingModel;
+import com.pocketcombats.openskill.tuning.ScoringRule;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Tracks how well ratings predict match outcomes over a sliding time window, for dashboards watching the health of
+ * the rating parameters in production.
+ * <p>
+ * Every match is predicted before it is rated, each pair of its teams separately with
+ * {@link RatingModel#winProbability}, the same way {@link com.pocketcombats.openskill.tuning.HyperparameterTuner}
+ * scores candidates. The window is split into slices holding running sums only, the oldest slice is dropped as time
+ * advances, so memory does not depend on traffic and recording a prediction costs a few additions.
+ * All methods are thread-safe.
+ */
+public class PredictionMonitor {
+
+    private final Clock clock;
+    private final long sliceMillis;
+    private final int bucketCount;
+    private final Slice[] slices;
+
+    private PredictionMonitor(Builder builder) {
+        this.clock = builder.clock;
+        this.sliceMillis = Math.max(1, builder.window.toMillis() / builder.slices);
+        this.bucketCount = builder.calibrationBuckets;
+        this.slices = new Slice[builder.slices];
+        for (int i = 0; i < slices.length; i++) {
+            slices[i] = new Slice(bucketCount);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Records predictions for every pair of teams of a match about to be rated.
+     * The predictions are summed first and added to the window at once.
+     *
+     * @param teamResults match teams with their current ratings and final ranks
+     */
+    public void record(RatingModel ratingModel, List<? extends TeamResult<?>> teamResults) {
+        Slice totals = new Slice(bucketCount);
+        for (int i = 0; i < teamResults.size(); i++) {
+            TeamResult<?> team = teamResults.get(i);
+            for (int j = i + 1; j < teamResults.size(); j++) {
+                totals.add(team, teamResults.get(j), ratingModel);
+            }
+        }
+        record(totals);
+    }
+
+    /**
+     * Records predictions of the team against each of the opponents, added to the window at once.
+     */
+    public void record(RatingModel ratingModel, TeamResult<?> teamResult, List<? extends TeamResult<?>> opponents) {
+        Slice totals = new Slice(bucketCount);
+        for (TeamResult<?> opponent : opponents) {
+            totals.add(teamResult, opponent, ratingModel);
+        }
+        record(totals);
+    }
+
+    /**
+     * @param probability predicted probability that the team finishes ahead of the opponent
+     * @param outcome     1 if it did, 0 if it did not and 0.5 for a draw
+     */
+    public synchronized void record(double probability, double outcome) {
+        currentSlice().add(probability, outcome);
+    }
+
+    private synchronized void record(Slice totals) {
+        if (totals.predictions > 0) {
+            currentSlice().addAll(totals);
+        }
+    }
+
+    private Slice currentSlice() {
+        long epoch = clock.millis() / sliceMillis;
+        Slice slice = slices[(int) Math.floorMod(epoch, (long) slices.length)];
+        if (slice.epoch != epoch) {
+            slice.reset(epoch);
+        }
+        return slice;
+    }
+
+    /**
+     * @return prediction quality over the slices of the current window
+     */
+    public synchronized PredictionStats stats() {
+        long epoch = clock.millis() / sliceMillis;
+        long predictions = 0;
+        double logLoss = 0.0;
+        double brier = 0.0;
+        long decided = 0;
+        long upsets = 0;
+        long[] bucketPredictions = new long[bucketCount];
+        double[] bucketProbabilities = new double[bucketCount];
+        double[] bucketOutcomes = new double[bucketCount];
+        for (Slice slice : slices) {
+            if (slice.epoch > epoch - slices.length && slice.epoch <= epoch) {
+                predictions += slice.predictions;
+                logLoss += slice.logLoss;
+                brier += slice.brier;
+                decided += slice.decided;
+                upsets += slice.upsets;
+                for (int bucket = 0; bucket < bucketCount; bucket++) {
+                    bucketPredictions[bucket] += slice.bucketPredictions[bucket];
+                    bucketProbabilities[bucket] += slice.bucketProbabilities[bucket];
+                    bucketOutcomes[bucket] += slice.bucketOutcomes[bucket];
+                }
+            }
+        }
+        List<CalibrationBucket> calibration = new ArrayList<>(bucketCount);
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            long count = bucketPredictions[bucket];
+            calibration.add(new CalibrationBucket(
+                    (double) bucket / bucketCount,
+                    (double) (bucket + 1) / bucketCount,
+                    count,
+                    count == 0 ? Double.NaN : bucketProbabilities[bucket] / count,
+                    count == 0 ? Double.NaN : bucketOutcomes[bucket] / count
+            ));
+        }
+        return new PredictionStats(
+                predictions,
+                predictions == 0 ? Double.NaN : logLoss / predictions,
+                predictions == 0 ? Double.NaN : brier / predictions,
+                decided == 0 ? Double.NaN : (double) upsets / decided,
+                List.copyOf(calibration)
+        );
+    }
+
+    private static final class Slice {
+
+        private long epoch = Long.MIN_VALUE;
+        private long predictions;
+        private double logLoss;
+        private double brier;
+        private long decided;
+        private long upsets;
+        private final long[] bucketPredictions;
+        private final double[] bucketProbabilities;
+        private final double[] bucketOutcomes;
+
+        private Slice(int buckets) {
+            this.bucketPredictions = new long[buckets];
+            this.bucketProbabilities = new double[buckets];
+            this.bucketOutcomes = new double[buckets];
+        }
+
+        private void add(TeamResult<?> team, TeamResult<?> opponent, RatingModel ratingModel) {
+            double outcome = team.rank() < opponent.rank()
+                    ? 1.0
+                    : team.rank() == opponent.rank() ? 0.5 : 0.0;
+            add(ratingModel.winProbability(team, opponent), outcome);
+        }
+
+        private void add(double probability, double outcome) {
+            predictions++;
+            logLoss += ScoringRule.LOG_LOSS.score(probability, outcome);
+            brier += ScoringRule.BRIER.score(probability, outcome);
+            if (probability != 0.5 && outcome != 0.5) {
+                decided++;
+                if ((probability > 0.5) != (outcome == 1.0)) {
+                    upsets++;
+                }
+            }
+            int buckets = bucketPredictions.length;
+            int bucket = Math.min(buckets - 1, Math.max(0, (int) (probability * buckets)));
+            bucketPredictions[bucket]++;
+            bucketProbabilities[bucket] += probability;
+            bucketOutcomes[bucket] += outcome;
+        }
+
+        private void addAll(Slice other) {
+            predictions += other.predictions;
+            logLoss += other.logLoss;
+            brier += other.brier;
+            decided += other.decided;
+            upsets += other.upsets;
+            for (int bucket = 0; bucket < bucketPredictions.length; bucket++) {
+                bucketPredictions[bucket] += other.bucketPredictions[bucket];
+                bucketProbabilities[bucket] += other.bucketProbabilities[bucket];
+                bucketOutcomes[bucket] += other.bucketOutcomes[bucket];
+            }
+        }
+
+        private void reset(long epoch) {
+            this.epoch = epoch;
+            predictions = 0;
+            logLoss = 0.0;
+            brier = 0.0;
+            decided = 0;
+            upsets = 0;
+            Arrays.fill(bucketPredictions, 0);
+            Arrays.fill(bucketProbabilities, 0.0);
+            Arrays.fill(bucketOutcomes, 0.0);
+        }
+    }
+
+    public static final class Builder {
+
+        private Duration window = Duration.ofHours(1);
+        private int slices = 60;
+        private int calibrationBuckets = 10;
+        private Clock clock = Clock.systemUTC();
+
+        private Builder() {
+        }
+
+        public PredictionMonitor build() {
+            return new PredictionMonitor(this);
+        }
+
+        public Builder setWindow(Duration window) {
+            if (window.isNegative() || window.isZero()) {
+                throw new IllegalArgumentException("Window must be positive: " + window);
+            }
+            this.window = window;
+            return this;
+        }
+
+        /**
+         * @param slices number of parts the window is split into, the window advances one slice at a time
+         */
+        public Builder setSlices(int slices) {
+            if (slices < 1) {
+                throw new IllegalArgumentException("At least one slice required: " + slices);
+            }
+            this.slices = slices;
+            return this;
+        }
+
+        public Builder setCalibrationBuckets(int calibrationBuckets) {
+            if (calibrationBuckets < 1) {
+                throw new IllegalArgumentException("At least one calibration bucket required: " + calibrationBuckets);
+            }
+            this.calibrationBuckets = calibrationBuckets;
+            return this;
+        }
+
+        public Builder setClock(Clock clock) {
+            this.clock = Objects.requireNonNull(clock);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.pocketcombats.openskill.monitor;
+
+import java.util.List;
+
+/**
+ * Prediction quality over a {@link PredictionMonitor} window, metrics are {@code NaN} without predictions.
+ *
+ * @param predictions   number of head-to-head predictions
+ * @param logLoss       mean {@link com.pocketcombats.openskill.tuning.ScoringRule#LOG_LOSS}
+ * @param brierScore    mean {@link com.pocketcombats.openskill.tuning.ScoringRule#BRIER}
+ * @param upsetRate     share of decided predictions with a favourite where the favourite lost
+ * @param calibration   predictions grouped by predicted probability
+ */
+public record PredictionStats(
+        long predictions,
+        double logLoss,
+        double brierScore,
+        double upsetRate,
+        List<CalibrationBucket> calibration
+) {
+
+    /**
+     * Expected calibration error: the mean distance between the predicted probability and the observed rate of
+     * the calibration buckets, weighted by their size.
+     */
+    public double calibrationError() {
+        if (predictions == 0) {
+            return Double.NaN;
+        }
+        double error = 0.0;
+        for (CalibrationBucket bucket : calibration) {
+            if (bucket.predictions() > 0) {
+                error += bucket.predictions() * Math.abs(bucket.meanPredicted() - bucket.observedRate());
+            }
+        }
+        return error / predictions;
+    }
+}
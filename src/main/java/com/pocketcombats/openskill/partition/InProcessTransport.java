@@ -0,0 +1,106 @@
+package com.pocketcombats.openskill.partition;
+
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.store.VersionedRating;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * {@link PartitionTransport} for partitions living in the same JVM.
+ * <p>
+ * By default requests are served on the calling thread. Alternatively every partition can be given
+ * its own thread, imitating a partition server that processes requests one at a time.
+ */
+public class InProcessTransport<T> implements PartitionTransport<T>, AutoCloseable {
+
+    private final List<RatingPartition<T>> partitions;
+    private final List<ExecutorService> executors;
+
+    public InProcessTransport(List<RatingPartition<T>> partitions) {
+        this.partitions = List.copyOf(partitions);
+        this.executors = List.of();
+    }
+
+    private InProcessTransport(List<RatingPartition<T>> partitions, List<ExecutorService> executors) {
+        this.partitions = List.copyOf(partitions);
+        this.executors = executors;
+    }
+
+    /**
+     * Creates a transport serving every partition on a dedicated thread.
+     */
+    public static <T> InProcessTransport<T> threadPerPartition(List<RatingPartition<T>> partitions) {
+        List<ExecutorService> executors = new ArrayList<>(partitions.size());
+        for (RatingPartition<T> partition : partitions) {
+            executors.add(Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "openskill-partition-" + partition.index());
+                thread.setDaemon(true);
+                return thread;
+            }));
+        }
+        return new InProcessTransport<>(partitions, executors);
+    }
+
+    public List<RatingPartition<T>> partitions() {
+        return partitions;
+    }
+
+    @Override
+    public CompletableFuture<List<RatingAdjustment<T>>> rateLocal(int partition, MatchRecord<T> match) {
+        return call(partition, () -> partitions.get(partition).rateLocal(match));
+    }
+
+    @Override
+    public CompletableFuture<Map<T, VersionedRating>> fetch(int partition, Collection<T> playerIds) {
+        return call(partition, () -> partitions.get(partition).fetch(playerIds));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> prepare(int partition, Map<T, VersionedRating> snapshot) {
+        return call(partition, () -> partitions.get(partition).prepare(snapshot));
+    }
+
+    @Override
+    public CompletableFuture<Void> commit(
+            int partition,
+            Map<T, VersionedRating> snapshot,
+            List<RatingAdjustment<T>> adjustments
+    ) {
+        return call(partition, () -> {
+            partitions.get(partition).commit(snapshot, adjustments);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> abort(int partition, Map<T, VersionedRating> snapshot) {
+        return call(partition, () -> {
+            partitions.get(partition).abort(snapshot);
+            return null;
+        });
+    }
+
+    @Override
+    public void close() {
+        executors.forEach(ExecutorService::shutdown);
+    }
+
+    private <R> CompletableFuture<R> call(int partition, Supplier<R> request) {
+        if (executors.isEmpty()) {
+            try {
+                return CompletableFuture.completedFuture(request.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return CompletableFuture.supplyAsync(request, executors.get(partition));
+    }
+}
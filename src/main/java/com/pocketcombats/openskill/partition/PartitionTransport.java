@@ -0,0 +1,37 @@
+package com.pocketcombats.openskill.partition;
+
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.store.VersionedRating;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Delivers {@link PartitionedRatingEngine} requests to the partitions, wherever they live.
+ * Every operation mirrors the corresponding {@link RatingPartition} method.
+ * <p>
+ * Cross-partition matches are committed in two phases: every involved partition is asked to
+ * {@link #prepare} its part of the snapshot, then either all of them {@link #commit} or the prepared ones
+ * {@link #abort}. A partition never waits for a concurrent update to finish: operations that find
+ * a player being updated complete with {@code null} or {@code false} and are retried by the engine,
+ * so the protocol can not deadlock.
+ */
+public interface PartitionTransport<T> {
+
+    CompletableFuture<List<RatingAdjustment<T>>> rateLocal(int partition, MatchRecord<T> match);
+
+    CompletableFuture<Map<T, VersionedRating>> fetch(int partition, Collection<T> playerIds);
+
+    CompletableFuture<Boolean> prepare(int partition, Map<T, VersionedRating> snapshot);
+
+    CompletableFuture<Void> commit(
+            int partition,
+            Map<T, VersionedRating> snapshot,
+            List<RatingAdjustment<T>> adjustments
+    );
+
+    CompletableFuture<Void> abort(int partition, Map<T, VersionedRating> snapshot);
+}
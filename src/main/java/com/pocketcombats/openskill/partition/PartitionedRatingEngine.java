@@ -0,0 +1,249 @@
+package com.pocketcombats.openskill.partition;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.PlayerRecord;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.TeamRecord;
+import com.pocketcombats.openskill.store.VersionedRating;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rating engine sharding players across partitions.
+ * <p>
+ * A match whose players all belong to the same partition is sent to that partition and rated there.
+ * For a cross-partition match the engine fetches the ratings from every involved partition, rates the match
+ * itself and commits the adjustments with a two-phase protocol, see {@link PartitionTransport}.
+ * Conflicting attempts are retried with a randomized backoff, a match still conflicting after
+ * the maximum number of attempts fails with an {@link IllegalStateException}.
+ */
+public class PartitionedRatingEngine<T> {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 10_000;
+
+    private static final long MAX_BACKOFF_MICROS = 1_000;
+
+    private final int partitionCount;
+    private final Partitioner<? super T> partitioner;
+    private final PartitionTransport<T> transport;
+    private final MatchRater<T> matchRater;
+    private final int maxAttempts;
+
+    private final LongAdder localMatches = new LongAdder();
+    private final LongAdder crossPartitionMatches = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+
+    public PartitionedRatingEngine(
+            int partitionCount,
+            Partitioner<? super T> partitioner,
+            PartitionTransport<T> transport,
+            MatchRater<T> matchRater
+    ) {
+        this(partitionCount, partitioner, transport, matchRater, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    public PartitionedRatingEngine(
+            int partitionCount,
+            Partitioner<? super T> partitioner,
+            PartitionTransport<T> transport,
+            MatchRater<T> matchRater,
+            int maxAttempts
+    ) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("Partition count must be positive: " + partitionCount);
+        }
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Max attempts must be positive: " + maxAttempts);
+        }
+        this.partitionCount = partitionCount;
+        this.partitioner = partitioner;
+        this.transport = transport;
+        this.matchRater = matchRater;
+        this.maxAttempts = maxAttempts;
+    }
+
+    public int partitionOf(T playerId) {
+        return partitioner.partition(playerId, partitionCount);
+    }
+
+    public CompletableFuture<VersionedRating> get(T playerId) {
+        int partition = partitionOf(playerId);
+        return retry(attempt -> transport.fetch(partition, List.of(playerId)))
+                .thenApply(snapshot -> snapshot.get(playerId));
+    }
+
+    /**
+     * Rates the match and commits the adjustments to the owning partitions.
+     *
+     * @return committed rating adjustments, in the order the players appear in the match
+     */
+    public CompletableFuture<List<RatingAdjustment<T>>> rate(MatchRecord<T> match) {
+        Map<Integer, List<T>> playersByPartition = playersByPartition(match);
+        if (playersByPartition.size() == 1) {
+            localMatches.increment();
+            int partition = playersByPartition.keySet().iterator().next();
+            return retry(attempt -> transport.rateLocal(partition, match));
+        } else {
+            crossPartitionMatches.increment();
+            return retry(attempt -> tryRateAcrossPartitions(match, playersByPartition));
+        }
+    }
+
+    public long localMatches() {
+        return localMatches.sum();
+    }
+
+    public long crossPartitionMatches() {
+        return crossPartitionMatches.sum();
+    }
+
+    /**
+     * @return the number of attempts that conflicted with a concurrent update
+     */
+    public long conflicts() {
+        return conflicts.sum();
+    }
+
+    private CompletableFuture<List<RatingAdjustment<T>>> tryRateAcrossPartitions(
+            MatchRecord<T> match,
+            Map<Integer, List<T>> playersByPartition
+    ) {
+        Map<Integer, CompletableFuture<Map<T, VersionedRating>>> fetches = new TreeMap<>();
+        playersByPartition.forEach((partition, playerIds) ->
+                fetches.put(partition, transport.fetch(partition, playerIds))
+        );
+        return CompletableFuture.allOf(fetches.values().toArray(CompletableFuture<?>[]::new))
+                .thenCompose(ignored -> {
+                    Map<Integer, Map<T, VersionedRating>> snapshots = new TreeMap<>();
+                    Map<T, VersionedRating> ratings = new HashMap<>();
+                    for (var entry : fetches.entrySet()) {
+                        Map<T, VersionedRating> snapshot = entry.getValue().join();
+                        if (snapshot == null) {
+                            return CompletableFuture.completedFuture(null);
+                        }
+                        snapshots.put(entry.getKey(), snapshot);
+                        ratings.putAll(snapshot);
+                    }
+                    List<RatingAdjustment<T>> adjustments = matchRater.rate(match, ratings::get);
+                    return prepareAndCommit(snapshots, adjustments);
+                });
+    }
+
+    private CompletableFuture<List<RatingAdjustment<T>>> prepareAndCommit(
+            Map<Integer, Map<T, VersionedRating>> snapshots,
+            List<RatingAdjustment<T>> adjustments
+    ) {
+        Map<Integer, CompletableFuture<Boolean>> prepares = new TreeMap<>();
+        snapshots.forEach((partition, snapshot) -> prepares.put(partition, transport.prepare(partition, snapshot)));
+        return CompletableFuture.allOf(prepares.values().toArray(CompletableFuture<?>[]::new))
+                .handle((ignored, failure) -> {
+                    // Partitions that did prepare must be aborted even if another prepare failed
+                    boolean prepared = failure == null
+                            && prepares.values().stream().allMatch(PartitionedRatingEngine::isPrepared);
+                    List<CompletableFuture<Void>> completions = new ArrayList<>(snapshots.size());
+                    if (prepared) {
+                        Map<Integer, List<RatingAdjustment<T>>> adjustmentsByPartition = new TreeMap<>();
+                        for (RatingAdjustment<T> adjustment : adjustments) {
+                            adjustmentsByPartition
+                                    .computeIfAbsent(partitionOf(adjustment.playerId()), p -> new ArrayList<>())
+                                    .add(adjustment);
+                        }
+                        snapshots.forEach((partition, snapshot) -> completions.add(transport.commit(
+                                partition,
+                                snapshot,
+                                adjustmentsByPartition.getOrDefault(partition, List.of())
+                        )));
+                    } else {
+                        prepares.forEach((partition, prepare) -> {
+                            if (isPrepared(prepare)) {
+                                completions.add(transport.abort(partition, snapshots.get(partition)));
+                            }
+                        });
+                    }
+                    return CompletableFuture.allOf(completions.toArray(CompletableFuture<?>[]::new))
+                            .thenApply(done -> {
+                                if (failure != null) {
+                                    throw failure instanceof CompletionException completion
+                                            ? completion
+                                            : new CompletionException(failure);
+                                }
+                                return prepared ? adjustments : null;
+                            });
+                })
+                .thenCompose(next -> next);
+    }
+
+    private static boolean isPrepared(CompletableFuture<Boolean> prepare) {
+        return !prepare.isCompletedExceptionally() && Boolean.TRUE.equals(prepare.join());
+    }
+
+    /**
+     * Repeats the attempt until it completes with a non-null result, at most {@code maxAttempts} times.
+     */
+    private <R> CompletableFuture<R> retry(Attempt<R> attempt) {
+        return retry(attempt, 0);
+    }
+
+    private <R> CompletableFuture<R> retry(Attempt<R> attempt, int number) {
+        CompletableFuture<R> result;
+        try {
+            result = attempt.run(number);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return result.thenCompose(value -> {
+            if (value != null) {
+                return CompletableFuture.completedFuture(value);
+            }
+            conflicts.increment();
+            if (number + 1 >= maxAttempts) {
+                return CompletableFuture.failedFuture(
+                        new IllegalStateException("Still conflicting after " + maxAttempts + " attempts")
+                );
+            }
+            if (number < 8) {
+                return retry(attempt, number + 1);
+            }
+            long bound = Math.min(MAX_BACKOFF_MICROS, 1L << Math.min(number, 20));
+            Executor delayed = CompletableFuture.delayedExecutor(
+                    ThreadLocalRandom.current().nextLong(1, bound + 1),
+                    TimeUnit.MICROSECONDS
+            );
+            return CompletableFuture.supplyAsync(() -> retry(attempt, number + 1), delayed)
+                    .thenCompose(next -> next);
+        });
+    }
+
+    private Map<Integer, List<T>> playersByPartition(MatchRecord<T> match) {
+        Set<T> playerIds = new LinkedHashSet<>();
+        for (TeamRecord<T> team : match.teams()) {
+            for (PlayerRecord<T> player : team.players()) {
+                playerIds.add(player.id());
+            }
+        }
+        Map<Integer, List<T>> playersByPartition = new TreeMap<>();
+        for (T playerId : playerIds) {
+            playersByPartition.computeIfAbsent(partitionOf(playerId), p -> new ArrayList<>()).add(playerId);
+        }
+        return playersByPartition;
+    }
+
+    @FunctionalInterface
+    private interface Attempt<R> {
+
+        CompletableFuture<R> run(int number);
+    }
+}
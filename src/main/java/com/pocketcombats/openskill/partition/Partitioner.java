@@ -0,0 +1,27 @@
+package com.pocketcombats.openskill.partition;
+
+/**
+ * Assigns players to partitions.
+ */
+@FunctionalInterface
+public interface Partitioner<T> {
+
+    /**
+     * @return partition index in {@code [0, partitionCount)}
+     */
+    int partition(T playerId, int partitionCount);
+
+    /**
+     * Partitions players by their {@link Object#hashCode()}.
+     */
+    static <T> Partitioner<T> hashing() {
+        return (playerId, partitionCount) -> {
+            int hash = playerId.hashCode();
+            // Spread the bits so that sequential ids are not clustered by the modulo
+            hash ^= hash >>> 16;
+            hash *= 0x45d9f3b;
+            hash ^= hash >>> 16;
+            return Math.floorMod(hash, partitionCount);
+        };
+    }
+}
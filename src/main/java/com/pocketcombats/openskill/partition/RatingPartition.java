@@ -0,0 +1,94 @@
+package com.pocketcombats.openskill.partition;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.store.VersionedRating;
+import com.pocketcombats.openskill.store.VersionedRatingStore;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ratings of the players owned by a single partition. This is the server side of a {@link PartitionTransport}.
+ */
+public class RatingPartition<T> {
+
+    private final int index;
+    private final VersionedRatingStore<T> store;
+    private final MatchRater<T> matchRater;
+    private final Map<Map<T, VersionedRating>, VersionedRatingStore<T>.PreparedCommit> prepared =
+            new ConcurrentHashMap<>();
+
+    public RatingPartition(int index, MatchMakingRating initialRating, MatchRater<T> matchRater) {
+        this(index, new VersionedRatingStore<>(initialRating), matchRater);
+    }
+
+    public RatingPartition(int index, VersionedRatingStore<T> store, MatchRater<T> matchRater) {
+        this.index = index;
+        this.store = store;
+        this.matchRater = matchRater;
+    }
+
+    public int index() {
+        return index;
+    }
+
+    public VersionedRatingStore<T> store() {
+        return store;
+    }
+
+    /**
+     * Rates a match whose players all belong to this partition.
+     * Never waits for concurrent updates, retrying is up to the caller.
+     *
+     * @return committed rating adjustments, or {@code null} if some players are being updated
+     */
+    public List<RatingAdjustment<T>> rateLocal(MatchRecord<T> match) {
+        return store.tryRate(match, matchRater);
+    }
+
+    /**
+     * @return consistent snapshot of the players' ratings, or {@code null} if some players are being updated
+     */
+    public Map<T, VersionedRating> fetch(Collection<T> playerIds) {
+        return store.trySnapshot(playerIds);
+    }
+
+    public boolean prepare(Map<T, VersionedRating> snapshot) {
+        if (snapshot.isEmpty()) {
+            return true;
+        }
+        VersionedRatingStore<T>.PreparedCommit commit = store.prepare(snapshot);
+        if (commit == null) {
+            return false;
+        }
+        // Equal snapshots can not be locked twice, so the snapshot identifies its commit
+        prepared.put(Map.copyOf(snapshot), commit);
+        return true;
+    }
+
+    /**
+     * @throws IllegalStateException if the snapshot was not prepared
+     */
+    public void commit(Map<T, VersionedRating> snapshot, Collection<? extends RatingAdjustment<T>> adjustments) {
+        VersionedRatingStore<T>.PreparedCommit commit = prepared.remove(snapshot);
+        if (commit == null) {
+            if (snapshot.isEmpty() && adjustments.isEmpty()) {
+                return;
+            }
+            throw new IllegalStateException("Snapshot is not prepared");
+        }
+        commit.commit(adjustments);
+    }
+
+    public void abort(Map<T, VersionedRating> snapshot) {
+        VersionedRatingStore<T>.PreparedCommit commit = prepared.remove(snapshot);
+        if (commit != null) {
+            commit.abort();
+        }
+    }
+}
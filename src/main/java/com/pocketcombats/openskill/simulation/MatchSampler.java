@@ -0,0 +1,22 @@
+package com.pocketcombats.openskill.simulation;
+
+import java.util.SplittableRandom;
+
+/**
+ * Decides the matches of a single simulated tournament.
+ */
+public interface MatchSampler {
+
+    /**
+     * Samples the outcome of a match from the current ratings, and updates the ratings when the simulator is
+     * configured to.
+     *
+     * @return whether the first team finishes ahead of the second
+     */
+    boolean play(int first, int second);
+
+    /**
+     * Random source of this simulation, for formats that break ties at random.
+     */
+    SplittableRandom random();
+}
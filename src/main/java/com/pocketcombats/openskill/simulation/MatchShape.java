@@ -0,0 +1,32 @@
+package com.pocketcombats.openskill.simulation;
+
+/**
+ * Number and size of teams in a generated match.
+ */
+public record MatchShape(int teamCount, int teamSize) {
+
+    public MatchShape {
+        if (teamCount < 2) {
+            throw new IllegalArgumentException("At least two teams required: " + teamCount);
+        }
+        if (teamSize < 1) {
+            throw new IllegalArgumentException("Team size must be positive: " + teamSize);
+        }
+    }
+
+    public static MatchShape duel() {
+        return new MatchShape(2, 1);
+    }
+
+    public static MatchShape teams(int teamCount, int teamSize) {
+        return new MatchShape(teamCount, teamSize);
+    }
+
+    public static MatchShape freeForAll(int players) {
+        return new MatchShape(players, 1);
+    }
+
+    public int players() {
+        return teamCount * teamSize;
+    }
+}
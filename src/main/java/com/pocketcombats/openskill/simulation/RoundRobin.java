@@ -0,0 +1,44 @@
+package com.pocketcombats.openskill.simulation;
+
+import java.util.Arrays;
+
+final class RoundRobin implements TournamentFormat {
+
+    private final int legs;
+
+    RoundRobin(int legs) {
+        if (legs < 1) {
+            throw new IllegalArgumentException("At least one leg required: " + legs);
+        }
+        this.legs = legs;
+    }
+
+    @Override
+    public int[] play(int teamCount, MatchSampler matches) {
+        if (teamCount > 0xFFFF) {
+            throw new IllegalArgumentException("Too many teams for a league: " + teamCount);
+        }
+        long[] keys = new long[teamCount];
+        for (int leg = 0; leg < legs; leg++) {
+            for (int first = 0; first < teamCount; first++) {
+                for (int second = first + 1; second < teamCount; second++) {
+                    // Alternate the first team between legs
+                    boolean swap = (leg & 1) == 1;
+                    int home = swap ? second : first;
+                    int away = swap ? first : second;
+                    keys[matches.play(home, away) ? home : away] += 1L << 32;
+                }
+            }
+        }
+        // Points in the high bits, a random tie-breaker and the team number in the low bits
+        for (int team = 0; team < teamCount; team++) {
+            keys[team] |= (long) matches.random().nextInt(1 << 16) << 16 | team;
+        }
+        Arrays.sort(keys);
+        int[] positions = new int[teamCount];
+        for (int i = 0; i < teamCount; i++) {
+            positions[(int) (keys[teamCount - 1 - i] & 0xFFFF)] = i + 1;
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,47 @@
+package com.pocketcombats.openskill.simulation;
+
+final class SingleElimination implements TournamentFormat {
+
+    private static final int BYE = -1;
+
+    @Override
+    public int[] play(int teamCount, MatchSampler matches) {
+        int size = Integer.highestOneBit(Math.max(1, teamCount - 1)) << 1;
+        int byes = size - teamCount;
+        // Every bye pairs one of the first teams with an empty slot, the upper half collects the losers of a round
+        int[] round = new int[size * 2];
+        int slot = 0;
+        for (int team = 0; team < teamCount; team++) {
+            round[slot++] = team;
+            if (team < byes) {
+                round[slot++] = BYE;
+            }
+        }
+        int[] positions = new int[teamCount];
+        int length = size;
+        while (length > 1) {
+            int winners = 0;
+            int eliminated = 0;
+            for (int i = 0; i < length; i += 2) {
+                int first = round[i];
+                int second = round[i + 1];
+                if (second == BYE) {
+                    round[winners++] = first;
+                } else if (matches.play(first, second)) {
+                    round[winners++] = first;
+                    round[length + eliminated++] = second;
+                } else {
+                    round[winners++] = second;
+                    round[length + eliminated++] = first;
+                }
+            }
+            // Losers of this round share the place right below the teams still in the tournament
+            for (int i = 0; i < eliminated; i++) {
+                positions[round[length + i]] = winners + 1;
+            }
+            length = winners;
+        }
+        positions[round[0]] = 1;
+        return positions;
+    }
+}
@@ -0,0 +1,192 @@
+package com.pocketcombats.openskill.simulation;
+
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.PlayerRecord;
+import com.pocketcombats.openskill.data.TeamRecord;
+import com.pocketcombats.openskill.math.Gaussian;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Generates matches between players of a {@link SyntheticPopulation}. Every player performs at their true skill
+ * plus normal noise with the configured beta, a team performs at the sum of its players' performances, and teams
+ * finish in the order of their performances. Neighbouring teams closer than the draw margin share a rank.
+ * <p>
+ * Teams are filled with whole parties where they fit. A generator is not thread safe.
+ */
+public class SyntheticMatchGenerator {
+
+    private static final int PARTY_ATTEMPTS = 4;
+
+    private final SyntheticPopulation population;
+    private final MatchShape[] shapes;
+    private final double[] cumulativeWeights;
+    private final double beta;
+    private final double drawMargin;
+    private final SplittableRandom random;
+    private final int[] usedIn;
+    private long matchCount;
+
+    private SyntheticMatchGenerator(Builder builder) {
+        this.population = builder.population;
+        boolean duels = builder.shapes.isEmpty();
+        this.shapes = duels ? new MatchShape[]{MatchShape.duel()} : builder.shapes.toArray(new MatchShape[0]);
+        this.cumulativeWeights = new double[shapes.length];
+        double total = 0.0;
+        for (int i = 0; i < shapes.length; i++) {
+            if (shapes[i].players() > population.size()) {
+                throw new IllegalArgumentException("Population is too small for " + shapes[i]);
+            }
+            total += duels ? 1.0 : builder.weights.get(i);
+            cumulativeWeights[i] = total;
+        }
+        this.beta = builder.beta;
+        this.drawMargin = builder.drawMargin;
+        this.random = new SplittableRandom(builder.seed);
+        this.usedIn = new int[population.size()];
+    }
+
+    public static Builder builder(SyntheticPopulation population, RatingModelConfig config) {
+        return new Builder(population, config);
+    }
+
+    public SyntheticPopulation population() {
+        return population;
+    }
+
+    public MatchRecord<Integer> next() {
+        MatchShape shape = nextShape();
+        // Match numbers start from 1, so a zero stamp never marks a player as taken
+        int stamp = (int) ++matchCount;
+        int teamCount = shape.teamCount();
+        List<List<PlayerRecord<Integer>>> members = new ArrayList<>(teamCount);
+        double[] performances = new double[teamCount];
+        for (int team = 0; team < teamCount; team++) {
+            List<PlayerRecord<Integer>> players = new ArrayList<>(shape.teamSize());
+            fill(players, shape.teamSize(), stamp);
+            double performance = 0.0;
+            for (PlayerRecord<Integer> player : players) {
+                performance += population.skill(player.id()) + beta * Gaussian.sample(random);
+            }
+            members.add(players);
+            performances[team] = performance;
+        }
+
+        Integer[] order = new Integer[teamCount];
+        for (int team = 0; team < teamCount; team++) {
+            order[team] = team;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(performances[b], performances[a]));
+        int[] ranks = new int[teamCount];
+        for (int position = 0; position < teamCount; position++) {
+            int team = order[position];
+            boolean draw = position > 0 && performances[order[position - 1]] - performances[team] < drawMargin;
+            ranks[team] = draw ? ranks[order[position - 1]] : position + 1;
+        }
+
+        List<TeamRecord<Integer>> teams = new ArrayList<>(teamCount);
+        for (int team = 0; team < teamCount; team++) {
+            teams.add(new TeamRecord<>(ranks[team], members.get(team)));
+        }
+        return new MatchRecord<>(matchCount, teams);
+    }
+
+    private MatchShape nextShape() {
+        double pick = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < shapes.length - 1; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return shapes[i];
+            }
+        }
+        return shapes[shapes.length - 1];
+    }
+
+    private void fill(List<PlayerRecord<Integer>> players, int teamSize, int stamp) {
+        int attempts = 0;
+        while (players.size() < teamSize) {
+            int player = random.nextInt(population.size());
+            if (usedIn[player] == stamp) {
+                continue;
+            }
+            int[] party = population.party(player);
+            boolean whole = party.length <= teamSize - players.size();
+            for (int i = 0; whole && i < party.length; i++) {
+                whole = usedIn[party[i]] != stamp;
+            }
+            if (whole) {
+                for (int member : party) {
+                    add(players, member, stamp);
+                }
+            } else if (++attempts > PARTY_ATTEMPTS) {
+                // Give up on keeping parties together rather than search for a fitting one forever
+                add(players, player, stamp);
+            }
+        }
+    }
+
+    private void add(List<PlayerRecord<Integer>> players, int player, int stamp) {
+        usedIn[player] = stamp;
+        players.add(new PlayerRecord<>(player));
+    }
+
+    public static final class Builder {
+
+        private final SyntheticPopulation population;
+        private final List<MatchShape> shapes = new ArrayList<>();
+        private final List<Double> weights = new ArrayList<>();
+        private double beta;
+        private double drawMargin = 0.0;
+        private long seed;
+
+        private Builder(SyntheticPopulation population, RatingModelConfig config) {
+            this.population = Objects.requireNonNull(population);
+            this.beta = config.beta();
+        }
+
+        public SyntheticMatchGenerator build() {
+            return new SyntheticMatchGenerator(this);
+        }
+
+        /**
+         * Adds a match shape, picked with probability proportional to its weight. Without shapes every match is a
+         * duel.
+         */
+        public Builder addShape(MatchShape shape, double weight) {
+            if (!(weight > 0.0)) {
+                throw new IllegalArgumentException("Shape weight must be positive: " + weight);
+            }
+            shapes.add(Objects.requireNonNull(shape));
+            weights.add(weight);
+            return this;
+        }
+
+        /**
+         * @param beta standard deviation of a single player's performance around their true skill
+         */
+        public Builder setBeta(double beta) {
+            this.beta = beta;
+            return this;
+        }
+
+        /**
+         * @param drawMargin performance difference below which neighbouring teams draw
+         */
+        public Builder setDrawMargin(double drawMargin) {
+            if (drawMargin < 0.0) {
+                throw new IllegalArgumentException("Draw margin must not be negative: " + drawMargin);
+            }
+            this.drawMargin = drawMargin;
+            return this;
+        }
+
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.pocketcombats.openskill.simulation;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.math.Gaussian;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Players numbered from 0 with hidden true skills drawn from a normal distribution. Some players are grouped into
+ * parties that queue together.
+ */
+public class SyntheticPopulation {
+
+    private final double[] skills;
+    private final int[][] parties;
+    private final int[] partyOf;
+
+    private SyntheticPopulation(Builder builder) {
+        SplittableRandom random = new SplittableRandom(builder.seed);
+        int players = builder.players;
+        this.skills = new double[players];
+        for (int player = 0; player < players; player++) {
+            skills[player] = builder.skillMean + builder.skillDeviation * Gaussian.sample(random);
+        }
+
+        // Shuffled players are cut into parties, those beyond the party share queue alone
+        int[] order = IntStream.range(0, players).toArray();
+        for (int i = players - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        int grouped = (int) Math.round(players * builder.partyShare);
+        int[][] parties = new int[players][];
+        int count = 0;
+        int offset = 0;
+        while (offset < players) {
+            int size = 1;
+            if (offset < grouped && builder.maxPartySize > 1) {
+                size = Math.min(grouped - offset, 2 + random.nextInt(builder.maxPartySize - 1));
+            }
+            parties[count++] = Arrays.copyOfRange(order, offset, offset + size);
+            offset += size;
+        }
+        this.parties = Arrays.copyOf(parties, count);
+        this.partyOf = new int[players];
+        for (int party = 0; party < count; party++) {
+            for (int player : this.parties[party]) {
+                partyOf[player] = party;
+            }
+        }
+    }
+
+    public static Builder builder(int players) {
+        return new Builder(players);
+    }
+
+    public int size() {
+        return skills.length;
+    }
+
+    public double skill(int player) {
+        return skills[player];
+    }
+
+    /**
+     * @return members of the player's party, a single element array for players queueing alone
+     */
+    public int[] party(int player) {
+        return parties[partyOf[player]];
+    }
+
+    /**
+     * Spearman rank correlation between the true skills and the rating means, 1.0 when the ratings order the
+     * population exactly by skill.
+     */
+    public double rankCorrelation(IntFunction<? extends MatchMakingRating> ratings) {
+        double[] mus = new double[skills.length];
+        for (int player = 0; player < skills.length; player++) {
+            mus[player] = ratings.apply(player).mu();
+        }
+        double[] skillRanks = ranks(skills);
+        double[] muRanks = ranks(mus);
+        double mean = (skills.length - 1) / 2.0;
+        double covariance = 0.0;
+        double variance = 0.0;
+        double muVariance = 0.0;
+        for (int player = 0; player < skills.length; player++) {
+            double skillDeviation = skillRanks[player] - mean;
+            double muDeviation = muRanks[player] - mean;
+            covariance += skillDeviation * muDeviation;
+            variance += skillDeviation * skillDeviation;
+            muVariance += muDeviation * muDeviation;
+        }
+        return variance == 0.0 || muVariance == 0.0 ? 0.0 : covariance / Math.sqrt(variance * muVariance);
+    }
+
+    /**
+     * Fractional ranks, ties share the mean of their positions.
+     */
+    private static double[] ranks(double[] values) {
+        Integer[] order = IntStream.range(0, values.length).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.comparingDouble(i -> values[i]));
+        double[] ranks = new double[values.length];
+        int start = 0;
+        while (start < order.length) {
+            int end = start + 1;
+            while (end < order.length && values[order[end]] == values[order[start]]) {
+                end++;
+            }
+            double rank = (start + end - 1) / 2.0;
+            for (int i = start; i < end; i++) {
+                ranks[order[i]] = rank;
+            }
+            start = end;
+        }
+        return ranks;
+    }
+
+    public static final class Builder {
+
+        private final int players;
+        private double skillMean = 25.0;
+        private double skillDeviation = 25.0 / 3;
+        private double partyShare = 0.0;
+        private int maxPartySize = 1;
+        private long seed;
+
+        private Builder(int players) {
+            if (players < 2) {
+                throw new IllegalArgumentException("At least two players required: " + players);
+            }
+            this.players = players;
+        }
+
+        public SyntheticPopulation build() {
+            return new SyntheticPopulation(this);
+        }
+
+        public Builder setSkillMean(double skillMean) {
+            this.skillMean = skillMean;
+            return this;
+        }
+
+        public Builder setSkillDeviation(double skillDeviation) {
+            if (skillDeviation < 0.0) {
+                throw new IllegalArgumentException("Skill deviation must not be negative: " + skillDeviation);
+            }
+            this.skillDeviation = skillDeviation;
+            return this;
+        }
+
+        /**
+         * @param partyShare   share of players queueing in parties, from 0 to 1
+         * @param maxPartySize largest party, party sizes are uniform from 2 to this size
+         */
+        public Builder setParties(double partyShare, int maxPartySize) {
+            if (partyShare < 0.0 || partyShare > 1.0) {
+                throw new IllegalArgumentException("Party share must be between 0 and 1: " + partyShare);
+            }
+            if (maxPartySize < 1) {
+                throw new IllegalArgumentException("Party size must be positive: " + maxPartySize);
+            }
+            this.partyShare = partyShare;
+            this.maxPartySize = maxPartySize;
+            return this;
+        }
+
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+    }
+}
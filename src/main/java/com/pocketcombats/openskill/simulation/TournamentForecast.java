@@ -0,0 +1,71 @@
+package com.pocketcombats.openskill.simulation;
+
+import java.util.List;
+
+/**
+ * Finishing position frequencies over simulated tournaments.
+ */
+public class TournamentForecast<T> {
+
+    private final List<T> teams;
+    private final long[] positionCounts;
+    private final int simulations;
+
+    TournamentForecast(List<T> teams, long[] positionCounts, int simulations) {
+        this.teams = teams;
+        this.positionCounts = positionCounts;
+        this.simulations = simulations;
+    }
+
+    public List<T> teams() {
+        return teams;
+    }
+
+    public int simulations() {
+        return simulations;
+    }
+
+    /**
+     * @param position finishing position, 1 for the winner
+     * @return number of simulations where the team finished at the position, alone or sharing it with other teams
+     */
+    public long count(T team, int position) {
+        if (position < 1 || position > teams.size()) {
+            throw new IllegalArgumentException("Position out of range: " + position);
+        }
+        return positionCounts[indexOf(team) * teams.size() + position - 1];
+    }
+
+    /**
+     * @param position finishing position, 1 for the winner
+     */
+    public double probability(T team, int position) {
+        return (double) count(team, position) / simulations;
+    }
+
+    public double winProbability(T team) {
+        return probability(team, 1);
+    }
+
+    public double expectedPosition(T team) {
+        int offset = indexOf(team) * teams.size();
+        double total = 0.0;
+        for (int position = 0; position < teams.size(); position++) {
+            total += (double) positionCounts[offset + position] * (position + 1);
+        }
+        return total / simulations;
+    }
+
+    private int indexOf(T team) {
+        int index = teams.indexOf(team);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown team: " + team);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "TournamentForecast{teams=" + teams + ", simulations=" + simulations + "}";
+    }
+}
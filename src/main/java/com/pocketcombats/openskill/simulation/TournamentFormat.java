@@ -0,0 +1,32 @@
+package com.pocketcombats.openskill.simulation;
+
+/**
+ * Structure of a tournament between teams numbered from 0.
+ */
+public interface TournamentFormat {
+
+    /**
+     * Plays one tournament.
+     *
+     * @return finishing position of every team by team number, 1 for the winner; teams the format does not
+     * separate share the best position of their group, and the positions they would have taken are skipped
+     */
+    int[] play(int teamCount, MatchSampler matches);
+
+    /**
+     * Knockout bracket in the order of team numbers: 0 plays 1, 2 plays 3 and so on. When the team count is not a
+     * power of two, the first teams get a bye. There are no play-offs for places: teams eliminated in the same round
+     * share a position, both semi-final losers finish third.
+     */
+    static TournamentFormat singleElimination() {
+        return new SingleElimination();
+    }
+
+    /**
+     * League where every pair of teams plays {@code legs} times, a win earns a point, and teams level on points
+     * are ordered at random.
+     */
+    static TournamentFormat roundRobin(int legs) {
+        return new RoundRobin(legs);
+    }
+}
@@ -0,0 +1,236 @@
+package com.pocketcombats.openskill.simulation;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import com.pocketcombats.openskill.data.TeamRecord;
+import com.pocketcombats.openskill.model.RatingModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo simulation of tournaments: every match is decided by sampling from
+ * {@link RatingModel#winProbability(MatchMakingRating, MatchMakingRating)}, and the finishing positions of many
+ * simulated tournaments are counted into a {@link TournamentForecast}.
+ * <p>
+ * Without rating updates the ratings stay fixed for the whole tournament and the win probability of every pair of
+ * teams is computed once. With a {@link MatchRater} set, every simulated tournament starts from the given ratings
+ * and rates each match as it is played, so a hot streak carries over into later rounds.
+ * <p>
+ * Simulations run in fixed chunks, each with its own {@link SplittableRandom} split from the seed in chunk order
+ * and its own counters. The forecast is therefore the same for a given seed regardless of the pool parallelism.
+ */
+public class TournamentSimulator {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private final RatingModel ratingModel;
+    private final MatchRater<Integer> matchRater;
+    private final ForkJoinPool pool;
+    private final long seed;
+
+    private TournamentSimulator(Builder builder) {
+        this.ratingModel = builder.ratingModel;
+        this.matchRater = builder.matchRater;
+        this.pool = builder.pool;
+        this.seed = builder.seed;
+    }
+
+    public static Builder builder(RatingModel ratingModel) {
+        return new Builder(ratingModel);
+    }
+
+    /**
+     * @param ratings     rating of every team, teams are numbered in the map's iteration order
+     * @param format      tournament structure
+     * @param simulations number of tournaments to simulate
+     */
+    public <T> TournamentForecast<T> simulate(
+            Map<T, ? extends MatchMakingRating> ratings,
+            TournamentFormat format,
+            int simulations
+    ) {
+        if (ratings.size() < 2) {
+            throw new IllegalArgumentException("At least two teams required: " + ratings.size());
+        }
+        if (simulations < 1) {
+            throw new IllegalArgumentException("At least one simulation required: " + simulations);
+        }
+        List<T> teams = new ArrayList<>(ratings.keySet());
+        MatchMakingRating[] initial = new MatchMakingRating[teams.size()];
+        for (int i = 0; i < initial.length; i++) {
+            initial[i] = ratings.get(teams.get(i));
+        }
+        double[][] winProbabilities = matchRater == null ? winProbabilities(initial) : null;
+
+        int chunks = (simulations + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        long[] chunkSeeds = new long[chunks];
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            chunkSeeds[chunk] = root.nextLong();
+        }
+        long[] positionCounts = pool.invoke(new SimulationTask(
+                format, initial, winProbabilities, chunkSeeds, simulations, 0, chunks
+        ));
+        return new TournamentForecast<>(List.copyOf(teams), positionCounts, simulations);
+    }
+
+    private double[][] winProbabilities(MatchMakingRating[] ratings) {
+        double[][] probabilities = new double[ratings.length][ratings.length];
+        for (int first = 0; first < ratings.length; first++) {
+            for (int second = 0; second < ratings.length; second++) {
+                if (first != second) {
+                    probabilities[first][second] = ratingModel.winProbability(ratings[first], ratings[second]);
+                }
+            }
+        }
+        return probabilities;
+    }
+
+    private final class SimulationTask extends RecursiveTask<long[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final TournamentFormat format;
+        private final MatchMakingRating[] initial;
+        private final double[][] winProbabilities;
+        private final long[] chunkSeeds;
+        private final int simulations;
+        private final int fromChunk;
+        private final int toChunk;
+
+        private SimulationTask(
+                TournamentFormat format,
+                MatchMakingRating[] initial,
+                double[][] winProbabilities,
+                long[] chunkSeeds,
+                int simulations,
+                int fromChunk,
+                int toChunk
+        ) {
+            this.format = format;
+            this.initial = initial;
+            this.winProbabilities = winProbabilities;
+            this.chunkSeeds = chunkSeeds;
+            this.simulations = simulations;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (toChunk - fromChunk > 1) {
+                int middle = (fromChunk + toChunk) >>> 1;
+                SimulationTask right = new SimulationTask(
+                        format, initial, winProbabilities, chunkSeeds, simulations, middle, toChunk
+                );
+                right.fork();
+                long[] counts = new SimulationTask(
+                        format, initial, winProbabilities, chunkSeeds, simulations, fromChunk, middle
+                ).compute();
+                long[] rightCounts = right.join();
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += rightCounts[i];
+                }
+                return counts;
+            }
+            int teamCount = initial.length;
+            long[] counts = new long[teamCount * teamCount];
+            Sampler sampler = new Sampler(new SplittableRandom(chunkSeeds[fromChunk]), initial, winProbabilities);
+            int from = fromChunk * CHUNK_SIZE;
+            int to = Math.min(simulations, from + CHUNK_SIZE);
+            for (int simulation = from; simulation < to; simulation++) {
+                sampler.reset();
+                int[] positions = format.play(teamCount, sampler);
+                for (int team = 0; team < teamCount; team++) {
+                    counts[team * teamCount + positions[team] - 1]++;
+                }
+            }
+            return counts;
+        }
+    }
+
+    private final class Sampler implements MatchSampler {
+
+        private final SplittableRandom random;
+        private final MatchMakingRating[] initial;
+        private final double[][] winProbabilities;
+        private final MatchMakingRating[] ratings;
+
+        private Sampler(SplittableRandom random, MatchMakingRating[] initial, double[][] winProbabilities) {
+            this.random = random;
+            this.initial = initial;
+            this.winProbabilities = winProbabilities;
+            this.ratings = initial.clone();
+        }
+
+        private void reset() {
+            if (winProbabilities == null) {
+                System.arraycopy(initial, 0, ratings, 0, initial.length);
+            }
+        }
+
+        @Override
+        public boolean play(int first, int second) {
+            if (winProbabilities != null) {
+                return random.nextDouble() < winProbabilities[first][second];
+            }
+            boolean firstWins = random.nextDouble() < ratingModel.winProbability(ratings[first], ratings[second]);
+            MatchRecord<Integer> match = MatchRecord.of(
+                    TeamRecord.of(firstWins ? 1 : 2, first),
+                    TeamRecord.of(firstWins ? 2 : 1, second)
+            );
+            for (RatingAdjustment<Integer> adjustment : matchRater.rate(match, team -> ratings[team])) {
+                ratings[adjustment.playerId()] = new SimpleMatchMakingRating(adjustment.mu(), adjustment.sigma());
+            }
+            return firstWins;
+        }
+
+        @Override
+        public SplittableRandom random() {
+            return random;
+        }
+    }
+
+    public static final class Builder {
+
+        private final RatingModel ratingModel;
+        private MatchRater<Integer> matchRater;
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+        private long seed;
+
+        private Builder(RatingModel ratingModel) {
+            this.ratingModel = Objects.requireNonNull(ratingModel);
+        }
+
+        public TournamentSimulator build() {
+            return new TournamentSimulator(this);
+        }
+
+        /**
+         * Rates every simulated match, teams being single players identified by their number.
+         */
+        public Builder setMatchRater(MatchRater<Integer> matchRater) {
+            this.matchRater = matchRater;
+            return this;
+        }
+
+        public Builder setPool(ForkJoinPool pool) {
+            this.pool = Objects.requireNonNull(pool);
+            return this;
+        }
+
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+    }
+}
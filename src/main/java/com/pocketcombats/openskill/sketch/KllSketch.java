@@ -0,0 +1,305 @@
+package com.pocketcombats.openskill.sketch;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Mergeable streaming quantile sketch of doubles after Karnin, Lang and Liberty (KLL).
+ * <p>
+ * Values are kept in a stack of compactors. Level {@code h} holds values standing for {@code 2^h} inputs each, a
+ * full level is sorted and every other value, starting at a random offset, is promoted to the next level.
+ * Level capacities shrink geometrically towards the bottom, so memory is {@code O(k)} regardless of the number of
+ * values, and the rank error is about {@code 1.65 / k} of the count with high probability.
+ * <p>
+ * Queries read a sorted, weighted view of all retained values, built once after the sketch changes.
+ * Instances are not thread-safe: keep one sketch per thread or shard and {@link #merge} them.
+ */
+public final class KllSketch {
+
+    public static final int DEFAULT_K = 200;
+
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final int MIN_CAPACITY = 2;
+
+    private final int k;
+    private final SplittableRandom random;
+
+    private double[][] levels = new double[1][];
+    private int[] levelSizes = new int[1];
+    private int levelCount = 1;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    // Sorted view, null when stale
+    private double[] sortedValues;
+    private long[] cumulativeWeights;
+
+    public KllSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * @param k accuracy parameter, the size of the top compactor
+     */
+    public KllSketch(int k) {
+        this(k, new SplittableRandom());
+    }
+
+    KllSketch(int k, SplittableRandom random) {
+        if (k < MIN_CAPACITY) {
+            throw new IllegalArgumentException("k must be at least " + MIN_CAPACITY + ": " + k);
+        }
+        this.k = k;
+        this.random = random;
+        this.levels[0] = new double[k];
+    }
+
+    public void update(double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("NaN can not be ranked");
+        }
+        if (count == 0) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        count++;
+        append(0, value);
+        compress();
+        sortedValues = null;
+    }
+
+    /**
+     * Adds all values summarized by the other sketch to this one. The other sketch is not modified.
+     */
+    public void merge(KllSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        for (int level = 0; level < other.levelCount; level++) {
+            for (int i = 0; i < other.levelSizes[level]; i++) {
+                append(level, other.levels[level][i]);
+            }
+        }
+        min = count == 0 ? other.min : Math.min(min, other.min);
+        max = count == 0 ? other.max : Math.max(max, other.max);
+        count += other.count;
+        compress();
+        sortedValues = null;
+    }
+
+    /**
+     * @return number of values added to the sketch
+     */
+    public long count() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    /**
+     * @return estimated number of values less than or equal to the given one
+     */
+    public long rank(double value) {
+        if (count == 0) {
+            return 0;
+        }
+        ensureSorted();
+        int position = upperBound(sortedValues, value);
+        return position == 0 ? 0 : cumulativeWeights[position - 1];
+    }
+
+    /**
+     * @return estimated fraction of values less than or equal to the given one
+     */
+    public double normalizedRank(double value) {
+        return count == 0 ? Double.NaN : (double) rank(value) / count;
+    }
+
+    /**
+     * @param fraction value in {@code [0, 1]}
+     * @return estimated smallest value with at least the given fraction of values less than or equal to it
+     */
+    public double quantile(double fraction) {
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("Fraction out of [0, 1]: " + fraction);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (fraction == 0) {
+            return min;
+        }
+        if (fraction == 1) {
+            return max;
+        }
+        ensureSorted();
+        long target = (long) Math.ceil(fraction * count);
+        int position = Arrays.binarySearch(cumulativeWeights, target);
+        if (position < 0) {
+            position = -position - 1;
+        }
+        return sortedValues[Math.min(position, sortedValues.length - 1)];
+    }
+
+    /**
+     * @return number of values retained in memory
+     */
+    public int retained() {
+        int retained = 0;
+        for (int level = 0; level < levelCount; level++) {
+            retained += levelSizes[level];
+        }
+        return retained;
+    }
+
+    /**
+     * Retained values with their weights in ascending order, with weights as running totals.
+     * Arrays are shared with the sketch until its next update.
+     */
+    void sortedView(SortedViewConsumer consumer) {
+        if (count > 0) {
+            ensureSorted();
+        }
+        consumer.accept(
+                sortedValues == null ? new double[0] : sortedValues,
+                cumulativeWeights == null ? new long[0] : cumulativeWeights
+        );
+    }
+
+    private void append(int level, double value) {
+        while (level >= levelCount) {
+            addLevel();
+        }
+        double[] items = levels[level];
+        if (levelSizes[level] == items.length) {
+            items = Arrays.copyOf(items, Math.max(MIN_CAPACITY, items.length * 2));
+            levels[level] = items;
+        }
+        items[levelSizes[level]++] = value;
+    }
+
+    private void addLevel() {
+        if (levelCount == levels.length) {
+            levels = Arrays.copyOf(levels, levelCount * 2);
+            levelSizes = Arrays.copyOf(levelSizes, levelCount * 2);
+        }
+        levels[levelCount] = new double[MIN_CAPACITY];
+        levelSizes[levelCount] = 0;
+        levelCount++;
+    }
+
+    private int capacity(int level) {
+        int depth = levelCount - 1 - level;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private void compress() {
+        while (true) {
+            boolean compacted = false;
+            int retained = 0;
+            int capacity = 0;
+            for (int level = 0; level < levelCount; level++) {
+                retained += levelSizes[level];
+                capacity += capacity(level);
+            }
+            if (retained < capacity) {
+                return;
+            }
+            for (int level = 0; level < levelCount; level++) {
+                if (levelSizes[level] >= capacity(level)) {
+                    compact(level);
+                    compacted = true;
+                    break;
+                }
+            }
+            if (!compacted) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Promotes every other value of the sorted level to the next one, an odd value out stays.
+     */
+    private void compact(int level) {
+        double[] items = levels[level];
+        int size = levelSizes[level];
+        Arrays.sort(items, 0, size);
+        int leftover = size & 1;
+        int offset = random.nextBoolean() ? 1 : 0;
+        for (int i = leftover + offset; i < size; i += 2) {
+            append(level + 1, items[i]);
+        }
+        // The smallest value stays at the start of the level when the count is odd
+        levelSizes[level] = leftover;
+    }
+
+    private void ensureSorted() {
+        if (sortedValues != null) {
+            return;
+        }
+        int retained = retained();
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        int position = 0;
+        for (int level = 0; level < levelCount; level++) {
+            for (int i = 0; i < levelSizes[level]; i++) {
+                values[position] = levels[level][i];
+                weights[position] = 1L << level;
+                position++;
+            }
+        }
+        Integer[] order = new Integer[retained];
+        for (int i = 0; i < retained; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        double[] sorted = new double[retained];
+        long[] cumulative = new long[retained];
+        long total = 0;
+        for (int i = 0; i < retained; i++) {
+            sorted[i] = values[order[i]];
+            total += weights[order[i]];
+            cumulative[i] = total;
+        }
+        sortedValues = sorted;
+        cumulativeWeights = cumulative;
+    }
+
+    /**
+     * @return index of the first value greater than the given one
+     */
+    static int upperBound(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    @FunctionalInterface
+    interface SortedViewConsumer {
+
+        void accept(double[] values, long[] cumulativeWeights);
+    }
+}
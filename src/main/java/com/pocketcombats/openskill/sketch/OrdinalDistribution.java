@@ -0,0 +1,276 @@
+package com.pocketcombats.openskill.sketch;
+
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.RatingDerivation;
+import com.pocketcombats.openskill.store.RatingSnapshot;
+
+import java.util.Arrays;
+
+/**
+ * Approximate distribution of player ordinals, {@code alpha * (mu - z * sigma) + target / alpha} as in
+ * {@link com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator}, for percentile and tier queries.
+ * <p>
+ * Ratings change, so every rating update retracts the previous ordinal of the player and adds the new one. Added and
+ * retracted ordinals are kept in two {@link KllSketch}es, and the population rank is the difference of their ranks.
+ * Memory stays bounded, but the rank error grows with the number of updates rather than the population size, so
+ * long-running distributions should be periodically rebuilt, for example from a {@link RatingSnapshot}.
+ * <p>
+ * Queries read a cached rank table merging both sketches. {@link #rank} and {@link #percentile} look up one of
+ * {@value #RANK_BUCKETS} equal-width buckets between the smallest and the largest retained ordinal, {@code O(1)},
+ * counting the whole bucket of the given ordinal, which adds at most the players in that bucket to the sketch error.
+ * {@link #quantile} binary searches the {@code m} retained ordinals, {@code O(log m)}, where {@code m} is
+ * {@code O(k log(n / k))} for {@code n} recorded ordinals. Rebuilding the table costs {@code O(m log m)}, so it is
+ * not rebuilt after every update but once more than {@code refreshInterval} additions and removals have accumulated
+ * since the last rebuild, amortizing the rebuild over the updates. Until then queries
+ * miss at most {@code refreshInterval} of the latest additions and removals, each of which moves any rank by one
+ * at most, on top of the sketch error; {@link #count} is always current. {@link #merge} and {@link #refresh} make
+ * the next query rebuild the table. Instances are not thread-safe: feed one distribution per thread or shard and
+ * {@link #merge} them.
+ */
+public final class OrdinalDistribution {
+
+    public static final int DEFAULT_REFRESH_INTERVAL = 1024;
+
+    private static final int RANK_BUCKETS = 1 << 12;
+
+    private final RatingDerivation derivation;
+    private final KllSketch added;
+    private final KllSketch retracted;
+    private final int refreshInterval;
+
+    // Additions and removals since the rank table was built
+    private long pendingUpdates;
+    // Rank table, null when it has to be rebuilt
+    private double[] values;
+    private long[] ranks;
+    // Running maximum of ranks, monotone for binary search
+    private long[] maxRanks;
+    // Rank after the last ordinal of every bucket, and the bucket of an ordinal: (ordinal - min) * bucketScale
+    private final long[] bucketRanks = new long[RANK_BUCKETS];
+    private double bucketScale;
+
+    public OrdinalDistribution(RatingModelConfig config) {
+        this(config, KllSketch.DEFAULT_K);
+    }
+
+    /**
+     * @param k accuracy parameter of the underlying sketches
+     */
+    public OrdinalDistribution(RatingModelConfig config, int k) {
+        this(config, k, DEFAULT_REFRESH_INTERVAL);
+    }
+
+    /**
+     * @param k               accuracy parameter of the underlying sketches
+     * @param refreshInterval number of additions and removals queries may miss before the rank table is rebuilt,
+     *                        0 to rebuild it on the first query after every change
+     */
+    public OrdinalDistribution(RatingModelConfig config, int k, int refreshInterval) {
+        if (refreshInterval < 0) {
+            throw new IllegalArgumentException("Negative refresh interval: " + refreshInterval);
+        }
+        this.derivation = RatingDerivation.of(config);
+        this.added = new KllSketch(k);
+        this.retracted = new KllSketch(k);
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * @return distribution of all players of the snapshot
+     */
+    public static OrdinalDistribution of(RatingModelConfig config, RatingSnapshot<?> snapshot) {
+        return of(config, snapshot, KllSketch.DEFAULT_K);
+    }
+
+    /**
+     * @param k accuracy parameter of the underlying sketches
+     * @return distribution of all players of the snapshot
+     */
+    public static OrdinalDistribution of(RatingModelConfig config, RatingSnapshot<?> snapshot, int k) {
+        return of(config, snapshot, k, DEFAULT_REFRESH_INTERVAL);
+    }
+
+    /**
+     * @param k               accuracy parameter of the underlying sketches
+     * @param refreshInterval see {@link #OrdinalDistribution(RatingModelConfig, int, int)}
+     * @return distribution of all players of the snapshot
+     */
+    public static OrdinalDistribution of(
+            RatingModelConfig config,
+            RatingSnapshot<?> snapshot,
+            int k,
+            int refreshInterval
+    ) {
+        OrdinalDistribution distribution = new OrdinalDistribution(config, k, refreshInterval);
+        snapshot.forEach((playerId, mu, sigma) ->
+                distribution.added.update(distribution.derivation.ordinal(mu, sigma))
+        );
+        return distribution;
+    }
+
+    public double ordinal(MatchMakingRating rating) {
+        return derivation.ordinal(rating);
+    }
+
+    /**
+     * Adds a player to the population.
+     */
+    public void add(MatchMakingRating rating) {
+        added.update(ordinal(rating));
+        pendingUpdates++;
+    }
+
+    /**
+     * Removes a player, previously added with the given rating, from the population.
+     */
+    public void remove(MatchMakingRating rating) {
+        retracted.update(ordinal(rating));
+        pendingUpdates++;
+    }
+
+    /**
+     * Records a rating update.
+     *
+     * @param previous rating before the update, or {@code null} if the player is rated for the first time
+     * @param current  rating after the update
+     */
+    public void update(MatchMakingRating previous, MatchMakingRating current) {
+        if (previous != null) {
+            remove(previous);
+        }
+        add(current);
+    }
+
+    /**
+     * Adds the population and updates recorded by the other distribution. The other distribution is not modified.
+     */
+    public void merge(OrdinalDistribution other) {
+        added.merge(other.added);
+        retracted.merge(other.retracted);
+        values = null;
+    }
+
+    /**
+     * Makes the next query rebuild the rank table, reflecting all updates.
+     */
+    public void refresh() {
+        values = null;
+    }
+
+    /**
+     * @return estimated population size
+     */
+    public long count() {
+        return Math.max(0, added.count() - retracted.count());
+    }
+
+    /**
+     * @return estimated number of players with an ordinal less than or equal to the given one
+     */
+    public long rank(double ordinal) {
+        ensureMerged();
+        if (values.length == 0 || ordinal < values[0]) {
+            return 0;
+        }
+        long rank = bucketRanks[bucket(ordinal)];
+        return Math.max(0, Math.min(rank, count()));
+    }
+
+    /**
+     * @return estimated fraction of players rated at or below the given rating
+     */
+    public double percentile(MatchMakingRating rating) {
+        long count = count();
+        return count == 0 ? Double.NaN : (double) rank(ordinal(rating)) / count;
+    }
+
+    /**
+     * @param fraction value in {@code [0, 1]}
+     * @return estimated smallest ordinal with at least the given fraction of players at or below it
+     */
+    public double quantile(double fraction) {
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("Fraction out of [0, 1]: " + fraction);
+        }
+        long count = count();
+        if (count == 0) {
+            return Double.NaN;
+        }
+        ensureMerged();
+        long target = Math.max(1, (long) Math.ceil(fraction * count));
+        // Retractions make the running rank non-monotone, take the first crossing
+        int position = Arrays.binarySearch(maxRanks, target);
+        if (position < 0) {
+            position = -position - 1;
+        } else {
+            while (position > 0 && maxRanks[position - 1] == target) {
+                position--;
+            }
+        }
+        return values[Math.min(position, values.length - 1)];
+    }
+
+    /**
+     * Combines both sketches into distinct ordinals with the signed running rank after each of them.
+     */
+    private void ensureMerged() {
+        if (values != null && pendingUpdates <= refreshInterval) {
+            return;
+        }
+        pendingUpdates = 0;
+        added.sortedView((addedValues, addedRanks) -> retracted.sortedView((retractedValues, retractedRanks) -> {
+            double[] mergedValues = new double[addedValues.length + retractedValues.length];
+            long[] mergedRanks = new long[mergedValues.length];
+            int a = 0;
+            int r = 0;
+            int size = 0;
+            while (a < addedValues.length || r < retractedValues.length) {
+                double value = r == retractedValues.length
+                        || (a < addedValues.length && addedValues[a] <= retractedValues[r])
+                        ? addedValues[a]
+                        : retractedValues[r];
+                while (a < addedValues.length && addedValues[a] == value) {
+                    a++;
+                }
+                while (r < retractedValues.length && retractedValues[r] == value) {
+                    r++;
+                }
+                mergedValues[size] = value;
+                mergedRanks[size] = (a == 0 ? 0 : addedRanks[a - 1]) - (r == 0 ? 0 : retractedRanks[r - 1]);
+                size++;
+            }
+            values = Arrays.copyOf(mergedValues, size);
+            ranks = Arrays.copyOf(mergedRanks, size);
+            maxRanks = new long[size];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                max = Math.max(max, ranks[i]);
+                maxRanks[i] = max;
+            }
+            buildBuckets();
+        }));
+    }
+
+    private void buildBuckets() {
+        if (values.length == 0) {
+            return;
+        }
+        double range = values[values.length - 1] - values[0];
+        bucketScale = range > 0 ? RANK_BUCKETS / range : 0.0;
+        int position = 0;
+        for (int bucket = 0; bucket < RANK_BUCKETS; bucket++) {
+            while (position < values.length && bucket(values[position]) <= bucket) {
+                position++;
+            }
+            bucketRanks[bucket] = position == 0 ? 0 : ranks[position - 1];
+        }
+    }
+
+    /**
+     * @return bucket of an ordinal not below the smallest retained one
+     */
+    private int bucket(double ordinal) {
+        return (int) Math.min(RANK_BUCKETS - 1, (ordinal - values[0]) * bucketScale);
+    }
+}
@@ -0,0 +1,19 @@
+package com.pocketcombats.openskill.store;
+
+/**
+ * Eviction policy of the in-memory tier of {@link TieredRatingStore}.
+ */
+public enum CachePolicy {
+
+    /**
+     * Evicts the least recently used rating.
+     */
+    LRU,
+
+    /**
+     * Window TinyLFU: new ratings enter a small LRU window and are admitted to the main segmented LRU only if they
+     * are estimated to be used more often than the rating they would replace. Resists scans of players that play
+     * once, such as leaderboard exports.
+     */
+    W_TINY_LFU
+}
@@ -0,0 +1,23 @@
+package com.pocketcombats.openskill.store;
+
+/**
+ * Bookkeeping of a bounded cache: decides which key leaves when a new one comes in.
+ */
+interface Eviction<K> {
+
+    static <K> Eviction<K> of(CachePolicy policy, int capacity) {
+        return switch (policy) {
+            case LRU -> new LruEviction<>(capacity);
+            case W_TINY_LFU -> new WTinyLfuEviction<>(capacity);
+        };
+    }
+
+    void onHit(K key);
+
+    /**
+     * @return key to evict, possibly the inserted one, or {@code null} if the cache is not full
+     */
+    K onInsert(K key);
+
+    void onRemove(K key);
+}
@@ -0,0 +1,293 @@
+package com.pocketcombats.openskill.store;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link RatingStore} of {@code long} player ids kept in a memory-mapped file, an open addressing hash table with
+ * linear probing. Only the pages holding recently used slots stay in memory, the operating system pages the rest
+ * in and out, which makes it a cold tier for {@link TieredRatingStore}.
+ * <p>
+ * The table is mapped in segments of at most {@value #MAX_SEGMENT_SLOTS} slots, so it is not limited by the 2 GiB
+ * size of a single buffer. The table doubles, into a new file that replaces the old one, when it is two thirds full.
+ * Writes reach the disk when the operating system flushes the mapped pages or on {@link #force()}.
+ */
+public class FileRatingStore implements RatingStore<Long>, Closeable {
+
+    static final int MAX_SEGMENT_SLOTS = 1 << 25;
+
+    private static final long MAGIC = 0x4F534B5241544553L;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    // Key, mu, sigma and an occupancy flag
+    private static final int SLOT_BYTES = 32;
+    private static final int MIN_CAPACITY = 1 << 10;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final Path path;
+    private final MatchMakingRating initialRating;
+    private final int segmentSlots;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FileChannel channel;
+    private MappedByteBuffer header;
+    private Table table;
+    private int size;
+
+    /**
+     * Opens the store at the path, creating an empty one if the file does not exist.
+     *
+     * @param initialRating rating of players that are not in the store
+     */
+    public FileRatingStore(Path path, MatchMakingRating initialRating) throws IOException {
+        this(path, initialRating, MAX_SEGMENT_SLOTS);
+    }
+
+    FileRatingStore(Path path, MatchMakingRating initialRating, int segmentSlots) throws IOException {
+        if (Integer.bitCount(segmentSlots) != 1 || segmentSlots > MAX_SEGMENT_SLOTS) {
+            throw new IllegalArgumentException("Segment slots must be a power of two up to " + MAX_SEGMENT_SLOTS);
+        }
+        this.path = path;
+        this.initialRating = initialRating;
+        this.segmentSlots = segmentSlots;
+        if (Files.exists(path) && Files.size(path) > 0) {
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                if (channel.size() < HEADER_BYTES) {
+                    throw new IOException("Not a rating store file: " + path);
+                }
+                header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+                int capacity = header.getInt(12);
+                if (header.getLong(0) != MAGIC || header.getInt(8) != VERSION
+                        || Integer.bitCount(capacity) != 1 || channel.size() < length(capacity)) {
+                    throw new IOException("Not a rating store file: " + path);
+                }
+                table = new Table(channel, capacity, segmentSlots);
+                size = header.getInt(16);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        } else {
+            channel = FileChannel.open(
+                    path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE
+            );
+            header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            table = new Table(channel, MIN_CAPACITY, segmentSlots);
+            writeHeader(header, MIN_CAPACITY, 0);
+        }
+    }
+
+    @Override
+    public MatchMakingRating get(Long playerId) {
+        lock.readLock().lock();
+        try {
+            int slot = table.find(playerId);
+            if (!table.occupied(slot)) {
+                return initialRating;
+            }
+            return new SimpleMatchMakingRating(table.mu(slot), table.sigma(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(Collection<? extends RatingAdjustment<Long>> adjustments) {
+        lock.writeLock().lock();
+        try {
+            for (RatingAdjustment<Long> adjustment : adjustments) {
+                long playerId = adjustment.playerId();
+                int slot = table.find(playerId);
+                if (!table.occupied(slot)) {
+                    if ((size + 1) * 3L > table.capacity * 2L) {
+                        grow();
+                        slot = table.find(playerId);
+                    }
+                    size++;
+                    header.putInt(16, size);
+                }
+                table.write(slot, playerId, adjustment.mu(), adjustment.sigma());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the mapped pages to the disk.
+     */
+    public void force() {
+        lock.writeLock().lock();
+        try {
+            header.force();
+            table.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            header.force();
+            table.force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void grow() throws IOException {
+        if (table.capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("Rating store is full: " + path);
+        }
+        int newCapacity = table.capacity * 2;
+        Path resized = path.resolveSibling(path.getFileName() + ".resize");
+        MappedByteBuffer targetHeader;
+        Table target;
+        try (FileChannel resizedChannel = FileChannel.open(
+                resized,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE
+        )) {
+            targetHeader = resizedChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            target = new Table(resizedChannel, newCapacity, segmentSlots);
+        }
+        writeHeader(targetHeader, newCapacity, size);
+        for (int slot = 0; slot < table.capacity; slot++) {
+            if (table.occupied(slot)) {
+                long playerId = table.playerId(slot);
+                target.write(target.find(playerId), playerId, table.mu(slot), table.sigma(slot));
+            }
+        }
+        targetHeader.force();
+        target.force();
+        channel.close();
+        Files.move(resized, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        table = new Table(channel, newCapacity, segmentSlots);
+    }
+
+    private static void writeHeader(MappedByteBuffer header, int capacity, int size) {
+        header.putLong(0, MAGIC);
+        header.putInt(8, VERSION);
+        header.putInt(12, capacity);
+        header.putInt(16, size);
+    }
+
+    private static int mix(long playerId) {
+        long hash = playerId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32);
+    }
+
+    private static long length(int capacity) {
+        return HEADER_BYTES + (long) capacity * SLOT_BYTES;
+    }
+
+    /**
+     * Slots of the hash table, mapped in segments of {@code segmentSlots} consecutive slots.
+     */
+    private static final class Table {
+
+        private final MappedByteBuffer[] segments;
+        private final int capacity;
+        private final int segmentShift;
+        private final int segmentMask;
+
+        Table(FileChannel channel, int capacity, int segmentSlots) throws IOException {
+            int slotsPerSegment = Math.min(capacity, segmentSlots);
+            this.segments = new MappedByteBuffer[capacity / slotsPerSegment];
+            this.capacity = capacity;
+            this.segmentShift = Integer.numberOfTrailingZeros(slotsPerSegment);
+            this.segmentMask = slotsPerSegment - 1;
+            long segmentBytes = (long) slotsPerSegment * SLOT_BYTES;
+            for (int segment = 0; segment < segments.length; segment++) {
+                segments[segment] = channel.map(
+                        FileChannel.MapMode.READ_WRITE,
+                        HEADER_BYTES + segment * segmentBytes,
+                        segmentBytes
+                );
+            }
+        }
+
+        /**
+         * @return the slot holding the player, or the empty slot where the player belongs
+         */
+        int find(long playerId) {
+            int mask = capacity - 1;
+            int slot = mix(playerId) & mask;
+            while (occupied(slot) && playerId(slot) != playerId) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        boolean occupied(int slot) {
+            return segment(slot).getLong(offset(slot) + 24) != 0;
+        }
+
+        long playerId(int slot) {
+            return segment(slot).getLong(offset(slot));
+        }
+
+        double mu(int slot) {
+            return segment(slot).getDouble(offset(slot) + 8);
+        }
+
+        double sigma(int slot) {
+            return segment(slot).getDouble(offset(slot) + 16);
+        }
+
+        void write(int slot, long playerId, double mu, double sigma) {
+            MappedByteBuffer segment = segment(slot);
+            int offset = offset(slot);
+            segment.putLong(offset, playerId);
+            segment.putDouble(offset + 8, mu);
+            segment.putDouble(offset + 16, sigma);
+            segment.putLong(offset + 24, 1);
+        }
+
+        void force() {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        }
+
+        private MappedByteBuffer segment(int slot) {
+            return segments[slot >>> segmentShift];
+        }
+
+        private int offset(int slot) {
+            return (slot & segmentMask) * SLOT_BYTES;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.pocketcombats.openskill.store;
+
+/**
+ * Count-min sketch of 4-bit counters estimating how often keys were seen recently. Once the number of increments
+ * reaches ten times the cache capacity all counters are halved, so old popularity fades.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int increments;
+
+    FrequencySketch(int capacity) {
+        // Sixteen counters per word, about one word per cached key
+        int words = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+        this.table = new long[words];
+        this.mask = words - 1;
+        this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * Math.max(1, capacity));
+    }
+
+    int frequency(int hash) {
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long spread = spread(hash, i);
+            frequency = Math.min(frequency, (int) (table[index(spread)] >>> shift(spread) & 0xF));
+        }
+        return frequency;
+    }
+
+    void increment(int hash) {
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long spread = spread(hash, i);
+            int index = index(spread);
+            int shift = shift(spread);
+            if ((table[index] >>> shift & 0xF) < 0xF) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++increments >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = table[i] >>> 1 & RESET_MASK;
+        }
+        increments /= 2;
+    }
+
+    private static long spread(int hash, int i) {
+        long spread = (hash + SEEDS[i]) * SEEDS[i];
+        return spread ^ spread >>> 29;
+    }
+
+    private int index(long spread) {
+        return (int) (spread >>> 32) & mask;
+    }
+
+    private static int shift(long spread) {
+        return (int) (spread & 0xF) << 2;
+    }
+}
@@ -0,0 +1,42 @@
+package com.pocketcombats.openskill.store;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link RatingStore} backed by a {@link ConcurrentHashMap}.
+ */
+public class InMemoryRatingStore<T> implements RatingStore<T> {
+
+    private final Map<T, MatchMakingRating> ratings = new ConcurrentHashMap<>();
+    private final MatchMakingRating initialRating;
+
+    public InMemoryRatingStore(MatchMakingRating initialRating) {
+        this.initialRating = initialRating;
+    }
+
+    public InMemoryRatingStore(double mu, double sigma) {
+        this(new SimpleMatchMakingRating(mu, sigma));
+    }
+
+    @Override
+    public MatchMakingRating get(T playerId) {
+        return ratings.getOrDefault(playerId, initialRating);
+    }
+
+    @Override
+    public void apply(Collection<? extends RatingAdjustment<T>> adjustments) {
+        for (RatingAdjustment<T> adjustment : adjustments) {
+            ratings.put(adjustment.playerId(), adjustment);
+        }
+    }
+
+    public int size() {
+        return ratings.size();
+    }
+}
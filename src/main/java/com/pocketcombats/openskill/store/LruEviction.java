@@ -0,0 +1,36 @@
+package com.pocketcombats.openskill.store;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+final class LruEviction<K> implements Eviction<K> {
+
+    private final int capacity;
+    private final LinkedHashMap<K, Boolean> order = new LinkedHashMap<>(16, 0.75f, true);
+
+    LruEviction(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void onHit(K key) {
+        order.get(key);
+    }
+
+    @Override
+    public K onInsert(K key) {
+        order.put(key, Boolean.TRUE);
+        if (order.size() <= capacity) {
+            return null;
+        }
+        Iterator<K> eldest = order.keySet().iterator();
+        K victim = eldest.next();
+        eldest.remove();
+        return victim;
+    }
+
+    @Override
+    public void onRemove(K key) {
+        order.remove(key);
+    }
+}
@@ -0,0 +1,192 @@
+package com.pocketcombats.openskill.store;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import com.pocketcombats.openskill.model.RatingModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ratings of every player in several game modes, each mode rated with its own {@link MatchRater}.
+ * <p>
+ * A player's ratings in all modes live in one immutable array of interleaved mu and sigma columns, so looking up
+ * every mode of a player costs a single hash probe and one contiguous read instead of a probe per mode. An update
+ * replaces the array with a copy where only the rated mode's column differs, atomically per player, so concurrent
+ * updates in different modes never overwrite each other.
+ */
+public class MultiModeRatingStore<T> {
+
+    private final Map<T, double[]> entries = new ConcurrentHashMap<>();
+    private final List<Mode> modes;
+    private final Map<String, Mode> modesByName;
+    private final double[] initialEntry;
+
+    private MultiModeRatingStore(Builder<T> builder) {
+        if (builder.modes.isEmpty()) {
+            throw new IllegalArgumentException("At least one mode required");
+        }
+        List<Mode> modes = new ArrayList<>(builder.modes.size());
+        Map<String, Mode> modesByName = new HashMap<>();
+        this.initialEntry = new double[builder.modes.size() * 2];
+        for (ModeDefinition<T> definition : builder.modes) {
+            Mode mode = new Mode(modes.size(), definition.name(), definition.matchRater(), definition.initialRating());
+            modes.add(mode);
+            modesByName.put(mode.name, mode);
+            initialEntry[mode.column] = mode.initialRating.mu();
+            initialEntry[mode.column + 1] = mode.initialRating.sigma();
+        }
+        this.modes = List.copyOf(modes);
+        this.modesByName = Map.copyOf(modesByName);
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * @return modes in the order they were added
+     */
+    public List<Mode> modes() {
+        return modes;
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no such mode
+     */
+    public Mode mode(String name) {
+        Mode mode = modesByName.get(name);
+        if (mode == null) {
+            throw new IllegalArgumentException("Unknown mode: " + name);
+        }
+        return mode;
+    }
+
+    /**
+     * @return player ratings in every mode, in mode order
+     */
+    public List<MatchMakingRating> getAll(T playerId) {
+        double[] entry = entries.getOrDefault(playerId, initialEntry);
+        MatchMakingRating[] ratings = new MatchMakingRating[modes.size()];
+        for (int mode = 0; mode < ratings.length; mode++) {
+            ratings[mode] = new SimpleMatchMakingRating(entry[mode * 2], entry[mode * 2 + 1]);
+        }
+        return List.of(ratings);
+    }
+
+    /**
+     * @return number of players rated in any mode
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Rating store of a single mode, reading and writing only that mode's column of the player entries.
+     */
+    public final class Mode implements RatingStore<T> {
+
+        private final int column;
+        private final String name;
+        private final MatchRater<T> matchRater;
+        private final MatchMakingRating initialRating;
+
+        private Mode(int index, String name, MatchRater<T> matchRater, MatchMakingRating initialRating) {
+            this.column = index * 2;
+            this.name = name;
+            this.matchRater = matchRater;
+            this.initialRating = initialRating;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public MatchRater<T> matchRater() {
+            return matchRater;
+        }
+
+        @Override
+        public MatchMakingRating get(T playerId) {
+            double[] entry = entries.get(playerId);
+            return entry == null
+                    ? initialRating
+                    : new SimpleMatchMakingRating(entry[column], entry[column + 1]);
+        }
+
+        @Override
+        public void apply(Collection<? extends RatingAdjustment<T>> adjustments) {
+            for (RatingAdjustment<T> adjustment : adjustments) {
+                entries.compute(adjustment.playerId(), (playerId, entry) -> {
+                    double[] updated = Arrays.copyOf(entry == null ? initialEntry : entry, initialEntry.length);
+                    updated[column] = adjustment.mu();
+                    updated[column + 1] = adjustment.sigma();
+                    return updated;
+                });
+            }
+        }
+
+        /**
+         * Rates the match with this mode's {@link MatchRater} and stores the adjustments.
+         *
+         * @return applied rating adjustments
+         */
+        public List<RatingAdjustment<T>> rate(MatchRecord<T> match) {
+            List<RatingAdjustment<T>> adjustments = matchRater.rate(match, this::get);
+            apply(adjustments);
+            return adjustments;
+        }
+
+        @Override
+        public String toString() {
+            return "Mode{" + name + "}";
+        }
+    }
+
+    private record ModeDefinition<T>(String name, MatchRater<T> matchRater, MatchMakingRating initialRating) {
+    }
+
+    public static final class Builder<T> {
+
+        private final List<ModeDefinition<T>> modes = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public MultiModeRatingStore<T> build() {
+            return new MultiModeRatingStore<>(this);
+        }
+
+        /**
+         * Adds a mode rated by the model with {@link DefaultTeamRatingAggregator}, every player starting from
+         * mu 25 and sigma 25/3.
+         */
+        public Builder<T> addMode(String name, RatingModelConfig config, RatingModel ratingModel) {
+            return addMode(
+                    name,
+                    new MatchRater<>(config, ratingModel, new DefaultTeamRatingAggregator(config)),
+                    new SimpleMatchMakingRating(25.0, 25.0 / 3)
+            );
+        }
+
+        public Builder<T> addMode(String name, MatchRater<T> matchRater, MatchMakingRating initialRating) {
+            for (ModeDefinition<T> mode : modes) {
+                if (mode.name().equals(name)) {
+                    throw new IllegalArgumentException("Duplicate mode: " + name);
+                }
+            }
+            modes.add(new ModeDefinition<>(name, matchRater, initialRating));
+            return this;
+        }
+    }
+}
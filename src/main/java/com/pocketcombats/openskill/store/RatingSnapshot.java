@@ -0,0 +1,105 @@
+package com.pocketcombats.openskill.store;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+
+import java.util.Map;
+
+/**
+ * Immutable view of a {@link SnapshotRatingStore} as of a single epoch.
+ * Reads never block and never observe later writes.
+ */
+public final class RatingSnapshot<T> {
+
+    private final long epoch;
+    private final int size;
+    private final double[][] chunks;
+    private final Object[][] idChunks;
+    private final Map<T, Integer> indexes;
+    private final MatchMakingRating initialRating;
+
+    RatingSnapshot(
+            long epoch,
+            int size,
+            double[][] chunks,
+            Object[][] idChunks,
+            Map<T, Integer> indexes,
+            MatchMakingRating initialRating
+    ) {
+        this.epoch = epoch;
+        this.size = size;
+        this.chunks = chunks;
+        this.idChunks = idChunks;
+        this.indexes = indexes;
+        this.initialRating = initialRating;
+    }
+
+    /**
+     * @return number of batches published before this snapshot
+     */
+    public long epoch() {
+        return epoch;
+    }
+
+    /**
+     * @return number of rated players
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(T playerId) {
+        return index(playerId) >= 0;
+    }
+
+    /**
+     * @return player rating, or the initial rating if the player was not rated as of this snapshot
+     */
+    public MatchMakingRating get(T playerId) {
+        int index = index(playerId);
+        if (index < 0) {
+            return initialRating;
+        }
+        double[] chunk = chunks[index >>> SnapshotRatingStore.CHUNK_SHIFT];
+        int offset = (index & SnapshotRatingStore.CHUNK_MASK) << 1;
+        return new SimpleMatchMakingRating(chunk[offset], chunk[offset + 1]);
+    }
+
+    public double mu(T playerId) {
+        int index = index(playerId);
+        return index < 0
+                ? initialRating.mu()
+                : chunks[index >>> SnapshotRatingStore.CHUNK_SHIFT][(index & SnapshotRatingStore.CHUNK_MASK) << 1];
+    }
+
+    public double sigma(T playerId) {
+        int index = index(playerId);
+        return index < 0
+                ? initialRating.sigma()
+                : chunks[index >>> SnapshotRatingStore.CHUNK_SHIFT][((index & SnapshotRatingStore.CHUNK_MASK) << 1) + 1];
+    }
+
+    /**
+     * Visits every rated player in the order of first rating, without allocating.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(RatingConsumer<? super T> consumer) {
+        for (int index = 0; index < size; index++) {
+            int chunk = index >>> SnapshotRatingStore.CHUNK_SHIFT;
+            int offset = index & SnapshotRatingStore.CHUNK_MASK;
+            consumer.accept((T) idChunks[chunk][offset], chunks[chunk][offset << 1], chunks[chunk][(offset << 1) + 1]);
+        }
+    }
+
+    private int index(T playerId) {
+        Integer index = indexes.get(playerId);
+        // Players first rated after this snapshot are already indexed, but out of its bounds
+        return index == null || index >= size ? -1 : index;
+    }
+
+    @FunctionalInterface
+    public interface RatingConsumer<T> {
+
+        void accept(T playerId, double mu, double sigma);
+    }
+}
@@ -0,0 +1,22 @@
+package com.pocketcombats.openskill.store;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+
+import java.util.Collection;
+
+/**
+ * Holds the current rating of every player.
+ */
+public interface RatingStore<T> {
+
+    /**
+     * @return current player rating, or the initial rating if the player was never rated
+     */
+    MatchMakingRating get(T playerId);
+
+    /**
+     * Replaces ratings of the adjusted players.
+     */
+    void apply(Collection<? extends RatingAdjustment<T>> adjustments);
+}
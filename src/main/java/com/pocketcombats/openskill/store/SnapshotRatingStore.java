@@ -0,0 +1,138 @@
+package com.pocketcombats.openskill.store;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link RatingStore} for many concurrent readers and a single writer, publishing immutable
+ * {@link RatingSnapshot}s.
+ * <p>
+ * Ratings are kept in fixed-size chunks of a primitive array. Every {@link #apply} call is a batch: chunks
+ * shared with the published snapshot are copied on their first write, untouched chunks stay shared, and the batch
+ * becomes visible to readers at once as a new epoch by a single volatile write. Readers never lock or retry, and a
+ * snapshot they hold stays consistent for as long as they keep it. Players first rated in a batch are appended past
+ * the end of the published snapshot, so appending never copies.
+ * <p>
+ * Concurrent {@link #apply} calls are serialized.
+ */
+public class SnapshotRatingStore<T> implements RatingStore<T> {
+
+    static final int CHUNK_SHIFT = 8;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final MatchMakingRating initialRating;
+    private final Map<T, Integer> indexes = new ConcurrentHashMap<>();
+
+    private final Object writeLock = new Object();
+    // Writer state, guarded by writeLock
+    private double[][] chunks = new double[1][];
+    private Object[][] idChunks = new Object[1][];
+    // Epoch in which the writer allocated or copied the chunk; chunks of earlier epochs are shared with readers
+    private long[] chunkEpochs = new long[1];
+    private int size;
+    private long copiedChunks;
+
+    private volatile RatingSnapshot<T> snapshot;
+
+    public SnapshotRatingStore(MatchMakingRating initialRating) {
+        this.initialRating = initialRating;
+        this.snapshot = new RatingSnapshot<>(0, 0, new double[0][], new Object[0][], indexes, initialRating);
+    }
+
+    public SnapshotRatingStore(double mu, double sigma) {
+        this(new SimpleMatchMakingRating(mu, sigma));
+    }
+
+    /**
+     * @return last published snapshot
+     */
+    public RatingSnapshot<T> snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return player rating as of the last published snapshot
+     */
+    @Override
+    public MatchMakingRating get(T playerId) {
+        return snapshot.get(playerId);
+    }
+
+    /**
+     * Writes the adjustments and publishes them as a single new epoch.
+     */
+    @Override
+    public void apply(Collection<? extends RatingAdjustment<T>> adjustments) {
+        synchronized (writeLock) {
+            long epoch = snapshot.epoch() + 1;
+            int publishedSize = snapshot.size();
+            for (RatingAdjustment<T> adjustment : adjustments) {
+                Integer index = indexes.get(adjustment.playerId());
+                if (index == null) {
+                    index = append(adjustment.playerId(), epoch);
+                }
+                double[] chunk = writableChunk(index, publishedSize, epoch);
+                int offset = (index & CHUNK_MASK) << 1;
+                chunk[offset] = adjustment.mu();
+                chunk[offset + 1] = adjustment.sigma();
+            }
+            int chunkCount = (size + CHUNK_MASK) >>> CHUNK_SHIFT;
+            snapshot = new RatingSnapshot<>(
+                    epoch,
+                    size,
+                    Arrays.copyOf(chunks, chunkCount),
+                    Arrays.copyOf(idChunks, chunkCount),
+                    indexes,
+                    initialRating
+            );
+        }
+    }
+
+    /**
+     * @return number of chunks copied on write so far
+     */
+    public long copiedChunks() {
+        synchronized (writeLock) {
+            return copiedChunks;
+        }
+    }
+
+    private int append(T playerId, long epoch) {
+        int index = size;
+        int chunk = index >>> CHUNK_SHIFT;
+        if (chunk == chunks.length) {
+            int capacity = chunks.length * 2;
+            chunks = Arrays.copyOf(chunks, capacity);
+            idChunks = Arrays.copyOf(idChunks, capacity);
+            chunkEpochs = Arrays.copyOf(chunkEpochs, capacity);
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new double[CHUNK_SIZE * 2];
+            idChunks[chunk] = new Object[CHUNK_SIZE];
+            chunkEpochs[chunk] = epoch;
+        }
+        // Slots past the published size are invisible to readers, even in a shared chunk
+        idChunks[chunk][index & CHUNK_MASK] = playerId;
+        size++;
+        // Published last: readers check the index against their snapshot size
+        indexes.put(playerId, index);
+        return index;
+    }
+
+    private double[] writableChunk(int index, int publishedSize, long epoch) {
+        int chunk = index >>> CHUNK_SHIFT;
+        if (chunkEpochs[chunk] != epoch && index < publishedSize) {
+            chunks[chunk] = chunks[chunk].clone();
+            chunkEpochs[chunk] = epoch;
+            copiedChunks++;
+        }
+        return chunks[chunk];
+    }
+}
@@ -0,0 +1,324 @@
+package com.pocketcombats.openskill.store;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link RatingStore} keeping the active players' ratings in a bounded in-memory tier in front of a cold tier such
+ * as {@link FileRatingStore}.
+ * <p>
+ * Lookups are served from memory when possible, otherwise the rating is read from the cold tier and cached,
+ * evicting another one as decided by the {@link CachePolicy}. Updates go to memory and are written back to the cold
+ * tier asynchronously, in batches, by a background thread: when a batch fills up and at a fixed interval. Until
+ * its batch is written an updated rating stays readable even if it was evicted. If updates outpace the cold tier,
+ * the updating thread writes the pending batch itself. Failed writes are counted in the {@link #stats()} and retried
+ * with the next batch, they are never thrown from {@link #apply}.
+ * <p>
+ * The in-memory tier is guarded by a single lock, cold tier reads and writes happen outside of it.
+ * {@link #close()} writes everything back, the cold tier itself is left open.
+ */
+public class TieredRatingStore<T> implements RatingStore<T>, Closeable {
+
+    private static final int MAX_PENDING_BATCHES = 8;
+
+    private final RatingStore<T> coldTier;
+    private final int batchSize;
+
+    private final Object lock = new Object();
+    private final Map<T, MatchMakingRating> hot = new HashMap<>();
+    private final Eviction<T> eviction;
+    // Updated ratings not yet handed to the cold tier, and the batch being written
+    private Map<T, MatchMakingRating> pending = new HashMap<>();
+    private Map<T, MatchMakingRating> inFlight = Map.of();
+    // Advances whenever a batch reaches the cold tier, so a concurrent cold read can tell it may be stale
+    private long flushEpoch;
+    // Guarded by lock
+    private boolean closed;
+
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder hitNanos = new LongAdder();
+    private final LongAdder missNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder writtenBack = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+
+    private TieredRatingStore(Builder<T> builder) {
+        this.coldTier = builder.coldTier;
+        this.batchSize = builder.batchSize;
+        this.eviction = Eviction.of(builder.policy, builder.capacity);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tiered-rating-store-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = builder.flushInterval.toNanos();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    public static <T> Builder<T> builder(RatingStore<T> coldTier) {
+        return new Builder<>(coldTier);
+    }
+
+    @Override
+    public MatchMakingRating get(T playerId) {
+        long start = System.nanoTime();
+        long epoch;
+        synchronized (lock) {
+            MatchMakingRating rating = cached(playerId);
+            if (rating != null) {
+                hits.increment();
+                hitNanos.add(System.nanoTime() - start);
+                return rating;
+            }
+            epoch = flushEpoch;
+        }
+        while (true) {
+            MatchMakingRating loaded = coldTier.get(playerId);
+            synchronized (lock) {
+                MatchMakingRating rating = cached(playerId);
+                if (rating == null && epoch == flushEpoch) {
+                    insert(playerId, loaded);
+                    rating = loaded;
+                }
+                if (rating != null) {
+                    misses.increment();
+                    missNanos.add(System.nanoTime() - start);
+                    return rating;
+                }
+                // A batch was written meanwhile, the loaded rating may predate it
+                epoch = flushEpoch;
+            }
+        }
+    }
+
+    @Override
+    public void apply(Collection<? extends RatingAdjustment<T>> adjustments) {
+        int pendingSize;
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Store is closed");
+            }
+            for (RatingAdjustment<T> adjustment : adjustments) {
+                T playerId = adjustment.playerId();
+                if (hot.containsKey(playerId)) {
+                    hot.put(playerId, adjustment);
+                    eviction.onHit(playerId);
+                } else {
+                    insert(playerId, adjustment);
+                }
+                pending.put(playerId, adjustment);
+            }
+            pendingSize = pending.size();
+        }
+        if (pendingSize >= batchSize * MAX_PENDING_BATCHES) {
+            // The update is already applied, a failed write is only counted like a background one
+            flushQuietly();
+        } else if (pendingSize >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                // Closed after the update was queued, the final flush writes it
+            }
+        }
+    }
+
+    /**
+     * Writes all updated ratings to the cold tier.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            flushRequested.set(false);
+            Map<T, MatchMakingRating> batch;
+            synchronized (lock) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new HashMap<>();
+                inFlight = batch;
+            }
+            List<RatingAdjustment<T>> adjustments = new ArrayList<>(batch.size());
+            batch.forEach((playerId, rating) ->
+                    adjustments.add(new RatingAdjustment<>(playerId, rating.mu(), rating.sigma())));
+            long start = System.nanoTime();
+            try {
+                coldTier.apply(adjustments);
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    // Keep the batch for the next attempt without overwriting newer updates
+                    batch.forEach(pending::putIfAbsent);
+                    inFlight = Map.of();
+                }
+                flushFailures.increment();
+                throw e;
+            }
+            flushNanos.add(System.nanoTime() - start);
+            flushes.increment();
+            writtenBack.add(batch.size());
+            synchronized (lock) {
+                inFlight = Map.of();
+                flushEpoch++;
+            }
+        }
+    }
+
+    public TieredStoreStats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long flushCount = flushes.sum();
+        return new TieredStoreStats(
+                hitCount,
+                missCount,
+                evictions.sum(),
+                writtenBack.sum(),
+                flushCount,
+                flushFailures.sum(),
+                hitCount == 0 ? 0.0 : (double) hitNanos.sum() / hitCount,
+                missCount == 0 ? 0.0 : (double) missNanos.sum() / missCount,
+                flushCount == 0 ? 0.0 : (double) flushNanos.sum() / flushCount
+        );
+    }
+
+    /**
+     * @return number of ratings held in the in-memory tier
+     */
+    public int cachedSize() {
+        synchronized (lock) {
+            return hot.size();
+        }
+    }
+
+    /**
+     * Stops the background writer and writes all updated ratings to the cold tier. Later updates are rejected.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * @return the rating held in memory, or {@code null} if it has to be read from the cold tier
+     */
+    private MatchMakingRating cached(T playerId) {
+        MatchMakingRating rating = hot.get(playerId);
+        if (rating != null) {
+            eviction.onHit(playerId);
+            return rating;
+        }
+        rating = pending.get(playerId);
+        if (rating == null) {
+            rating = inFlight.get(playerId);
+        }
+        if (rating != null) {
+            insert(playerId, rating);
+        }
+        return rating;
+    }
+
+    private void insert(T playerId, MatchMakingRating rating) {
+        hot.put(playerId, rating);
+        T victim = eviction.onInsert(playerId);
+        if (victim != null) {
+            // An updated victim stays readable from the pending batch until it is written
+            hot.remove(victim);
+            evictions.increment();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Counted in the stats, the batch is retried with the next flush
+        }
+    }
+
+    public static final class Builder<T> {
+
+        private final RatingStore<T> coldTier;
+        private int capacity = 100_000;
+        private CachePolicy policy = CachePolicy.W_TINY_LFU;
+        private int batchSize = 1_024;
+        private Duration flushInterval = Duration.ofMillis(100);
+
+        private Builder(RatingStore<T> coldTier) {
+            this.coldTier = Objects.requireNonNull(coldTier);
+        }
+
+        public TieredRatingStore<T> build() {
+            return new TieredRatingStore<>(this);
+        }
+
+        /**
+         * @param capacity maximum number of ratings in the in-memory tier
+         */
+        public Builder<T> setCapacity(int capacity) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+            }
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder<T> setPolicy(CachePolicy policy) {
+            this.policy = Objects.requireNonNull(policy);
+            return this;
+        }
+
+        /**
+         * @param batchSize number of updated ratings that triggers a write-back
+         */
+        public Builder<T> setBatchSize(int batchSize) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * @param flushInterval maximum time an updated rating waits to be written back
+         */
+        public Builder<T> setFlushInterval(Duration flushInterval) {
+            if (flushInterval.isNegative() || flushInterval.isZero()) {
+                throw new IllegalArgumentException("Flush interval must be positive: " + flushInterval);
+            }
+            this.flushInterval = flushInterval;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.pocketcombats.openskill.store;
+
+/**
+ * Counters of a {@link TieredRatingStore} since it was created.
+ *
+ * @param hits              lookups served from memory, including ratings waiting to be written back
+ * @param misses            lookups that read the cold tier
+ * @param evictions         ratings dropped from the in-memory tier
+ * @param writtenBack       ratings written to the cold tier
+ * @param flushes           batches written to the cold tier
+ * @param flushFailures     batches the cold tier failed to write, they are retried with the next batch
+ * @param averageHitNanos   mean latency of a lookup served from memory
+ * @param averageMissNanos  mean latency of a lookup that read the cold tier
+ * @param averageFlushNanos mean time to write a batch
+ */
+public record TieredStoreStats(
+        long hits,
+        long misses,
+        long evictions,
+        long writtenBack,
+        long flushes,
+        long flushFailures,
+        double averageHitNanos,
+        double averageMissNanos,
+        double averageFlushNanos
+) {
+
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
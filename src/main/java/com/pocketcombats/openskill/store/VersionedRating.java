@@ -0,0 +1,26 @@
+package com.pocketcombats.openskill.store;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+
+/**
+ * Player rating together with its version, which advances by two with every update.
+ * Versions of committed ratings are always even, an odd version marks a rating locked by a commit in progress.
+ */
+public record VersionedRating(
+        double mu,
+        double sigma,
+        long version
+) implements MatchMakingRating {
+
+    boolean isLocked() {
+        return (version & 1) != 0;
+    }
+
+    VersionedRating locked() {
+        return new VersionedRating(mu, sigma, version + 1);
+    }
+
+    VersionedRating next(MatchMakingRating rating) {
+        return new VersionedRating(rating.mu(), rating.sigma(), (version | 1) + 1);
+    }
+}
@@ -0,0 +1,334 @@
+package com.pocketcombats.openskill.store;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.PlayerRecord;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.TeamRecord;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link RatingStore} with optimistic multi-player commits.
+ * <p>
+ * Every player owns a single slot holding an immutable {@link VersionedRating}, all slot updates are
+ * compare-and-set operations. Rating a match reads a consistent snapshot of all its players, computes
+ * the adjustments without holding anything and then commits in two phases: every slot is marked as locked
+ * by a compare-and-set against the snapshot value, and, once all of them succeeded, replaced with the new rating.
+ * If any player was updated after the snapshot was taken the already marked slots are restored and the match
+ * is rated again from a fresh snapshot. Marking never waits, so there is no deadlock, and {@link #get} always
+ * returns the last committed rating without waiting, even while the slot is marked. Snapshots and {@link #apply}
+ * do wait for marked slots to be committed or restored, the marks act as short-lived locks.
+ */
+public class VersionedRatingStore<T> implements RatingStore<T> {
+
+    private static final int SPINS_BEFORE_YIELD = 64;
+
+    private final Map<T, AtomicReference<VersionedRating>> slots = new ConcurrentHashMap<>();
+    private final VersionedRating initialRating;
+
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+
+    public VersionedRatingStore(MatchMakingRating initialRating) {
+        this.initialRating = new VersionedRating(initialRating.mu(), initialRating.sigma(), 0);
+    }
+
+    public VersionedRatingStore(double mu, double sigma) {
+        this(new VersionedRating(mu, sigma, 0));
+    }
+
+    /**
+     * @return last committed player rating
+     */
+    @Override
+    public VersionedRating get(T playerId) {
+        AtomicReference<VersionedRating> slot = slots.get(playerId);
+        if (slot == null) {
+            return initialRating;
+        }
+        VersionedRating rating = slot.get();
+        return rating.isLocked()
+                ? new VersionedRating(rating.mu(), rating.sigma(), rating.version() - 1)
+                : rating;
+    }
+
+    /**
+     * Unconditionally overwrites ratings of the adjusted players, one player at a time.
+     */
+    @Override
+    public void apply(Collection<? extends RatingAdjustment<T>> adjustments) {
+        for (RatingAdjustment<T> adjustment : adjustments) {
+            AtomicReference<VersionedRating> slot = slot(adjustment.playerId());
+            int attempt = 0;
+            while (true) {
+                VersionedRating current = slot.get();
+                if (current.isLocked()) {
+                    backoff(attempt++);
+                } else if (slot.compareAndSet(current, current.next(adjustment))) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Rates the match and atomically commits the adjustments of all its players,
+     * retrying whenever any of them was concurrently updated.
+     *
+     * @return committed rating adjustments
+     */
+    public List<RatingAdjustment<T>> rate(MatchRecord<T> match, MatchRater<T> matchRater) {
+        Set<T> playerIds = playerIds(match);
+        int attempt = 0;
+        while (true) {
+            List<RatingAdjustment<T>> adjustments = tryRate(playerIds, match, matchRater);
+            if (adjustments != null) {
+                return adjustments;
+            }
+            backoff(attempt++);
+        }
+    }
+
+    /**
+     * Makes a single attempt to rate the match and commit its adjustments.
+     *
+     * @return committed rating adjustments, or {@code null} if the attempt conflicted with a concurrent update
+     */
+    public List<RatingAdjustment<T>> tryRate(MatchRecord<T> match, MatchRater<T> matchRater) {
+        return tryRate(playerIds(match), match, matchRater);
+    }
+
+    private List<RatingAdjustment<T>> tryRate(Set<T> playerIds, MatchRecord<T> match, MatchRater<T> matchRater) {
+        Map<T, VersionedRating> snapshot = trySnapshot(playerIds);
+        if (snapshot != null) {
+            List<RatingAdjustment<T>> adjustments = matchRater.rate(match, snapshot::get);
+            if (tryLock(snapshot)) {
+                commit(snapshot, adjustments);
+                return adjustments;
+            }
+        }
+        conflicts.increment();
+        return null;
+    }
+
+    /**
+     * Reads a consistent snapshot of the given players' committed ratings:
+     * none of them was locked by a commit in progress while the snapshot was taken.
+     */
+    public Map<T, VersionedRating> snapshot(Collection<T> playerIds) {
+        int attempt = 0;
+        while (true) {
+            Map<T, VersionedRating> snapshot = trySnapshot(playerIds);
+            if (snapshot != null) {
+                return snapshot;
+            }
+            backoff(attempt++);
+        }
+    }
+
+    /**
+     * Makes a single attempt to read a consistent snapshot, see {@link #snapshot}.
+     *
+     * @return the snapshot, or {@code null} if any of the players is being updated
+     */
+    public Map<T, VersionedRating> trySnapshot(Collection<T> playerIds) {
+        List<AtomicReference<VersionedRating>> playerSlots = new ArrayList<>(playerIds.size());
+        Map<T, VersionedRating> snapshot = new LinkedHashMap<>();
+        for (T playerId : playerIds) {
+            AtomicReference<VersionedRating> slot = slot(playerId);
+            VersionedRating rating = slot.get();
+            if (rating.isLocked()) {
+                return null;
+            }
+            if (snapshot.putIfAbsent(playerId, rating) == null) {
+                playerSlots.add(slot);
+            }
+        }
+        // A commit of a match sharing more than one player could have completed in the middle of the read
+        int i = 0;
+        for (VersionedRating rating : snapshot.values()) {
+            if (playerSlots.get(i++).get() != rating) {
+                return null;
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Locks the snapshot ratings for a commit coordinated outside of this store, like a partitioned two-phase
+     * commit. The returned handle must be either committed or aborted.
+     *
+     * @return handle of the locked ratings, or {@code null} if any of them has changed since the snapshot was taken
+     */
+    public PreparedCommit prepare(Map<T, VersionedRating> snapshot) {
+        Map<T, VersionedRating> locked = Map.copyOf(snapshot);
+        return tryLock(locked) ? new PreparedCommit(locked) : null;
+    }
+
+    /**
+     * First commit phase: locks every snapshot rating, provided none of them has changed since.
+     * Ratings are compared by value, so the snapshot may be a copy received from another process.
+     * Restores already locked slots on failure.
+     *
+     * @return {@code true} if all ratings were locked
+     */
+    boolean tryLock(Map<T, VersionedRating> snapshot) {
+        List<AtomicReference<VersionedRating>> locked = new ArrayList<>(snapshot.size());
+        List<VersionedRating> previous = new ArrayList<>(snapshot.size());
+        for (Map.Entry<T, VersionedRating> entry : snapshot.entrySet()) {
+            AtomicReference<VersionedRating> slot = slot(entry.getKey());
+            VersionedRating expected = entry.getValue();
+            VersionedRating current = slot.get();
+            // Versions never repeat, so an equal version means the rating has not changed since the snapshot
+            boolean unchanged = !current.isLocked()
+                    && current.version() == expected.version()
+                    && current.equals(expected);
+            if (!unchanged || !slot.compareAndSet(current, current.locked())) {
+                for (int i = 0; i < locked.size(); i++) {
+                    locked.get(i).set(previous.get(i));
+                }
+                return false;
+            }
+            locked.add(slot);
+            previous.add(current);
+        }
+        return true;
+    }
+
+    /**
+     * Second commit phase: publishes the adjustments of players locked with {@link #tryLock}.
+     * Locked players without an adjustment keep their rating and are merely unlocked.
+     * Adjustments are validated before anything is published, all players are unlocked even if the commit fails.
+     *
+     * @throws IllegalArgumentException if an adjusted player is not locked
+     */
+    void commit(Map<T, VersionedRating> snapshot, Collection<? extends RatingAdjustment<T>> adjustments) {
+        boolean committed = false;
+        try {
+            Map<T, VersionedRating> ratings = new LinkedHashMap<>(snapshot);
+            for (RatingAdjustment<T> adjustment : adjustments) {
+                VersionedRating previous = snapshot.get(adjustment.playerId());
+                if (previous == null) {
+                    throw new IllegalArgumentException("Player " + adjustment.playerId() + " is not locked");
+                }
+                ratings.put(adjustment.playerId(), previous.next(adjustment));
+            }
+            for (Map.Entry<T, VersionedRating> entry : ratings.entrySet()) {
+                slots.get(entry.getKey()).set(entry.getValue());
+            }
+            committed = true;
+            commits.increment();
+        } finally {
+            if (!committed) {
+                unlock(snapshot);
+            }
+        }
+    }
+
+    /**
+     * Aborts a commit locked with {@link #tryLock}, restoring the snapshot ratings.
+     */
+    void unlock(Map<T, VersionedRating> snapshot) {
+        for (Map.Entry<T, VersionedRating> entry : snapshot.entrySet()) {
+            slots.get(entry.getKey()).set(entry.getValue());
+        }
+    }
+
+    public long commits() {
+        return commits.sum();
+    }
+
+    /**
+     * @return the number of rating attempts that conflicted with a concurrent update
+     */
+    public long conflicts() {
+        return conflicts.sum();
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Ratings locked by {@link #prepare}, released exactly once by either {@link #commit} or {@link #abort}.
+     */
+    public final class PreparedCommit {
+
+        private final Map<T, VersionedRating> snapshot;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PreparedCommit(Map<T, VersionedRating> snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        /**
+         * Publishes the adjustments and unlocks all locked players, even if the adjustments are rejected.
+         *
+         * @throws IllegalArgumentException if an adjusted player was not locked
+         * @throws IllegalStateException    if the commit was already released
+         */
+        public void commit(Collection<? extends RatingAdjustment<T>> adjustments) {
+            release();
+            VersionedRatingStore.this.commit(snapshot, adjustments);
+        }
+
+        /**
+         * Restores the locked ratings.
+         *
+         * @throws IllegalStateException if the commit was already released
+         */
+        public void abort() {
+            release();
+            unlock(snapshot);
+        }
+
+        private void release() {
+            if (!released.compareAndSet(false, true)) {
+                throw new IllegalStateException("Commit already released");
+            }
+        }
+    }
+
+    private AtomicReference<VersionedRating> slot(T playerId) {
+        AtomicReference<VersionedRating> slot = slots.get(playerId);
+        if (slot == null) {
+            slot = slots.computeIfAbsent(playerId, id -> new AtomicReference<>(initialRating));
+        }
+        return slot;
+    }
+
+    private static <T> Set<T> playerIds(MatchRecord<T> match) {
+        Set<T> playerIds = new LinkedHashSet<>();
+        for (TeamRecord<T> team : match.teams()) {
+            for (PlayerRecord<T> player : team.players()) {
+                playerIds.add(player.id());
+            }
+        }
+        return playerIds;
+    }
+
+    private static void backoff(int attempt) {
+        if (attempt < SPINS_BEFORE_YIELD) {
+            Thread.onSpinWait();
+        } else if (attempt < 2 * SPINS_BEFORE_YIELD) {
+            Thread.yield();
+        } else {
+            // Randomized to break symmetric retry storms
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(1_000, 10_000));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.pocketcombats.openskill.store;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Window TinyLFU: a 1% LRU window in front of a segmented LRU main space, 20% probation and 80% protected,
+ * with admission to the main space decided by a {@link FrequencySketch}.
+ */
+final class WTinyLfuEviction<K> implements Eviction<K> {
+
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final int protectedCapacity;
+    private final FrequencySketch sketch;
+
+    // Insertion ordered, the first key is the least recently used
+    private final LinkedHashMap<K, Boolean> window = new LinkedHashMap<>();
+    private final LinkedHashMap<K, Boolean> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<K, Boolean> protectedSegment = new LinkedHashMap<>();
+
+    WTinyLfuEviction(int capacity) {
+        this.windowCapacity = Math.max(1, capacity / 100);
+        this.mainCapacity = Math.max(1, capacity - windowCapacity);
+        this.protectedCapacity = mainCapacity * 4 / 5;
+        this.sketch = new FrequencySketch(capacity);
+    }
+
+    @Override
+    public void onHit(K key) {
+        sketch.increment(key.hashCode());
+        if (window.remove(key) != null) {
+            window.put(key, Boolean.TRUE);
+        } else if (probation.remove(key) != null) {
+            protectedSegment.put(key, Boolean.TRUE);
+            if (protectedSegment.size() > protectedCapacity) {
+                probation.put(removeFirst(protectedSegment), Boolean.TRUE);
+            }
+        } else if (protectedSegment.remove(key) != null) {
+            protectedSegment.put(key, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public K onInsert(K key) {
+        sketch.increment(key.hashCode());
+        window.put(key, Boolean.TRUE);
+        if (window.size() <= windowCapacity) {
+            return null;
+        }
+        K candidate = removeFirst(window);
+        if (probation.size() + protectedSegment.size() < mainCapacity) {
+            probation.put(candidate, Boolean.TRUE);
+            return null;
+        }
+        LinkedHashMap<K, Boolean> victims = probation.isEmpty() ? protectedSegment : probation;
+        K victim = victims.keySet().iterator().next();
+        if (sketch.frequency(candidate.hashCode()) > sketch.frequency(victim.hashCode())) {
+            victims.remove(victim);
+            probation.put(candidate, Boolean.TRUE);
+            return victim;
+        }
+        return candidate;
+    }
+
+    @Override
+    public void onRemove(K key) {
+        if (window.remove(key) == null && probation.remove(key) == null) {
+            protectedSegment.remove(key);
+        }
+    }
+
+    private static <K> K removeFirst(LinkedHashMap<K, Boolean> segment) {
+        Iterator<K> first = segment.keySet().iterator();
+        K key = first.next();
+        first.remove();
+        return key;
+    }
+}
@@ -0,0 +1,263 @@
+package com.pocketcombats.openskill.tuning;
+
+import com.pocketcombats.openskill.Adjudicator;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator;
+import com.pocketcombats.openskill.aggregate.TeamRatingAggregator;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.PlayerResult;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import com.pocketcombats.openskill.data.SimplePlayerResult;
+import com.pocketcombats.openskill.data.SimpleTeamResult;
+import com.pocketcombats.openskill.data.TeamResult;
+import com.pocketcombats.openskill.history.MatchLog;
+import com.pocketcombats.openskill.model.RatingModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Evaluates {@link RatingModelConfig} candidates by replaying a match log and scoring the rating model's
+ * predictions.
+ * <p>
+ * Every match is first predicted, each pair of its teams separately with
+ * {@link RatingModel#winProbability}, and then rated, so a candidate is judged on how well the ratings it
+ * produced so far predict the future. The log is parsed once into a {@link MatchLog} shared by all candidates,
+ * and candidates are replayed in parallel, each keeping only two primitive arrays of player state.
+ */
+public class HyperparameterTuner<T> {
+
+    private final MatchLog<T> log;
+    private final Function<RatingModelConfig, ? extends RatingModel> ratingModelFactory;
+    private final Function<RatingModelConfig, ? extends TeamRatingAggregator> teamRatingAggregatorFactory;
+    private final MatchMakingRating initialRating;
+    private final ScoringRule scoringRule;
+    private final int warmupMatches;
+    private final ForkJoinPool pool;
+
+    private HyperparameterTuner(Builder<T> builder) {
+        this.log = builder.log;
+        this.ratingModelFactory = builder.ratingModelFactory;
+        this.teamRatingAggregatorFactory = builder.teamRatingAggregatorFactory;
+        this.initialRating = builder.initialRating;
+        this.scoringRule = builder.scoringRule;
+        this.warmupMatches = builder.warmupMatches;
+        this.pool = builder.pool;
+    }
+
+    /**
+     * @param log                match history to replay
+     * @param ratingModelFactory creates the rating model of a candidate configuration,
+     *                           for example {@code ThurstoneMostellerFull::new}
+     */
+    public static <T> Builder<T> builder(
+            MatchLog<T> log,
+            Function<RatingModelConfig, ? extends RatingModel> ratingModelFactory
+    ) {
+        return new Builder<>(log, ratingModelFactory);
+    }
+
+    /**
+     * Replays the whole log with every candidate.
+     *
+     * @return results ordered from the best to the worst score
+     */
+    public List<TuningResult> gridSearch(Collection<RatingModelConfig> candidates) {
+        return evaluate(candidates, log.matchCount());
+    }
+
+    /**
+     * Successive halving: all candidates replay a prefix of {@code initialMatches} matches, the best
+     * {@code 1 / reductionFactor} of them move on to a prefix {@code reductionFactor} times longer, until a single
+     * candidate is left or the whole log is replayed.
+     *
+     * @return results of the final round ordered from the best to the worst score
+     */
+    public List<TuningResult> successiveHalving(
+            Collection<RatingModelConfig> candidates,
+            int initialMatches,
+            int reductionFactor
+    ) {
+        if (reductionFactor < 2) {
+            throw new IllegalArgumentException("Reduction factor must be at least 2: " + reductionFactor);
+        }
+        List<RatingModelConfig> survivors = new ArrayList<>(candidates);
+        long budget = Math.max(initialMatches, warmupMatches + 1L);
+        while (true) {
+            int matches = (int) Math.min(budget, log.matchCount());
+            List<TuningResult> results = evaluate(survivors, matches);
+            if (results.size() <= 1 || matches == log.matchCount()) {
+                return results;
+            }
+            int keep = Math.max(1, results.size() / reductionFactor);
+            survivors = new ArrayList<>(keep);
+            for (TuningResult result : results.subList(0, keep)) {
+                survivors.add(result.config());
+            }
+            budget *= reductionFactor;
+        }
+    }
+
+    /**
+     * Replays the first {@code matches} matches of the log with a single configuration.
+     */
+    public TuningResult evaluate(RatingModelConfig config, int matches) {
+        RatingModel ratingModel = ratingModelFactory.apply(config);
+        Adjudicator<Integer> adjudicator = new Adjudicator<>(config, ratingModel);
+        TeamRatingAggregator aggregator = teamRatingAggregatorFactory.apply(config);
+
+        double[] mu = new double[log.playerCount()];
+        double[] sigma = new double[log.playerCount()];
+        Arrays.fill(mu, initialRating.mu());
+        Arrays.fill(sigma, initialRating.sigma());
+
+        double scoreSum = 0;
+        long predictions = 0;
+        for (int match = 0; match < matches; match++) {
+            List<TeamResult<Integer>> teams = teamResults(match, mu, sigma, aggregator);
+            if (match >= warmupMatches) {
+                for (int i = 0; i < teams.size(); i++) {
+                    TeamResult<Integer> team = teams.get(i);
+                    for (int j = i + 1; j < teams.size(); j++) {
+                        TeamResult<Integer> opponent = teams.get(j);
+                        double outcome = team.rank() < opponent.rank()
+                                ? 1.0
+                                : team.rank() == opponent.rank() ? 0.5 : 0.0;
+                        scoreSum += scoringRule.score(ratingModel.winProbability(team, opponent), outcome);
+                        predictions++;
+                    }
+                }
+            }
+            for (RatingAdjustment<Integer> adjustment : adjudicator.rate(teams)) {
+                int player = log.participant(adjustment.playerId());
+                mu[player] = adjustment.mu();
+                sigma[player] = adjustment.sigma();
+            }
+        }
+        return new TuningResult(config, predictions == 0 ? Double.NaN : scoreSum / predictions, predictions, matches);
+    }
+
+    private List<TuningResult> evaluate(Collection<RatingModelConfig> candidates, int matches) {
+        List<Callable<TuningResult>> tasks = new ArrayList<>(candidates.size());
+        for (RatingModelConfig candidate : candidates) {
+            tasks.add(() -> evaluate(candidate, matches));
+        }
+        List<TuningResult> results = new ArrayList<>(tasks.size());
+        for (Future<TuningResult> future : pool.invokeAll(tasks)) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while tuning", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        results.sort(Comparator.comparingDouble(TuningResult::score));
+        return results;
+    }
+
+    /**
+     * Builds team results of a logged match. Player ids are participant indexes of the log.
+     */
+    private List<TeamResult<Integer>> teamResults(
+            int match,
+            double[] mu,
+            double[] sigma,
+            TeamRatingAggregator aggregator
+    ) {
+        int teamStart = log.matchTeamStart(match);
+        int teamEnd = log.matchTeamStart(match + 1);
+        List<TeamResult<Integer>> teams = new ArrayList<>(teamEnd - teamStart);
+        for (int team = teamStart; team < teamEnd; team++) {
+            int playerStart = log.teamPlayerStart(team);
+            int playerEnd = log.teamPlayerStart(team + 1);
+            List<PlayerResult<Integer>> players = new ArrayList<>(playerEnd - playerStart);
+            for (int participant = playerStart; participant < playerEnd; participant++) {
+                int player = log.participant(participant);
+                players.add(new SimplePlayerResult<>(
+                        participant,
+                        mu[player],
+                        sigma[player],
+                        log.participantWeight(participant)
+                ));
+            }
+            MatchMakingRating teamRating = aggregator.computeTeamRating(players);
+            teams.add(new SimpleTeamResult<>(
+                    teamRating.mu(),
+                    teamRating.sigma(),
+                    log.teamRank(team),
+                    log.teamWeight(team),
+                    players
+            ));
+        }
+        return teams;
+    }
+
+    public static final class Builder<T> {
+
+        private final MatchLog<T> log;
+        private final Function<RatingModelConfig, ? extends RatingModel> ratingModelFactory;
+        private Function<RatingModelConfig, ? extends TeamRatingAggregator> teamRatingAggregatorFactory =
+                DefaultTeamRatingAggregator::new;
+        private MatchMakingRating initialRating = new SimpleMatchMakingRating(25.0, 25.0 / 3);
+        private ScoringRule scoringRule = ScoringRule.LOG_LOSS;
+        private int warmupMatches;
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        private Builder(MatchLog<T> log, Function<RatingModelConfig, ? extends RatingModel> ratingModelFactory) {
+            this.log = Objects.requireNonNull(log);
+            this.ratingModelFactory = Objects.requireNonNull(ratingModelFactory);
+        }
+
+        public HyperparameterTuner<T> build() {
+            return new HyperparameterTuner<>(this);
+        }
+
+        public Builder<T> setTeamRatingAggregatorFactory(
+                Function<RatingModelConfig, ? extends TeamRatingAggregator> teamRatingAggregatorFactory
+        ) {
+            this.teamRatingAggregatorFactory = Objects.requireNonNull(teamRatingAggregatorFactory);
+            return this;
+        }
+
+        public Builder<T> setInitialRating(MatchMakingRating initialRating) {
+            this.initialRating = Objects.requireNonNull(initialRating);
+            return this;
+        }
+
+        public Builder<T> setScoringRule(ScoringRule scoringRule) {
+            this.scoringRule = Objects.requireNonNull(scoringRule);
+            return this;
+        }
+
+        /**
+         * Number of leading matches that are rated but not scored, while ratings are still mostly priors.
+         */
+        public Builder<T> setWarmupMatches(int warmupMatches) {
+            if (warmupMatches < 0) {
+                throw new IllegalArgumentException("Negative warmup: " + warmupMatches);
+            }
+            this.warmupMatches = warmupMatches;
+            return this;
+        }
+
+        public Builder<T> setPool(ForkJoinPool pool) {
+            this.pool = Objects.requireNonNull(pool);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.pocketcombats.openskill.tuning;
+
+/**
+ * Proper scoring rules for predicted head-to-head outcomes, lower is better.
+ */
+public enum ScoringRule {
+
+    /**
+     * Negative log-likelihood of the observed outcome.
+     */
+    LOG_LOSS {
+        @Override
+        public double score(double probability, double outcome) {
+            double p = Math.min(Math.max(probability, MIN_PROBABILITY), 1 - MIN_PROBABILITY);
+            return -(outcome * Math.log(p) + (1 - outcome) * Math.log(1 - p));
+        }
+    },
+
+    /**
+     * Squared difference between the predicted probability and the observed outcome.
+     */
+    BRIER {
+        @Override
+        public double score(double probability, double outcome) {
+            double error = probability - outcome;
+            return error * error;
+        }
+    };
+
+    private static final double MIN_PROBABILITY = 1E-15;
+
+    /**
+     * @param probability predicted probability that the team finishes ahead of the opponent
+     * @param outcome     1 if it did, 0 if it did not and 0.5 for a draw
+     */
+    public abstract double score(double probability, double outcome);
+}
@@ -0,0 +1,117 @@
+package com.pocketcombats.openskill.tuning;
+
+import com.pocketcombats.openskill.RatingModelConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cartesian product of {@link RatingModelConfig} parameter values.
+ * Parameters without explicit values keep the {@link RatingModelConfig.Builder} defaults.
+ */
+public final class TuningGrid {
+
+    private double[] betas;
+    private double[] taus;
+    private double[] kappas;
+    private boolean[] limitSigmas;
+    private boolean[] balances;
+    private double[] zs;
+    private double[] alphas;
+    private double[] targets;
+
+    public TuningGrid setBeta(double... betas) {
+        this.betas = betas;
+        return this;
+    }
+
+    public TuningGrid setTau(double... taus) {
+        this.taus = taus;
+        return this;
+    }
+
+    public TuningGrid setKappa(double... kappas) {
+        this.kappas = kappas;
+        return this;
+    }
+
+    public TuningGrid setLimitSigma(boolean... limitSigmas) {
+        this.limitSigmas = limitSigmas;
+        return this;
+    }
+
+    public TuningGrid setBalance(boolean... balances) {
+        this.balances = balances;
+        return this;
+    }
+
+    public TuningGrid setZ(double... zs) {
+        this.zs = zs;
+        return this;
+    }
+
+    public TuningGrid setAlpha(double... alphas) {
+        this.alphas = alphas;
+        return this;
+    }
+
+    public TuningGrid setTarget(double... targets) {
+        this.targets = targets;
+        return this;
+    }
+
+    public List<RatingModelConfig> configs() {
+        List<RatingModelConfig.Builder> builders = new ArrayList<>();
+        builders.add(RatingModelConfig.builder());
+        if (betas != null) {
+            builders = expand(builders, betas.length, (builder, i) -> builder.setBeta(betas[i]));
+        }
+        if (taus != null) {
+            builders = expand(builders, taus.length, (builder, i) -> builder.setTau(taus[i]));
+        }
+        if (kappas != null) {
+            builders = expand(builders, kappas.length, (builder, i) -> builder.setKappa(kappas[i]));
+        }
+        if (limitSigmas != null) {
+            builders = expand(builders, limitSigmas.length, (builder, i) -> builder.setLimitSigma(limitSigmas[i]));
+        }
+        if (balances != null) {
+            builders = expand(builders, balances.length, (builder, i) -> builder.setBalance(balances[i]));
+        }
+        if (zs != null) {
+            builders = expand(builders, zs.length, (builder, i) -> builder.setZ(zs[i]));
+        }
+        if (alphas != null) {
+            builders = expand(builders, alphas.length, (builder, i) -> builder.setAlpha(alphas[i]));
+        }
+        if (targets != null) {
+            builders = expand(builders, targets.length, (builder, i) -> builder.setTarget(targets[i]));
+        }
+        List<RatingModelConfig> configs = new ArrayList<>(builders.size());
+        for (RatingModelConfig.Builder builder : builders) {
+            configs.add(builder.build());
+        }
+        return configs;
+    }
+
+    private static List<RatingModelConfig.Builder> expand(
+            List<RatingModelConfig.Builder> builders,
+            int values,
+            Setter setter
+    ) {
+        List<RatingModelConfig.Builder> expanded = new ArrayList<>(builders.size() * values);
+        for (RatingModelConfig.Builder builder : builders) {
+            RatingModelConfig base = builder.build();
+            for (int i = 0; i < values; i++) {
+                expanded.add(setter.set(RatingModelConfig.builder(base), i));
+            }
+        }
+        return expanded;
+    }
+
+    @FunctionalInterface
+    private interface Setter {
+
+        RatingModelConfig.Builder set(RatingModelConfig.Builder builder, int valueIndex);
+    }
+}
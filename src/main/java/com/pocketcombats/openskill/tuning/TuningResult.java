@@ -0,0 +1,19 @@
+package com.pocketcombats.openskill.tuning;
+
+import com.pocketcombats.openskill.RatingModelConfig;
+
+/**
+ * Predictive performance of a configuration over a replayed match log.
+ *
+ * @param config      evaluated configuration
+ * @param score       mean score of all predictions, lower is better
+ * @param predictions number of scored head-to-head predictions
+ * @param matches     number of replayed matches
+ */
+public record TuningResult(
+        RatingModelConfig config,
+        double score,
+        long predictions,
+        int matches
+) {
+}
@@ -0,0 +1,79 @@
+package com.pocketcombats.openskill;
+
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import com.pocketcombats.openskill.data.TeamResult;
+import com.pocketcombats.openskill.model.EnsembleModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.pocketcombats.openskill.util.ValidationHelper.teamResult;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class EnsembleAdjudicatorTest {
+
+    private final RatingModelConfig config = RatingModelConfig.builder().setTau(0.1).build();
+
+    @Test
+    public void testPairwiseModelsMatchStandaloneAdjudicators() {
+        List<TeamResult<Integer>> teams = randomTeams(new Random(1), new int[]{3, 1, 2, 2, 5, 4});
+        Map<EnsembleModel, List<RatingAdjustment<Integer>>> adjustments =
+                new EnsembleAdjudicator<Integer>(config).rate(teams);
+
+        assertThat(adjustments).containsOnlyKeys(EnsembleModel.values());
+        for (EnsembleModel model : EnumSet.of(EnsembleModel.THURSTONE_MOSTELLER_FULL, EnsembleModel.BRADLEY_TERRY_FULL)) {
+            assertThat(adjustments.get(model))
+                    .isEqualTo(new Adjudicator<Integer>(config, model.create(config)).rate(teams));
+        }
+    }
+
+    @Test
+    public void testPlackettLuceMatchesStandaloneAdjudicator() {
+        List<TeamResult<Integer>> teams = randomTeams(new Random(2), new int[]{1, 4, 2, 2, 3, 6, 5});
+        List<RatingAdjustment<Integer>> ensemble = new EnsembleAdjudicator<Integer>(
+                config,
+                EnumSet.of(EnsembleModel.PLACKETT_LUCE)
+        ).rate(teams).get(EnsembleModel.PLACKETT_LUCE);
+        List<RatingAdjustment<Integer>> standalone = new Adjudicator<Integer>(
+                config,
+                EnsembleModel.PLACKETT_LUCE.create(config)
+        ).rate(teams);
+
+        assertThat(ensemble).hasSameSizeAs(standalone);
+        for (int i = 0; i < standalone.size(); i++) {
+            assertThat(ensemble.get(i).playerId()).isEqualTo(standalone.get(i).playerId());
+            assertThat(ensemble.get(i).mu()).isCloseTo(standalone.get(i).mu(), within(1E-12));
+            assertThat(ensemble.get(i).sigma()).isCloseTo(standalone.get(i).sigma(), within(1E-12));
+        }
+    }
+
+    @Test
+    public void testReturnsOnlyConfiguredModels() {
+        List<TeamResult<Integer>> teams = randomTeams(new Random(3), new int[]{1, 2});
+        EnsembleAdjudicator<Integer> adjudicator = new EnsembleAdjudicator<>(
+                config,
+                EnumSet.of(EnsembleModel.BRADLEY_TERRY_FULL)
+        );
+
+        assertThat(adjudicator.rate(teams)).containsOnlyKeys(EnsembleModel.BRADLEY_TERRY_FULL);
+    }
+
+    private List<TeamResult<Integer>> randomTeams(Random random, int[] ranks) {
+        AtomicInteger playerId = new AtomicInteger();
+        List<TeamResult<Integer>> teams = new ArrayList<>(ranks.length);
+        for (int rank : ranks) {
+            teams.add(teamResult(playerId, config, rank, List.of(
+                    new SimpleMatchMakingRating(20 + random.nextDouble() * 10, 3 + random.nextDouble() * 5),
+                    new SimpleMatchMakingRating(20 + random.nextDouble() * 10, 3 + random.nextDouble() * 5)
+            )));
+        }
+        return teams;
+    }
+}
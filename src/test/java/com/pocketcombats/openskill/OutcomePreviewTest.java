@@ -0,0 +1,150 @@
+package com.pocketcombats.openskill;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.SimplePlayerResult;
+import com.pocketcombats.openskill.data.SimpleTeamResult;
+import com.pocketcombats.openskill.data.TeamResult;
+import com.pocketcombats.openskill.model.AdjustmentFactors;
+import com.pocketcombats.openskill.model.BradleyTerryFull;
+import com.pocketcombats.openskill.model.BradleyTerryPart;
+import com.pocketcombats.openskill.model.PlackettLuce;
+import com.pocketcombats.openskill.model.RatingModel;
+import com.pocketcombats.openskill.model.ThurstoneMostellerFull;
+import com.pocketcombats.openskill.model.ThurstoneMostellerPart;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class OutcomePreviewTest {
+
+    private static final RatingModelConfig CONFIG = RatingModelConfig.builder().build();
+
+    @Test
+    public void testPreviewMatchesRatingEveryOutcome() {
+        List<TeamResult<Integer>> teams = randomTeams(new Random(1), 6);
+        List<RatingModel> models = List.of(
+                new ThurstoneMostellerFull(CONFIG),
+                new BradleyTerryFull(CONFIG),
+                new PlackettLuce(CONFIG),
+                new ThurstoneMostellerPart(CONFIG),
+                new BradleyTerryPart(CONFIG, 2),
+                defaultPreview(new ThurstoneMostellerFull(CONFIG))
+        );
+        for (RatingModel model : models) {
+            Adjudicator<Integer> adjudicator = new Adjudicator<>(CONFIG, model);
+            OutcomePreview<Integer> preview = adjudicator.preview(teams);
+
+            assertThat(preview.teamCount()).isEqualTo(teams.size());
+            for (int team = 0; team < teams.size(); team++) {
+                for (int position = 1; position <= teams.size(); position++) {
+                    List<TeamResult<Integer>> outcome = outcome(teams, team, position);
+                    List<RatingAdjustment<Integer>> rated =
+                            adjudicator.rate(outcome.get(team), exclude(outcome, team));
+
+                    assertClose(preview.adjustments(team, position), rated);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTwoTeamWinDrawLoss() {
+        List<TeamResult<Integer>> teams = randomTeams(new Random(2), 2);
+        Adjudicator<Integer> adjudicator = new Adjudicator<>(CONFIG, new ThurstoneMostellerFull(CONFIG));
+        OutcomePreview<Integer> preview = adjudicator.preview(teams);
+
+        List<RatingAdjustment<Integer>> win =
+                adjudicator.rate(List.of(withRank(teams.get(0), 1), withRank(teams.get(1), 2)));
+        List<RatingAdjustment<Integer>> draw =
+                adjudicator.rate(List.of(withRank(teams.get(0), 1), withRank(teams.get(1), 1)));
+        int players = teams.get(0).players().size();
+
+        assertClose(preview.winAdjustments(0), win.subList(0, players));
+        assertClose(preview.lossAdjustments(1), win.subList(players, win.size()));
+        assertThat(preview.drawAdjustments(0)).isEqualTo(draw.subList(0, players));
+        assertThat(preview.winAdjustments(0).get(0).mu()).isGreaterThan(preview.drawAdjustments(0).get(0).mu());
+        assertThat(preview.lossAdjustments(0).get(0).mu()).isLessThan(preview.drawAdjustments(0).get(0).mu());
+    }
+
+    /**
+     * Model using the default preview implementation.
+     */
+    private static RatingModel defaultPreview(RatingModel model) {
+        return new RatingModel() {
+            @Override
+            public AdjustmentFactors calculateAdjustmentFactors(
+                    TeamResult<?> teamResult,
+                    List<? extends TeamResult<?>> opponentTeamResults
+            ) {
+                return model.calculateAdjustmentFactors(teamResult, opponentTeamResults);
+            }
+
+            @Override
+            public double winProbability(MatchMakingRating team, MatchMakingRating opponent) {
+                return model.winProbability(team, opponent);
+            }
+        };
+    }
+
+    /**
+     * Team at the position, the others in the order of their mu.
+     */
+    private static List<TeamResult<Integer>> outcome(List<TeamResult<Integer>> teams, int team, int position) {
+        List<Integer> others = new ArrayList<>();
+        for (int i = 0; i < teams.size(); i++) {
+            if (i != team) {
+                others.add(i);
+            }
+        }
+        others.sort(Comparator.comparingDouble((Integer i) -> teams.get(i).mu()).reversed());
+        others.add(position - 1, team);
+        List<TeamResult<Integer>> outcome = new ArrayList<>(teams);
+        for (int rank = 1; rank <= others.size(); rank++) {
+            int index = others.get(rank - 1);
+            outcome.set(index, withRank(teams.get(index), rank));
+        }
+        return outcome;
+    }
+
+    private static List<TeamResult<Integer>> exclude(List<TeamResult<Integer>> teams, int team) {
+        List<TeamResult<Integer>> opponents = new ArrayList<>(teams);
+        opponents.remove(team);
+        return opponents;
+    }
+
+    private static TeamResult<Integer> withRank(TeamResult<Integer> team, int rank) {
+        return new SimpleTeamResult<>(team.mu(), team.sigma(), rank, team.players());
+    }
+
+    private static void assertClose(List<RatingAdjustment<Integer>> actual, List<RatingAdjustment<Integer>> expected) {
+        assertThat(actual).hasSameSizeAs(expected);
+        for (int i = 0; i < actual.size(); i++) {
+            assertThat(actual.get(i).playerId()).isEqualTo(expected.get(i).playerId());
+            assertThat(actual.get(i).mu()).isCloseTo(expected.get(i).mu(), within(1e-9));
+            assertThat(actual.get(i).sigma()).isCloseTo(expected.get(i).sigma(), within(1e-9));
+        }
+    }
+
+    private static List<TeamResult<Integer>> randomTeams(Random random, int count) {
+        List<TeamResult<Integer>> teams = new ArrayList<>();
+        int playerId = 0;
+        for (int team = 0; team < count; team++) {
+            List<SimplePlayerResult<Integer>> players = new ArrayList<>();
+            for (int player = 0; player < 3; player++) {
+                double mu = 20 + random.nextDouble() * 10;
+                players.add(new SimplePlayerResult<>(playerId++, mu, 2 + random.nextDouble() * 6));
+            }
+            double mu = players.stream().mapToDouble(SimplePlayerResult::mu).sum();
+            double sigma = Math.sqrt(players.stream().mapToDouble(SimplePlayerResult::sigmaSquared).sum());
+            teams.add(new SimpleTeamResult<>(mu, sigma, team + 1, players));
+        }
+        return teams;
+    }
+}
@@ -0,0 +1,106 @@
+package com.pocketcombats.openskill.balance;
+
+import com.pocketcombats.openskill.QualityEvaluator;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TeamBalancerTest {
+
+    private static final RatingModelConfig CONFIG = RatingModelConfig.builder().build();
+
+    @Test
+    public void testBeatsRandomSplits() {
+        Map<Integer, MatchMakingRating> ratings = roster(20, 1);
+        BalancedTeams<Integer> balanced = TeamBalancer.builder(CONFIG)
+                .setTimeBudget(Duration.ofMillis(50))
+                .build()
+                .balance(ratings);
+
+        assertThat(balanced.teams()).hasSize(2).allSatisfy(team -> assertThat(team).hasSize(10));
+        assertThat(balanced.teams().stream().flatMap(List::stream))
+                .containsExactlyInAnyOrderElementsOf(ratings.keySet());
+        assertThat(balanced.quality()).isGreaterThanOrEqualTo(bestRandomSplit(ratings, 500));
+        assertThat(Math.abs(balanced.teamRatings().get(0).mu() - balanced.teamRatings().get(1).mu())).isLessThan(1);
+    }
+
+    @Test
+    public void testInitialSplitIsBalanced() {
+        Map<Integer, MatchMakingRating> ratings = roster(20, 2);
+        BalancedTeams<Integer> balanced = TeamBalancer.builder(CONFIG)
+                .setTimeBudget(Duration.ZERO)
+                .build()
+                .balance(ratings);
+
+        assertThat(balanced.quality()).isGreaterThan(0.9);
+    }
+
+    @Test
+    public void testKeepsPartiesTogether() {
+        Map<Integer, MatchMakingRating> ratings = roster(12, 3);
+        List<List<Integer>> parties = List.of(List.of(0, 1, 2), List.of(3, 4), List.of(5, 6));
+        BalancedTeams<Integer> balanced = TeamBalancer.builder(CONFIG)
+                .setTeamCount(3)
+                .setTimeBudget(Duration.ofMillis(20))
+                .build()
+                .balance(ratings, parties);
+
+        assertThat(balanced.teams()).hasSize(3).allSatisfy(team -> assertThat(team).hasSize(4));
+        for (List<Integer> party : parties) {
+            assertThat(balanced.teams()).anySatisfy(team -> assertThat(team).containsAll(party));
+        }
+        assertThat(balanced.teamRatings()).hasSize(3);
+    }
+
+    @Test
+    public void testRejectsImpossibleSplits() {
+        TeamBalancer balancer = TeamBalancer.builder(CONFIG).build();
+
+        assertThatThrownBy(() -> balancer.balance(roster(7, 4)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> balancer.balance(roster(4, 4), List.of(List.of(0, 1, 2))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> balancer.balance(roster(4, 4), List.of(List.of(0, 9))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> balancer.balance(roster(6, 4), List.of(List.of(0, 1), List.of(2, 3), List.of(4, 5))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Parties do not fit");
+    }
+
+    private static Map<Integer, MatchMakingRating> roster(int size, long seed) {
+        Random random = new Random(seed);
+        Map<Integer, MatchMakingRating> ratings = new LinkedHashMap<>();
+        for (int id = 0; id < size; id++) {
+            ratings.put(id, new SimpleMatchMakingRating(25 + random.nextGaussian() * 8, 2 + random.nextDouble() * 5));
+        }
+        return ratings;
+    }
+
+    private static double bestRandomSplit(Map<Integer, MatchMakingRating> ratings, int attempts) {
+        DefaultTeamRatingAggregator aggregator = new DefaultTeamRatingAggregator(CONFIG);
+        QualityEvaluator evaluator = new QualityEvaluator(CONFIG);
+        List<MatchMakingRating> players = new ArrayList<>(ratings.values());
+        Random random = new Random(0);
+        double best = 0;
+        for (int attempt = 0; attempt < attempts; attempt++) {
+            Collections.shuffle(players, random);
+            MatchMakingRating a = aggregator.computeTeamRating(players.subList(0, players.size() / 2));
+            MatchMakingRating b = aggregator.computeTeamRating(players.subList(players.size() / 2, players.size()));
+            best = Math.max(best, a.mu() >= b.mu() ? evaluator.evaluateQuality(a, b) : evaluator.evaluateQuality(b, a));
+        }
+        return best;
+    }
+}
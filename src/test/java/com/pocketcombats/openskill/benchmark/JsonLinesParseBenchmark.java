@@ -0,0 +1,120 @@
+package com.pocketcombats.openskill.benchmark;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.pocketcombats.openskill.ingest.JsonLinesMatchParser;
+import com.pocketcombats.openskill.ingest.JsonLinesMatchReader;
+import com.pocketcombats.openskill.ingest.MatchBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding throughput, in matches per millisecond, of JSON lines match results with {@link JsonLinesMatchParser}
+ * compared to Jackson databind. Run with {@code -prof gc} to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonLinesParseBenchmark {
+
+    private static final int MATCHES = 50_000;
+
+    private byte[] json;
+    private final JsonLinesMatchParser parser = new JsonLinesMatchParser();
+    private final MatchBatch batch = new MatchBatch(1024);
+    private final ObjectReader jackson = new ObjectMapper().readerFor(JsonMatch.class);
+
+    public record JsonPlayer(long id, double weight, double mu, double sigma) {
+    }
+
+    public record JsonTeam(int rank, double weight, List<JsonPlayer> players) {
+    }
+
+    public record JsonMatch(long timestamp, List<JsonTeam> teams) {
+    }
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(1);
+        StringBuilder lines = new StringBuilder();
+        long timestamp = 1_700_000_000_000L;
+        for (int match = 0; match < MATCHES; match++) {
+            timestamp += random.nextInt(5_000);
+            lines.append("{\"timestamp\": ").append(timestamp).append(", \"teams\": [");
+            int teams = 2 + random.nextInt(3);
+            for (int team = 0; team < teams; team++) {
+                lines.append(team == 0 ? "" : ", ")
+                        .append("{\"rank\": ").append(team + 1).append(", \"weight\": 1.0, \"players\": [");
+                int players = 1 + random.nextInt(4);
+                for (int player = 0; player < players; player++) {
+                    lines.append(player == 0 ? "" : ", ")
+                            .append("{\"id\": ").append(random.nextInt(1_000_000))
+                            .append(", \"weight\": 1.0, \"mu\": ").append(25 + random.nextDouble() * 10 - 5)
+                            .append(", \"sigma\": ").append(2 + random.nextDouble() * 6)
+                            .append('}');
+                }
+                lines.append("]}");
+            }
+            lines.append("]}\n");
+        }
+        json = lines.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MATCHES)
+    public double parser() {
+        ByteBuffer buffer = ByteBuffer.wrap(json);
+        double checksum = 0;
+        while (buffer.hasRemaining()) {
+            batch.clear();
+            parser.parse(buffer, batch, true);
+            checksum += batch.playerMu(0);
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MATCHES)
+    public double reader() throws IOException {
+        JsonLinesMatchReader reader = new JsonLinesMatchReader(new ByteArrayInputStream(json));
+        double checksum = 0;
+        batch.clear();
+        while (reader.read(batch) >= 0) {
+            checksum += batch.playerMu(0);
+            batch.clear();
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MATCHES)
+    public void jacksonDatabind(Blackhole blackhole) throws IOException {
+        try (MappingIterator<JsonMatch> matches = jackson.readValues(json)) {
+            while (matches.hasNext()) {
+                blackhole.consume(matches.next());
+            }
+        }
+    }
+}
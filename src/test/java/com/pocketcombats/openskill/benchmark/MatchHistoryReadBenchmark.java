@@ -0,0 +1,151 @@
+package com.pocketcombats.openskill.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.PlayerRecord;
+import com.pocketcombats.openskill.data.TeamRecord;
+import com.pocketcombats.openskill.history.MatchCursor;
+import com.pocketcombats.openskill.history.MatchHistoryReader;
+import com.pocketcombats.openskill.history.MatchHistoryWriter;
+import com.pocketcombats.openskill.history.MatchLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replay read throughput, in matches per millisecond, of the columnar match history file compared to parsing the
+ * same matches from JSON lines with Jackson.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchHistoryReadBenchmark {
+
+    static final int MATCHES = 100_000;
+
+    private Path directory;
+    private Path historyFile;
+    private Path jsonFile;
+    private MatchHistoryReader reader;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("match-history");
+        historyFile = directory.resolve("matches.osmh");
+        jsonFile = directory.resolve("matches.jsonl");
+        List<MatchRecord<Long>> matches = randomMatches(new SplittableRandom(1), MATCHES);
+        MatchHistoryWriter.write(historyFile, matches);
+        try (BufferedWriter writer = Files.newBufferedWriter(jsonFile)) {
+            for (MatchRecord<Long> match : matches) {
+                writer.write(objectMapper.writeValueAsString(match));
+                writer.newLine();
+            }
+        }
+        reader = MatchHistoryReader.open(historyFile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        reader.close();
+        Files.deleteIfExists(historyFile);
+        Files.deleteIfExists(jsonFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MATCHES)
+    public long cursor() {
+        long checksum = 0;
+        MatchCursor cursor = reader.cursor();
+        while (cursor.next()) {
+            checksum += cursor.timestamp();
+            for (int team = 0; team < cursor.teamCount(); team++) {
+                checksum += cursor.rank(team);
+                for (int player = 0; player < cursor.playerCount(team); player++) {
+                    checksum += cursor.playerId(team, player);
+                }
+            }
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MATCHES)
+    public void records(Blackhole blackhole) {
+        reader.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MATCHES)
+    public MatchLog<Long> matchLog() {
+        return reader.toMatchLog();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MATCHES)
+    public void jacksonJsonLines(Blackhole blackhole) throws IOException {
+        try (BufferedReader lines = Files.newBufferedReader(jsonFile)) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                blackhole.consume(toMatchRecord(objectMapper.readTree(line)));
+            }
+        }
+    }
+
+    private static MatchRecord<Long> toMatchRecord(JsonNode match) {
+        List<TeamRecord<Long>> teams = new ArrayList<>();
+        for (JsonNode team : match.get("teams")) {
+            List<PlayerRecord<Long>> players = new ArrayList<>();
+            for (JsonNode player : team.get("players")) {
+                players.add(new PlayerRecord<>(player.get("id").asLong(), player.get("weight").asDouble()));
+            }
+            teams.add(new TeamRecord<>(team.get("rank").asInt(), team.get("weight").asDouble(), players));
+        }
+        return new MatchRecord<>(match.get("timestamp").asLong(), teams);
+    }
+
+    static List<MatchRecord<Long>> randomMatches(SplittableRandom random, int count) {
+        List<MatchRecord<Long>> matches = new ArrayList<>(count);
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < count; i++) {
+            timestamp += random.nextInt(5_000);
+            int teamCount = 2 + random.nextInt(3);
+            List<TeamRecord<Long>> teams = new ArrayList<>(teamCount);
+            for (int team = 0; team < teamCount; team++) {
+                int playerCount = 1 + random.nextInt(4);
+                List<PlayerRecord<Long>> players = new ArrayList<>(playerCount);
+                for (int player = 0; player < playerCount; player++) {
+                    players.add(new PlayerRecord<>((long) random.nextInt(1_000_000)));
+                }
+                teams.add(new TeamRecord<>(team + 1, players));
+            }
+            matches.add(new MatchRecord<>(timestamp, teams));
+        }
+        return matches;
+    }
+}
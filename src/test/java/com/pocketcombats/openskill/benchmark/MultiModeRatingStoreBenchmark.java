@@ -0,0 +1,89 @@
+package com.pocketcombats.openskill.benchmark;
+
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.model.PlackettLuce;
+import com.pocketcombats.openskill.store.InMemoryRatingStore;
+import com.pocketcombats.openskill.store.MultiModeRatingStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of a player's ratings in all four modes, in players per millisecond: one {@link MultiModeRatingStore}
+ * entry compared to a separate {@link InMemoryRatingStore} per mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultiModeRatingStoreBenchmark {
+
+    private static final int PLAYERS = 1_000_000;
+    private static final int LOOKUPS = 1_024;
+    private static final String[] MODES = {"solo", "duo", "squad", "arena"};
+
+    private MultiModeRatingStore<Integer> multiMode;
+    private final List<InMemoryRatingStore<Integer>> separate = new ArrayList<>();
+    private final int[] players = new int[LOOKUPS];
+
+    @Setup
+    public void setup() {
+        RatingModelConfig config = RatingModelConfig.builder().build();
+        MultiModeRatingStore.Builder<Integer> builder = MultiModeRatingStore.builder();
+        for (String mode : MODES) {
+            builder.addMode(mode, config, new PlackettLuce(config));
+            separate.add(new InMemoryRatingStore<>(25.0, 25.0 / 3));
+        }
+        multiMode = builder.build();
+
+        SplittableRandom random = new SplittableRandom(1);
+        for (int mode = 0; mode < MODES.length; mode++) {
+            List<RatingAdjustment<Integer>> adjustments = new ArrayList<>(PLAYERS);
+            for (int player = 0; player < PLAYERS; player++) {
+                adjustments.add(new RatingAdjustment<>(player, 15 + random.nextDouble() * 20, 1 + random.nextDouble()));
+            }
+            multiMode.modes().get(mode).apply(adjustments);
+            separate.get(mode).apply(adjustments);
+        }
+        for (int i = 0; i < LOOKUPS; i++) {
+            players[i] = random.nextInt(PLAYERS);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void multiMode(Blackhole blackhole) {
+        for (int player : players) {
+            blackhole.consume(multiMode.getAll(player));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void separateStores(Blackhole blackhole) {
+        for (int player : players) {
+            for (InMemoryRatingStore<Integer> store : separate) {
+                MatchMakingRating rating = store.get(player);
+                blackhole.consume(rating);
+            }
+        }
+    }
+}
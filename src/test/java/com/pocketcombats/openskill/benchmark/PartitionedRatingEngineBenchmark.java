@@ -0,0 +1,112 @@
+package com.pocketcombats.openskill.benchmark;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import com.pocketcombats.openskill.data.TeamRecord;
+import com.pocketcombats.openskill.model.ThurstoneMostellerFull;
+import com.pocketcombats.openskill.partition.InProcessTransport;
+import com.pocketcombats.openskill.partition.PartitionedRatingEngine;
+import com.pocketcombats.openskill.partition.Partitioner;
+import com.pocketcombats.openskill.partition.RatingPartition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link PartitionedRatingEngine} by partition count, with every partition served by its own thread.
+ * {@code localRatio} is the share of matches whose players all live in the same partition.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PartitionedRatingEngineBenchmark {
+
+    private static final int PLAYERS = 100_000;
+    private static final int MATCHES_PER_INVOCATION = 1_024;
+
+    @Param({"1", "2", "4", "8"})
+    public int partitions;
+
+    @Param({"0.9", "0.5"})
+    public double localRatio;
+
+    private InProcessTransport<Integer> transport;
+    private PartitionedRatingEngine<Integer> engine;
+    private List<MatchRecord<Integer>> matches;
+    private int offset;
+
+    @Setup
+    public void setup() {
+        RatingModelConfig config = RatingModelConfig.builder().build();
+        MatchRater<Integer> matchRater = new MatchRater<>(
+                config,
+                new ThurstoneMostellerFull(config),
+                new DefaultTeamRatingAggregator(config)
+        );
+        List<RatingPartition<Integer>> ratingPartitions = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            ratingPartitions.add(new RatingPartition<>(i, new SimpleMatchMakingRating(25.0, 25 / 3.0), matchRater));
+        }
+        transport = InProcessTransport.threadPerPartition(ratingPartitions);
+        engine = new PartitionedRatingEngine<>(partitions, Partitioner.hashing(), transport, matchRater);
+
+        List<List<Integer>> playersByPartition = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            playersByPartition.add(new ArrayList<>());
+        }
+        for (int playerId = 0; playerId < PLAYERS; playerId++) {
+            playersByPartition.get(engine.partitionOf(playerId)).add(playerId);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        matches = new ArrayList<>(MATCHES_PER_INVOCATION * 16);
+        for (int i = 0; i < MATCHES_PER_INVOCATION * 16; i++) {
+            List<Integer> home = playersByPartition.get(random.nextInt(partitions));
+            List<Integer> away = random.nextDouble() < localRatio
+                    ? home
+                    : playersByPartition.get(random.nextInt(partitions));
+            matches.add(MatchRecord.of(
+                    TeamRecord.of(1, home.get(random.nextInt(home.size()))),
+                    TeamRecord.of(2, away.get(random.nextInt(away.size())))
+            ));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        transport.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MATCHES_PER_INVOCATION)
+    public void rate() {
+        CompletableFuture<?>[] results = new CompletableFuture<?>[MATCHES_PER_INVOCATION];
+        int start = offset;
+        offset = (offset + MATCHES_PER_INVOCATION) % matches.size();
+        for (int i = 0; i < MATCHES_PER_INVOCATION; i++) {
+            results[i] = engine.rate(matches.get(start + i));
+        }
+        CompletableFuture.allOf(results).join();
+    }
+}
@@ -0,0 +1,111 @@
+package com.pocketcombats.openskill.benchmark;
+
+import com.pocketcombats.openskill.QualityEvaluator;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import com.pocketcombats.openskill.index.MatchCandidate;
+import com.pocketcombats.openskill.index.RatingIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opponent search in a population of 100 000 players, mostly established with a few newcomers,
+ * with {@link RatingIndex} against a linear scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RatingIndexBenchmark {
+
+    private static final int PLAYERS = 100_000;
+    private static final int QUERIES = 1024;
+
+    private final RatingModelConfig config = RatingModelConfig.builder().build();
+    private final QualityEvaluator qualityEvaluator = new QualityEvaluator(config);
+    private final RatingIndex<Integer> index = new RatingIndex<>(config);
+    private final MatchMakingRating[] population = new MatchMakingRating[PLAYERS];
+    private final MatchMakingRating[] queries = new MatchMakingRating[QUERIES];
+    private int next;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int id = 0; id < PLAYERS; id++) {
+            population[id] = randomRating(random);
+            index.put(id, population[id]);
+        }
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = randomRating(random);
+        }
+    }
+
+    private static MatchMakingRating randomRating(SplittableRandom random) {
+        double mu = 25 + (random.nextDouble() + random.nextDouble() + random.nextDouble() - 1.5) * 20;
+        double sigma = random.nextInt(10) == 0 ? 5 + random.nextDouble() * 3.3 : 0.8 + random.nextDouble() * 2;
+        return new SimpleMatchMakingRating(mu, sigma);
+    }
+
+    private MatchMakingRating nextQuery() {
+        return queries[next++ & (QUERIES - 1)];
+    }
+
+    @Benchmark
+    public int indexAcceptableRange() {
+        return index.withinAcceptableRange(nextQuery()).size();
+    }
+
+    @Benchmark
+    public int scanAcceptableRange() {
+        MatchMakingRating rating = nextQuery();
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 0; id < PLAYERS; id++) {
+            MatchMakingRating candidate = population[id];
+            if (Math.abs(candidate.mu() - rating.mu()) <= 3 * Math.max(candidate.sigma(), rating.sigma())) {
+                ids.add(id);
+            }
+        }
+        return ids.size();
+    }
+
+    @Benchmark
+    public List<MatchCandidate<Integer>> indexBestMatches() {
+        return index.bestMatches(nextQuery(), 10);
+    }
+
+    @Benchmark
+    public double scanBestMatches() {
+        MatchMakingRating rating = nextQuery();
+        double[] best = new double[10];
+        for (MatchMakingRating candidate : population) {
+            double quality = rating.mu() >= candidate.mu()
+                    ? qualityEvaluator.evaluateQuality(rating, candidate)
+                    : qualityEvaluator.evaluateQuality(candidate, rating);
+            // Keep the ten best in descending order
+            for (int i = 0; i < best.length; i++) {
+                if (quality > best[i]) {
+                    System.arraycopy(best, i, best, i + 1, best.length - i - 1);
+                    best[i] = quality;
+                    break;
+                }
+            }
+        }
+        return best[9];
+    }
+}
@@ -0,0 +1,185 @@
+package com.pocketcombats.openskill.benchmark;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.TeamResult;
+import com.pocketcombats.openskill.model.BradleyTerryFull;
+import com.pocketcombats.openskill.model.BradleyTerryPart;
+import com.pocketcombats.openskill.model.PlackettLuce;
+import com.pocketcombats.openskill.model.RatingModel;
+import com.pocketcombats.openskill.model.ThurstoneMostellerFull;
+import com.pocketcombats.openskill.model.ThurstoneMostellerPart;
+import com.pocketcombats.openskill.simulation.MatchShape;
+import com.pocketcombats.openskill.simulation.SyntheticMatchGenerator;
+import com.pocketcombats.openskill.simulation.SyntheticPopulation;
+import com.pocketcombats.openskill.store.InMemoryRatingStore;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.ThreadMXBean;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end soak run of the rating pipeline over a {@link SyntheticPopulation}: generated matches are resolved
+ * against an {@link InMemoryRatingStore}, rated and written back for a fixed duration. Unlike the JMH benchmarks it
+ * runs long enough over a large population to show sustained throughput, allocation rate, GC pauses and how fast
+ * the ratings converge to the hidden skills.
+ * <p>
+ * Run the {@code main} method with {@code key=value} arguments, for example
+ * {@code players=1000000 seconds=300 model=pl}. Every report line covers the interval since the previous one.
+ */
+public class RatingSoakBenchmark {
+
+    private static final double LOG_LOSS_EPSILON = 1e-15;
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected key=value argument: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        int players = Integer.parseInt(options.getOrDefault("players", "100000"));
+        long seconds = Long.parseLong(options.getOrDefault("seconds", "60"));
+        long reportSeconds = Long.parseLong(options.getOrDefault("report", "10"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        String modelName = options.getOrDefault("model", "tm");
+
+        RatingModelConfig config = RatingModelConfig.builder().build();
+        RatingModel model = model(modelName, config);
+        SyntheticPopulation population = SyntheticPopulation.builder(players)
+                .setParties(Double.parseDouble(options.getOrDefault("partyShare", "0.3")), 4)
+                .setSeed(seed)
+                .build();
+        SyntheticMatchGenerator generator = SyntheticMatchGenerator.builder(population, config)
+                .addShape(MatchShape.duel(), 0.5)
+                .addShape(MatchShape.teams(2, 5), 0.3)
+                .addShape(MatchShape.freeForAll(8), 0.2)
+                .setDrawMargin(Double.parseDouble(options.getOrDefault("drawMargin", "0.5")))
+                .setSeed(seed)
+                .build();
+        InMemoryRatingStore<Integer> store = new InMemoryRatingStore<>(25.0, 25.0 / 3);
+        MatchRater<Integer> matchRater = new MatchRater<>(config, model, new DefaultTeamRatingAggregator(config));
+
+        GcPauses pauses = new GcPauses();
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        System.out.printf(
+                "players=%d model=%s seconds=%d%n%8s %12s %10s %8s %10s %10s %9s %9s%n",
+                players, modelName, seconds,
+                "time,s", "matches/s", "alloc MB/s", "gc", "gc ms", "max gc ms", "log-loss", "spearman"
+        );
+
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        long intervalStart = start;
+        long intervalMatches = 0;
+        long intervalAllocated = threads.getCurrentThreadAllocatedBytes();
+        double logLoss = 0.0;
+        long predicted = 0;
+        pauses.reset();
+        while (true) {
+            MatchRecord<Integer> match = generator.next();
+            List<TeamResult<Integer>> teams = matchRater.toTeamResults(match, store::get);
+            if (teams.size() == 2 && teams.get(0).rank() != teams.get(1).rank()) {
+                double p = model.winProbability(teams.get(0), teams.get(1));
+                double outcome = teams.get(0).rank() < teams.get(1).rank() ? p : 1.0 - p;
+                // Models saturate to exactly 0 or 1 for lopsided team sums, clip so an upset costs a finite loss
+                logLoss -= Math.log(Math.max(outcome, LOG_LOSS_EPSILON));
+                predicted++;
+            }
+            store.apply(matchRater.adjudicator().rate(teams));
+            intervalMatches++;
+
+            if ((intervalMatches & 1023) != 0) {
+                continue;
+            }
+            long now = System.nanoTime();
+            if (now - intervalStart < reportSeconds * 1_000_000_000L && now < end) {
+                continue;
+            }
+            long allocated = threads.getCurrentThreadAllocatedBytes();
+            double elapsed = (now - intervalStart) / 1e9;
+            System.out.printf(
+                    "%8.1f %12.0f %10.1f %8d %10d %10d %9.4f %9.4f%n",
+                    (now - start) / 1e9,
+                    intervalMatches / elapsed,
+                    (allocated - intervalAllocated) / elapsed / (1024 * 1024),
+                    pauses.count.get(),
+                    pauses.totalMillis.get(),
+                    pauses.maxMillis.get(),
+                    predicted == 0 ? Double.NaN : logLoss / predicted,
+                    population.rankCorrelation(store::get)
+            );
+            if (now >= end) {
+                break;
+            }
+            // The correlation pass allocates too, start the next interval after it
+            intervalStart = System.nanoTime();
+            intervalAllocated = threads.getCurrentThreadAllocatedBytes();
+            intervalMatches = 0;
+            logLoss = 0.0;
+            predicted = 0;
+            pauses.reset();
+        }
+    }
+
+    private static RatingModel model(String name, RatingModelConfig config) {
+        return switch (name) {
+            case "tm" -> new ThurstoneMostellerFull(config);
+            case "bt" -> new BradleyTerryFull(config);
+            case "tmp" -> new ThurstoneMostellerPart(config);
+            case "btp" -> new BradleyTerryPart(config, 1);
+            case "pl" -> new PlackettLuce(config);
+            default -> throw new IllegalArgumentException("Unknown model, expected tm, bt, tmp, btp or pl: " + name);
+        };
+    }
+
+    /**
+     * Collects collection durations reported through GC notifications, the pauses for stop-the-world collectors.
+     */
+    private static final class GcPauses implements NotificationListener {
+
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalMillis = new AtomicLong();
+        private final AtomicLong maxMillis = new AtomicLong();
+
+        private GcPauses() {
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (collector instanceof NotificationEmitter emitter) {
+                    emitter.addNotificationListener(this, null, null);
+                }
+            }
+        }
+
+        private void reset() {
+            count.set(0);
+            totalMillis.set(0);
+            maxMillis.set(0);
+        }
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                return;
+            }
+            GarbageCollectionNotificationInfo info =
+                    GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            long duration = info.getGcInfo().getDuration();
+            count.incrementAndGet();
+            totalMillis.addAndGet(duration);
+            maxMillis.accumulateAndGet(duration, Math::max);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.pocketcombats.openskill.benchmark;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.TeamRecord;
+import com.pocketcombats.openskill.model.ThurstoneMostellerFull;
+import com.pocketcombats.openskill.store.InMemoryRatingStore;
+import com.pocketcombats.openskill.store.VersionedRatingStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention benchmark of optimistic match commits against a single lock guarding all ratings.
+ * Run {@link #main} to measure throughput with 1 to 64 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VersionedRatingStoreBenchmark {
+
+    /**
+     * Population size, small populations produce more conflicts.
+     */
+    @Param({"64", "100000"})
+    public int players;
+
+    private MatchRater<Integer> matchRater;
+    private VersionedRatingStore<Integer> versionedStore;
+    private InMemoryRatingStore<Integer> lockedStore;
+
+    @Setup
+    public void setup() {
+        RatingModelConfig config = RatingModelConfig.builder().build();
+        matchRater = new MatchRater<>(
+                config,
+                new ThurstoneMostellerFull(config),
+                new DefaultTeamRatingAggregator(config)
+        );
+        versionedStore = new VersionedRatingStore<>(25.0, 25 / 3.0);
+        lockedStore = new InMemoryRatingStore<>(25.0, 25 / 3.0);
+    }
+
+    @Benchmark
+    public Object optimisticCommit() {
+        return versionedStore.rate(randomMatch(), matchRater);
+    }
+
+    @Benchmark
+    public Object globalLock() {
+        MatchRecord<Integer> match = randomMatch();
+        synchronized (lockedStore) {
+            var adjustments = matchRater.rate(match, lockedStore::get);
+            lockedStore.apply(adjustments);
+            return adjustments;
+        }
+    }
+
+    private MatchRecord<Integer> randomMatch() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int a = random.nextInt(players);
+        int b = (a + 1 + random.nextInt(players - 1)) % players;
+        return MatchRecord.of(TeamRecord.of(1, a), TeamRecord.of(2, b));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            Options options = new OptionsBuilder()
+                    .include(VersionedRatingStoreBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
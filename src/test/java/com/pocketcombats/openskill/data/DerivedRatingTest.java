@@ -0,0 +1,87 @@
+package com.pocketcombats.openskill.data;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator;
+import com.pocketcombats.openskill.model.ThurstoneMostellerFull;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DerivedRatingTest {
+
+    @Test
+    public void testCachesDerivedValues() {
+        RatingModelConfig config = RatingModelConfig.builder()
+                .setTau(0.5)
+                .setZ(2)
+                .setAlpha(2)
+                .setTarget(10)
+                .build();
+        RatingDerivation derivation = RatingDerivation.of(config);
+        DerivedRating rating = derivation.derive(30, 4);
+
+        assertThat(rating.sigmaSquared()).isEqualTo(16);
+        assertThat(rating.adjustedSigmaSquared()).isEqualTo(16.25);
+        assertThat(rating.adjustedSigma()).isEqualTo(Math.sqrt(16.25));
+        assertThat(rating.ordinal()).isEqualTo(2 * (30 - 2 * 4) + 5);
+        assertThat(derivation.derive(rating)).isSameAs(rating);
+
+        DerivedRating next = rating.next(new RatingAdjustment<>(1, 31, 3));
+        assertThat(next.derivation()).isSameAs(derivation);
+        assertThat(next.ordinal()).isEqualTo(2 * (31 - 2 * 3) + 5);
+    }
+
+    @Test
+    public void testOtherDerivationRecomputes() {
+        DerivedRating rating = RatingDerivation.of(RatingModelConfig.builder().setTau(1).build()).derive(25, 3);
+        RatingDerivation other = RatingDerivation.of(RatingModelConfig.builder().setTau(2).build());
+
+        assertThat(other.adjustedSigmaSquared(rating)).isEqualTo(13);
+        assertThat(other.derive(rating)).isNotSameAs(rating).isEqualTo(other.derive(25, 3));
+    }
+
+    @Test
+    public void testRatingMatchesPlainRatings() {
+        RatingModelConfig config = RatingModelConfig.builder()
+                .setBalance(true)
+                .setLimitSigma(true)
+                .build();
+        RatingDerivation derivation = RatingDerivation.of(config);
+        MatchRater<Long> rater = new MatchRater<>(
+                config,
+                new ThurstoneMostellerFull(config),
+                new DefaultTeamRatingAggregator(config)
+        );
+        SplittableRandom random = new SplittableRandom(3);
+        Map<Long, DerivedRating> derived = new HashMap<>();
+        Map<Long, MatchMakingRating> plain = new HashMap<>();
+        for (long id = 0; id < 50; id++) {
+            DerivedRating rating = derivation.derive(20 + random.nextDouble() * 10, 2 + random.nextDouble() * 6);
+            derived.put(id, rating);
+            plain.put(id, new SimpleMatchMakingRating(rating.mu(), rating.sigma()));
+        }
+
+        for (int i = 0; i < 200; i++) {
+            MatchRecord<Long> match = new MatchRecord<>(i, List.of(
+                    new TeamRecord<>(1, List.of(new PlayerRecord<>(random.nextLong(25), 1.0),
+                            new PlayerRecord<>(25 + random.nextLong(25), 0.5))),
+                    new TeamRecord<>(2, List.of(new PlayerRecord<>(random.nextLong(25), 1.0),
+                            new PlayerRecord<>(25 + random.nextLong(25), 1.5)))
+            ));
+            List<RatingAdjustment<Long>> expected = rater.rate(match, plain::get);
+            List<RatingAdjustment<Long>> actual = rater.rate(match, derived::get);
+
+            assertThat(actual).isEqualTo(expected);
+            for (RatingAdjustment<Long> adjustment : actual) {
+                derived.put(adjustment.playerId(), derived.get(adjustment.playerId()).next(adjustment));
+                plain.put(adjustment.playerId(), adjustment);
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.pocketcombats.openskill.feed;
+
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import com.pocketcombats.openskill.store.InMemoryRatingStore;
+import com.pocketcombats.openskill.store.RatingStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RatingChangeFeedTest {
+
+    @Test
+    public void testDeliversToEverySubscriber() throws Exception {
+        RatingChangeFeed<Integer> feed = new RatingChangeFeed<>(Runnable::run);
+        RecordingSubscriber first = new RecordingSubscriber(Long.MAX_VALUE);
+        RecordingSubscriber second = new RecordingSubscriber(Long.MAX_VALUE);
+        feed.subscribe(first);
+        feed.subscribe(second);
+
+        feed.publish(List.of(adjustment(1, 26.0), adjustment(2, 24.0)));
+        feed.publish(List.of(adjustment(1, 27.0)));
+        feed.close();
+
+        for (RecordingSubscriber subscriber : List.of(first, second)) {
+            assertThat(subscriber.done.get(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(subscriber.received)
+                    .containsExactly(adjustment(1, 26.0), adjustment(2, 24.0), adjustment(1, 27.0));
+        }
+        assertThat(feed.subscriberCount()).isZero();
+        assertThat(feed.publishedCount()).isEqualTo(3);
+        assertThat(feed.coalescedCount()).isZero();
+    }
+
+    @Test
+    public void testCoalescesForSlowSubscriber() throws Exception {
+        RatingChangeFeed<Integer> feed = new RatingChangeFeed<>(Runnable::run);
+        RecordingSubscriber slow = new RecordingSubscriber(0);
+        feed.subscribe(slow);
+
+        for (int round = 0; round < 100; round++) {
+            List<RatingAdjustment<Integer>> batch = new ArrayList<>();
+            for (int player = 0; player < 10; player++) {
+                batch.add(adjustment(player, round));
+            }
+            feed.publish(batch);
+        }
+        assertThat(slow.received).isEmpty();
+        assertThat(feed.coalescedCount()).isEqualTo(990);
+
+        slow.subscription.request(3);
+        assertThat(slow.received).containsExactly(adjustment(0, 99), adjustment(1, 99), adjustment(2, 99));
+
+        feed.publish(List.of(adjustment(5, 100.0), adjustment(42, 1.0)));
+        feed.close();
+        assertThat(slow.done).isNotDone();
+        slow.subscription.request(Long.MAX_VALUE);
+        assertThat(slow.done.get(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(slow.received.subList(3, slow.received.size())).containsExactly(
+                adjustment(3, 99), adjustment(4, 99), adjustment(5, 100.0), adjustment(6, 99),
+                adjustment(7, 99), adjustment(8, 99), adjustment(9, 99), adjustment(42, 1.0)
+        );
+    }
+
+    @Test
+    public void testCancelAndInvalidRequest() throws Exception {
+        RatingChangeFeed<Integer> feed = new RatingChangeFeed<>(Runnable::run);
+        RecordingSubscriber cancelled = new RecordingSubscriber(Long.MAX_VALUE);
+        RecordingSubscriber invalid = new RecordingSubscriber(0);
+        feed.subscribe(cancelled);
+        feed.subscribe(invalid);
+
+        cancelled.subscription.cancel();
+        invalid.subscription.request(0);
+        feed.publish(List.of(adjustment(1, 26.0)));
+
+        assertThat(cancelled.received).isEmpty();
+        assertThat(cancelled.done).isNotDone();
+        assertThat(invalid.done.get(1, TimeUnit.SECONDS)).isFalse();
+        assertThat(invalid.error).isInstanceOf(IllegalArgumentException.class);
+        assertThat(feed.subscriberCount()).isZero();
+    }
+
+    @Test
+    public void testTapPublishesAppliedAdjustmentsAcrossThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            RatingChangeFeed<Integer> feed = new RatingChangeFeed<>(executor);
+            RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+            feed.subscribe(subscriber);
+            InMemoryRatingStore<Integer> store = new InMemoryRatingStore<>(25.0, 25.0 / 3);
+            RatingStore<Integer> tapped = feed.tap(store);
+
+            for (int player = 0; player < 1_000; player++) {
+                tapped.apply(List.of(adjustment(player, player)));
+            }
+            feed.close();
+
+            assertThat(subscriber.done.get(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(store.get(999).mu()).isEqualTo(999.0);
+            assertThat(subscriber.received).hasSize(1_000);
+            for (int player = 0; player < 1_000; player++) {
+                assertThat(subscriber.received.get(player)).isEqualTo(adjustment(player, player));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testThrowingSubscribersAreDropped() throws Exception {
+        RatingChangeFeed<Integer> feed = new RatingChangeFeed<>(Runnable::run);
+        feed.subscribe(new RecordingSubscriber(Long.MAX_VALUE) {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                throw new IllegalStateException("onSubscribe");
+            }
+        });
+        RecordingSubscriber throwingOnError = new RecordingSubscriber(0) {
+            @Override
+            public void onError(Throwable throwable) {
+                super.onError(throwable);
+                throw new IllegalStateException("onError");
+            }
+        };
+        feed.subscribe(throwingOnError);
+        RecordingSubscriber throwingOnComplete = new RecordingSubscriber(Long.MAX_VALUE) {
+            @Override
+            public void onComplete() {
+                super.onComplete();
+                throw new IllegalStateException("onComplete");
+            }
+        };
+        feed.subscribe(throwingOnComplete);
+        RecordingSubscriber healthy = new RecordingSubscriber(Long.MAX_VALUE);
+        feed.subscribe(healthy);
+        assertThat(feed.subscriberCount()).isEqualTo(3);
+        assertThat(feed.failedSubscriberCount()).isEqualTo(1);
+
+        throwingOnError.subscription.request(0);
+        assertThat(throwingOnError.done.get(1, TimeUnit.SECONDS)).isFalse();
+        // The subscription keeps draining after the failed signal
+        throwingOnError.subscription.request(1);
+        feed.publish(List.of(adjustment(1, 26.0)));
+        feed.close();
+
+        assertThat(throwingOnComplete.done.get(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(healthy.done.get(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(healthy.received).containsExactly(adjustment(1, 26.0));
+        assertThat(throwingOnError.received).isEmpty();
+        assertThat(feed.failedSubscriberCount()).isEqualTo(3);
+        assertThat(feed.subscriberCount()).isZero();
+    }
+
+    @Test
+    public void testEncodedSubscriptionsDecodeIndependently() {
+        RatingChangeFeed<Long> feed = new RatingChangeFeed<>(Runnable::run);
+        SimpleMatchMakingRating initial = new SimpleMatchMakingRating(25.0, 25.0 / 3);
+        Flow.Publisher<byte[]> encoded = RatingChangeFeed.encoded(feed, () -> new RatingDeltaEncoder(initial), 2);
+        List<byte[]> fast = new ArrayList<>();
+        List<byte[]> slow = new ArrayList<>();
+        List<Flow.Subscription> subscriptions = new ArrayList<>();
+        for (List<byte[]> frames : List.of(fast, slow)) {
+            encoded.subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscriptions.add(subscription);
+                }
+
+                @Override
+                public void onNext(byte[] frame) {
+                    frames.add(frame);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+        }
+        subscriptions.get(0).request(Long.MAX_VALUE);
+
+        feed.publish(List.of(new RatingAdjustment<>(1L, 26.0, 8.0), new RatingAdjustment<>(2L, 24.0, 8.0)));
+        feed.publish(List.of(new RatingAdjustment<>(1L, 27.0, 7.0), new RatingAdjustment<>(3L, 25.0, 7.0)));
+        subscriptions.get(1).request(2);
+
+        RatingDeltaDecoder fastDecoder = new RatingDeltaDecoder(initial);
+        assertThat(fast).hasSize(2);
+        assertThat(fastDecoder.decode(fast.get(0))).containsExactly(
+                new RatingAdjustment<>(1L, 26.0, 8.0), new RatingAdjustment<>(2L, 24.0, 8.0)
+        );
+        assertThat(fastDecoder.decode(fast.get(1))).containsExactly(
+                new RatingAdjustment<>(1L, 27.0, 7.0), new RatingAdjustment<>(3L, 25.0, 7.0)
+        );
+        // The slow subscriber only receives the latest change of player 1, encoded against its own stream
+        RatingDeltaDecoder slowDecoder = new RatingDeltaDecoder(initial);
+        assertThat(slow).hasSize(2);
+        assertThat(slowDecoder.decode(slow.get(0))).containsExactly(
+                new RatingAdjustment<>(1L, 27.0, 7.0), new RatingAdjustment<>(2L, 24.0, 8.0)
+        );
+        assertThat(slowDecoder.decode(slow.get(1))).containsExactly(new RatingAdjustment<>(3L, 25.0, 7.0));
+    }
+
+    private static RatingAdjustment<Integer> adjustment(int player, double mu) {
+        return new RatingAdjustment<>(player, mu, 5.0);
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<RatingAdjustment<Integer>> {
+
+        private final long initialRequest;
+        private final List<RatingAdjustment<Integer>> received = new ArrayList<>();
+        // Completes with true on completion and false on error
+        private final CompletableFuture<Boolean> done = new CompletableFuture<>();
+        private volatile Flow.Subscription subscription;
+        private volatile Throwable error;
+
+        private RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(RatingAdjustment<Integer> item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.complete(false);
+        }
+
+        @Override
+        public void onComplete() {
+            done.complete(true);
+        }
+    }
+}
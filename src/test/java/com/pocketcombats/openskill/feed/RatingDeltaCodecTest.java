@@ -0,0 +1,106 @@
+package com.pocketcombats.openskill.feed;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import com.pocketcombats.openskill.data.TeamRecord;
+import com.pocketcombats.openskill.model.PlackettLuce;
+import com.pocketcombats.openskill.store.InMemoryRatingStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RatingDeltaCodecTest {
+
+    private static final SimpleMatchMakingRating INITIAL = new SimpleMatchMakingRating(25.0, 25.0 / 3);
+
+    @Test
+    public void testRoundTripsRatedMatches() {
+        RatingModelConfig config = RatingModelConfig.builder().build();
+        MatchRater<Long> matchRater =
+                new MatchRater<>(config, new PlackettLuce(config), new DefaultTeamRatingAggregator(config));
+        InMemoryRatingStore<Long> store = new InMemoryRatingStore<>(INITIAL);
+        RatingDeltaEncoder encoder = new RatingDeltaEncoder(INITIAL);
+        RatingDeltaDecoder decoder = new RatingDeltaDecoder(INITIAL);
+        SplittableRandom random = new SplittableRandom(1);
+
+        long encodedBytes = 0;
+        long changes = 0;
+        for (int frame = 0; frame < 500; frame++) {
+            List<RatingAdjustment<Long>> batch = new ArrayList<>();
+            for (int match = 0; match < 20; match++) {
+                long a = 1_000_000L + random.nextInt(500);
+                long b = 1_000_000L + (a - 1_000_000L + 1 + random.nextInt(499)) % 500;
+                List<RatingAdjustment<Long>> adjustments =
+                        matchRater.rate(MatchRecord.of(TeamRecord.of(1, a), TeamRecord.of(2, b)), store::get);
+                store.apply(adjustments);
+                batch.addAll(adjustments);
+            }
+            byte[] encoded = encoder.encode(batch);
+            assertThat(decoder.decode(encoded)).isEqualTo(batch);
+            encodedBytes += encoded.length;
+            changes += batch.size();
+        }
+
+        assertThat(encoder.playerCount()).isEqualTo(500);
+        // Raw id, mu and sigma take 24 bytes per change
+        assertThat((double) encodedBytes / changes).isLessThan(18.0);
+    }
+
+    @Test
+    public void testRoundTripsArbitraryValues() {
+        RatingDeltaEncoder encoder = new RatingDeltaEncoder(INITIAL);
+        RatingDeltaDecoder decoder = new RatingDeltaDecoder(INITIAL);
+        List<RatingAdjustment<Long>> batch = List.of(
+                new RatingAdjustment<>(Long.MIN_VALUE, 25.0, 25.0 / 3),
+                new RatingAdjustment<>(Long.MAX_VALUE, -0.0, Double.NaN),
+                new RatingAdjustment<>(0L, Double.NEGATIVE_INFINITY, Double.MIN_VALUE),
+                new RatingAdjustment<>(0L, 1e300, 0.0)
+        );
+
+        assertThat(decoder.decode(encoder.encode(batch))).isEqualTo(batch);
+        assertThat(decoder.decode(encoder.encode(List.of()))).isEmpty();
+        // Unchanged values take no bytes
+        assertThat(encoder.encode(List.of(new RatingAdjustment<>(0L, 1e300, 0.0)))).hasSize(3);
+    }
+
+    @Test
+    public void testKeyframesBoundRememberedPlayers() {
+        RatingDeltaEncoder encoder = new RatingDeltaEncoder(INITIAL, 4);
+        RatingDeltaDecoder decoder = new RatingDeltaDecoder(INITIAL);
+        for (long frame = 0; frame < 20; frame++) {
+            List<RatingAdjustment<Long>> batch = List.of(
+                    new RatingAdjustment<>(frame * 10, 26.0, 8.0),
+                    new RatingAdjustment<>(frame * 10 + 1, 24.0 + frame, 8.0)
+            );
+            assertThat(decoder.decode(encoder.encode(batch))).isEqualTo(batch);
+            assertThat(encoder.playerCount()).isLessThanOrEqualTo(8);
+        }
+
+        // A receiver joining after a reset decodes from the keyframe on
+        encoder.reset();
+        List<RatingAdjustment<Long>> batch = List.of(new RatingAdjustment<>(7L, 30.0, 5.0));
+        assertThat(new RatingDeltaDecoder(INITIAL).decode(encoder.encode(batch))).isEqualTo(batch);
+        assertThat(encoder.playerCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRejectsMalformedFrames() {
+        RatingDeltaEncoder encoder = new RatingDeltaEncoder(INITIAL);
+        byte[] encoded = encoder.encode(List.of(new RatingAdjustment<>(7L, 26.0, 8.0)));
+
+        assertThatThrownBy(() -> new RatingDeltaDecoder(INITIAL).decode(Arrays.copyOf(encoded, encoded.length - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RatingDeltaDecoder(INITIAL).decode(Arrays.copyOf(encoded, encoded.length + 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
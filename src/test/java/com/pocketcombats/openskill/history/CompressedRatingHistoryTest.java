@@ -0,0 +1,140 @@
+package com.pocketcombats.openskill.history;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.TeamRecord;
+import com.pocketcombats.openskill.model.PlackettLuce;
+import com.pocketcombats.openskill.store.InMemoryRatingStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompressedRatingHistoryTest {
+
+    @Test
+    public void testQueriesMatchUncompressedPoints() {
+        SplittableRandom random = new SplittableRandom(1);
+        RatingTimeSeries series = new RatingTimeSeries();
+        List<RatingPoint> points = new ArrayList<>();
+        long timestamp = -1_000;
+        double mu = 25.0;
+        double sigma = 25.0 / 3;
+        for (int i = 0; i < 2_000; i++) {
+            // Regular intervals, repeated timestamps, jitter and long gaps
+            timestamp += switch (random.nextInt(5)) {
+                case 0 -> 60;
+                case 1 -> 0;
+                case 2 -> random.nextInt(300);
+                case 3 -> random.nextInt(100_000);
+                default -> random.nextLong(1L << 40);
+            };
+            switch (random.nextInt(4)) {
+                case 0 -> mu += random.nextDouble() - 0.5;
+                case 1 -> sigma *= 0.99;
+                case 2 -> {
+                    mu = random.nextInt(50);
+                    sigma = -0.0;
+                }
+                default -> {
+                }
+            }
+            series.append(timestamp, mu, sigma);
+            points.add(new RatingPoint(timestamp, mu, sigma));
+        }
+
+        assertThat(series.size()).isEqualTo(points.size());
+        assertThat(series.last()).isEqualTo(points.get(points.size() - 1));
+        assertThat(series.range(Long.MIN_VALUE, Long.MAX_VALUE)).isEqualTo(points);
+        for (int query = 0; query < 2_000; query++) {
+            RatingPoint reference = points.get(random.nextInt(points.size()));
+            long at = reference.timestamp() + random.nextInt(3) - 1;
+            assertThat(series.asOf(at)).isEqualTo(expectedAsOf(points, at));
+
+            long to = at + random.nextLong(1L << random.nextInt(42));
+            assertThat(series.range(at, to)).isEqualTo(points.stream()
+                    .filter(point -> point.timestamp() >= at && point.timestamp() < to)
+                    .toList());
+        }
+        assertThat(series.asOf(points.get(0).timestamp() - 1)).isNull();
+    }
+
+    @Test
+    public void testRecordsAdjudicatorOutput() {
+        RatingModelConfig config = RatingModelConfig.builder().build();
+        MatchRater<Integer> matchRater =
+                new MatchRater<>(config, new PlackettLuce(config), new DefaultTeamRatingAggregator(config));
+        InMemoryRatingStore<Integer> store = new InMemoryRatingStore<>(25.0, 25.0 / 3);
+        CompressedRatingHistory<Integer> history = new CompressedRatingHistory<>();
+        SplittableRandom random = new SplittableRandom(2);
+        List<RatingAdjustment<Integer>> playerZero = new ArrayList<>();
+        List<Long> playerZeroTimes = new ArrayList<>();
+
+        long timestamp = 1_700_000_000L;
+        for (int match = 0; match < 20_000; match++) {
+            timestamp += 1 + random.nextInt(30);
+            int a = random.nextInt(100);
+            int b = (a + 1 + random.nextInt(99)) % 100;
+            List<RatingAdjustment<Integer>> adjustments =
+                    matchRater.rate(MatchRecord.of(TeamRecord.of(1, a), TeamRecord.of(2, b)), store::get);
+            store.apply(adjustments);
+            history.record(timestamp, adjustments);
+            for (RatingAdjustment<Integer> adjustment : adjustments) {
+                if (adjustment.playerId() == 0) {
+                    playerZero.add(adjustment);
+                    playerZeroTimes.add(timestamp);
+                }
+            }
+        }
+
+        assertThat(history.playerCount()).isEqualTo(100);
+        assertThat(history.pointCount()).isEqualTo(40_000);
+        // Timestamp, mu and sigma take 24 bytes per point uncompressed
+        history.trimToSize();
+        assertThat(history.sizeInBytes()).isLessThan(40_000 * 24 * 3 / 4);
+        for (int i = 0; i < playerZero.size(); i++) {
+            RatingPoint point = history.asOf(0, playerZeroTimes.get(i));
+            assertThat(point.mu()).isEqualTo(playerZero.get(i).mu());
+            assertThat(point.sigma()).isEqualTo(playerZero.get(i).sigma());
+        }
+        assertThat(history.range(0, playerZeroTimes.get(0), playerZeroTimes.get(10))).hasSize(10);
+        assertThat(history.asOf(0, 0)).isNull();
+        assertThat(history.asOf(1_000, timestamp)).isNull();
+        assertThat(history.range(1_000, 0, timestamp)).isEmpty();
+    }
+
+    @Test
+    public void testRejectsOutOfOrderPoints() {
+        RatingTimeSeries series = new RatingTimeSeries();
+        series.append(10, 25.0, 8.0);
+        series.append(10, 26.0, 7.9);
+
+        assertThatThrownBy(() -> series.append(9, 27.0, 7.8)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(series.size()).isEqualTo(2);
+        assertThat(series.asOf(10)).isEqualTo(new RatingPoint(10, 26.0, 7.9));
+        assertThat(series.range(10, 11)).hasSize(2);
+
+        series.trimToSize();
+        series.append(12, 27.0, 7.8);
+        assertThat(series.asOf(11)).isEqualTo(new RatingPoint(10, 26.0, 7.9));
+        assertThat(series.last()).isEqualTo(new RatingPoint(12, 27.0, 7.8));
+    }
+
+    private static RatingPoint expectedAsOf(List<RatingPoint> points, long timestamp) {
+        RatingPoint found = null;
+        for (RatingPoint point : points) {
+            if (point.timestamp() > timestamp) {
+                break;
+            }
+            found = point;
+        }
+        return found;
+    }
+}
@@ -0,0 +1,141 @@
+package com.pocketcombats.openskill.history;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.PlayerRecord;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import com.pocketcombats.openskill.data.TeamRecord;
+import com.pocketcombats.openskill.model.ThurstoneMostellerFull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class IncrementalRatingHistoryTest {
+
+    private static final int PLAYERS = 30;
+
+    private final RatingModelConfig config = RatingModelConfig.builder().build();
+    private final MatchRater<Integer> matchRater = new MatchRater<>(
+            config,
+            new ThurstoneMostellerFull(config),
+            new DefaultTeamRatingAggregator(config)
+    );
+    private final SimpleMatchMakingRating initialRating = new SimpleMatchMakingRating(25.0, 25 / 3.0);
+
+    @Test
+    public void testVoidWithZeroToleranceEqualsFullReplay() {
+        List<MatchRecord<Integer>> matches = randomMatches(500);
+        IncrementalRatingHistory<Integer> history = history(matches, 0);
+
+        ReRatingReport<Integer> report = history.voidMatch(250);
+
+        List<MatchRecord<Integer>> replayed = new ArrayList<>(matches);
+        replayed.remove(250);
+        IncrementalRatingHistory<Integer> expected = history(replayed, 0);
+        for (int playerId = 0; playerId < PLAYERS; playerId++) {
+            assertThat(history.rating(playerId)).isEqualTo(expected.rating(playerId));
+        }
+        assertThat(history.adjustments(250)).isEmpty();
+        assertThat(report.recomputedMatches()).isLessThanOrEqualTo(251);
+        assertThat(report.changedPlayers()).isNotEmpty();
+    }
+
+    @Test
+    public void testCorrectionWithZeroToleranceEqualsFullReplay() {
+        List<MatchRecord<Integer>> matches = randomMatches(300);
+        IncrementalRatingHistory<Integer> history = history(matches, 0);
+        MatchRecord<Integer> original = matches.get(100);
+        MatchRecord<Integer> corrected = MatchRecord.of(
+                new TeamRecord<>(2, original.teams().get(0).players()),
+                new TeamRecord<>(1, original.teams().get(1).players())
+        );
+
+        history.correctMatch(100, corrected);
+
+        List<MatchRecord<Integer>> replayed = new ArrayList<>(matches);
+        replayed.set(100, corrected);
+        IncrementalRatingHistory<Integer> expected = history(replayed, 0);
+        for (int playerId = 0; playerId < PLAYERS; playerId++) {
+            assertThat(history.rating(playerId)).isEqualTo(expected.rating(playerId));
+        }
+    }
+
+    @Test
+    public void testToleranceStopsPropagation() {
+        List<MatchRecord<Integer>> matches = randomMatches(1_000, 3_000);
+        IncrementalRatingHistory<Integer> exact = history(matches, 0);
+        IncrementalRatingHistory<Integer> approximate = history(matches, 0.01);
+
+        ReRatingReport<Integer> exactReport = exact.voidMatch(10);
+        ReRatingReport<Integer> approximateReport = approximate.voidMatch(10);
+
+        // Only the matches reachable through the voided match players are revisited
+        assertThat(exactReport.visitedMatches()).isLessThan(matches.size() - 10);
+        assertThat(approximateReport.recomputedMatches()).isLessThan(exactReport.recomputedMatches() / 2);
+        for (int playerId = 0; playerId < 1_000; playerId++) {
+            assertThat(approximate.rating(playerId).mu()).isCloseTo(exact.rating(playerId).mu(), within(0.05));
+        }
+    }
+
+    @Test
+    public void testRepeatedSmallCorrectionsDoNotDrift() {
+        List<MatchRecord<Integer>> matches = randomMatches(1_000, 3_000);
+        IncrementalRatingHistory<Integer> approximate = history(matches, 0.01);
+        MatchRecord<Integer> original = matches.get(10);
+        Integer firstPlayer = original.teams().get(0).players().get(0).id();
+        List<MatchRecord<Integer>> corrected = new ArrayList<>(matches);
+        // Every correction alone moves the ratings by less than the tolerance
+        for (int edit = 1; edit <= 100; edit++) {
+            double weight = 1.0 + edit * 0.002;
+            MatchRecord<Integer> match = MatchRecord.of(
+                    new TeamRecord<>(1, List.of(new PlayerRecord<>(firstPlayer, weight))),
+                    original.teams().get(1)
+            );
+            approximate.correctMatch(10, match);
+            corrected.set(10, match);
+        }
+
+        IncrementalRatingHistory<Integer> expected = history(corrected, 0);
+        for (int playerId = 0; playerId < 1_000; playerId++) {
+            assertThat(approximate.rating(playerId).mu()).isCloseTo(expected.rating(playerId).mu(), within(0.05));
+        }
+    }
+
+    @Test
+    public void testCorrectionMustKeepPlayers() {
+        IncrementalRatingHistory<Integer> history = history(randomMatches(10), 0);
+        MatchRecord<Integer> otherPlayers = MatchRecord.of(TeamRecord.of(1, 1000), TeamRecord.of(2, 1001));
+        assertThatThrownBy(() -> history.correctMatch(5, otherPlayers))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private IncrementalRatingHistory<Integer> history(List<MatchRecord<Integer>> matches, double tolerance) {
+        IncrementalRatingHistory<Integer> history =
+                new IncrementalRatingHistory<>(matchRater, initialRating, tolerance);
+        matches.forEach(history::append);
+        return history;
+    }
+
+    private static List<MatchRecord<Integer>> randomMatches(int count) {
+        return randomMatches(PLAYERS, count);
+    }
+
+    private static List<MatchRecord<Integer>> randomMatches(int players, int count) {
+        Random random = new Random(3);
+        List<MatchRecord<Integer>> matches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int a = random.nextInt(players);
+            int b = (a + 1 + random.nextInt(players - 1)) % players;
+            matches.add(MatchRecord.of(TeamRecord.of(1, a), TeamRecord.of(2, b)));
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,141 @@
+package com.pocketcombats.openskill.history;
+
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.PlayerRecord;
+import com.pocketcombats.openskill.data.TeamRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MatchHistoryFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testRoundTripAcrossBlocks() throws IOException {
+        List<MatchRecord<Long>> matches = randomMatches(new Random(1), 1000);
+        Path file = directory.resolve("history.osmh");
+        try (MatchHistoryWriter writer = MatchHistoryWriter.create(file, 64)) {
+            for (MatchRecord<Long> match : matches) {
+                writer.add(match);
+            }
+        }
+
+        List<MatchRecord<Long>> read = new ArrayList<>();
+        try (MatchHistoryReader reader = MatchHistoryReader.open(file)) {
+            assertThat(reader.matchCount()).isEqualTo(1000);
+            assertThat(reader.blockCount()).isEqualTo(16);
+            reader.forEach(read::add);
+        }
+        assertThat(read).isEqualTo(matches);
+    }
+
+    @Test
+    public void testConvertsMatchLog() throws IOException {
+        MatchLog<Long> log = MatchLog.of(randomMatches(new Random(2), 300));
+        Path file = directory.resolve("log.osmh");
+        MatchHistoryWriter.write(file, log);
+
+        MatchLog<Long> read = MatchHistoryReader.readLog(file);
+        assertThat(read.matchCount()).isEqualTo(log.matchCount());
+        for (int match = 0; match < log.matchCount(); match++) {
+            assertThat(read.match(match)).isEqualTo(log.match(match));
+        }
+    }
+
+    @Test
+    public void testCursorOverBlockRange() throws IOException {
+        List<MatchRecord<Long>> matches = randomMatches(new Random(3), 100);
+        Path file = directory.resolve("range.osmh");
+        try (MatchHistoryWriter writer = MatchHistoryWriter.create(file, 10)) {
+            for (MatchRecord<Long> match : matches) {
+                writer.add(match);
+            }
+        }
+
+        try (MatchHistoryReader reader = MatchHistoryReader.open(file)) {
+            MatchCursor cursor = reader.cursor(3, 5);
+            List<MatchRecord<Long>> read = new ArrayList<>();
+            while (cursor.next()) {
+                read.add(cursor.toMatchRecord());
+            }
+            assertThat(read).isEqualTo(matches.subList(30, 50));
+            assertThat(cursor.next()).isFalse();
+        }
+    }
+
+    @Test
+    public void testDeltaEncodingIsCompact() throws IOException {
+        // Sequential ids, second resolution timestamps, unit weights
+        List<MatchRecord<Long>> matches = new ArrayList<>();
+        for (long i = 0; i < 10_000; i++) {
+            matches.add(new MatchRecord<>(1_700_000_000_000L + i * 1000, List.of(
+                    new TeamRecord<>(1, List.of(new PlayerRecord<>(i * 2), new PlayerRecord<>(i * 2 + 1))),
+                    new TeamRecord<>(2, List.of(new PlayerRecord<>(i * 2 + 2), new PlayerRecord<>(i * 2 + 3)))
+            )));
+        }
+        Path file = directory.resolve("compact.osmh");
+        MatchHistoryWriter.write(file, matches);
+
+        // Timestamp 2 bytes, team count 1, player counts 2, ranks 2, ids 4
+        assertThat(Files.size(file)).isLessThan(11L * matches.size() + 1024);
+        try (MatchHistoryReader reader = MatchHistoryReader.open(file)) {
+            List<MatchRecord<Long>> read = new ArrayList<>();
+            reader.forEach(read::add);
+            assertThat(read).isEqualTo(matches);
+        }
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        Path file = directory.resolve("empty.osmh");
+        MatchHistoryWriter.create(file).close();
+
+        try (MatchHistoryReader reader = MatchHistoryReader.open(file)) {
+            assertThat(reader.matchCount()).isZero();
+            assertThat(reader.cursor().next()).isFalse();
+        }
+    }
+
+    @Test
+    public void testRejectsForeignFile() throws IOException {
+        Path file = directory.resolve("foreign.json");
+        Files.writeString(file, "{\"matches\": [], \"padding\": \"............\"}");
+
+        assertThatThrownBy(() -> MatchHistoryReader.open(file)).isInstanceOf(IOException.class);
+    }
+
+    private static List<MatchRecord<Long>> randomMatches(Random random, int count) {
+        List<MatchRecord<Long>> matches = new ArrayList<>(count);
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < count; i++) {
+            timestamp += random.nextInt(100_000) - 10_000;
+            int teamCount = 2 + random.nextInt(4);
+            List<TeamRecord<Long>> teams = new ArrayList<>(teamCount);
+            for (int team = 0; team < teamCount; team++) {
+                int playerCount = 1 + random.nextInt(3);
+                List<PlayerRecord<Long>> players = new ArrayList<>(playerCount);
+                for (int player = 0; player < playerCount; player++) {
+                    long id = random.nextBoolean() ? random.nextInt(1000) : random.nextLong();
+                    double weight = random.nextInt(4) == 0 ? random.nextDouble() : 1.0;
+                    players.add(new PlayerRecord<>(id, weight));
+                }
+                int rank = random.nextInt(3) == 0 ? team : team + 1;
+                double weight = random.nextInt(8) == 0 ? 0.5 : 1.0;
+                teams.add(new TeamRecord<>(rank, weight, players));
+            }
+            matches.add(new MatchRecord<>(timestamp, teams));
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,150 @@
+package com.pocketcombats.openskill.history;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.TeamRecord;
+import com.pocketcombats.openskill.model.BradleyTerryFull;
+import com.pocketcombats.openskill.model.RatingModel;
+import com.pocketcombats.openskill.store.InMemoryRatingStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class WholeHistoryRatingTest {
+
+    private final RatingModelConfig config = RatingModelConfig.builder().build();
+    private final RatingModel model = new BradleyTerryFull(config);
+
+    @Test
+    public void testSingleSweepDirectionMatchesOnlineRatingForLastPlayers() {
+        // Players meeting only once are not informed by anything but their only match
+        List<MatchRecord<Integer>> matches = List.of(
+                MatchRecord.of(TeamRecord.of(1, 1), TeamRecord.of(2, 2)),
+                MatchRecord.of(TeamRecord.of(1, 3), TeamRecord.of(2, 4), TeamRecord.of(3, 5))
+        );
+        WholeHistoryResult<Integer> result = WholeHistoryRating.builder(config, model).build()
+                .fit(MatchLog.of(matches));
+
+        InMemoryRatingStore<Integer> online = replayOnline(matches);
+        for (int playerId = 1; playerId <= 5; playerId++) {
+            assertThat(result.rating(playerId).mu()).isCloseTo(online.get(playerId).mu(), within(1E-9));
+            assertThat(result.rating(playerId).sigma()).isCloseTo(online.get(playerId).sigma(), within(1E-9));
+        }
+        assertThat(result.converged()).isTrue();
+    }
+
+    @Test
+    public void testFitIsNearlyOrderIndependent() {
+        RatingModelConfig staticSkill = RatingModelConfig.builder().setTau(1E-6).build();
+        List<MatchRecord<Integer>> matches = randomMatches(new Random(5), 20, 400);
+        List<MatchRecord<Integer>> reversed = new ArrayList<>(matches);
+        Collections.reverse(reversed);
+
+        WholeHistoryRating rating = WholeHistoryRating.builder(staticSkill, new BradleyTerryFull(staticSkill))
+                .setTolerance(1E-6)
+                .setMaxIterations(100)
+                .build();
+        WholeHistoryResult<Integer> forward = rating.fit(MatchLog.of(matches));
+        WholeHistoryResult<Integer> backward = rating.fit(MatchLog.of(reversed));
+        InMemoryRatingStore<Integer> online = replayOnline(matches);
+        InMemoryRatingStore<Integer> onlineReversed = replayOnline(reversed);
+
+        assertThat(forward.converged()).isTrue();
+        double fitDifference = 0;
+        double onlineDifference = 0;
+        for (int playerId = 0; playerId < 20; playerId++) {
+            fitDifference = Math.max(
+                    fitDifference,
+                    Math.abs(forward.rating(playerId).mu() - backward.rating(playerId).mu())
+            );
+            onlineDifference = Math.max(
+                    onlineDifference,
+                    Math.abs(online.get(playerId).mu() - onlineReversed.get(playerId).mu())
+            );
+        }
+        assertThat(fitDifference).isLessThan(onlineDifference / 10);
+    }
+
+    @Test
+    public void testResultDoesNotDependOnParallelism() {
+        // Many small independent leagues
+        List<MatchRecord<Integer>> matches = new ArrayList<>();
+        Random random = new Random(9);
+        for (int league = 0; league < 50; league++) {
+            for (MatchRecord<Integer> match : randomMatches(random, 6, 200)) {
+                int offset = league * 6;
+                matches.add(MatchRecord.of(
+                        TeamRecord.of(1, match.teams().get(0).players().get(0).id() + offset),
+                        TeamRecord.of(2, match.teams().get(1).players().get(0).id() + offset)
+                ));
+            }
+        }
+        Collections.shuffle(matches, random);
+        MatchLog<Integer> log = MatchLog.of(matches);
+
+        WholeHistoryResult<Integer> sequential = WholeHistoryRating.builder(config, model)
+                .setPool(new ForkJoinPool(1))
+                .build()
+                .fit(log);
+        WholeHistoryResult<Integer> parallel = WholeHistoryRating.builder(config, model)
+                .setPool(new ForkJoinPool(4))
+                .build()
+                .fit(log);
+
+        for (int playerId = 0; playerId < 300; playerId++) {
+            assertThat(parallel.rating(playerId)).isEqualTo(sequential.rating(playerId));
+        }
+    }
+
+    @Test
+    public void testEmptyMatchesAreSkipped() {
+        List<MatchRecord<Integer>> matches = randomMatches(new Random(11), 10, 100);
+        MatchLog.Builder<Integer> withEmpty = MatchLog.builder();
+        for (int i = 0; i < matches.size(); i++) {
+            if (i % 10 == 0) {
+                withEmpty.addMatch(0);
+                withEmpty.addMatch(0).addTeam(1, 1.0);
+            }
+            withEmpty.add(matches.get(i));
+        }
+        withEmpty.addMatch(0);
+
+        WholeHistoryRating rating = WholeHistoryRating.builder(config, model).build();
+        WholeHistoryResult<Integer> expected = rating.fit(MatchLog.of(matches));
+        WholeHistoryResult<Integer> actual = rating.fit(withEmpty.build());
+        for (int playerId = 0; playerId < 10; playerId++) {
+            assertThat(actual.rating(playerId)).isEqualTo(expected.rating(playerId));
+        }
+    }
+
+    private InMemoryRatingStore<Integer> replayOnline(List<MatchRecord<Integer>> matches) {
+        RatingModelConfig config = this.config;
+        MatchRater<Integer> matchRater = new MatchRater<>(config, model, new DefaultTeamRatingAggregator(config));
+        InMemoryRatingStore<Integer> store = new InMemoryRatingStore<>(25.0, 25.0 / 3);
+        for (MatchRecord<Integer> match : matches) {
+            store.apply(matchRater.rate(match, store::get));
+        }
+        return store;
+    }
+
+    private static List<MatchRecord<Integer>> randomMatches(Random random, int players, int count) {
+        List<MatchRecord<Integer>> matches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int a = random.nextInt(players);
+            int b = (a + 1 + random.nextInt(players - 1)) % players;
+            // Lower ids are stronger
+            boolean aWins = random.nextDouble() < 1 / (1 + Math.exp((a - b) / 4.0));
+            matches.add(MatchRecord.of(TeamRecord.of(aWins ? 1 : 2, a), TeamRecord.of(aWins ? 2 : 1, b)));
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,117 @@
+package com.pocketcombats.openskill.index;
+
+import com.pocketcombats.openskill.QualityEvaluator;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RatingIndexTest {
+
+    private static final RatingModelConfig CONFIG = RatingModelConfig.builder().build();
+    private static final QualityEvaluator EVALUATOR = new QualityEvaluator(CONFIG);
+
+    @Test
+    public void testAcceptableRangeMatchesLinearScan() {
+        Random random = new Random(1);
+        RatingIndex<Integer> index = new RatingIndex<>(CONFIG);
+        Map<Integer, MatchMakingRating> ratings = populate(index, random, 5_000);
+
+        for (int query = 0; query < 200; query++) {
+            MatchMakingRating rating = randomRating(random);
+            assertThat(sorted(index.withinAcceptableRange(rating))).isEqualTo(scanAcceptableRange(ratings, rating));
+        }
+    }
+
+    @Test
+    public void testBestMatchesMatchLinearScan() {
+        Random random = new Random(2);
+        RatingIndex<Integer> index = new RatingIndex<>(CONFIG);
+        Map<Integer, MatchMakingRating> ratings = populate(index, random, 5_000);
+
+        for (int query = 0; query < 200; query++) {
+            MatchMakingRating rating = randomRating(random);
+            List<Double> expected = ratings.values().stream()
+                    .map(candidate -> quality(rating, candidate))
+                    .filter(quality -> quality > 0)
+                    .sorted(Comparator.reverseOrder())
+                    .limit(10)
+                    .toList();
+
+            assertThat(index.bestMatches(rating, 10))
+                    .extracting(MatchCandidate::quality)
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    public void testUpdatesAndRemovals() {
+        Random random = new Random(3);
+        RatingIndex<Integer> index = new RatingIndex<>(CONFIG);
+        Map<Integer, MatchMakingRating> ratings = populate(index, random, 2_000);
+        for (int i = 0; i < 3_000; i++) {
+            int id = random.nextInt(2_000);
+            if (random.nextInt(4) == 0) {
+                assertThat(index.remove(id)).isEqualTo(ratings.remove(id) != null);
+            } else {
+                MatchMakingRating rating = randomRating(random);
+                index.put(id, rating);
+                ratings.put(id, rating);
+            }
+        }
+
+        assertThat(index.size()).isEqualTo(ratings.size());
+        for (int query = 0; query < 100; query++) {
+            MatchMakingRating rating = randomRating(random);
+            assertThat(sorted(index.withinAcceptableRange(rating))).isEqualTo(scanAcceptableRange(ratings, rating));
+        }
+        int id = ratings.keySet().iterator().next();
+        assertThat(index.get(id)).isEqualTo(ratings.get(id));
+        assertThat(index.bestMatches(id, 5))
+                .hasSize(5)
+                .noneMatch(candidate -> candidate.id() == id);
+    }
+
+    private static Map<Integer, MatchMakingRating> populate(RatingIndex<Integer> index, Random random, int count) {
+        Map<Integer, MatchMakingRating> ratings = new HashMap<>();
+        for (int id = 0; id < count; id++) {
+            MatchMakingRating rating = randomRating(random);
+            index.put(id, rating);
+            ratings.put(id, rating);
+        }
+        return ratings;
+    }
+
+    private static MatchMakingRating randomRating(Random random) {
+        return new SimpleMatchMakingRating(25 + random.nextGaussian() * 10, 0.5 + random.nextDouble() * 7.8);
+    }
+
+    private static List<Integer> scanAcceptableRange(Map<Integer, MatchMakingRating> ratings, MatchMakingRating rating) {
+        List<Integer> ids = new ArrayList<>();
+        ratings.forEach((id, candidate) -> {
+            if (Math.abs(candidate.mu() - rating.mu()) <= 3 * Math.max(candidate.sigma(), rating.sigma())) {
+                ids.add(id);
+            }
+        });
+        return sorted(ids);
+    }
+
+    private static List<Integer> sorted(List<Integer> ids) {
+        return ids.stream().sorted().toList();
+    }
+
+    private static double quality(MatchMakingRating rating, MatchMakingRating candidate) {
+        return rating.mu() >= candidate.mu()
+                ? EVALUATOR.evaluateQuality(rating, candidate)
+                : EVALUATOR.evaluateQuality(candidate, rating);
+    }
+}
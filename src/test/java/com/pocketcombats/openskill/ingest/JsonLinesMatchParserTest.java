@@ -0,0 +1,143 @@
+package com.pocketcombats.openskill.ingest;
+
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.PlayerRecord;
+import com.pocketcombats.openskill.data.TeamRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonLinesMatchParserTest {
+
+    @Test
+    public void testParsesDocumentedSchema() {
+        String json = """
+                {"timestamp": 1700000000000, "teams": [{"rank": 1, "weight": 0.5, "players": [{"id": 17, "weight": 1.0, "mu": 27.1, "sigma": 6.2}]}, {"rank": 2, "players": [{"id": -42}]}]}
+
+                { "extra" : {"nested": [1, "x\\"y", true, null]}, "teams" : [ { "players" : [ { "sigma" : 1e-1 , "id" : 3 } ] , "rank" : 3 } ] }
+                """;
+        MatchBatch batch = new MatchBatch(8);
+        int parsed = new JsonLinesMatchParser().parse(buffer(json), batch, true);
+
+        assertThat(parsed).isEqualTo(2);
+        assertThat(batch.match(0)).isEqualTo(new MatchRecord<>(1700000000000L, List.of(
+                new TeamRecord<>(1, 0.5, List.of(new PlayerRecord<>(17L, 1.0))),
+                new TeamRecord<>(2, 1.0, List.of(new PlayerRecord<>(-42L, 1.0)))
+        )));
+        assertThat(batch.playerMu(0)).isEqualTo(27.1);
+        assertThat(batch.playerSigma(0)).isEqualTo(6.2);
+        assertThat(batch.playerMu(1)).isNaN();
+        assertThat(batch.timestamp(1)).isZero();
+        assertThat(batch.teamRank(2)).isEqualTo(3);
+        assertThat(batch.playerSigma(2)).isEqualTo(0.1);
+    }
+
+    @Test
+    public void testTeamRankDefaultsToPosition() {
+        MatchBatch batch = new MatchBatch(1);
+        new JsonLinesMatchParser().parse(
+                buffer("{\"teams\": [{\"players\": [{\"id\": 1}]}, {\"players\": [{\"id\": 2}]}]}"),
+                batch,
+                true
+        );
+
+        assertThat(batch.teamRank(0)).isEqualTo(1);
+        assertThat(batch.teamRank(1)).isEqualTo(2);
+    }
+
+    @Test
+    public void testDoublesMatchJdkParsing() {
+        Random random = new Random(1);
+        List<String> numbers = new ArrayList<>(List.of(
+                "0", "-0.0", "25", "8.333333333333334", "1e22", "1e23", "123456789012345678901234567890",
+                "4.9e-324", "1.7976931348623157e308", "0.1", "2.2250738585072014E-308", "9007199254740993",
+                "9007199254740993.0000000001", "18446744073709551615", "1.8446744073709551615e-300", "2.5e-200"
+        ));
+        for (int i = 0; i < 10_000; i++) {
+            numbers.add(Double.toString(random.nextGaussian() * Math.pow(10, random.nextInt(40) - 20)));
+            numbers.add(String.format("%.6f", random.nextDouble() * 50));
+            double arbitrary = Double.longBitsToDouble(random.nextLong());
+            if (Double.isFinite(arbitrary)) {
+                numbers.add(Double.toString(arbitrary));
+            }
+        }
+        StringBuilder json = new StringBuilder();
+        for (String number : numbers) {
+            json.append("{\"teams\": [{\"players\": [{\"id\": 1, \"mu\": ").append(number).append("}]}]}\n");
+        }
+        MatchBatch batch = new MatchBatch(numbers.size());
+        new JsonLinesMatchParser().parse(buffer(json.toString()), batch, true);
+
+        for (int i = 0; i < numbers.size(); i++) {
+            assertThat(batch.playerMu(i)).as(numbers.get(i)).isEqualTo(Double.parseDouble(numbers.get(i)));
+        }
+    }
+
+    @Test
+    public void testStopsAtPartialLineAndFullBatch() {
+        ByteBuffer buffer = buffer("{\"teams\": []}\n{\"teams\": []}\n{\"teams\": []}\n{\"tea");
+        JsonLinesMatchParser parser = new JsonLinesMatchParser();
+        MatchBatch batch = new MatchBatch(2);
+
+        assertThat(parser.parse(buffer, batch, false)).isEqualTo(2);
+        batch.clear();
+        assertThat(parser.parse(buffer, batch, false)).isEqualTo(1);
+        assertThat(StandardCharsets.UTF_8.decode(buffer).toString()).isEqualTo("{\"tea");
+    }
+
+    @Test
+    public void testMalformedLineKeepsPreviousMatches() {
+        ByteBuffer buffer = buffer("{\"teams\": [{\"players\": [{\"id\": 1}]}]}\n{\"teams\": [{\"players\": [{}]}]}\n");
+        JsonLinesMatchParser parser = new JsonLinesMatchParser();
+        MatchBatch batch = new MatchBatch(4);
+
+        assertThatThrownBy(() -> parser.parse(buffer, batch, true))
+                .isInstanceOf(MatchFormatException.class)
+                .hasMessageContaining("Player without id")
+                .satisfies(e -> assertThat(((MatchFormatException) e).line()).isEqualTo(2));
+        assertThat(batch.matchCount()).isEqualTo(1);
+        assertThat(batch.teamPlayerStart(1)).isEqualTo(1);
+        assertThat(buffer.position()).isEqualTo(38);
+    }
+
+    @Test
+    public void testReaderGrowsBufferForLongLines() throws IOException {
+        StringBuilder json = new StringBuilder();
+        for (int match = 0; match < 100; match++) {
+            json.append("{\"timestamp\": ").append(match).append(", \"teams\": [");
+            for (int team = 0; team < 20; team++) {
+                json.append(team == 0 ? "" : ", ").append("{\"players\": [{\"id\": ").append(team).append("}]}");
+            }
+            json.append("]}\n");
+        }
+        JsonLinesMatchReader reader = new JsonLinesMatchReader(
+                new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8)),
+                64
+        );
+        MatchBatch batch = new MatchBatch(30);
+        long total = 0;
+        int read;
+        while ((read = reader.read(batch)) >= 0) {
+            assertThat(batch.timestamp(batch.matchCount() - 1)).isEqualTo(total + read - 1);
+            assertThat(batch.matchTeamStart(batch.matchCount())).isEqualTo(batch.matchCount() * 20);
+            total += read;
+            batch.clear();
+        }
+
+        assertThat(total).isEqualTo(100);
+        assertThat(reader.lines()).isEqualTo(100);
+    }
+
+    private static ByteBuffer buffer(String json) {
+        return ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,230 @@
+package com.pocketcombats.openskill.ingest;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.TeamRecord;
+import com.pocketcombats.openskill.model.ThurstoneMostellerFull;
+import com.pocketcombats.openskill.store.InMemoryRatingStore;
+import com.pocketcombats.openskill.store.RatingStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatchIngestPipelineTest {
+
+    private final RatingModelConfig config = RatingModelConfig.builder().build();
+    private final MatchRater<Integer> matchRater = new MatchRater<>(
+            config,
+            new ThurstoneMostellerFull(config),
+            new DefaultTeamRatingAggregator(config)
+    );
+
+    @Test
+    public void testBatchedRatingMatchesSequentialRating() {
+        List<MatchRecord<Integer>> matches = randomMatches(2_000, 50);
+
+        InMemoryRatingStore<Integer> expected = new InMemoryRatingStore<>(25.0, 25 / 3.0);
+        for (MatchRecord<Integer> match : matches) {
+            expected.apply(matchRater.rate(match, expected::get));
+        }
+
+        InMemoryRatingStore<Integer> actual = new InMemoryRatingStore<>(25.0, 25 / 3.0);
+        AtomicInteger listenedAdjustments = new AtomicInteger();
+        MatchIngestPipeline<Integer> pipeline = MatchIngestPipeline.builder(matchRater, actual)
+                .setCapacity(64)
+                .setBatchSize(16)
+                .setMaxBatchDelay(Duration.ofMillis(5))
+                .setBatchListener(adjustments -> listenedAdjustments.addAndGet(adjustments.size()))
+                .build();
+        for (MatchRecord<Integer> match : matches) {
+            pipeline.submit(match);
+        }
+        pipeline.close();
+        assertThat(pipeline.ratedMatches()).isEqualTo(matches.size());
+        assertThat(pipeline.appliedBatches()).isLessThan(matches.size());
+
+        assertThat(listenedAdjustments.get()).isEqualTo(matches.size() * 2);
+        for (int playerId = 0; playerId < 50; playerId++) {
+            assertThat(actual.get(playerId)).isEqualTo(expected.get(playerId));
+        }
+    }
+
+    @Test
+    public void testPublishersAreBackpressured() throws InterruptedException {
+        InMemoryRatingStore<Integer> store = new InMemoryRatingStore<>(25.0, 25 / 3.0);
+        List<MatchRecord<Integer>> matches = randomMatches(5_000, 200);
+        try (MatchIngestPipeline<Integer> pipeline = MatchIngestPipeline.builder(matchRater, store)
+                .setCapacity(32)
+                .setBatchSize(8)
+                .build()) {
+            List<Thread> producers = new ArrayList<>();
+            for (int p = 0; p < 4; p++) {
+                List<MatchRecord<Integer>> share = matches.subList(p * 1_250, (p + 1) * 1_250);
+                Thread producer = new Thread(() -> {
+                    try (SubmissionPublisher<MatchRecord<Integer>> publisher = new SubmissionPublisher<>()) {
+                        publisher.subscribe(pipeline.newSubscriber());
+                        share.forEach(publisher::submit);
+                    }
+                });
+                producer.start();
+                producers.add(producer);
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+            while (pipeline.ratedMatches() < matches.size() && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertThat(pipeline.ratedMatches()).isEqualTo(matches.size());
+        }
+        assertThat(store.size()).isEqualTo(200);
+    }
+
+    @Test
+    public void testFailedMatchIsReportedAndSkipped() {
+        InMemoryRatingStore<Integer> store = new InMemoryRatingStore<>(25.0, 25 / 3.0);
+        List<MatchRecord<Integer>> failed = new ArrayList<>();
+        MatchRecord<Integer> broken = new MatchRecord<>(null);
+        MatchIngestPipeline<Integer> pipeline = MatchIngestPipeline.builder(matchRater, store)
+                .setErrorHandler((match, e) -> failed.add(match))
+                .build();
+        pipeline.submit(broken);
+        pipeline.submit(MatchRecord.of(TeamRecord.of(1, 1), TeamRecord.of(2, 2)));
+        pipeline.close();
+        assertThat(pipeline.ratedMatches()).isEqualTo(1);
+        assertThat(failed).containsExactly(broken);
+        assertThat(store.get(1)).isInstanceOf(RatingAdjustment.class);
+    }
+
+    @Test
+    public void testCloseRacingProducersLosesNoMatch() throws InterruptedException {
+        List<MatchRecord<Integer>> matches = randomMatches(1_000, 100);
+        for (int round = 0; round < 20; round++) {
+            InMemoryRatingStore<Integer> store = new InMemoryRatingStore<>(25.0, 25 / 3.0);
+            MatchIngestPipeline<Integer> pipeline = MatchIngestPipeline.builder(matchRater, store)
+                    .setCapacity(16)
+                    .setBatchSize(4)
+                    .build();
+            AtomicLong accepted = new AtomicLong();
+            List<Thread> producers = new ArrayList<>();
+            for (int p = 0; p < 4; p++) {
+                Thread producer = new Thread(() -> {
+                    try {
+                        for (MatchRecord<Integer> match : matches) {
+                            pipeline.submit(match);
+                            accepted.incrementAndGet();
+                        }
+                    } catch (IllegalStateException closed) {
+                        // Expected once the pipeline is closed
+                    }
+                });
+                producer.start();
+                producers.add(producer);
+            }
+            Thread.sleep(round % 5);
+            pipeline.close();
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            assertThat(pipeline.ratedMatches()).isEqualTo(accepted.get());
+        }
+    }
+
+    @Test
+    @Timeout(30)
+    public void testFailingStoreIsReportedAndPipelineKeepsRunning() {
+        InMemoryRatingStore<Integer> delegate = new InMemoryRatingStore<>(25.0, 25 / 3.0);
+        RatingStore<Integer> store = new RatingStore<>() {
+            @Override
+            public MatchMakingRating get(Integer playerId) {
+                return delegate.get(playerId);
+            }
+
+            @Override
+            public void apply(Collection<? extends RatingAdjustment<Integer>> adjustments) {
+                if (adjustments.stream().anyMatch(adjustment -> adjustment.playerId() == 0)) {
+                    throw new IllegalStateException("Store unavailable");
+                }
+                delegate.apply(adjustments);
+            }
+        };
+        List<MatchRecord<Integer>> failed = new CopyOnWriteArrayList<>();
+        List<MatchRecord<Integer>> matches = randomMatches(200, 10);
+        MatchIngestPipeline<Integer> pipeline = MatchIngestPipeline.builder(matchRater, store)
+                .setCapacity(2)
+                .setBatchSize(1)
+                .setErrorHandler((match, e) -> failed.add(match))
+                .build();
+        matches.forEach(pipeline::submit);
+        pipeline.close();
+        List<MatchRecord<Integer>> withPlayerZero = matches.stream()
+                .filter(match -> match.teams().stream().anyMatch(team -> team.players().stream()
+                        .anyMatch(player -> player.id() == 0)))
+                .toList();
+        assertThat(failed).containsExactlyElementsOf(withPlayerZero);
+        assertThat(pipeline.ratedMatches()).isEqualTo(matches.size() - withPlayerZero.size());
+    }
+
+    @Test
+    @Timeout(30)
+    public void testFailingListenerIsReported() {
+        InMemoryRatingStore<Integer> store = new InMemoryRatingStore<>(25.0, 25 / 3.0);
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        MatchIngestPipeline<Integer> pipeline = MatchIngestPipeline.builder(matchRater, store)
+                .setCapacity(2)
+                .setBatchSize(1)
+                .setBatchListener(adjustments -> {
+                    throw new IllegalStateException("Listener failed");
+                })
+                .setFailureHandler(failures::add)
+                .build();
+        randomMatches(100, 10).forEach(pipeline::submit);
+        pipeline.close();
+        assertThat(pipeline.ratedMatches()).isEqualTo(100);
+        assertThat(failures).hasSize(100).allMatch(IllegalStateException.class::isInstance);
+    }
+
+    @Test
+    public void testUpstreamErrorIsReported() throws Exception {
+        InMemoryRatingStore<Integer> store = new InMemoryRatingStore<>(25.0, 25 / 3.0);
+        CompletableFuture<Throwable> reported = new CompletableFuture<>();
+        try (MatchIngestPipeline<Integer> pipeline = MatchIngestPipeline.builder(matchRater, store)
+                .setFailureHandler(reported::complete)
+                .build()) {
+            SubmissionPublisher<MatchRecord<Integer>> publisher = new SubmissionPublisher<>();
+            publisher.subscribe(pipeline.newSubscriber());
+            IllegalStateException error = new IllegalStateException("Upstream failed");
+            publisher.closeExceptionally(error);
+            assertThat(reported.get(5, TimeUnit.SECONDS)).isSameAs(error);
+        }
+    }
+
+    private static List<MatchRecord<Integer>> randomMatches(int count, int players) {
+        Random random = new Random(42);
+        List<MatchRecord<Integer>> matches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int a = random.nextInt(players);
+            int b = (a + 1 + random.nextInt(players - 1)) % players;
+            matches.add(MatchRecord.of(TeamRecord.of(1, a), TeamRecord.of(random.nextInt(3) == 0 ? 1 : 2, b)));
+        }
+        return matches;
+    }
+}
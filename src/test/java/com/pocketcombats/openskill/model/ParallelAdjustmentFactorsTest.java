@@ -0,0 +1,102 @@
+package com.pocketcombats.openskill.model;
+
+import com.pocketcombats.openskill.Adjudicator;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.SimplePlayerResult;
+import com.pocketcombats.openskill.data.SimpleTeamResult;
+import com.pocketcombats.openskill.data.TeamResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ParallelAdjustmentFactorsTest {
+
+    private static final RatingModelConfig CONFIG = RatingModelConfig.builder().build();
+
+    @Test
+    public void testFactorsDoNotDependOnParallelism() {
+        List<TeamResult<Integer>> teams = randomMatch(500);
+        for (RatingModel model : List.of(new ThurstoneMostellerFull(CONFIG), new BradleyTerryFull(CONFIG))) {
+            List<AdjustmentFactors> expected = calculate(model, teams, 1);
+
+            assertThat(calculate(model, teams, 2)).isEqualTo(expected);
+            assertThat(calculate(model, teams, 7)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void testFactorsMatchSequentialCalculation() {
+        List<TeamResult<Integer>> teams = randomMatch(200);
+        List<RatingModel> models = List.of(
+                new ThurstoneMostellerFull(CONFIG),
+                new BradleyTerryFull(CONFIG),
+                new PlackettLuce(CONFIG),
+                new ThurstoneMostellerPart(CONFIG, 2)
+        );
+        for (RatingModel model : models) {
+            List<AdjustmentFactors> sequential = model.calculateAdjustmentFactors(teams);
+            List<AdjustmentFactors> parallel = calculate(model, teams, 3);
+
+            for (int i = 0; i < teams.size(); i++) {
+                AdjustmentFactors expected = sequential.get(i);
+                assertThat(parallel.get(i).omega())
+                        .isCloseTo(expected.omega(), within(1e-12 * (1 + Math.abs(expected.omega()))));
+                assertThat(parallel.get(i).delta())
+                        .isCloseTo(expected.delta(), within(1e-12 * (1 + Math.abs(expected.delta()))));
+            }
+        }
+    }
+
+    @Test
+    public void testAdjudicatorRatesInPool() {
+        List<TeamResult<Integer>> teams = randomMatch(100);
+        Adjudicator<Integer> adjudicator = new Adjudicator<>(CONFIG, new ThurstoneMostellerFull(CONFIG));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<RatingAdjustment<Integer>> adjustments = adjudicator.rate(teams, pool);
+
+            assertThat(adjustments).hasSize(200);
+            assertThat(adjustments.get(0).playerId()).isEqualTo(0);
+            List<RatingAdjustment<Integer>> sequential = adjudicator.rate(teams);
+            for (int i = 0; i < adjustments.size(); i++) {
+                assertThat(adjustments.get(i).mu()).isCloseTo(sequential.get(i).mu(), within(1e-9));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static List<AdjustmentFactors> calculate(RatingModel model, List<TeamResult<Integer>> teams, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return model.calculateAdjustmentFactors(teams, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static List<TeamResult<Integer>> randomMatch(int teamCount) {
+        SplittableRandom random = new SplittableRandom(teamCount);
+        List<TeamResult<Integer>> teams = new ArrayList<>(teamCount);
+        int playerId = 0;
+        for (int team = 0; team < teamCount; team++) {
+            List<SimplePlayerResult<Integer>> players = List.of(
+                    new SimplePlayerResult<>(playerId++, 15 + random.nextDouble() * 20, 2 + random.nextDouble() * 6),
+                    new SimplePlayerResult<>(playerId++, 15 + random.nextDouble() * 20, 2 + random.nextDouble() * 6)
+            );
+            double mu = players.get(0).mu() + players.get(1).mu();
+            double sigma = Math.sqrt(players.get(0).sigmaSquared() + players.get(1).sigmaSquared());
+            // Occasional ties
+            int rank = 1 + team - (team % 10 == 9 ? 1 : 0);
+            teams.add(new SimpleTeamResult<>(mu, sigma, rank, players));
+        }
+        return teams;
+    }
+}
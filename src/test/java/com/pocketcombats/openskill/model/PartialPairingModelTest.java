@@ -0,0 +1,143 @@
+package com.pocketcombats.openskill.model;
+
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import com.pocketcombats.openskill.data.TeamResult;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static com.pocketcombats.openskill.util.ValidationHelper.teamResult;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests of the partial pairing models, run for every model against its full pairing counterpart.
+ */
+class PartialPairingModelTest {
+
+    private final RatingModelConfig config = RatingModelConfig.builder().build();
+
+    @TestFactory
+    public Stream<DynamicTest> testComparesOnlyRankNeighbours() {
+        return forEachModel(model -> {
+            List<TeamResult<Integer>> teams = randomTeams(new Random(1), 1, 2, 3, 4, 5);
+            RatingModel full = model.full(config);
+            List<AdjustmentFactors> factors = model.part(config, 1).calculateAdjustmentFactors(teams);
+
+            // Teams are shuffled: team with rank r is compared with ranks r - 1 and r + 1 only
+            for (TeamResult<Integer> team : teams) {
+                List<TeamResult<Integer>> neighbours = teams.stream()
+                        .filter(opponent -> Math.abs(opponent.rank() - team.rank()) == 1)
+                        .sorted((a, b) -> Integer.compare(a.rank(), b.rank()))
+                        .toList();
+                assertThat(factors.get(teams.indexOf(team)))
+                        .isEqualTo(full.calculateAdjustmentFactors(team, neighbours));
+            }
+        });
+    }
+
+    @TestFactory
+    public Stream<DynamicTest> testWideWindowMatchesFullPairing() {
+        return forEachModel(model -> {
+            List<TeamResult<Integer>> teams = randomTeams(new Random(2), 1, 2, 3, 4, 5, 6);
+            List<AdjustmentFactors> full = model.full(config).calculateAdjustmentFactors(teams);
+            List<AdjustmentFactors> part = model.part(config, 5).calculateAdjustmentFactors(teams);
+
+            for (int i = 0; i < teams.size(); i++) {
+                assertThat(part.get(i).omega()).isCloseTo(full.get(i).omega(), within(1E-12));
+                assertThat(part.get(i).delta()).isCloseTo(full.get(i).delta(), within(1E-12));
+            }
+        });
+    }
+
+    @TestFactory
+    public Stream<DynamicTest> testSingleTeamCalculationMatchesBulk() {
+        return forEachModel(model -> {
+            for (int window = 1; window <= 2; window++) {
+                RatingModel part = model.part(config, window);
+                for (List<TeamResult<Integer>> teams : List.of(
+                        randomTeams(new Random(3), 1, 2, 3, 4, 5, 6, 7),
+                        randomTeams(new Random(4), 1, 2, 2, 3, 3, 3, 4),
+                        orderedTeams(new Random(5), 1, 2, 2, 3)
+                )) {
+                    List<AdjustmentFactors> bulk = part.calculateAdjustmentFactors(teams);
+                    for (int i = 0; i < teams.size(); i++) {
+                        List<TeamResult<Integer>> opponents = new ArrayList<>(teams);
+                        TeamResult<Integer> team = opponents.remove(i);
+                        assertThat(part.calculateAdjustmentFactors(team, opponents)).isEqualTo(bulk.get(i));
+                    }
+                }
+            }
+        });
+    }
+
+    @TestFactory
+    public Stream<DynamicTest> testRejectsEmptyWindow() {
+        return forEachModel(model ->
+                assertThatThrownBy(() -> model.part(config, 0)).isInstanceOf(IllegalArgumentException.class)
+        );
+    }
+
+    private static Stream<DynamicTest> forEachModel(ModelTest test) {
+        return Stream.of(PartialModel.values())
+                .map(model -> DynamicTest.dynamicTest(model.name(), () -> test.run(model)));
+    }
+
+    private List<TeamResult<Integer>> randomTeams(Random random, int... ranks) {
+        List<TeamResult<Integer>> teams = orderedTeams(random, ranks);
+        Collections.shuffle(teams, random);
+        return teams;
+    }
+
+    private List<TeamResult<Integer>> orderedTeams(Random random, int... ranks) {
+        AtomicInteger playerId = new AtomicInteger();
+        List<TeamResult<Integer>> teams = new ArrayList<>(ranks.length);
+        for (int rank : ranks) {
+            teams.add(teamResult(playerId, config, rank, List.of(
+                    new SimpleMatchMakingRating(20 + random.nextDouble() * 10, 3 + random.nextDouble() * 5),
+                    new SimpleMatchMakingRating(20 + random.nextDouble() * 10, 3 + random.nextDouble() * 5)
+            )));
+        }
+        return teams;
+    }
+
+    private enum PartialModel {
+        BRADLEY_TERRY(BradleyTerryFull::new, BradleyTerryPart::new),
+        THURSTONE_MOSTELLER(ThurstoneMostellerFull::new, ThurstoneMostellerPart::new);
+
+        private final Function<RatingModelConfig, RatingModel> full;
+        private final BiFunction<RatingModelConfig, Integer, RatingModel> part;
+
+        PartialModel(
+                Function<RatingModelConfig, RatingModel> full,
+                BiFunction<RatingModelConfig, Integer, RatingModel> part
+        ) {
+            this.full = full;
+            this.part = part;
+        }
+
+        RatingModel full(RatingModelConfig config) {
+            return full.apply(config);
+        }
+
+        RatingModel part(RatingModelConfig config, int window) {
+            return part.apply(config, window);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ModelTest {
+
+        void run(PartialModel model);
+    }
+}
@@ -0,0 +1,158 @@
+package com.pocketcombats.openskill.model;
+
+import com.pocketcombats.openskill.Adjudicator;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import com.pocketcombats.openskill.data.TeamResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.pocketcombats.openskill.util.ValidationHelper.teamResult;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class TopKRankingTest {
+
+    private final RatingModelConfig config = RatingModelConfig.builder().build();
+    private final AtomicInteger playerId = new AtomicInteger();
+    private final Random random = new Random(17);
+
+    @Test
+    public void testSingleEliminatedTeamIsFullRanking() {
+        List<TeamResult<Integer>> placed = List.of(team(1), team(2), team(2), team(4));
+        List<TeamResult<Integer>> eliminated = List.of(team(5));
+        List<TeamResult<Integer>> all = new ArrayList<>(placed);
+        all.addAll(eliminated);
+
+        for (RatingModel model : List.of(
+                new BradleyTerryFull(config),
+                new ThurstoneMostellerFull(config),
+                new BradleyTerryPart(config, 4),
+                new PlackettLuce(config)
+        )) {
+            List<AdjustmentFactors> topK = model.calculateTopKAdjustmentFactors(placed, eliminated);
+            for (int i = 0; i < all.size(); i++) {
+                List<TeamResult<Integer>> opponents = new ArrayList<>(all);
+                TeamResult<Integer> team = opponents.remove(i);
+                AdjustmentFactors expected = model.calculateAdjustmentFactors(team, opponents);
+                assertThat(topK.get(i).omega()).isCloseTo(expected.omega(), within(1E-12));
+                assertThat(topK.get(i).delta()).isCloseTo(expected.delta(), within(1E-12));
+            }
+        }
+    }
+
+    @Test
+    public void testEliminatedTeamsAreNotComparedWithEachOther() {
+        List<TeamResult<Integer>> placed = List.of(team(1), team(2), team(3));
+        List<TeamResult<Integer>> eliminated = List.of(team(4), team(4), team(4), team(4));
+        RatingModel model = new ThurstoneMostellerFull(config);
+
+        List<AdjustmentFactors> topK = model.calculateTopKAdjustmentFactors(placed, eliminated);
+
+        for (int i = 0; i < eliminated.size(); i++) {
+            assertThat(topK.get(placed.size() + i))
+                    .isEqualTo(model.calculateAdjustmentFactors(eliminated.get(i), placed));
+        }
+    }
+
+    @Test
+    public void testPartialPairingTreatsEliminatedAsSinglePlace() {
+        List<TeamResult<Integer>> placed = List.of(team(2), team(1), team(3));
+        List<TeamResult<Integer>> eliminated = List.of(team(10), team(10));
+        RatingModel full = new BradleyTerryFull(config);
+
+        List<AdjustmentFactors> topK = new BradleyTerryPart(config).calculateTopKAdjustmentFactors(placed, eliminated);
+
+        assertThat(topK.get(1)).isEqualTo(full.calculateAdjustmentFactors(placed.get(1), List.of(placed.get(0))));
+        assertThat(topK.get(2)).isEqualTo(full.calculateAdjustmentFactors(placed.get(2), List.of(
+                placed.get(0), eliminated.get(0), eliminated.get(1)
+        )));
+        assertThat(topK.get(3)).isEqualTo(full.calculateAdjustmentFactors(eliminated.get(0), List.of(placed.get(2))));
+    }
+
+    @Test
+    public void testPlackettLuceMatchesPartialRankingLikelihood() {
+        List<TeamResult<Integer>> placed = new ArrayList<>();
+        for (int rank = 1; rank <= 6; rank++) {
+            placed.add(team(rank == 4 ? 3 : rank));
+        }
+        List<TeamResult<Integer>> eliminated = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            eliminated.add(team(7));
+        }
+        List<AdjustmentFactors> topK = new PlackettLuce(config).calculateTopKAdjustmentFactors(placed, eliminated);
+
+        List<TeamResult<Integer>> all = new ArrayList<>(placed);
+        all.addAll(eliminated);
+        for (int i = 0; i < all.size(); i++) {
+            AdjustmentFactors expected = partialPlackettLuce(all.get(i), placed, all);
+            assertThat(topK.get(i).omega()).isCloseTo(expected.omega(), within(1E-12));
+            assertThat(topK.get(i).delta()).isCloseTo(expected.delta(), within(1E-12));
+        }
+    }
+
+    @Test
+    public void testRejectsEliminatedAbovePlaced() {
+        List<TeamResult<Integer>> placed = List.of(team(1), team(3));
+        List<TeamResult<Integer>> eliminated = List.of(team(3));
+
+        assertThatThrownBy(() -> new PlackettLuce(config).calculateTopKAdjustmentFactors(placed, eliminated))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BradleyTerryFull(config).calculateTopKAdjustmentFactors(placed, eliminated))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testAdjudicatorRatesEveryPlayer() {
+        List<TeamResult<Integer>> placed = List.of(team(1), team(2));
+        List<TeamResult<Integer>> eliminated = List.of(team(3), team(3), team(3));
+
+        List<RatingAdjustment<Integer>> adjustments = new Adjudicator<Integer>(config, new PlackettLuce(config))
+                .rateTopK(placed, eliminated);
+
+        assertThat(adjustments).hasSize(10);
+        assertThat(adjustments.get(0).mu()).isGreaterThan(placed.get(0).players().iterator().next().mu());
+        assertThat(adjustments.get(8).mu()).isLessThan(eliminated.get(2).players().iterator().next().mu());
+    }
+
+    /**
+     * Direct evaluation of the top-K Plackett-Luce factors: a stage for every placed team only.
+     */
+    private AdjustmentFactors partialPlackettLuce(
+            TeamResult<?> team,
+            List<? extends TeamResult<?>> placed,
+            List<? extends TeamResult<?>> all
+    ) {
+        double betaSquared = config.beta() * config.beta();
+        double c = Math.sqrt(all.stream().mapToDouble(t -> t.sigma() * t.sigma() + betaSquared).sum());
+        double omega = 0.0;
+        double delta = 0.0;
+        for (TeamResult<?> stage : placed) {
+            if (stage.rank() > team.rank()) {
+                continue;
+            }
+            double sumQ = all.stream().filter(t -> t.rank() >= stage.rank()).mapToDouble(t -> Math.exp(t.mu() / c)).sum();
+            long a = placed.stream().filter(t -> t.rank() == stage.rank()).count();
+            double ratio = Math.exp(team.mu() / c) / sumQ;
+            delta += ratio * (1 - ratio) / a;
+            omega += ((stage == team ? 1 : 0) - ratio) / a;
+        }
+        double teamSigmaSquared = team.sigma() * team.sigma();
+        omega *= teamSigmaSquared / c;
+        delta *= teamSigmaSquared / (c * c) * (team.sigma() / c);
+        return new AdjustmentFactors(omega, delta);
+    }
+
+    private TeamResult<Integer> team(int rank) {
+        return teamResult(playerId, config, rank, List.of(
+                new SimpleMatchMakingRating(20 + random.nextDouble() * 10, 3 + random.nextDouble() * 5),
+                new SimpleMatchMakingRating(20 + random.nextDouble() * 10, 3 + random.nextDouble() * 5)
+        ));
+    }
+}
@@ -0,0 +1,178 @@
+package com.pocketcombats.openskill.monitor;
+
+import com.pocketcombats.openskill.Adjudicator;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.data.SimplePlayerResult;
+import com.pocketcombats.openskill.data.SimpleTeamResult;
+import com.pocketcombats.openskill.data.TeamResult;
+import com.pocketcombats.openskill.model.PlackettLuce;
+import com.pocketcombats.openskill.model.RatingModel;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PredictionMonitorTest {
+
+    @Test
+    public void testAggregatesScores() {
+        PredictionMonitor monitor = PredictionMonitor.builder()
+                .setClock(new MutableClock())
+                .setCalibrationBuckets(4)
+                .build();
+        monitor.record(0.8, 1.0);
+        monitor.record(0.8, 0.0);
+        monitor.record(0.3, 0.0);
+        monitor.record(0.5, 1.0);
+        monitor.record(0.9, 0.5);
+
+        PredictionStats stats = monitor.stats();
+        assertThat(stats.predictions()).isEqualTo(5);
+        double logLoss = (-Math.log(0.8) - Math.log(0.2) - Math.log(0.7) - Math.log(0.5)
+                - 0.5 * Math.log(0.9) - 0.5 * Math.log(0.1)) / 5;
+        assertThat(stats.logLoss()).isCloseTo(logLoss, within(1e-12));
+        double brier = (0.04 + 0.64 + 0.09 + 0.25 + 0.16) / 5;
+        assertThat(stats.brierScore()).isCloseTo(brier, within(1e-12));
+        // 0.5 predictions and draws have no favourite and no winner
+        assertThat(stats.upsetRate()).isCloseTo(1.0 / 3, within(1e-12));
+
+        assertThat(stats.calibration()).hasSize(4);
+        assertThat(stats.calibration().get(0).predictions()).isZero();
+        assertThat(stats.calibration().get(0).meanPredicted()).isNaN();
+        assertThat(stats.calibration().get(1)).isEqualTo(new CalibrationBucket(0.25, 0.5, 1, 0.3, 0.0));
+        assertThat(stats.calibration().get(2)).isEqualTo(new CalibrationBucket(0.5, 0.75, 1, 0.5, 1.0));
+        CalibrationBucket top = stats.calibration().get(3);
+        assertThat(top.predictions()).isEqualTo(3);
+        assertThat(top.meanPredicted()).isCloseTo(2.5 / 3, within(1e-12));
+        assertThat(top.observedRate()).isCloseTo(0.5, within(1e-12));
+    }
+
+    @Test
+    public void testWindowSlides() {
+        MutableClock clock = new MutableClock();
+        PredictionMonitor monitor = PredictionMonitor.builder()
+                .setClock(clock)
+                .setWindow(Duration.ofMinutes(10))
+                .setSlices(10)
+                .build();
+        assertThat(monitor.stats().predictions()).isZero();
+        assertThat(monitor.stats().logLoss()).isNaN();
+        assertThat(monitor.stats().calibrationError()).isNaN();
+
+        monitor.record(0.9, 0.0);
+        clock.advance(Duration.ofMinutes(5));
+        monitor.record(0.9, 1.0);
+        assertThat(monitor.stats().predictions()).isEqualTo(2);
+        assertThat(monitor.stats().upsetRate()).isEqualTo(0.5);
+
+        clock.advance(Duration.ofMinutes(5));
+        assertThat(monitor.stats().predictions()).isEqualTo(1);
+        assertThat(monitor.stats().upsetRate()).isEqualTo(0.0);
+
+        // Slots are reused by later slices
+        monitor.record(0.2, 0.0);
+        assertThat(monitor.stats().predictions()).isEqualTo(2);
+        clock.advance(Duration.ofHours(3));
+        assertThat(monitor.stats().predictions()).isZero();
+    }
+
+    @Test
+    public void testCalibratedPredictions() {
+        PredictionMonitor monitor = PredictionMonitor.builder().setClock(new MutableClock()).build();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 100_000; i++) {
+            double probability = random.nextDouble();
+            monitor.record(probability, random.nextDouble() < probability ? 1.0 : 0.0);
+        }
+        PredictionStats calibrated = monitor.stats();
+        assertThat(calibrated.calibrationError()).isLessThan(0.01);
+        assertThat(calibrated.brierScore()).isCloseTo(1.0 / 6, within(0.005));
+
+        PredictionMonitor overconfident = PredictionMonitor.builder().setClock(new MutableClock()).build();
+        for (int i = 0; i < 100_000; i++) {
+            double probability = random.nextDouble();
+            double claimed = probability > 0.5 ? Math.sqrt(probability) : 1 - Math.sqrt(1 - probability);
+            overconfident.record(claimed, random.nextDouble() < probability ? 1.0 : 0.0);
+        }
+        assertThat(overconfident.stats().calibrationError()).isGreaterThan(0.05);
+        assertThat(overconfident.stats().logLoss()).isGreaterThan(calibrated.logLoss());
+    }
+
+    @Test
+    public void testMonitoringAdjudicator() {
+        RatingModelConfig config = RatingModelConfig.builder().build();
+        RatingModel model = new PlackettLuce(config);
+        PredictionMonitor monitor = PredictionMonitor.builder().setClock(new MutableClock()).build();
+        MonitoringAdjudicator<Integer> adjudicator = new MonitoringAdjudicator<>(config, model, monitor);
+
+        List<TeamResult<Integer>> teams = List.of(team(0, 30.0, 2), team(1, 25.0, 1), team(2, 20.0, 3));
+        assertThat(adjudicator.rate(teams)).isEqualTo(new Adjudicator<Integer>(config, model).rate(teams));
+
+        PredictionStats stats = monitor.stats();
+        assertThat(stats.predictions()).isEqualTo(3);
+        double expected = (-Math.log(1 - model.winProbability(teams.get(0), teams.get(1)))
+                - Math.log(model.winProbability(teams.get(0), teams.get(2)))
+                - Math.log(model.winProbability(teams.get(1), teams.get(2)))) / 3;
+        assertThat(stats.logLoss()).isCloseTo(expected, within(1e-12));
+        assertThat(stats.upsetRate()).isCloseTo(1.0 / 3, within(1e-12));
+    }
+
+    @Test
+    public void testTeamAgainstOpponentsRecordsEveryPairOnce() {
+        RatingModelConfig config = RatingModelConfig.builder().build();
+        RatingModel model = new PlackettLuce(config);
+        PredictionMonitor monitor = PredictionMonitor.builder().setClock(new MutableClock()).build();
+        MonitoringAdjudicator<Integer> adjudicator = new MonitoringAdjudicator<>(config, model, monitor);
+
+        TeamResult<Integer> winner = team(0, 20.0, 1);
+        TeamResult<Integer> loser = team(1, 30.0, 2);
+        adjudicator.rate(winner, List.of(loser));
+        adjudicator.rate(loser, List.of(winner));
+        assertThat(monitor.stats().predictions()).isEqualTo(1);
+        assertThat(monitor.stats().upsetRate()).isEqualTo(1.0);
+        assertThat(monitor.stats().logLoss()).isCloseTo(-Math.log(model.winProbability(winner, loser)), within(1e-12));
+
+        TeamResult<Integer> first = team(2, 25.0, 1);
+        TeamResult<Integer> second = team(3, 25.0, 1);
+        adjudicator.rate(first, List.of(second));
+        adjudicator.rate(second, List.of(first));
+        assertThat(monitor.stats().predictions()).isEqualTo(2);
+    }
+
+    private static TeamResult<Integer> team(int id, double mu, int rank) {
+        double sigma = 25.0 / 3;
+        return new SimpleTeamResult<>(mu, sigma, rank, List.of(new SimplePlayerResult<>(id, mu, sigma)));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant = Instant.parse("2024-01-01T00:00:00Z");
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
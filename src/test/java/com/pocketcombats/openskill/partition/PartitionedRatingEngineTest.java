@@ -0,0 +1,180 @@
+package com.pocketcombats.openskill.partition;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import com.pocketcombats.openskill.data.TeamRecord;
+import com.pocketcombats.openskill.model.PlackettLuce;
+import com.pocketcombats.openskill.store.InMemoryRatingStore;
+import com.pocketcombats.openskill.store.VersionedRating;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PartitionedRatingEngineTest {
+
+    private static final int PLAYERS = 40;
+
+    private final RatingModelConfig config = RatingModelConfig.builder().build();
+    private final MatchRater<Integer> matchRater = new MatchRater<>(
+            config,
+            new PlackettLuce(config),
+            new DefaultTeamRatingAggregator(config)
+    );
+
+    @Test
+    public void testSequentialRatingMatchesSingleStore() {
+        List<MatchRecord<Integer>> matches = randomMatches(new Random(7), 1_000);
+        InMemoryRatingStore<Integer> expected = new InMemoryRatingStore<>(25.0, 25 / 3.0);
+        for (MatchRecord<Integer> match : matches) {
+            expected.apply(matchRater.rate(match, expected::get));
+        }
+
+        List<RatingPartition<Integer>> partitions = partitions(4);
+        PartitionedRatingEngine<Integer> engine = new PartitionedRatingEngine<>(
+                4, Partitioner.hashing(), new InProcessTransport<>(partitions), matchRater
+        );
+        for (MatchRecord<Integer> match : matches) {
+            engine.rate(match).join();
+        }
+
+        assertThat(engine.localMatches()).isPositive();
+        assertThat(engine.crossPartitionMatches()).isPositive();
+        for (int playerId = 0; playerId < PLAYERS; playerId++) {
+            var rating = engine.get(playerId).join();
+            assertThat(rating.mu()).isEqualTo(expected.get(playerId).mu());
+            assertThat(rating.sigma()).isEqualTo(expected.get(playerId).sigma());
+        }
+    }
+
+    @Test
+    public void testConcurrentCrossPartitionCommits() {
+        List<RatingPartition<Integer>> partitions = partitions(3);
+        try (InProcessTransport<Integer> transport = InProcessTransport.threadPerPartition(partitions)) {
+            PartitionedRatingEngine<Integer> engine = new PartitionedRatingEngine<>(
+                    3, Partitioner.hashing(), transport, matchRater
+            );
+            List<MatchRecord<Integer>> matches = randomMatches(new Random(11), 3_000);
+            int[] appearances = new int[PLAYERS];
+            List<CompletableFuture<?>> results = new ArrayList<>();
+            for (MatchRecord<Integer> match : matches) {
+                match.teams().forEach(team -> team.players().forEach(p -> appearances[p.id()]++));
+                results.add(engine.rate(match));
+            }
+            CompletableFuture.allOf(results.toArray(CompletableFuture<?>[]::new)).join();
+
+            for (int playerId = 0; playerId < PLAYERS; playerId++) {
+                assertThat(engine.get(playerId).join().version()).isEqualTo(2L * appearances[playerId]);
+            }
+        }
+    }
+
+    @Test
+    public void testCopiedSnapshotsCanBePrepared() {
+        List<RatingPartition<Integer>> partitions = partitions(2);
+        // Imitates a remote transport: partitions never receive the snapshot instances they handed out
+        InProcessTransport<Integer> transport = new InProcessTransport<>(partitions) {
+            @Override
+            public CompletableFuture<Boolean> prepare(int partition, Map<Integer, VersionedRating> snapshot) {
+                return super.prepare(partition, copy(snapshot));
+            }
+
+            @Override
+            public CompletableFuture<Void> commit(
+                    int partition,
+                    Map<Integer, VersionedRating> snapshot,
+                    List<RatingAdjustment<Integer>> adjustments
+            ) {
+                return super.commit(partition, copy(snapshot), adjustments);
+            }
+        };
+        PartitionedRatingEngine<Integer> engine = new PartitionedRatingEngine<>(
+                2, (playerId, count) -> playerId % count, transport, matchRater, 1
+        );
+
+        engine.rate(MatchRecord.of(TeamRecord.of(1, 0), TeamRecord.of(2, 1))).join();
+
+        assertThat(engine.get(0).join().version()).isEqualTo(2);
+        assertThat(engine.get(1).join().version()).isEqualTo(2);
+    }
+
+    @Test
+    public void testFailedPrepareAbortsPreparedPartitions() {
+        List<RatingPartition<Integer>> partitions = partitions(2);
+        InProcessTransport<Integer> transport = new InProcessTransport<>(partitions) {
+            @Override
+            public CompletableFuture<Boolean> prepare(int partition, Map<Integer, VersionedRating> snapshot) {
+                return partition == 1
+                        ? CompletableFuture.failedFuture(new IllegalStateException("Partition is down"))
+                        : super.prepare(partition, snapshot);
+            }
+        };
+        PartitionedRatingEngine<Integer> engine = new PartitionedRatingEngine<>(
+                2, (playerId, count) -> playerId % count, transport, matchRater
+        );
+
+        assertThatThrownBy(() -> engine.rate(MatchRecord.of(TeamRecord.of(1, 0), TeamRecord.of(2, 1))).join())
+                .hasRootCauseMessage("Partition is down");
+        assertThat(partitions.get(0).fetch(List.of(0))).isNotNull();
+    }
+
+    @Test
+    public void testGivesUpAfterMaxAttempts() {
+        List<RatingPartition<Integer>> partitions = partitions(2);
+        InProcessTransport<Integer> transport = new InProcessTransport<>(partitions) {
+            @Override
+            public CompletableFuture<Boolean> prepare(int partition, Map<Integer, VersionedRating> snapshot) {
+                return CompletableFuture.completedFuture(false);
+            }
+        };
+        PartitionedRatingEngine<Integer> engine = new PartitionedRatingEngine<>(
+                2, (playerId, count) -> playerId % count, transport, matchRater, 20
+        );
+
+        assertThatThrownBy(() -> engine.rate(MatchRecord.of(TeamRecord.of(1, 0), TeamRecord.of(2, 1))).join())
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(engine.conflicts()).isEqualTo(20);
+    }
+
+    private static Map<Integer, VersionedRating> copy(Map<Integer, VersionedRating> snapshot) {
+        Map<Integer, VersionedRating> copy = new HashMap<>();
+        snapshot.forEach((playerId, rating) ->
+                copy.put(playerId, new VersionedRating(rating.mu(), rating.sigma(), rating.version()))
+        );
+        return copy;
+    }
+
+    private List<RatingPartition<Integer>> partitions(int count) {
+        List<RatingPartition<Integer>> partitions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            partitions.add(new RatingPartition<>(i, new SimpleMatchMakingRating(25.0, 25 / 3.0), matchRater));
+        }
+        return partitions;
+    }
+
+    private static List<MatchRecord<Integer>> randomMatches(Random random, int count) {
+        List<MatchRecord<Integer>> matches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int a = random.nextInt(PLAYERS);
+            int b = (a + 1 + random.nextInt(PLAYERS - 1)) % PLAYERS;
+            int c = (b + 1 + random.nextInt(PLAYERS - 1)) % PLAYERS;
+            if (c == a) {
+                matches.add(MatchRecord.of(TeamRecord.of(1, a), TeamRecord.of(2, b)));
+            } else {
+                matches.add(MatchRecord.of(TeamRecord.of(1, a), TeamRecord.of(2, b), TeamRecord.of(3, c)));
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,131 @@
+package com.pocketcombats.openskill.simulation;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.PlayerRecord;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import com.pocketcombats.openskill.data.TeamRecord;
+import com.pocketcombats.openskill.model.PlackettLuce;
+import com.pocketcombats.openskill.store.InMemoryRatingStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SyntheticMatchGeneratorTest {
+
+    private static final RatingModelConfig CONFIG = RatingModelConfig.builder().build();
+
+    @Test
+    public void testPopulationParties() {
+        SyntheticPopulation population = SyntheticPopulation.builder(10_000)
+                .setParties(0.4, 4)
+                .setSeed(1)
+                .build();
+
+        int grouped = 0;
+        double skillSum = 0.0;
+        for (int player = 0; player < population.size(); player++) {
+            int[] party = population.party(player);
+            assertThat(party).contains(player).hasSizeBetween(1, 4);
+            for (int member : party) {
+                assertThat(population.party(member)).isSameAs(party);
+            }
+            grouped += party.length > 1 ? 1 : 0;
+            skillSum += population.skill(player);
+        }
+        assertThat(grouped).isBetween(3_990, 4_000);
+        assertThat(skillSum / population.size()).isCloseTo(25.0, within(0.3));
+        assertThat(SyntheticPopulation.builder(10_000).setParties(0.4, 4).setSeed(1).build().skill(42))
+                .isEqualTo(population.skill(42));
+    }
+
+    @Test
+    public void testMatchShapes() {
+        SyntheticPopulation population = SyntheticPopulation.builder(1_000).setParties(0.5, 3).setSeed(2).build();
+        SyntheticMatchGenerator generator = SyntheticMatchGenerator.builder(population, CONFIG)
+                .addShape(MatchShape.duel(), 1.0)
+                .addShape(MatchShape.teams(2, 5), 1.0)
+                .addShape(MatchShape.freeForAll(8), 1.0)
+                .setSeed(2)
+                .build();
+
+        int splitParties = 0;
+        int partyMembers = 0;
+        for (int i = 0; i < 3_000; i++) {
+            MatchRecord<Integer> match = generator.next();
+            int teamSize = match.teams().get(0).players().size();
+            assertThat(match.timestamp()).isEqualTo(i + 1);
+            assertThat(match.teams().size() * 10 + teamSize).isIn(21, 25, 81);
+            Set<Integer> seen = new HashSet<>();
+            for (TeamRecord<Integer> team : match.teams()) {
+                assertThat(team.players()).hasSize(teamSize);
+                assertThat(team.rank()).isBetween(1, match.teams().size());
+                Set<Integer> teamPlayers = new HashSet<>();
+                for (PlayerRecord<Integer> player : team.players()) {
+                    assertThat(seen.add(player.id())).isTrue();
+                    teamPlayers.add(player.id());
+                }
+                if (teamSize == 5) {
+                    for (int player : teamPlayers) {
+                        int[] party = population.party(player);
+                        if (party.length > 1) {
+                            partyMembers++;
+                            for (int member : party) {
+                                splitParties += teamPlayers.contains(member) ? 0 : 1;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        // Parties that fit play together, only the last picks of a team may split one
+        assertThat(splitParties).isLessThan(partyMembers / 5);
+    }
+
+    @Test
+    public void testDraws() {
+        SyntheticPopulation population = SyntheticPopulation.builder(100).setSeed(3).build();
+        SyntheticMatchGenerator decisive = SyntheticMatchGenerator.builder(population, CONFIG).setSeed(3).build();
+        SyntheticMatchGenerator drawish = SyntheticMatchGenerator.builder(population, CONFIG)
+                .setDrawMargin(1.0)
+                .setSeed(3)
+                .build();
+
+        int draws = 0;
+        for (int i = 0; i < 10_000; i++) {
+            MatchRecord<Integer> match = decisive.next();
+            assertThat(match.teams().get(0).rank()).isNotEqualTo(match.teams().get(1).rank());
+            match = drawish.next();
+            draws += match.teams().get(0).rank() == match.teams().get(1).rank() ? 1 : 0;
+        }
+        assertThat(draws).isBetween(500, 3_000);
+    }
+
+    @Test
+    public void testRatingsConvergeToSkills() {
+        SyntheticPopulation population = SyntheticPopulation.builder(200).setSeed(4).build();
+        SyntheticMatchGenerator generator = SyntheticMatchGenerator.builder(population, CONFIG)
+                .addShape(MatchShape.duel(), 1.0)
+                .addShape(MatchShape.freeForAll(6), 1.0)
+                .setSeed(4)
+                .build();
+        InMemoryRatingStore<Integer> store = new InMemoryRatingStore<>(25.0, 25.0 / 3);
+        MatchRater<Integer> matchRater =
+                new MatchRater<>(CONFIG, new PlackettLuce(CONFIG), new DefaultTeamRatingAggregator(CONFIG));
+
+        assertThat(population.rankCorrelation(store::get)).isEqualTo(0.0);
+        for (int i = 0; i < 10_000; i++) {
+            store.apply(matchRater.rate(generator.next(), store::get));
+        }
+        assertThat(population.rankCorrelation(store::get)).isGreaterThan(0.9);
+        assertThat(population.rankCorrelation(
+                player -> new SimpleMatchMakingRating(population.skill(player), 1.0)
+        )).isEqualTo(1.0);
+    }
+}
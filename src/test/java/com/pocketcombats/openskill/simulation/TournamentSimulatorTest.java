@@ -0,0 +1,163 @@
+package com.pocketcombats.openskill.simulation;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import com.pocketcombats.openskill.model.RatingModel;
+import com.pocketcombats.openskill.model.ThurstoneMostellerFull;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TournamentSimulatorTest {
+
+    private static final RatingModelConfig CONFIG = RatingModelConfig.builder().build();
+    private static final RatingModel MODEL = new ThurstoneMostellerFull(CONFIG);
+
+    @Test
+    public void testSingleMatchFollowsWinProbability() {
+        MatchMakingRating strong = new SimpleMatchMakingRating(30.0, 4.0);
+        MatchMakingRating weak = new SimpleMatchMakingRating(24.0, 6.0);
+        Map<String, MatchMakingRating> teams = new LinkedHashMap<>();
+        teams.put("strong", strong);
+        teams.put("weak", weak);
+
+        TournamentForecast<String> forecast = TournamentSimulator.builder(MODEL).setSeed(1).build()
+                .simulate(teams, TournamentFormat.singleElimination(), 200_000);
+
+        assertThat(forecast.winProbability("strong"))
+                .isCloseTo(MODEL.winProbability(strong, weak), within(0.005));
+        assertThat(forecast.probability("weak", 2)).isEqualTo(forecast.winProbability("strong"));
+        assertThat(forecast.expectedPosition("strong") + forecast.expectedPosition("weak")).isEqualTo(3.0);
+    }
+
+    @Test
+    public void testEqualTeamsHaveEqualChances() {
+        Map<Integer, MatchMakingRating> teams = equalTeams(8);
+
+        for (TournamentFormat format : List.of(TournamentFormat.singleElimination(), TournamentFormat.roundRobin(2))) {
+            TournamentForecast<Integer> forecast = TournamentSimulator.builder(MODEL).setSeed(2).build()
+                    .simulate(teams, format, 100_000);
+            for (int team = 0; team < 8; team++) {
+                assertThat(forecast.winProbability(team)).isCloseTo(1.0 / 8, within(0.01));
+            }
+        }
+    }
+
+    @Test
+    public void testEveryPositionIsFilledOnce() {
+        Map<Integer, MatchMakingRating> teams = strengthOrderedTeams(11);
+
+        TournamentForecast<Integer> forecast = TournamentSimulator.builder(MODEL).setSeed(3).build()
+                .simulate(teams, TournamentFormat.roundRobin(1), 5_000);
+        for (int position = 1; position <= 11; position++) {
+            assertThat(positionTotal(forecast, 11, position)).isEqualTo(5_000);
+        }
+        assertThat(forecast.winProbability(10)).isGreaterThan(forecast.winProbability(0));
+    }
+
+    @Test
+    public void testKnockoutLosersShareTheirRoundPosition() {
+        // 16 slots with 5 byes: 3 first round losers, then 4 quarter-final and 2 semi-final losers
+        TournamentForecast<Integer> forecast = TournamentSimulator.builder(MODEL).setSeed(3).build()
+                .simulate(strengthOrderedTeams(11), TournamentFormat.singleElimination(), 5_000);
+        Map<Integer, Integer> sharedBy = Map.of(1, 1, 2, 1, 3, 2, 5, 4, 9, 3);
+        for (int position = 1; position <= 11; position++) {
+            assertThat(positionTotal(forecast, 11, position)).isEqualTo(5_000L * sharedBy.getOrDefault(position, 0));
+        }
+        assertThat(forecast.winProbability(10)).isGreaterThan(forecast.winProbability(0));
+
+        TournamentForecast<Integer> semiFinals = TournamentSimulator.builder(MODEL).setSeed(6).build()
+                .simulate(equalTeams(4), TournamentFormat.singleElimination(), 100_000);
+        for (int team = 0; team < 4; team++) {
+            assertThat(semiFinals.probability(team, 3)).isCloseTo(0.5, within(0.01));
+            assertThat(semiFinals.count(team, 4)).isZero();
+        }
+    }
+
+    @Test
+    public void testReproducibleAcrossParallelism() {
+        Map<Integer, MatchMakingRating> teams = new LinkedHashMap<>();
+        for (int team = 0; team < 8; team++) {
+            teams.put(team, new SimpleMatchMakingRating(20.0 + team, 8.0 - team * 0.5));
+        }
+        MatchRater<Integer> matchRater = new MatchRater<>(CONFIG, MODEL, new DefaultTeamRatingAggregator(CONFIG));
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool quad = new ForkJoinPool(4);
+        try {
+            for (MatchRater<Integer> rater : Arrays.asList(null, matchRater)) {
+                TournamentForecast<Integer> first = TournamentSimulator.builder(MODEL)
+                        .setMatchRater(rater).setSeed(4).setPool(single).build()
+                        .simulate(teams, TournamentFormat.roundRobin(2), 3_000);
+                TournamentForecast<Integer> second = TournamentSimulator.builder(MODEL)
+                        .setMatchRater(rater).setSeed(4).setPool(quad).build()
+                        .simulate(teams, TournamentFormat.roundRobin(2), 3_000);
+                for (int team = 0; team < 8; team++) {
+                    for (int position = 1; position <= 8; position++) {
+                        assertThat(second.count(team, position)).isEqualTo(first.count(team, position));
+                    }
+                }
+            }
+        } finally {
+            single.shutdown();
+            quad.shutdown();
+        }
+    }
+
+    @Test
+    public void testRatingUpdatesCarryOverBetweenMatches() {
+        Map<Integer, MatchMakingRating> teams = new LinkedHashMap<>();
+        teams.put(0, new SimpleMatchMakingRating(27.0, 8.0));
+        teams.put(1, new SimpleMatchMakingRating(25.0, 8.0));
+        MatchRater<Integer> matchRater = new MatchRater<>(CONFIG, MODEL, new DefaultTeamRatingAggregator(CONFIG));
+
+        // The first match of every tournament is played on the initial ratings, with the same random draws
+        assertThat(simulate(teams, null, 1).count(0, 1))
+                .isEqualTo(simulate(teams, matchRater, 1).count(0, 1));
+        assertThat(simulate(teams, null, 9).count(0, 1))
+                .isNotEqualTo(simulate(teams, matchRater, 9).count(0, 1));
+    }
+
+    private static TournamentForecast<Integer> simulate(
+            Map<Integer, MatchMakingRating> teams,
+            MatchRater<Integer> matchRater,
+            int legs
+    ) {
+        return TournamentSimulator.builder(MODEL).setMatchRater(matchRater).setSeed(5).build()
+                .simulate(teams, TournamentFormat.roundRobin(legs), 20_000);
+    }
+
+    private static long positionTotal(TournamentForecast<Integer> forecast, int teamCount, int position) {
+        long total = 0;
+        for (int team = 0; team < teamCount; team++) {
+            total += forecast.count(team, position);
+        }
+        return total;
+    }
+
+    private static Map<Integer, MatchMakingRating> strengthOrderedTeams(int count) {
+        Map<Integer, MatchMakingRating> teams = new LinkedHashMap<>();
+        for (int team = 0; team < count; team++) {
+            teams.put(team, new SimpleMatchMakingRating(15.0 + team * 1.5, 5.0));
+        }
+        return teams;
+    }
+
+    private static Map<Integer, MatchMakingRating> equalTeams(int count) {
+        Map<Integer, MatchMakingRating> teams = new LinkedHashMap<>();
+        for (int team = 0; team < count; team++) {
+            teams.put(team, new SimpleMatchMakingRating(25.0, 25.0 / 3));
+        }
+        return teams;
+    }
+}
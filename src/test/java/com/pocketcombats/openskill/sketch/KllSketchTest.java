@@ -0,0 +1,76 @@
+package com.pocketcombats.openskill.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class KllSketchTest {
+
+    @Test
+    public void testRankErrorAndMemoryAreBounded() {
+        KllSketch sketch = new KllSketch(200, new SplittableRandom(1));
+        Random random = new Random(2);
+        double[] values = new double[200_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextGaussian() * 8 + 25;
+            sketch.update(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertThat(sketch.count()).isEqualTo(values.length);
+        assertThat(sketch.retained()).isLessThan(1000);
+        assertThat(sketch.min()).isEqualTo(values[0]);
+        assertThat(sketch.max()).isEqualTo(values[values.length - 1]);
+        for (double fraction : new double[]{0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99}) {
+            double exact = values[(int) (fraction * values.length)];
+            assertThat(sketch.normalizedRank(exact)).isCloseTo(fraction, within(0.01));
+            assertThat(exactRank(values, sketch.quantile(fraction))).isCloseTo(fraction, within(0.01));
+        }
+    }
+
+    @Test
+    public void testMergedSketchMatchesSingleStream() {
+        Random random = new Random(3);
+        KllSketch merged = new KllSketch(200, new SplittableRandom(4));
+        double[] values = new double[100_000];
+        for (int shard = 0; shard < 4; shard++) {
+            KllSketch sketch = new KllSketch(200, new SplittableRandom(shard));
+            for (int i = 0; i < values.length / 4; i++) {
+                double value = random.nextDouble() * (shard + 1);
+                values[shard * values.length / 4 + i] = value;
+                sketch.update(value);
+            }
+            merged.merge(sketch);
+        }
+        Arrays.sort(values);
+
+        assertThat(merged.count()).isEqualTo(values.length);
+        assertThat(merged.retained()).isLessThan(1000);
+        for (double fraction : new double[]{0.05, 0.5, 0.95}) {
+            assertThat(merged.normalizedRank(values[(int) (fraction * values.length)]))
+                    .isCloseTo(fraction, within(0.01));
+        }
+    }
+
+    @Test
+    public void testSmallSketchIsExact() {
+        KllSketch sketch = new KllSketch();
+        for (int i = 1; i <= 100; i++) {
+            sketch.update(i);
+        }
+
+        assertThat(sketch.rank(50)).isEqualTo(50);
+        assertThat(sketch.rank(0)).isZero();
+        assertThat(sketch.quantile(0.5)).isEqualTo(50);
+        assertThat(sketch.quantile(1)).isEqualTo(100);
+    }
+
+    private static double exactRank(double[] sorted, double value) {
+        return (double) KllSketch.upperBound(sorted, value) / sorted.length;
+    }
+}
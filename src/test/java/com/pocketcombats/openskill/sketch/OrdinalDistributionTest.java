@@ -0,0 +1,122 @@
+package com.pocketcombats.openskill.sketch;
+
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import com.pocketcombats.openskill.store.SnapshotRatingStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class OrdinalDistributionTest {
+
+    private final RatingModelConfig config = RatingModelConfig.builder().build();
+
+    @Test
+    public void testTracksPopulationThroughUpdates() {
+        Random random = new Random(1);
+        MatchMakingRating[] ratings = new MatchMakingRating[20_000];
+        OrdinalDistribution distribution = new OrdinalDistribution(config, 400);
+        for (int i = 0; i < ratings.length; i++) {
+            ratings[i] = new SimpleMatchMakingRating(25 + random.nextGaussian() * 5, 8.0);
+            distribution.update(null, ratings[i]);
+        }
+        // Players drift upwards while their uncertainty shrinks
+        for (int i = 0; i < 40_000; i++) {
+            int player = random.nextInt(ratings.length);
+            MatchMakingRating previous = ratings[player];
+            ratings[player] = new SimpleMatchMakingRating(
+                    previous.mu() + random.nextGaussian() + 0.5,
+                    Math.max(1.0, previous.sigma() * 0.9)
+            );
+            distribution.update(previous, ratings[player]);
+        }
+
+        double[] ordinals = Arrays.stream(ratings).mapToDouble(distribution::ordinal).sorted().toArray();
+        assertThat(distribution.count()).isEqualTo(ratings.length);
+        for (double fraction : new double[]{0.05, 0.25, 0.5, 0.75, 0.95}) {
+            double ordinal = ordinals[(int) (fraction * ordinals.length)];
+            assertThat((double) distribution.rank(ordinal) / ratings.length).isCloseTo(fraction, within(0.03));
+            double quantile = distribution.quantile(fraction);
+            assertThat((double) KllSketch.upperBound(ordinals, quantile) / ordinals.length)
+                    .isCloseTo(fraction, within(0.03));
+        }
+    }
+
+    @Test
+    public void testRankTableIsRebuiltAfterRefreshInterval() {
+        OrdinalDistribution distribution = new OrdinalDistribution(config, KllSketch.DEFAULT_K, 10);
+        for (int i = 0; i < 100; i++) {
+            distribution.add(new SimpleMatchMakingRating(20 + i * 0.1, 3.0));
+        }
+        double median = distribution.ordinal(new SimpleMatchMakingRating(25.0, 3.0));
+        long rank = distribution.rank(median);
+
+        MatchMakingRating low = new SimpleMatchMakingRating(0.0, 3.0);
+        for (int i = 0; i < 10; i++) {
+            distribution.add(low);
+        }
+        // Within the refresh interval queries may use the cached table, but the count is current
+        assertThat(distribution.rank(median)).isEqualTo(rank);
+        assertThat(distribution.count()).isEqualTo(110);
+
+        distribution.add(low);
+        assertThat(distribution.rank(median)).isEqualTo(rank + 11);
+
+        distribution.remove(low);
+        distribution.refresh();
+        assertThat(distribution.rank(median)).isEqualTo(rank + 10);
+    }
+
+    @Test
+    public void testSnapshotDistributionUsesGivenRefreshInterval() {
+        SnapshotRatingStore<Integer> store = new SnapshotRatingStore<>(25.0, 25 / 3.0);
+        List<RatingAdjustment<Integer>> adjustments = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            adjustments.add(new RatingAdjustment<>(i, 20 + i * 0.1, 3.0));
+        }
+        store.apply(adjustments);
+        OrdinalDistribution distribution = OrdinalDistribution.of(config, store.snapshot(), KllSketch.DEFAULT_K, 0);
+        double median = distribution.ordinal(new SimpleMatchMakingRating(25.0, 3.0));
+        long rank = distribution.rank(median);
+
+        distribution.add(new SimpleMatchMakingRating(0.0, 3.0));
+        assertThat(distribution.rank(median)).isEqualTo(rank + 1);
+    }
+
+    @Test
+    public void testShardsMergeIntoPopulation() {
+        Random random = new Random(2);
+        List<OrdinalDistribution> shards = new ArrayList<>();
+        SnapshotRatingStore<Integer> store = new SnapshotRatingStore<>(25.0, 25 / 3.0);
+        List<RatingAdjustment<Integer>> adjustments = new ArrayList<>();
+        for (int shard = 0; shard < 4; shard++) {
+            OrdinalDistribution distribution = new OrdinalDistribution(config);
+            for (int i = 0; i < 5000; i++) {
+                RatingAdjustment<Integer> rating =
+                        new RatingAdjustment<>(shard * 5000 + i, 10 + random.nextDouble() * 30, 3.0);
+                distribution.add(rating);
+                adjustments.add(rating);
+            }
+            shards.add(distribution);
+        }
+        store.apply(adjustments);
+
+        OrdinalDistribution merged = new OrdinalDistribution(config);
+        shards.forEach(merged::merge);
+        OrdinalDistribution rebuilt = OrdinalDistribution.of(config, store.snapshot());
+
+        MatchMakingRating median = new SimpleMatchMakingRating(25.0, 3.0);
+        assertThat(merged.count()).isEqualTo(20_000);
+        assertThat(merged.percentile(median)).isCloseTo(0.5, within(0.02));
+        assertThat(rebuilt.count()).isEqualTo(20_000);
+        assertThat(rebuilt.percentile(median)).isCloseTo(0.5, within(0.02));
+    }
+}
@@ -0,0 +1,90 @@
+package com.pocketcombats.openskill.store;
+
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileRatingStoreTest {
+
+    private static final SimpleMatchMakingRating INITIAL = new SimpleMatchMakingRating(25.0, 25.0 / 3);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testGrowsAndReopens() throws IOException {
+        Path path = directory.resolve("ratings.bin");
+        SplittableRandom random = new SplittableRandom(1);
+        List<RatingAdjustment<Long>> adjustments = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            long playerId = random.nextLong();
+            adjustments.add(new RatingAdjustment<>(playerId, random.nextDouble() * 50, random.nextDouble() * 8));
+        }
+
+        try (FileRatingStore store = new FileRatingStore(path, INITIAL)) {
+            assertThat(store.get(42L)).isEqualTo(INITIAL);
+            for (int from = 0; from < adjustments.size(); from += 1_000) {
+                store.apply(adjustments.subList(from, from + 1_000));
+            }
+            store.apply(List.of(new RatingAdjustment<>(0L, 30.0, 2.0), new RatingAdjustment<>(0L, 31.0, 1.5)));
+            assertThat(store.size()).isEqualTo(20_001);
+        }
+
+        try (FileRatingStore store = new FileRatingStore(path, INITIAL)) {
+            assertThat(store.size()).isEqualTo(20_001);
+            for (RatingAdjustment<Long> adjustment : adjustments) {
+                assertThat(store.get(adjustment.playerId()))
+                        .isEqualTo(new SimpleMatchMakingRating(adjustment.mu(), adjustment.sigma()));
+            }
+            assertThat(store.get(0L)).isEqualTo(new SimpleMatchMakingRating(31.0, 1.5));
+            assertThat(store.get(1L)).isEqualTo(INITIAL);
+        }
+    }
+
+    @Test
+    public void testMapsTableInSegments() throws IOException {
+        Path path = directory.resolve("segmented.bin");
+        SplittableRandom random = new SplittableRandom(2);
+        List<RatingAdjustment<Long>> adjustments = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            long playerId = random.nextLong();
+            adjustments.add(new RatingAdjustment<>(playerId, random.nextDouble() * 50, random.nextDouble() * 8));
+        }
+
+        try (FileRatingStore store = new FileRatingStore(path, INITIAL, 256)) {
+            store.apply(adjustments);
+            for (RatingAdjustment<Long> adjustment : adjustments) {
+                assertThat(store.get(adjustment.playerId()))
+                        .isEqualTo(new SimpleMatchMakingRating(adjustment.mu(), adjustment.sigma()));
+            }
+        }
+
+        // The file layout does not depend on the segment size
+        try (FileRatingStore store = new FileRatingStore(path, INITIAL)) {
+            assertThat(store.size()).isEqualTo(5_000);
+            for (RatingAdjustment<Long> adjustment : adjustments) {
+                assertThat(store.get(adjustment.playerId()))
+                        .isEqualTo(new SimpleMatchMakingRating(adjustment.mu(), adjustment.sigma()));
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsForeignFile() throws IOException {
+        Path path = directory.resolve("foreign.bin");
+        Files.write(path, new byte[256]);
+
+        assertThatThrownBy(() -> new FileRatingStore(path, INITIAL)).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,153 @@
+package com.pocketcombats.openskill.store;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator;
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import com.pocketcombats.openskill.data.TeamRecord;
+import com.pocketcombats.openskill.model.BradleyTerryFull;
+import com.pocketcombats.openskill.model.PlackettLuce;
+import com.pocketcombats.openskill.model.ThurstoneMostellerFull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MultiModeRatingStoreTest {
+
+    private static final RatingModelConfig CONFIG = RatingModelConfig.builder().build();
+    private static final RatingModelConfig ARENA_CONFIG = RatingModelConfig.builder().setBeta(3.0).build();
+
+    @Test
+    public void testModesAreRatedIndependently() {
+        MultiModeRatingStore<Integer> store = store();
+        MultiModeRatingStore<Integer>.Mode solo = store.mode("solo");
+        MultiModeRatingStore<Integer>.Mode arena = store.mode("arena");
+
+        solo.rate(MatchRecord.of(TeamRecord.of(1, 1), TeamRecord.of(2, 2)));
+
+        assertThat(solo.get(1).mu()).isGreaterThan(25.0);
+        assertThat(solo.get(2).mu()).isLessThan(25.0);
+        assertThat(store.mode("duo").get(1)).isEqualTo(new SimpleMatchMakingRating(25.0, 25.0 / 3));
+        assertThat(arena.get(1)).isEqualTo(new SimpleMatchMakingRating(1500.0 / 60, 5.0));
+        assertThat(store.getAll(1)).containsExactly(
+                solo.get(1), store.mode("duo").get(1), store.mode("squad").get(1), arena.get(1)
+        );
+        assertThat(store.getAll(3)).containsExactly(
+                new SimpleMatchMakingRating(25.0, 25.0 / 3),
+                new SimpleMatchMakingRating(25.0, 25.0 / 3),
+                new SimpleMatchMakingRating(25.0, 25.0 / 3),
+                new SimpleMatchMakingRating(1500.0 / 60, 5.0)
+        );
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testMatchesSeparateStores() {
+        MultiModeRatingStore<Integer> store = store();
+        List<InMemoryRatingStore<Integer>> separate = new ArrayList<>();
+        for (MultiModeRatingStore<Integer>.Mode mode : store.modes()) {
+            separate.add(new InMemoryRatingStore<>(mode.get(-1)));
+        }
+
+        SplittableRandom random = new SplittableRandom(1);
+        for (int match = 0; match < 2_000; match++) {
+            int mode = random.nextInt(store.modes().size());
+            MatchRecord<Integer> record = randomMatch(random, 1 + mode);
+            store.modes().get(mode).rate(record);
+            MatchRater<Integer> matchRater = store.modes().get(mode).matchRater();
+            separate.get(mode).apply(matchRater.rate(record, separate.get(mode)::get));
+        }
+
+        for (int player = 0; player < 50; player++) {
+            List<MatchMakingRating> all = store.getAll(player);
+            for (int mode = 0; mode < all.size(); mode++) {
+                MatchMakingRating expected = separate.get(mode).get(player);
+                assertThat(all.get(mode).mu()).isEqualTo(expected.mu());
+                assertThat(all.get(mode).sigma()).isEqualTo(expected.sigma());
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentModesDoNotOverwriteEachOther() {
+        MultiModeRatingStore<Integer> concurrent = store();
+        MultiModeRatingStore<Integer> sequential = store();
+        List<List<MatchRecord<Integer>>> matches = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(2);
+        for (int mode = 0; mode < 4; mode++) {
+            List<MatchRecord<Integer>> modeMatches = new ArrayList<>();
+            for (int match = 0; match < 5_000; match++) {
+                modeMatches.add(randomMatch(random, 1 + mode));
+            }
+            matches.add(modeMatches);
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int mode = 0; mode < 4; mode++) {
+            MultiModeRatingStore<Integer>.Mode concurrentMode = concurrent.modes().get(mode);
+            List<MatchRecord<Integer>> modeMatches = matches.get(mode);
+            futures.add(CompletableFuture.runAsync(() -> modeMatches.forEach(concurrentMode::rate)));
+            matches.get(mode).forEach(sequential.modes().get(mode)::rate);
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+        for (int player = 0; player < 50; player++) {
+            assertThat(concurrent.getAll(player)).isEqualTo(sequential.getAll(player));
+        }
+    }
+
+    @Test
+    public void testModeNames() {
+        MultiModeRatingStore<Integer> store = store();
+
+        assertThat(store.modes()).extracting(MultiModeRatingStore.Mode::name)
+                .containsExactly("solo", "duo", "squad", "arena");
+        assertThatThrownBy(() -> store.mode("ranked")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MultiModeRatingStore.<Integer>builder()
+                .addMode("solo", CONFIG, new PlackettLuce(CONFIG))
+                .addMode("solo", CONFIG, new PlackettLuce(CONFIG))
+        ).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MultiModeRatingStore.builder().build()).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static MultiModeRatingStore<Integer> store() {
+        return MultiModeRatingStore.<Integer>builder()
+                .addMode("solo", CONFIG, new ThurstoneMostellerFull(CONFIG))
+                .addMode("duo", CONFIG, new BradleyTerryFull(CONFIG))
+                .addMode("squad", CONFIG, new PlackettLuce(CONFIG))
+                .addMode(
+                        "arena",
+                        new MatchRater<>(
+                                ARENA_CONFIG,
+                                new ThurstoneMostellerFull(ARENA_CONFIG),
+                                new DefaultTeamRatingAggregator(ARENA_CONFIG)
+                        ),
+                        new SimpleMatchMakingRating(1500.0 / 60, 5.0)
+                )
+                .build();
+    }
+
+    private static MatchRecord<Integer> randomMatch(SplittableRandom random, int teamSize) {
+        List<Integer> players = new ArrayList<>();
+        while (players.size() < teamSize * 2) {
+            int player = random.nextInt(50);
+            if (!players.contains(player)) {
+                players.add(player);
+            }
+        }
+        List<TeamRecord<Integer>> teams = new ArrayList<>();
+        for (int team = 0; team < 2; team++) {
+            teams.add(TeamRecord.of(team + 1, players.subList(team * teamSize, (team + 1) * teamSize)
+                    .toArray(new Integer[0])));
+        }
+        return new MatchRecord<>(teams);
+    }
+}
@@ -0,0 +1,126 @@
+package com.pocketcombats.openskill.store;
+
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotRatingStoreTest {
+
+    @Test
+    public void testSnapshotIsNotAffectedByLaterBatches() {
+        SnapshotRatingStore<Integer> store = new SnapshotRatingStore<>(25.0, 25 / 3.0);
+        store.apply(List.of(new RatingAdjustment<>(1, 30.0, 7.0)));
+        RatingSnapshot<Integer> first = store.snapshot();
+
+        store.apply(List.of(new RatingAdjustment<>(1, 31.0, 6.0), new RatingAdjustment<>(2, 20.0, 5.0)));
+
+        assertThat(first.epoch()).isEqualTo(1);
+        assertThat(first.size()).isEqualTo(1);
+        assertThat(first.mu(1)).isEqualTo(30.0);
+        assertThat(first.contains(2)).isFalse();
+        assertThat(first.get(2).mu()).isEqualTo(25.0);
+
+        RatingSnapshot<Integer> second = store.snapshot();
+        assertThat(second.epoch()).isEqualTo(2);
+        assertThat(second.get(1).mu()).isEqualTo(31.0);
+        assertThat(second.get(1).sigma()).isEqualTo(6.0);
+        assertThat(second.sigma(2)).isEqualTo(5.0);
+        assertThat(store.get(2).mu()).isEqualTo(20.0);
+    }
+
+    @Test
+    public void testOnlyTouchedChunksAreCopied() {
+        SnapshotRatingStore<Integer> store = new SnapshotRatingStore<>(25.0, 25 / 3.0);
+        List<RatingAdjustment<Integer>> players = new ArrayList<>();
+        for (int i = 0; i < SnapshotRatingStore.CHUNK_SIZE * 4; i++) {
+            players.add(new RatingAdjustment<>(i, 25.0, 8.0));
+        }
+        store.apply(players);
+        assertThat(store.copiedChunks()).isZero();
+
+        // Two players of the same chunk and a new player: one copy
+        store.apply(List.of(
+                new RatingAdjustment<>(1, 26.0, 7.0),
+                new RatingAdjustment<>(2, 24.0, 7.0),
+                new RatingAdjustment<>(-1, 24.0, 7.0)
+        ));
+        assertThat(store.copiedChunks()).isEqualTo(1);
+        assertThat(store.snapshot().size()).isEqualTo(SnapshotRatingStore.CHUNK_SIZE * 4 + 1);
+    }
+
+    @Test
+    public void testForEachVisitsPlayersInInsertionOrder() {
+        SnapshotRatingStore<String> store = new SnapshotRatingStore<>(25.0, 25 / 3.0);
+        store.apply(List.of(new RatingAdjustment<>("b", 1.0, 2.0), new RatingAdjustment<>("a", 3.0, 4.0)));
+        List<String> visited = new ArrayList<>();
+        store.snapshot().forEach((id, mu, sigma) -> visited.add(id + ":" + mu + ":" + sigma));
+
+        assertThat(visited).containsExactly("b:1.0:2.0", "a:3.0:4.0");
+    }
+
+    @Test
+    public void testReadersObserveWholeBatches() throws InterruptedException {
+        // Every batch moves rating between two players, so the total is the same in every consistent snapshot
+        int players = 2000;
+        SnapshotRatingStore<Integer> store = new SnapshotRatingStore<>(25.0, 25 / 3.0);
+        List<RatingAdjustment<Integer>> initial = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            initial.add(new RatingAdjustment<>(i, 25.0, 8.0));
+        }
+        store.apply(initial);
+        double total = 25.0 * players;
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        AtomicLong snapshotsChecked = new AtomicLong();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 2; r++) {
+            Thread reader = new Thread(() -> {
+                while (!done.get() && failure.get() == null) {
+                    RatingSnapshot<Integer> snapshot = store.snapshot();
+                    double sum = 0;
+                    for (int i = 0; i < players; i++) {
+                        sum += snapshot.mu(i);
+                    }
+                    if (Math.abs(sum - total) > 1E-6) {
+                        failure.set("Epoch " + snapshot.epoch() + " total " + sum);
+                    }
+                    snapshotsChecked.incrementAndGet();
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        RatingSnapshot<Integer> snapshot = store.snapshot();
+        for (int batch = 0; batch < 2000; batch++) {
+            int from = (batch * 7919) % players;
+            int to = (batch * 104729 + 1) % players;
+            if (from == to) {
+                continue;
+            }
+            store.apply(List.of(
+                    new RatingAdjustment<>(from, store.get(from).mu() - 1.0, 8.0),
+                    new RatingAdjustment<>(to, store.get(to).mu() + 1.0, 8.0)
+            ));
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertThat(failure.get()).isNull();
+        assertThat(snapshotsChecked.get()).isPositive();
+        // Snapshot taken before the batches is unchanged
+        for (int i = 0; i < players; i++) {
+            assertThat(snapshot.mu(i)).isEqualTo(25.0);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.pocketcombats.openskill.store;
+
+import com.pocketcombats.openskill.data.MatchMakingRating;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.SimpleMatchMakingRating;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TieredRatingStoreTest {
+
+    private static final SimpleMatchMakingRating INITIAL = new SimpleMatchMakingRating(25.0, 25.0 / 3);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testReadsLatestRatingsWithBothPolicies() throws IOException {
+        for (CachePolicy policy : CachePolicy.values()) {
+            InMemoryRatingStore<Long> reference = new InMemoryRatingStore<>(INITIAL);
+            try (FileRatingStore cold = new FileRatingStore(directory.resolve(policy + ".bin"), INITIAL)) {
+                TieredRatingStore<Long> store = TieredRatingStore.builder(cold)
+                        .setCapacity(200)
+                        .setPolicy(policy)
+                        .setBatchSize(64)
+                        .build();
+                SplittableRandom random = new SplittableRandom(1);
+                for (int i = 0; i < 50_000; i++) {
+                    long playerId = random.nextInt(2_000);
+                    if (random.nextInt(3) == 0) {
+                        List<RatingAdjustment<Long>> update = List.of(
+                                new RatingAdjustment<>(playerId, random.nextDouble() * 50, random.nextDouble() * 8)
+                        );
+                        store.apply(update);
+                        reference.apply(update);
+                    } else {
+                        assertThat(asSimple(store.get(playerId))).isEqualTo(asSimple(reference.get(playerId)));
+                    }
+                }
+                assertThat(store.cachedSize()).isLessThanOrEqualTo(200);
+                store.close();
+
+                for (long playerId = 0; playerId < 2_000; playerId++) {
+                    assertThat(asSimple(cold.get(playerId))).isEqualTo(asSimple(reference.get(playerId)));
+                }
+                TieredStoreStats stats = store.stats();
+                assertThat(stats.evictions()).isPositive();
+                assertThat(stats.flushes()).isPositive();
+                assertThat(stats.writtenBack()).isLessThanOrEqualTo(50_000);
+                assertThat(stats.hits() + stats.misses()).isGreaterThan(30_000);
+            }
+        }
+    }
+
+    @Test
+    public void testWritesBehindInBackground() throws InterruptedException {
+        InMemoryRatingStore<Long> cold = new InMemoryRatingStore<>(INITIAL);
+        try (TieredRatingStore<Long> store = TieredRatingStore.builder(cold)
+                .setBatchSize(1_000)
+                .setFlushInterval(Duration.ofMillis(10))
+                .build()) {
+            store.apply(List.of(new RatingAdjustment<>(1L, 30.0, 3.0)));
+            assertThat(store.get(1L).mu()).isEqualTo(30.0);
+
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (cold.get(1L).mu() != 30.0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertThat(cold.get(1L).mu()).isEqualTo(30.0);
+        }
+    }
+
+    @Test
+    public void testTinyLfuResistsScans() {
+        double lru = scanHitRate(CachePolicy.LRU);
+        double tinyLfu = scanHitRate(CachePolicy.W_TINY_LFU);
+
+        assertThat(tinyLfu).isGreaterThan(lru + 0.2);
+    }
+
+    @Test
+    public void testFailedWritesAreRetried() {
+        FailingStore cold = new FailingStore();
+        TieredRatingStore<Long> store = TieredRatingStore.builder(cold).build();
+        store.apply(List.of(new RatingAdjustment<>(1L, 30.0, 3.0)));
+
+        cold.failing = true;
+        assertThatThrownBy(store::flush).isInstanceOf(IllegalStateException.class);
+        store.apply(List.of(new RatingAdjustment<>(2L, 20.0, 3.0)));
+        cold.failing = false;
+        store.close();
+
+        assertThat(cold.get(1L).mu()).isEqualTo(30.0);
+        assertThat(cold.get(2L).mu()).isEqualTo(20.0);
+        assertThat(store.stats().flushFailures()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void testBacklogWriteFailuresAreNotThrown() {
+        FailingStore cold = new FailingStore();
+        cold.failing = true;
+        TieredRatingStore<Long> store = TieredRatingStore.builder(cold).setBatchSize(1).build();
+        for (long playerId = 0; playerId < 20; playerId++) {
+            store.apply(List.of(new RatingAdjustment<>(playerId, 30.0, 3.0)));
+        }
+        assertThat(store.stats().flushFailures()).isPositive();
+
+        cold.failing = false;
+        store.close();
+        for (long playerId = 0; playerId < 20; playerId++) {
+            assertThat(cold.get(playerId).mu()).isEqualTo(30.0);
+        }
+    }
+
+    @Test
+    public void testRejectsUpdatesAfterClose() {
+        InMemoryRatingStore<Long> cold = new InMemoryRatingStore<>(INITIAL);
+        TieredRatingStore<Long> store = TieredRatingStore.builder(cold).setBatchSize(1).build();
+        store.apply(List.of(new RatingAdjustment<>(1L, 30.0, 3.0)));
+        store.close();
+        store.close();
+
+        assertThatThrownBy(() -> store.apply(List.of(new RatingAdjustment<>(2L, 20.0, 3.0))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Store is closed");
+        assertThat(store.get(1L).mu()).isEqualTo(30.0);
+        assertThat(cold.get(1L).mu()).isEqualTo(30.0);
+    }
+
+    @Test
+    public void testConcurrentUpdates() {
+        InMemoryRatingStore<Long> cold = new InMemoryRatingStore<>(INITIAL);
+        TieredRatingStore<Long> store = TieredRatingStore.builder(cold)
+                .setCapacity(100)
+                .setBatchSize(16)
+                .build();
+        List<CompletableFuture<Void>> writers = new ArrayList<>();
+        for (int writer = 0; writer < 4; writer++) {
+            long first = writer * 1_000L;
+            writers.add(CompletableFuture.runAsync(() -> {
+                // Every writer owns its players, so the last update of each is known
+                for (int round = 1; round <= 20; round++) {
+                    for (long playerId = first; playerId < first + 500; playerId++) {
+                        MatchMakingRating current = store.get(playerId);
+                        store.apply(List.of(new RatingAdjustment<>(playerId, current.mu() + 1, current.sigma())));
+                    }
+                }
+            }));
+        }
+        CompletableFuture.allOf(writers.toArray(new CompletableFuture<?>[0])).join();
+        store.close();
+
+        for (int writer = 0; writer < 4; writer++) {
+            for (long playerId = writer * 1_000L; playerId < writer * 1_000L + 500; playerId++) {
+                assertThat(cold.get(playerId).mu()).isEqualTo(45.0);
+            }
+        }
+    }
+
+    /**
+     * Hit rate on a skewed workload of 100 hot players mixed with one-off lookups of ever new players.
+     */
+    private static double scanHitRate(CachePolicy policy) {
+        TieredRatingStore<Long> store = TieredRatingStore.builder(new InMemoryRatingStore<Long>(INITIAL))
+                .setCapacity(200)
+                .setPolicy(policy)
+                .build();
+        SplittableRandom random = new SplittableRandom(2);
+        long scanned = 1_000_000;
+        for (int i = 0; i < 100_000; i++) {
+            store.get(random.nextInt(3) == 0 ? random.nextLong(100) : scanned++);
+        }
+        store.close();
+        return store.stats().hitRate() * 3;
+    }
+
+    private static SimpleMatchMakingRating asSimple(MatchMakingRating rating) {
+        return new SimpleMatchMakingRating(rating.mu(), rating.sigma());
+    }
+
+    private static final class FailingStore extends InMemoryRatingStore<Long> {
+
+        private volatile boolean failing;
+
+        private FailingStore() {
+            super(INITIAL);
+        }
+
+        @Override
+        public void apply(Collection<? extends RatingAdjustment<Long>> adjustments) {
+            if (failing) {
+                throw new IllegalStateException("Cold tier is down");
+            }
+            super.apply(adjustments);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.pocketcombats.openskill.store;
+
+import com.pocketcombats.openskill.MatchRater;
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.aggregate.DefaultTeamRatingAggregator;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.RatingAdjustment;
+import com.pocketcombats.openskill.data.TeamRecord;
+import com.pocketcombats.openskill.model.BradleyTerryFull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VersionedRatingStoreTest {
+
+    private final RatingModelConfig config = RatingModelConfig.builder().build();
+    private final MatchRater<Integer> matchRater = new MatchRater<>(
+            config,
+            new BradleyTerryFull(config),
+            new DefaultTeamRatingAggregator(config)
+    );
+
+    @Test
+    public void testRateCommitsNewVersion() {
+        VersionedRatingStore<Integer> store = new VersionedRatingStore<>(25.0, 25 / 3.0);
+        List<RatingAdjustment<Integer>> adjustments =
+                store.rate(MatchRecord.of(TeamRecord.of(1, 1), TeamRecord.of(2, 2)), matchRater);
+
+        assertThat(store.get(1).version()).isEqualTo(2);
+        assertThat(store.get(1).mu()).isEqualTo(adjustments.get(0).mu());
+        assertThat(store.get(2).mu()).isEqualTo(adjustments.get(1).mu());
+        assertThat(store.get(3).version()).isZero();
+        assertThat(store.commits()).isEqualTo(1);
+    }
+
+    @Test
+    public void testStaleSnapshotIsNotLocked() {
+        VersionedRatingStore<Integer> store = new VersionedRatingStore<>(25.0, 25 / 3.0);
+        Map<Integer, VersionedRating> snapshot = store.snapshot(Set.of(1, 2));
+        store.rate(MatchRecord.of(TeamRecord.of(1, 2), TeamRecord.of(2, 3)), matchRater);
+
+        assertThat(store.tryLock(snapshot)).isFalse();
+        // Player 1 must have been restored after the failed attempt
+        assertThat(store.tryLock(store.snapshot(Set.of(1)))).isTrue();
+    }
+
+    @Test
+    public void testReadersSeeCommittedRatingWhileLocked() {
+        VersionedRatingStore<Integer> store = new VersionedRatingStore<>(25.0, 25 / 3.0);
+        store.apply(List.of(new RatingAdjustment<>(1, 30.0, 5.0)));
+        Map<Integer, VersionedRating> snapshot = store.snapshot(Set.of(1));
+
+        assertThat(store.tryLock(snapshot)).isTrue();
+        assertThat(store.get(1)).isEqualTo(new VersionedRating(30.0, 5.0, 2));
+
+        store.commit(snapshot, List.of(new RatingAdjustment<>(1, 31.0, 4.0)));
+        assertThat(store.get(1)).isEqualTo(new VersionedRating(31.0, 4.0, 4));
+    }
+
+    @Test
+    public void testCopiedSnapshotIsLocked() {
+        VersionedRatingStore<Integer> store = new VersionedRatingStore<>(25.0, 25 / 3.0);
+        store.apply(List.of(new RatingAdjustment<>(1, 30.0, 5.0)));
+        Map<Integer, VersionedRating> copy = new HashMap<>();
+        store.snapshot(Set.of(1, 2)).forEach((playerId, rating) ->
+                copy.put(playerId, new VersionedRating(rating.mu(), rating.sigma(), rating.version()))
+        );
+
+        assertThat(store.tryLock(copy)).isTrue();
+        store.commit(copy, List.of(new RatingAdjustment<>(1, 31.0, 4.0)));
+        assertThat(store.get(1)).isEqualTo(new VersionedRating(31.0, 4.0, 4));
+        assertThat(store.tryLock(copy)).isFalse();
+    }
+
+    @Test
+    public void testRejectedCommitUnlocksAllPlayers() {
+        VersionedRatingStore<Integer> store = new VersionedRatingStore<>(25.0, 25 / 3.0);
+        store.apply(List.of(new RatingAdjustment<>(1, 30.0, 5.0)));
+        Map<Integer, VersionedRating> snapshot = store.snapshot(Set.of(1, 2));
+        VersionedRatingStore<Integer>.PreparedCommit commit = store.prepare(snapshot);
+        assertThat(commit).isNotNull();
+
+        assertThatThrownBy(() -> commit.commit(List.of(
+                new RatingAdjustment<>(1, 31.0, 4.0),
+                new RatingAdjustment<>(3, 20.0, 4.0)
+        ))).isInstanceOf(IllegalArgumentException.class);
+        assertThat(store.trySnapshot(Set.of(1, 2))).isEqualTo(snapshot);
+        assertThatThrownBy(commit::abort).isInstanceOf(IllegalStateException.class);
+
+        store.apply(List.of(new RatingAdjustment<>(1, 32.0, 4.0)));
+        assertThat(store.get(1).mu()).isEqualTo(32.0);
+    }
+
+    @Test
+    public void testConcurrentMatchesAreSerializable() throws InterruptedException {
+        VersionedRatingStore<Integer> store = new VersionedRatingStore<>(25.0, 25 / 3.0);
+        int players = 8;
+        int threads = 8;
+        int matchesPerThread = 2_000;
+        int[][] appearances = new int[threads][players];
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int[] counts = appearances[t];
+            Random random = new Random(t);
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < matchesPerThread; i++) {
+                    int a = random.nextInt(players);
+                    int b = (a + 1 + random.nextInt(players - 1)) % players;
+                    store.rate(MatchRecord.of(TeamRecord.of(1, a), TeamRecord.of(2, b)), matchRater);
+                    counts[a]++;
+                    counts[b]++;
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertThat(store.commits()).isEqualTo((long) threads * matchesPerThread);
+        for (int player = 0; player < players; player++) {
+            int total = 0;
+            for (int[] counts : appearances) {
+                total += counts[player];
+            }
+            // Every committed match bumps the version of each of its players exactly once
+            assertThat(store.get(player).version()).isEqualTo(2L * total);
+        }
+    }
+}
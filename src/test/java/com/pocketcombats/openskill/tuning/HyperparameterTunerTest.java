@@ -0,0 +1,114 @@
+package com.pocketcombats.openskill.tuning;
+
+import com.pocketcombats.openskill.RatingModelConfig;
+import com.pocketcombats.openskill.data.MatchRecord;
+import com.pocketcombats.openskill.data.TeamRecord;
+import com.pocketcombats.openskill.history.MatchLog;
+import com.pocketcombats.openskill.model.ThurstoneMostellerFull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HyperparameterTunerTest {
+
+    @Test
+    public void testGridIsCartesianProduct() {
+        List<RatingModelConfig> configs = new TuningGrid()
+                .setBeta(2.0, 4.0, 8.0)
+                .setTau(0.0, 0.1)
+                .setLimitSigma(true, false)
+                .configs();
+
+        assertThat(configs).hasSize(12);
+        assertThat(configs).extracting(RatingModelConfig::beta).containsOnly(2.0, 4.0, 8.0);
+        assertThat(configs).extracting(RatingModelConfig::kappa)
+                .containsOnly(RatingModelConfig.builder().build().kappa());
+        assertThat(configs).doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void testReplayLearnsSkills() {
+        MatchLog<Integer> log = MatchLog.of(randomMatches(new Random(3), 40, 2000, 2.0));
+        HyperparameterTuner<Integer> tuner = HyperparameterTuner.builder(log, ThurstoneMostellerFull::new)
+                .setWarmupMatches(500)
+                .build();
+
+        TuningResult result = tuner.evaluate(RatingModelConfig.builder().build(), log.matchCount());
+
+        assertThat(result.matches()).isEqualTo(2000);
+        assertThat(result.predictions()).isEqualTo(1500);
+        assertThat(result.score()).isLessThan(Math.log(2));
+    }
+
+    @Test
+    public void testGridSearchIsSortedAndDeterministic() {
+        MatchLog<Integer> log = MatchLog.of(randomMatches(new Random(7), 30, 1500, 2.0));
+        List<RatingModelConfig> configs = new TuningGrid()
+                .setBeta(0.5, 2.0, 25.0 / 6, 40.0)
+                .setTau(0.0, 0.5)
+                .configs();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<TuningResult> parallel = HyperparameterTuner.builder(log, ThurstoneMostellerFull::new)
+                    .setScoringRule(ScoringRule.BRIER)
+                    .setPool(pool)
+                    .build()
+                    .gridSearch(configs);
+            List<TuningResult> sequential = HyperparameterTuner.builder(log, ThurstoneMostellerFull::new)
+                    .setScoringRule(ScoringRule.BRIER)
+                    .setPool(new ForkJoinPool(1))
+                    .build()
+                    .gridSearch(configs);
+
+            assertThat(parallel).hasSize(configs.size());
+            assertThat(parallel).isSortedAccordingTo((a, b) -> Double.compare(a.score(), b.score()));
+            assertThat(parallel).isEqualTo(sequential);
+            assertThat(parallel.get(0).score()).isBetween(0.0, 0.25);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSuccessiveHalvingKeepsGoodCandidates() {
+        MatchLog<Integer> log = MatchLog.of(randomMatches(new Random(11), 30, 4000, 2.0));
+        List<RatingModelConfig> configs = new TuningGrid()
+                .setBeta(0.1, 2.0, 4.0, 80.0)
+                .setTau(0.0, 5.0)
+                .configs();
+        HyperparameterTuner<Integer> tuner = HyperparameterTuner.builder(log, ThurstoneMostellerFull::new)
+                .setWarmupMatches(100)
+                .build();
+
+        List<TuningResult> grid = tuner.gridSearch(configs);
+        List<TuningResult> halving = tuner.successiveHalving(configs, 500, 2);
+
+        assertThat(halving).hasSize(1);
+        assertThat(halving.get(0).matches()).isEqualTo(log.matchCount());
+        // Finalist must be among the better half of the exhaustive search
+        assertThat(grid.subList(0, grid.size() / 2)).contains(halving.get(0));
+    }
+
+    private static List<MatchRecord<Integer>> randomMatches(Random random, int players, int matches, double noise) {
+        double[] skill = new double[players];
+        for (int i = 0; i < players; i++) {
+            skill[i] = 25.0 + random.nextGaussian() * 8.0;
+        }
+        List<MatchRecord<Integer>> result = new ArrayList<>(matches);
+        for (int i = 0; i < matches; i++) {
+            int a = random.nextInt(players);
+            int b = random.nextInt(players - 1);
+            if (b >= a) {
+                b++;
+            }
+            boolean aWins = skill[a] + random.nextGaussian() * noise > skill[b] + random.nextGaussian() * noise;
+            result.add(MatchRecord.of(TeamRecord.of(aWins ? 1 : 2, a), TeamRecord.of(aWins ? 2 : 1, b)));
+        }
+        return result;
+    }
+}